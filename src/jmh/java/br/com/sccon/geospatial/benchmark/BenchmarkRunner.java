@@ -0,0 +1,60 @@
+package br.com.sccon.geospatial.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the selected benchmarks once per thread count and writes every result
+ * into a single JMH JSON file.
+ * <p>
+ * Regular JMH command line options are accepted (benchmark filters,
+ * {@code -p size=1000}, {@code -f}, ...). Thread counts come from the
+ * {@code jmh.threads} system property (comma separated) and the output file
+ * from {@code jmh.output}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        Options commandLine = new CommandLineOptions(args);
+
+        int[] threads = Arrays.stream(System.getProperty("jmh.threads", "1").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Path output = Path.of(System.getProperty("jmh.output", "target/jmh/results.json"));
+
+        List<RunResult> results = new ArrayList<>();
+
+        for (int count : threads) {
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(count)
+                    .build();
+
+            results.addAll(new Runner(options).run());
+        }
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(output), true, StandardCharsets.UTF_8)) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+        }
+
+        System.out.println("Benchmark results written to " + output.toAbsolutePath());
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.exception.ApiError;
+import br.com.sccon.geospatial.exception.GlobalExceptionHandler;
+import br.com.sccon.geospatial.exception.NotFoundException;
+import br.com.sccon.geospatial.metrics.PersonMetrics;
+import br.com.sccon.geospatial.service.PersonService;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a {@code GET /v1/persons/{id}} that finds the person against one
+ * that doesn't, from the service call through the timed operation to the
+ * serialized body. {@code legacyMiss} adds what the former error path paid
+ * on top of the lookup: an exception capturing its stack trace,
+ * {@code LocalDateTime.now()} per response and a body serialized by
+ * reflection.
+ * Run with several {@code jmh.threads} to see them under contention, and
+ * with {@code -prof gc} to compare bytes per call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonErrorBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    PersonService service;
+
+    PersonMetrics metrics;
+
+    GlobalExceptionHandler handler;
+
+    ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        service = PersonFixtures.service("map", SIZE);
+        metrics = new PersonMetrics(new SimpleMeterRegistry());
+        handler = new GlobalExceptionHandler(metrics, Clock.systemDefaultZone());
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final SplittableRandom random = new SplittableRandom();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+
+        long existingId() {
+            return 1 + random.nextInt(SIZE);
+        }
+
+        long missingId() {
+            return SIZE + 1 + random.nextInt(SIZE);
+        }
+    }
+
+    @Benchmark
+    public int hit(ThreadState state) throws IOException {
+        long id = state.existingId();
+        return write(state, metrics.record("findById", () -> service.findVersionedById(id)).body());
+    }
+
+    @Benchmark
+    public int miss(ThreadState state) throws IOException {
+        long id = state.missingId();
+        state.request.setRequestURI("/v1/persons/" + id);
+
+        try {
+            return write(state, metrics.record("findById", () -> service.findVersionedById(id)).body());
+        } catch (NotFoundException e) {
+            ResponseEntity<ApiError> response = handler.handleNotFound(e, state.request);
+            return write(state, response.getBody());
+        }
+    }
+
+    @Benchmark
+    public int legacyMiss(ThreadState state) throws IOException {
+        long id = state.missingId();
+        state.request.setRequestURI("/v1/persons/" + id);
+
+        try {
+            return write(state, metrics.record("findById", () -> service.findVersionedById(id)).body());
+        } catch (NotFoundException e) {
+            return write(state, legacyError(new LegacyNotFoundException(e.getMessage()), state));
+        }
+    }
+
+    private static Map<String, Object> legacyError(RuntimeException ex, ThreadState state) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("status", HttpStatus.NOT_FOUND.value());
+        error.put("error", HttpStatus.NOT_FOUND.getReasonPhrase());
+        error.put("message", ex.getMessage());
+        error.put("path", state.request.getRequestURI());
+        return error;
+    }
+
+    private int write(ThreadState state, Object body) throws IOException {
+        state.out.reset();
+        writer.writeValue(state.out, body);
+        return state.out.size();
+    }
+
+    private static final class LegacyNotFoundException extends RuntimeException {
+
+        LegacyNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
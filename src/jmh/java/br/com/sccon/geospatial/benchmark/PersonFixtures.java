@@ -0,0 +1,163 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.id.IdAllocator;
+import br.com.sccon.geospatial.id.InMemoryIdBlockSource;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.persistence.PersonJournal;
+import br.com.sccon.geospatial.repository.ColumnarPersonRepository;
+import br.com.sccon.geospatial.repository.InMemoryPersonRepository;
+import br.com.sccon.geospatial.repository.JdbcPersonRepository;
+import br.com.sccon.geospatial.repository.JdbcStoreProperties;
+import br.com.sccon.geospatial.repository.PersonRepository;
+import br.com.sccon.geospatial.service.PersonChangeFeed;
+import br.com.sccon.geospatial.service.PersonNearCache;
+import br.com.sccon.geospatial.service.PersonResultCache;
+import br.com.sccon.geospatial.service.PersonService;
+import br.com.sccon.geospatial.service.SalaryCalculator;
+import br.com.sccon.geospatial.util.SalaryProperties;
+import br.com.sccon.geospatial.util.Today;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
+
+/**
+ * Deterministic data shared by the benchmarks, so results of different runs
+ * are comparable.
+ */
+final class PersonFixtures {
+
+    private static final String[] FIRST_NAMES = {
+            "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Heitor",
+            "Isabela", "João", "Karina", "Lucas", "Mariana", "Nicolas", "Olívia", "Pedro"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Almeida", "Barbosa", "Cardoso", "Dias", "Esteves", "Ferreira", "Gomes", "Henrique",
+            "Lima", "Moreira", "Nascimento", "Oliveira", "Pereira", "Rocha", "Santos", "Souza"
+    };
+
+    static final double[][] CITIES = {
+            {-23.5505, -46.6333}, {-22.9068, -43.1729}, {-19.9167, -43.9345}, {-15.7939, -47.8828},
+            {-12.9714, -38.5014}, {-3.7319, -38.5267}, {-30.0346, -51.2177}, {-25.4284, -49.2733}
+    };
+
+    private static final LocalDate OLDEST_BIRTH_DATE = LocalDate.of(1950, 1, 1);
+
+    private static final JdbcStoreProperties JDBC = new JdbcStoreProperties();
+
+    private static HikariDataSource dataSource;
+
+    private static JdbcPersonRepository jdbcRepository;
+
+    private PersonFixtures() {}
+
+    static PersonService service(String engine, int size) {
+        return service(engine, size, PersonFixtures::person);
+    }
+
+    static PersonService service(String engine, int size, BiFunction<Long, SplittableRandom, PersonDto> persons) {
+        SalaryProperties salaryProperties = new SalaryProperties();
+        salaryProperties.setMinimumWage(new BigDecimal("1558.00"));
+        salaryProperties.setAnnualIncreaseRate(new BigDecimal("0.18"));
+        salaryProperties.setAnnualFixedIncrease(new BigDecimal("500.00"));
+
+        PersonService service = new PersonService(
+                repository(engine),
+                new SalaryCalculator(salaryProperties),
+                PersonJournal.NONE,
+                new Today(Clock.systemDefaultZone()),
+                new PersonResultCache(100_000),
+                new PersonNearCache(100_000, Duration.ofMinutes(5)),
+                new PersonChangeFeed(1024),
+                new IdAllocator(new InMemoryIdBlockSource(), 1000)
+        );
+
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (long id = 1; id <= size; id++) {
+            service.create(persons.apply(id, random));
+        }
+
+        service.syncIdGenerator();
+        return service;
+    }
+
+    static PersonDto person(Long id, SplittableRandom random) {
+        LocalDate birthDate = OLDEST_BIRTH_DATE.plusDays(random.nextInt(365 * 55));
+        LocalDate admissionDate = birthDate.plusYears(18).plusDays(random.nextInt(365 * 20));
+
+        return new PersonDto(id, name(random), birthDate, admissionDate);
+    }
+
+    /**
+     * A person somewhere in one of {@link #CITIES}, spread over roughly
+     * 0.5 degrees around its center, so points are dense in a few places
+     * and absent elsewhere, as real addresses are.
+     */
+    static PersonDto located(Long id, SplittableRandom random) {
+        PersonDto person = person(id, random);
+        double[] city = CITIES[random.nextInt(CITIES.length)];
+
+        return new PersonDto(
+                person.id(),
+                person.name(),
+                person.birthDate(),
+                person.admissionDate(),
+                city[0] + (random.nextDouble() - 0.5) * 0.5,
+                city[1] + (random.nextDouble() - 0.5) * 0.5,
+                null
+        );
+    }
+
+    static String name(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+                + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    static PersonRepository repository(String engine) {
+        return switch (engine) {
+            case "map" -> new InMemoryPersonRepository();
+            case "columnar" -> new ColumnarPersonRepository();
+            case "jdbc" -> jdbcRepository();
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+    }
+
+    /**
+     * A jdbc engine over an empty table in the default embedded database,
+     * reusing one pool per fork so seeding again does not pile up databases.
+     * The engine built before is closed first, as it still owns the store.
+     */
+    private static synchronized PersonRepository jdbcRepository() {
+        if (dataSource == null) {
+            dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(JDBC.getUrl());
+            dataSource.setUsername(JDBC.getUsername());
+            dataSource.setPassword(JDBC.getPassword());
+            dataSource.setMaximumPoolSize(JDBC.getPoolSize());
+        }
+
+        if (jdbcRepository != null) {
+            jdbcRepository.close();
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS person");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+
+        jdbcRepository = new JdbcPersonRepository(dataSource, JDBC);
+        return jdbcRepository;
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.converter.PersonMapper;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.entity.Person;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * {@link PersonMapper} conversions over lists of persons, the way listing
+ * and bulk endpoints use them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonMapperBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    int size;
+
+    List<Person> entities;
+
+    List<PersonDto> dtos;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+
+        dtos = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> PersonFixtures.person(id, random))
+                .toList();
+        entities = dtos.stream().map(PersonMapper.TO_ENTITY).toList();
+    }
+
+    @Benchmark
+    public List<PersonDto> toDto() {
+        return entities.stream().map(PersonMapper.TO_DTO).toList();
+    }
+
+    @Benchmark
+    public List<Person> toEntity() {
+        return dtos.stream().map(PersonMapper.TO_ENTITY).toList();
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.index.PersonSpatialIndex;
+import br.com.sccon.geospatial.model.entity.Person;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the k-nearest query against the spatial index alone, at sizes
+ * the whole service would not fit in the benchmark heap. Nine in ten points
+ * are clustered around {@link PersonFixtures#CITIES}, the rest are spread
+ * over the globe; queries start at a city or anywhere on Earth, the latter
+ * usually far from every point. The brute-force scan over the same columns
+ * is the baseline the index has to beat.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersonNearestBenchmark {
+
+    private static final int K = 10;
+
+    private static final LocalDate BIRTH_DATES_FROM = LocalDate.of(1950, 1, 1);
+
+    @Param({"1000000", "10000000"})
+    int size;
+
+    PersonSpatialIndex index;
+
+    double[] latitudes;
+
+    double[] longitudes;
+
+    int[] birthDays;
+
+    PersonSpatialIndex.DayFilter bornInThe80s;
+
+    @Setup
+    public void setUp() {
+        index = new PersonSpatialIndex();
+        latitudes = new double[size];
+        longitudes = new double[size];
+        birthDays = new int[size];
+
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < size; i++) {
+            if (random.nextInt(10) == 0) {
+                latitudes[i] = random.nextDouble() * 180 - 90;
+                longitudes[i] = random.nextDouble() * 360 - 180;
+            } else {
+                double[] city = PersonFixtures.CITIES[random.nextInt(PersonFixtures.CITIES.length)];
+                latitudes[i] = city[0] + (random.nextDouble() - 0.5) * 0.5;
+                longitudes[i] = city[1] + (random.nextDouble() - 0.5) * 0.5;
+            }
+
+            birthDays[i] = (int) BIRTH_DATES_FROM.plusDays(random.nextInt(365 * 55)).toEpochDay();
+            index.update(null, person(i + 1L));
+        }
+
+        bornInThe80s = new PersonSpatialIndex.DayFilter(
+                LocalDate.of(1980, 1, 1).toEpochDay(),
+                LocalDate.of(1989, 12, 31).toEpochDay(),
+                Long.MIN_VALUE,
+                Long.MAX_VALUE
+        );
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final SplittableRandom random = new SplittableRandom();
+
+        double[] nearCity() {
+            double[] city = PersonFixtures.CITIES[random.nextInt(PersonFixtures.CITIES.length)];
+            return new double[]{city[0] + (random.nextDouble() - 0.5) * 0.4, city[1] + (random.nextDouble() - 0.5) * 0.4};
+        }
+
+        double[] anywhere() {
+            return new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180};
+        }
+    }
+
+    @Benchmark
+    public List<PersonSpatialIndex.Hit> nearestInCity(ThreadState state) {
+        double[] point = state.nearCity();
+        return index.nearest(point[0], point[1], K, PersonSpatialIndex.DayFilter.NONE, this::person);
+    }
+
+    @Benchmark
+    public List<PersonSpatialIndex.Hit> nearestAnywhere(ThreadState state) {
+        double[] point = state.anywhere();
+        return index.nearest(point[0], point[1], K, PersonSpatialIndex.DayFilter.NONE, this::person);
+    }
+
+    @Benchmark
+    public List<PersonSpatialIndex.Hit> nearestInCityBornInThe80s(ThreadState state) {
+        double[] point = state.nearCity();
+        return index.nearest(point[0], point[1], K, bornInThe80s, this::person);
+    }
+
+    @Benchmark
+    public long[] bruteForceInCity(ThreadState state) {
+        double[] point = state.nearCity();
+        long[] ids = new long[K];
+        double[] distances = new double[K];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+
+        for (int i = 0; i < size; i++) {
+            double distance = PersonSpatialIndex.distanceMeters(point[0], point[1], latitudes[i], longitudes[i]);
+
+            if (distance < distances[K - 1]) {
+                int slot = K - 1;
+
+                while (slot > 0 && distances[slot - 1] > distance) {
+                    distances[slot] = distances[slot - 1];
+                    ids[slot] = ids[slot - 1];
+                    slot--;
+                }
+
+                distances[slot] = distance;
+                ids[slot] = i + 1L;
+            }
+        }
+
+        return ids;
+    }
+
+    private Person person(long id) {
+        int i = (int) id - 1;
+
+        return Person.builder()
+                .id(id)
+                .name("Person " + id)
+                .birthDate(LocalDate.ofEpochDay(birthDays[i]))
+                .latitude(latitudes[i])
+                .longitude(longitudes[i])
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.converter.PersonMapper;
+import br.com.sccon.geospatial.index.PersonNameIndex;
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.repository.PersonRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of each storage engine on its own, without the service's
+ * indexes, journal or change feed on top.
+ * <p>
+ * Writes insert a block of fresh ids and delete it again, so the store
+ * stays at the configured size: once one compute per id, once as a single
+ * {@link PersonRepository#computeAll} batch, which the jdbc engine sends as
+ * prepared-statement batches in one transaction. Pages walk the name
+ * ordering from a random key, as the cursor listing does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonRepositoryBenchmark {
+
+    private static final int BLOCK = 100;
+
+    private static final int PAGE = 50;
+
+    @Param({"100000"})
+    int size;
+
+    @Param({"map", "columnar", "jdbc"})
+    String engine;
+
+    PersonRepository repository;
+
+    PersonNameIndex.Key[] cursors;
+
+    Person[] template;
+
+    final AtomicLong blocks = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        repository = PersonFixtures.repository(engine);
+
+        SplittableRandom random = new SplittableRandom(42);
+        long[] ids = new long[BLOCK];
+
+        for (long first = 1; first <= size; first += BLOCK) {
+            Person[] persons = new Person[BLOCK];
+
+            for (int i = 0; i < BLOCK; i++) {
+                ids[i] = first + i;
+                persons[i] = person(ids[i], random);
+            }
+
+            repository.computeAll(ids, i -> existing -> persons[i]);
+        }
+
+        template = new Person[BLOCK];
+
+        for (int i = 0; i < BLOCK; i++) {
+            template[i] = person(0, random);
+        }
+
+        cursors = new PersonNameIndex.Key[1024];
+
+        for (int i = 0; i < cursors.length; i++) {
+            Person person = repository.findById(1 + random.nextInt(size)).orElseThrow();
+            cursors[i] = new PersonNameIndex.Key(person.getName(), person.getId());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final SplittableRandom random = new SplittableRandom();
+
+        final long[] block = new long[BLOCK];
+
+        final Person[] persons = new Person[BLOCK];
+
+        /**
+         * Ids of a block no other thread is using, above the seeded ones.
+         */
+        void nextBlock(PersonRepositoryBenchmark benchmark) {
+            long first = benchmark.size + 1 + benchmark.blocks.getAndIncrement() % 1_000_000 * BLOCK;
+
+            for (int i = 0; i < BLOCK; i++) {
+                block[i] = first + i;
+                persons[i] = benchmark.template[i].toBuilder().id(block[i]).build();
+            }
+        }
+    }
+
+    @Benchmark
+    public Person findById(ThreadState state) {
+        return repository.findById(1 + state.random.nextInt(size)).orElseThrow();
+    }
+
+    @Benchmark
+    public Person update(ThreadState state) {
+        return repository.compute(1 + state.random.nextInt(size), person -> person.withVersion(person.getVersion() + 1));
+    }
+
+    @Benchmark
+    public long insertAndDeleteOneByOne(ThreadState state) {
+        state.nextBlock(this);
+
+        for (int i = 0; i < BLOCK; i++) {
+            Person person = state.persons[i];
+            repository.compute(state.block[i], existing -> person);
+        }
+
+        for (long id : state.block) {
+            repository.compute(id, existing -> null);
+        }
+
+        return state.block[0];
+    }
+
+    @Benchmark
+    public long insertAndDeleteBatched(ThreadState state) {
+        state.nextBlock(this);
+
+        repository.computeAll(state.block, i -> existing -> state.persons[i]);
+        repository.computeAll(state.block, i -> existing -> null);
+
+        return state.block[0];
+    }
+
+    @Benchmark
+    public List<Person> pageByName(ThreadState state) {
+        return repository.streamOrderedByName(cursors[state.random.nextInt(cursors.length)])
+                .limit(PAGE + 1)
+                .toList();
+    }
+
+    private static Person person(long id, SplittableRandom random) {
+        return PersonMapper.TO_ENTITY.apply(PersonFixtures.located(id, random)).withVersion(id);
+    }
+}
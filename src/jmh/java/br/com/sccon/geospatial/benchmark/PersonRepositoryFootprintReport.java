@@ -0,0 +1,83 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.repository.ColumnarPersonRepository;
+import br.com.sccon.geospatial.repository.InMemoryPersonRepository;
+import br.com.sccon.geospatial.repository.PersonRepository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * Prints the retained heap of each storage engine after loading the same
+ * persons. Not a JMH benchmark; compile it with {@code mvn -Pjmh test-compile}
+ * and run it with a fixed heap so GC noise stays low:
+ * <pre>
+ * java -Xms4g -Xmx4g -cp target/test-classes:target/classes:&lt;deps&gt; \
+ *     br.com.sccon.geospatial.benchmark.PersonRepositoryFootprintReport 1000000
+ * </pre>
+ */
+public final class PersonRepositoryFootprintReport {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private PersonRepositoryFootprintReport() {}
+
+    public static void main(String[] args) {
+        int persons = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.printf("%-10s %12s %14s %12s%n", "engine", "persons", "retained MB", "bytes/person");
+
+        report("map", persons, InMemoryPersonRepository::new);
+        report("columnar", persons, ColumnarPersonRepository::new);
+    }
+
+    private static void report(String engine, int persons, Supplier<PersonRepository> factory) {
+        long before = usedHeap();
+
+        PersonRepository repository = factory.get();
+        LocalDate base = LocalDate.of(1950, 1, 1);
+
+        for (int i = 1; i <= persons; i++) {
+            long id = i;
+            Person person = new Person(
+                    id,
+                    "Person " + i + " de Tal",
+                    base.plusDays(i % 20_000),
+                    base.plusDays(20_000 + i % 5_000)
+            );
+            repository.compute(id, existing -> person);
+        }
+
+        long retained = usedHeap() - before;
+
+        System.out.printf(
+                "%-10s %12d %14.1f %12d%n",
+                engine,
+                repository.count(),
+                retained / (1024.0 * 1024.0),
+                retained / persons
+        );
+
+        if (repository instanceof ColumnarPersonRepository columnar) {
+            long columns = columnar.allocatedBytes();
+
+            System.out.printf(
+                    "%-10s %12s %14.1f %12d  (columns and arena only, without the name ordering index)%n",
+                    "",
+                    "",
+                    columns / (1024.0 * 1024.0),
+                    columns / persons
+            );
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
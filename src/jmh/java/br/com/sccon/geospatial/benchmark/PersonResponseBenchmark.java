@@ -0,0 +1,94 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.model.dto.AgeDto;
+import br.com.sccon.geospatial.model.dto.SalaryDto;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the {@code /age} and {@code /salary} responses:
+ * the generic {@code Map.of(...)} bodies the endpoints used to return
+ * against the typed responses with pre-encoded names. Run with
+ * {@code -prof gc} to compare {@code gc.alloc.rate.norm} (bytes per call).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PersonResponseBenchmark {
+
+    private static final Long ID = 42L;
+
+    private static final String NAME = "Bruno Rocha";
+
+    private static final BigDecimal SALARY = new BigDecimal("12345.67");
+
+    ObjectWriter writer;
+
+    ByteArrayOutputStream out;
+
+    long age;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        out = new ByteArrayOutputStream(256);
+        age = 38;
+    }
+
+    @Benchmark
+    public int mapAge() throws IOException {
+        return write(Map.of(
+                "id", ID,
+                "name", NAME,
+                "output", AgeEnum.YEARS.name().toLowerCase(),
+                "age", age
+        ));
+    }
+
+    @Benchmark
+    public int typedAge() throws IOException {
+        return write(new AgeDto(ID, NAME, AgeEnum.YEARS, age));
+    }
+
+    @Benchmark
+    public int mapSalary() throws IOException {
+        return write(Map.of(
+                "id", ID,
+                "name", NAME,
+                "output", "full",
+                "salary", SALARY
+        ));
+    }
+
+    @Benchmark
+    public int typedSalary() throws IOException {
+        return write(new SalaryDto(ID, NAME, SalaryEnum.FULL, SALARY));
+    }
+
+    private int write(Object response) throws IOException {
+        out.reset();
+        writer.writeValue(out, response);
+        return out.size();
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.model.dto.PersonSearchHitDto;
+import br.com.sccon.geospatial.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code /search} over a large store: a prefix that fills the
+ * page on its own, an accent-free prefix of an accented name, and a typo
+ * that can only be answered by the trigram index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersonSearchBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"map"})
+    String engine;
+
+    PersonService service;
+
+    @Setup
+    public void setUp() {
+        service = PersonFixtures.service(engine, size);
+    }
+
+    @Benchmark
+    public List<PersonSearchHitDto> prefix() {
+        return service.search("mariana so", null);
+    }
+
+    @Benchmark
+    public List<PersonSearchHitDto> unaccentedPrefix() {
+        return service.search("olivia", null);
+    }
+
+    @Benchmark
+    public List<PersonSearchHitDto> typo() {
+        return service.search("Mariana Suoza Rocah", null);
+    }
+}
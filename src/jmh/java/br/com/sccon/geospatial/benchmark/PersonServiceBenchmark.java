@@ -0,0 +1,98 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.model.dto.AgeDto;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.dto.PersonPatchDto;
+import br.com.sccon.geospatial.model.dto.SalaryDto;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import br.com.sccon.geospatial.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level hot paths against every storage engine.
+ * <p>
+ * The store is seeded again before every iteration, so {@code create} and
+ * {@code patch} never let the data drift away from the configured size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"map", "columnar", "jdbc"})
+    String engine;
+
+    PersonService service;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = PersonFixtures.service(engine, size);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final SplittableRandom random = new SplittableRandom();
+
+        long anyId(int size) {
+            return 1 + random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Collection<PersonDto> findAll() {
+        return service.findAll();
+    }
+
+    @Benchmark
+    public PersonDto findById(ThreadState state) {
+        return service.findById(state.anyId(size));
+    }
+
+    @Benchmark
+    public PersonDto create(ThreadState state) {
+        return service.create(PersonFixtures.person(null, state.random));
+    }
+
+    @Benchmark
+    public PersonDto patch(ThreadState state) {
+        return service.patch(
+                state.anyId(size),
+                new PersonPatchDto(PersonFixtures.name(state.random), null, null)
+        );
+    }
+
+    @Benchmark
+    public AgeDto calculateAge(ThreadState state) {
+        AgeEnum output = AgeEnum.values()[state.random.nextInt(AgeEnum.values().length)];
+        return service.calculateAge(state.anyId(size), output);
+    }
+
+    @Benchmark
+    public SalaryDto calculateSalary(ThreadState state) {
+        SalaryEnum output = SalaryEnum.values()[state.random.nextInt(SalaryEnum.values().length)];
+        return service.calculateSalary(state.anyId(size), output);
+    }
+}
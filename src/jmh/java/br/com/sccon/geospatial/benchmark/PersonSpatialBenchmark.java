@@ -0,0 +1,81 @@
+package br.com.sccon.geospatial.benchmark;
+
+import br.com.sccon.geospatial.model.dto.PersonDistanceDto;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the map queries over a store where every person has a
+ * location, clustered around a few cities: a street-level box, a
+ * city-wide box, a country-wide box and a 2 km radius, each returning at
+ * most one page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersonSpatialBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"map"})
+    String engine;
+
+    PersonService service;
+
+    @Setup
+    public void setUp() {
+        service = PersonFixtures.service(engine, size, PersonFixtures::located);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final SplittableRandom random = new SplittableRandom();
+
+        double[] anyCity() {
+            return PersonFixtures.CITIES[random.nextInt(PersonFixtures.CITIES.length)];
+        }
+    }
+
+    @Benchmark
+    public List<PersonDto> streetBox(ThreadState state) {
+        double[] city = state.anyCity();
+        return service.findWithin(city[0] - 0.005, city[1] - 0.005, city[0] + 0.005, city[1] + 0.005, 1000);
+    }
+
+    @Benchmark
+    public List<PersonDto> cityBox(ThreadState state) {
+        double[] city = state.anyCity();
+        return service.findWithin(city[0] - 0.2, city[1] - 0.2, city[0] + 0.2, city[1] + 0.2, 1000);
+    }
+
+    @Benchmark
+    public List<PersonDto> countryBox() {
+        return service.findWithin(-34, -74, 6, -34, 1000);
+    }
+
+    @Benchmark
+    public List<PersonDistanceDto> radius(ThreadState state) {
+        double[] city = state.anyCity();
+        return service.findNearby(city[0], city[1], 2_000, 50);
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.sccon.geospatial.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput of a hash-partitioned cluster as nodes are added.
+ * <p>
+ * For each configured node count a fresh cluster of packaged applications
+ * is started on localhost, every node listing all of them and sharing one
+ * id block file. The collection is seeded through the first node and
+ * {@link LoadDriver} spreads its clients over all nodes, so most requests
+ * take one extra hop to the owner of their person. Nodes on one host share
+ * its cores: the numbers show scaling only while the host has cores to
+ * spare, and the routing overhead otherwise.
+ * <p>
+ * Reads the same system properties as {@link LoadComparison}, except that
+ * {@code load.nodes} (comma separated) replaces the thread modes and the
+ * output defaults to {@code target/load/cluster.json}.
+ */
+public final class ClusterScaling {
+
+    private ClusterScaling() {}
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("load.jar", "target/geospatial-0.0.1-SNAPSHOT.jar"));
+        int persons = Integer.getInteger("load.persons", 10_000);
+        int[] nodeCounts = integers(System.getProperty("load.nodes", "1,2,4"));
+        int[] concurrencies = integers(System.getProperty("load.concurrency", "16,256,1024"));
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30));
+        int slowClients = Integer.getInteger("load.slowClients", 32);
+        List<String> jvmArgs = LoadComparison.arguments(System.getProperty("load.jvmArgs", ""));
+        List<String> appArgs = LoadComparison.arguments(System.getProperty("load.appArgs", ""));
+        Path output = Path.of(System.getProperty("load.output", "target/load/cluster.json"));
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+
+        List<Result> results = new ArrayList<>();
+
+        for (int nodes : nodeCounts) {
+            List<LoadServer> cluster = start(jar, nodes, jvmArgs, appArgs, output);
+
+            try (LoadDriver driver = new LoadDriver(cluster.stream().map(LoadServer::baseUri).toList())) {
+                driver.seed(persons);
+
+                for (int concurrency : concurrencies) {
+                    driver.run(concurrency, slowClients, warmup);
+
+                    LoadDriver.Measurement measurement = driver.run(concurrency, slowClients, duration);
+                    results.add(new Result(nodes, concurrency, slowClients, measurement));
+
+                    System.out.printf("nodes=%-3d concurrency=%-5d %s%n", nodes, concurrency, measurement);
+                }
+            } finally {
+                for (LoadServer server : cluster) {
+                    server.close();
+                }
+            }
+        }
+
+        print(results);
+
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.toFile(), results);
+
+        System.out.println("Cluster results written to " + output.toAbsolutePath());
+    }
+
+    private static List<LoadServer> start(
+            Path jar,
+            int nodes,
+            List<String> jvmArgs,
+            List<String> appArgs,
+            Path output
+    ) throws Exception {
+        List<Integer> ports = new ArrayList<>(nodes);
+
+        for (int i = 0; i < nodes; i++) {
+            ports.add(LoadServer.freePort());
+        }
+
+        String nodeList = ports.stream()
+                .map(LoadServer::baseUri)
+                .map(URI::toString)
+                .collect(Collectors.joining(","));
+        Path ids = Files.createTempDirectory("geospatial-cluster").resolve("person-ids");
+        String secret = UUID.randomUUID().toString();
+        List<LoadServer> cluster = new ArrayList<>(nodes);
+
+        try {
+            for (int i = 0; i < nodes; i++) {
+                List<String> nodeArgs = new ArrayList<>(appArgs);
+                nodeArgs.addAll(List.of(
+                        "--geospatial.cluster.enabled=true",
+                        "--geospatial.cluster.nodes=" + nodeList,
+                        "--geospatial.cluster.self=" + i,
+                        "--geospatial.cluster.secret=" + secret,
+                        "--geospatial.ids.source=file",
+                        "--geospatial.ids.file=" + ids
+                ));
+
+                cluster.add(LoadServer.start(
+                        jar, ports.get(i), jvmArgs, nodeArgs, output.resolveSibling("cluster-" + nodes + "-node-" + i + ".log")
+                ));
+            }
+
+            for (LoadServer server : cluster) {
+                server.awaitHealthy();
+            }
+
+            return cluster;
+        } catch (Exception e) {
+            for (LoadServer server : cluster) {
+                server.close();
+            }
+
+            throw e;
+        }
+    }
+
+    private static int[] integers(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    private static void print(List<Result> results) {
+        System.out.printf(
+                "%n%5s %11s %10s %8s %12s %9s %9s %9s %9s %8s%n",
+                "nodes", "concurrency", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "exports"
+        );
+
+        for (Result result : results) {
+            LoadDriver.Measurement m = result.measurement();
+
+            System.out.printf(
+                    "%5d %11d %10d %8d %12.0f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                    result.nodes(), result.concurrency(), m.requests(), m.errors(), m.throughput(),
+                    m.p50Millis(), m.p99Millis(), m.p999Millis(), m.maxMillis(), m.slowExports()
+            );
+        }
+    }
+
+    record Result(int nodes, int concurrency, int slowClients, LoadDriver.Measurement measurement) {
+    }
+}
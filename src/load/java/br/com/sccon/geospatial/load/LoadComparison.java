@@ -0,0 +1,106 @@
+package br.com.sccon.geospatial.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Repeatable load profile comparing platform and virtual request threads.
+ * <p>
+ * The packaged application is started in a fresh JVM once per mode, seeded
+ * through the bulk endpoint and then driven by {@link LoadDriver} at each
+ * configured concurrency, with a warm-up round before every measured round.
+ * A table is printed at the end and every measurement is written as JSON.
+ * <p>
+ * Settings are read from system properties: {@code load.jar},
+ * {@code load.persons}, {@code load.concurrency} (comma separated),
+ * {@code load.warmup} and {@code load.duration} (seconds),
+ * {@code load.slowClients}, {@code load.jvmArgs} and {@code load.appArgs}
+ * (extra JVM options and application arguments for both modes) and
+ * {@code load.output}.
+ */
+public final class LoadComparison {
+
+    private LoadComparison() {}
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("load.jar", "target/geospatial-0.0.1-SNAPSHOT.jar"));
+        int persons = Integer.getInteger("load.persons", 10_000);
+        int[] concurrencies = Arrays.stream(System.getProperty("load.concurrency", "16,256,1024").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30));
+        int slowClients = Integer.getInteger("load.slowClients", 32);
+        List<String> jvmArgs = arguments(System.getProperty("load.jvmArgs", ""));
+        List<String> appArgs = arguments(System.getProperty("load.appArgs", ""));
+        Path output = Path.of(System.getProperty("load.output", "target/load/results.json"));
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+
+        List<Result> results = new ArrayList<>();
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+
+            List<String> modeArgs = new ArrayList<>(appArgs);
+            modeArgs.add("--spring.threads.virtual.enabled=" + virtual);
+
+            try (LoadServer server = LoadServer.start(
+                    jar, LoadServer.freePort(), jvmArgs, modeArgs, output.resolveSibling(mode + ".log"));
+                 LoadDriver driver = new LoadDriver(List.of(server.baseUri()))) {
+
+                server.awaitHealthy();
+                driver.seed(persons);
+
+                for (int concurrency : concurrencies) {
+                    driver.run(concurrency, slowClients, warmup);
+
+                    LoadDriver.Measurement measurement = driver.run(concurrency, slowClients, duration);
+                    results.add(new Result(mode, concurrency, slowClients, measurement));
+
+                    System.out.printf("%-8s concurrency=%-5d %s%n", mode, concurrency, measurement);
+                }
+            }
+        }
+
+        print(results);
+
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.toFile(), results);
+
+        System.out.println("Load results written to " + output.toAbsolutePath());
+    }
+
+    static List<String> arguments(String value) {
+        return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+    }
+
+    private static void print(List<Result> results) {
+        System.out.printf(
+                "%n%-9s %11s %10s %8s %12s %9s %9s %9s %9s %8s%n",
+                "mode", "concurrency", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "exports"
+        );
+
+        for (Result result : results) {
+            LoadDriver.Measurement m = result.measurement();
+
+            System.out.printf(
+                    "%-9s %11d %10d %8d %12.0f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                    result.mode(), result.concurrency(), m.requests(), m.errors(), m.throughput(),
+                    m.p50Millis(), m.p99Millis(), m.p999Millis(), m.maxMillis(), m.slowExports()
+            );
+        }
+    }
+
+    record Result(String mode, int concurrency, int slowClients, LoadDriver.Measurement measurement) {
+    }
+}
@@ -0,0 +1,250 @@
+package br.com.sccon.geospatial.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP clients driving a fixed request mix against running
+ * instances, with optional slow readers of the NDJSON export in the
+ * background. With several instances, e.g. the nodes of a cluster, clients
+ * are spread over them in turn and seeding goes through the first one.
+ * <p>
+ * Client tasks run on virtual threads so the driver can hold thousands of
+ * outstanding requests without itself becoming the bottleneck.
+ */
+final class LoadDriver implements AutoCloseable {
+
+    static final long FIRST_ID = 1_000_000;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int SLOW_READ_CHUNK = 4096;
+
+    private static final long SLOW_READ_BYTES_PER_SECOND = 256 * 1024;
+
+    private final List<URI> persons;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .executor(executor)
+            .build();
+
+    private int seeded;
+
+    LoadDriver(List<URI> baseUris) {
+        this.persons = baseUris.stream().map(baseUri -> baseUri.resolve("v1/persons")).toList();
+    }
+
+    /**
+     * Creates {@code count} persons with known ids through the bulk endpoint.
+     */
+    void seed(int count) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder(count * 96);
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < count; i++) {
+            LocalDate birthDate = LocalDate.of(1950, 1, 1).plusDays(random.nextInt(365 * 55));
+
+            body.append("{\"id\":").append(FIRST_ID + i)
+                    .append(",\"name\":\"Pessoa ").append(i)
+                    .append("\",\"birthDate\":\"").append(birthDate)
+                    .append("\",\"admissionDate\":\"").append(birthDate.plusYears(20))
+                    .append("\"}\n");
+        }
+
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(persons.getFirst() + "/bulk"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        if (response.statusCode() != 200 || response.body().contains("\"INVALID\"")) {
+            throw new IllegalStateException("Seeding failed: " + response.statusCode());
+        }
+
+        seeded = count;
+    }
+
+    /**
+     * Runs {@code concurrency} clients back to back for {@code duration} and
+     * returns what they observed.
+     */
+    Measurement run(int concurrency, int slowClients, Duration duration) throws InterruptedException {
+        Recorder latencies = new Recorder(3);
+        AtomicLong requests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong exports = new AtomicLong();
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<?>> tasks = new ArrayList<>(concurrency + slowClients);
+
+        for (int i = 0; i < slowClients; i++) {
+            URI entry = persons.get(i % persons.size());
+            tasks.add(executor.submit(() -> slowExports(entry, deadline, exports)));
+        }
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < concurrency; i++) {
+            URI entry = persons.get(i % persons.size());
+            tasks.add(executor.submit(() -> client(entry, deadline, latencies, requests, errors)));
+        }
+
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Histogram histogram = latencies.getIntervalHistogram();
+
+        return new Measurement(
+                requests.get(),
+                errors.get(),
+                requests.get() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                exports.get()
+        );
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        executor.shutdownNow();
+    }
+
+    private void client(URI entry, long deadline, Recorder latencies, AtomicLong requests, AtomicLong errors) {
+        SplittableRandom random = new SplittableRandom();
+
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = next(entry, random);
+            long start = System.nanoTime();
+
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+
+                if (response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            latencies.recordValue(System.nanoTime() - start);
+            requests.incrementAndGet();
+        }
+    }
+
+    /**
+     * Request mix: mostly lookups, some derived values, listing and writes.
+     */
+    private HttpRequest next(URI entry, SplittableRandom random) {
+        long id = FIRST_ID + random.nextInt(seeded);
+        int pick = random.nextInt(100);
+
+        HttpRequest.Builder builder;
+
+        if (pick < 50) {
+            builder = HttpRequest.newBuilder(URI.create(entry + "/" + id)).GET();
+        } else if (pick < 65) {
+            builder = HttpRequest.newBuilder(URI.create(entry + "/" + id + "/age?output=YEARS")).GET();
+        } else if (pick < 80) {
+            builder = HttpRequest.newBuilder(URI.create(entry + "/" + id + "/salary?output=FULL")).GET();
+        } else if (pick < 90) {
+            builder = HttpRequest.newBuilder(URI.create(entry + "?limit=50")).GET();
+        } else {
+            builder = HttpRequest.newBuilder(URI.create(entry + "/" + id))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"Pessoa " + random.nextInt(seeded) + "\"}"
+                    ));
+        }
+
+        return builder.timeout(REQUEST_TIMEOUT).build();
+    }
+
+    /**
+     * Reads the NDJSON export at a capped rate, holding the server-side
+     * response open like a client on a slow link.
+     */
+    private void slowExports(URI entry, long deadline, AtomicLong exports) {
+        byte[] chunk = new byte[SLOW_READ_CHUNK];
+
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = HttpRequest.newBuilder(entry)
+                    .header("Accept", "application/x-ndjson")
+                    .GET()
+                    .build();
+
+            try (InputStream in = client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+                long start = System.nanoTime();
+                long bytes = 0;
+                int read;
+
+                while ((read = in.read(chunk)) >= 0) {
+                    if (System.nanoTime() >= deadline) {
+                        return;
+                    }
+
+                    bytes += read;
+                    long due = start + bytes * 1_000_000_000L / SLOW_READ_BYTES_PER_SECOND;
+                    TimeUnit.NANOSECONDS.sleep(due - System.nanoTime());
+                }
+
+                exports.incrementAndGet();
+            } catch (IOException e) {
+                // the server closed a slow stream; start a new one
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    record Measurement(
+            long requests,
+            long errors,
+            double throughput,
+            double p50Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis,
+            long slowExports
+    ) {
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.sccon.geospatial.load;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application under test, running in its own JVM.
+ */
+record LoadServer(Process process, URI baseUri) implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+
+    /**
+     * Starts the packaged application on {@code port} without waiting for it;
+     * see {@link #awaitHealthy()}.
+     */
+    static LoadServer start(
+            Path jar,
+            int port,
+            List<String> jvmArgs,
+            List<String> appArgs,
+            Path log
+    ) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(List.of(
+                "-jar",
+                jar.toString(),
+                "--server.port=" + port
+        ));
+        command.addAll(appArgs);
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        return new LoadServer(process, baseUri(port));
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    static URI baseUri(int port) {
+        return URI.create("http://localhost:" + port + "/geospatial/");
+    }
+
+    void awaitHealthy() throws InterruptedException {
+        URI health = baseUri.resolve("actuator/health");
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue());
+                }
+
+                try {
+                    HttpResponse<Void> response = client.send(
+                            HttpRequest.newBuilder(health).build(),
+                            HttpResponse.BodyHandlers.discarding()
+                    );
+
+                    if (response.statusCode() == 200) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+
+                TimeUnit.MILLISECONDS.sleep(250);
+            }
+        }
+
+        close();
+        throw new IllegalStateException("Application did not become healthy in " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
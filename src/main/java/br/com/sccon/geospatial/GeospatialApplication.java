@@ -2,8 +2,10 @@ package br.com.sccon.geospatial;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 
-@SpringBootApplication
+// the jdbc store engine configures its own pool, only when it is selected
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
 public class GeospatialApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,49 @@
+package br.com.sccon.geospatial.cluster;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "geospatial.cluster")
+public class ClusterProperties {
+
+    /**
+     * Partitions persons across {@link #nodes}; disabled, this instance holds everyone.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Base URI of every node, context path included, in the same order on every node.
+     */
+    private List<URI> nodes = new ArrayList<>();
+
+    /**
+     * Position of this instance in {@link #nodes}.
+     */
+    private int self = 0;
+
+    /**
+     * Points each node takes on the hash ring; more points spread ids more evenly.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Shared by every node and sent with each call between them; a request
+     * is served from this node's data alone only when it carries this value.
+     */
+    private String secret = "";
+
+    /**
+     * How long a call to another node may take before the request fails.
+     */
+    private Duration timeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,76 @@
+package br.com.sccon.geospatial.cluster;
+
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Which node owns which person. With clustering disabled there is a single
+ * node and it owns everyone, so callers need no special case.
+ */
+@Component
+public class ClusterTopology {
+
+    private final boolean enabled;
+
+    private final List<URI> nodes;
+
+    private final int self;
+
+    private final ConsistentHashRing ring;
+
+    public ClusterTopology(ClusterProperties properties) {
+        this.enabled = properties.isEnabled();
+
+        if (!enabled) {
+            this.nodes = List.of();
+            this.self = 0;
+            this.ring = null;
+            return;
+        }
+
+        this.nodes = properties.getNodes()
+                .stream()
+                .map(uri -> uri.getPath().endsWith("/") ? uri : URI.create(uri + "/"))
+                .toList();
+        this.self = properties.getSelf();
+
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("geospatial.cluster.nodes must list every node when the cluster is enabled");
+        }
+
+        if (self < 0 || self >= nodes.size()) {
+            throw new IllegalStateException("geospatial.cluster.self must be between 0 and " + (nodes.size() - 1));
+        }
+
+        this.ring = new ConsistentHashRing(nodes.stream().map(URI::toString).toList(), properties.getVirtualNodes());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int self() {
+        return self;
+    }
+
+    public int size() {
+        return enabled ? nodes.size() : 1;
+    }
+
+    /**
+     * Base URI of a node, ending with a slash.
+     */
+    public URI node(int node) {
+        return nodes.get(node);
+    }
+
+    public int owner(long id) {
+        return enabled ? ring.owner(id) : self;
+    }
+
+    public boolean owns(long id) {
+        return owner(id) == self;
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.sccon.geospatial.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent hashing of person ids onto nodes.
+ * <p>
+ * Every node takes {@code virtualNodes} points on a 64-bit ring, placed by
+ * hashing its name, and an id belongs to the node owning the first point
+ * at or after the id's hash, wrapping around. Points only depend on node
+ * names, so adding a node moves just the ids that land on its new points,
+ * about one in {@code n + 1}, and every node computes the same owners.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+
+    private final int[] owners;
+
+    private final int size;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("nodes must not be empty");
+        }
+
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be greater than zero");
+        }
+
+        int count = nodes.size() * virtualNodes;
+        long[] keys = new long[count];
+
+        for (int node = 0; node < nodes.size(); node++) {
+            long seed = fnv(nodes.get(node));
+
+            for (int i = 0; i < virtualNodes; i++) {
+                keys[node * virtualNodes + i] = mix(seed + i * 0x9E3779B97F4A7C15L);
+            }
+        }
+
+        // sort point indexes by point, so each point keeps its node; ties go to the lower index
+        Integer[] order = new Integer[count];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> keys[a] != keys[b] ? Long.compare(keys[a], keys[b]) : Integer.compare(a, b));
+
+        this.points = new long[count];
+        this.owners = new int[count];
+        this.size = nodes.size();
+
+        for (int i = 0; i < count; i++) {
+            points[i] = keys[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    /**
+     * Position in the node list of the node owning {@code id}.
+     */
+    public int owner(long id) {
+        int slot = Arrays.binarySearch(points, mix(id));
+
+        if (slot < 0) {
+            slot = -slot - 1;
+        }
+
+        return owners[slot == points.length ? 0 : slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 64-bit FNV-1a of the node name, the seed of its points.
+     */
+    private static long fnv(String name) {
+        long hash = 0xCBF29CE484222325L;
+
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Murmur3 finalizer: spreads sequential ids over the whole ring.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
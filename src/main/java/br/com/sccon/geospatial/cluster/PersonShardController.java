@@ -0,0 +1,54 @@
+package br.com.sccon.geospatial.cluster;
+
+import br.com.sccon.geospatial.model.dto.DistributionDto;
+import br.com.sccon.geospatial.model.dto.PersonFilterDto;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import br.com.sccon.geospatial.service.PersonAnalyticsService;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+
+/**
+ * Node-to-node endpoints: the partial results a node contributes to a
+ * query gathered from every shard. They take the parameters of the public
+ * endpoints they stand behind, so bad requests fail on the shards exactly
+ * as on a single node.
+ */
+@Hidden
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(PersonShardController.PATH)
+@ConditionalOnProperty(prefix = "geospatial.cluster", name = "enabled", havingValue = "true")
+public class PersonShardController {
+
+    static final String PATH = "v1/persons/shard";
+
+    private final PersonAnalyticsService analyticsService;
+
+    @GetMapping(value = "/analytics/age", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DistributionDto getAgeDistribution(
+            @RequestParam AgeEnum output,
+            @RequestParam(required = false) Long bucketWidth,
+            @ModelAttribute PersonFilterDto filter
+    ) {
+        return analyticsService.ageDistribution(output, filter, bucketWidth);
+    }
+
+    @GetMapping(value = "/analytics/salary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DistributionDto getTenureDistribution(
+            @RequestParam SalaryEnum output,
+            @RequestParam(required = false) BigDecimal bucketWidth,
+            @ModelAttribute PersonFilterDto filter
+    ) {
+        return analyticsService.tenureDistribution(output, filter, bucketWidth);
+    }
+}
@@ -0,0 +1,465 @@
+package br.com.sccon.geospatial.cluster;
+
+import br.com.sccon.geospatial.controller.PersonController;
+import br.com.sccon.geospatial.index.PersonNameIndex;
+import br.com.sccon.geospatial.index.PersonSearchIndex;
+import br.com.sccon.geospatial.model.dto.DistributionDto;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import br.com.sccon.geospatial.model.enums.SearchMatchEnum;
+import br.com.sccon.geospatial.service.PersonAnalyticsService;
+import br.com.sccon.geospatial.service.PersonService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Answers collection queries by asking every shard and merging what they
+ * return.
+ * <p>
+ * Shards get the client's query unchanged and in parallel, so each one
+ * validates it as a single node would, and the first error any of them
+ * returns is passed on as it is. Results are merged as JSON trees, never
+ * bound to DTOs, in the order a single node would return them; every
+ * shard's list is already in that order, so sorting the concatenation only
+ * merges runs. A limited query asks every shard for the whole limit, since
+ * any one of them may hold all of the best results. The collection ETag
+ * joins the shards' ETags, so it changes whenever any shard changes; a
+ * client sending it back in {@code If-None-Match} has each part forwarded
+ * to its shard, and when none of them changed no shard sends a body.
+ */
+@Component
+@ConditionalOnProperty(prefix = "geospatial.cluster", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class PersonShardGatherer {
+
+    private static final int EXPORT_FLUSH_INTERVAL = 1024;
+
+    private static final Comparator<JsonNode> NAME_ORDER = Comparator
+            .comparing((JsonNode person) -> person.path("name").asText())
+            .thenComparingLong(person -> person.path("id").asLong());
+
+    /**
+     * Ties between equally scored hits break on the folded name, as the
+     * search index orders them, not on the name as it was written.
+     */
+    private static final Comparator<JsonNode> SEARCH_ORDER = Comparator
+            .comparingInt((JsonNode hit) -> SearchMatchEnum.valueOf(hit.path("match").asText()).ordinal())
+            .thenComparingDouble(hit -> -hit.path("score").asDouble())
+            .thenComparing(hit -> PersonSearchIndex.fold(hit.path("person").path("name").asText()))
+            .thenComparingLong(hit -> hit.path("person").path("id").asLong());
+
+    private static final Comparator<JsonNode> DISTANCE_ORDER = Comparator
+            .comparingDouble((JsonNode hit) -> hit.path("distance").asDouble())
+            .thenComparingLong(hit -> hit.path("person").path("id").asLong());
+
+    private final ClusterTopology topology;
+
+    private final ShardClient client;
+
+    private final PersonAnalyticsService analyticsService;
+
+    private final ObjectMapper objectMapper;
+
+    public void findAll(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        List<HttpResponse<byte[]>> shards = scatter(ShardClient.pathOf(request), validators(request), response);
+
+        if (shards == null) {
+            return;
+        }
+
+        String etag = etag(shards);
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        List<JsonNode> persons = merge(shards, NAME_ORDER);
+        Integer limit = number(request, "limit", Integer.class);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+
+        if (limit == null && request.getParameter("cursor") == null) {
+            write(persons, response);
+            return;
+        }
+
+        int size = limit == null ? PersonService.DEFAULT_PAGE_SIZE : limit;
+        boolean more = persons.size() > size || shards.stream()
+                .anyMatch(shard -> shard.headers().firstValue(PersonController.NEXT_CURSOR_HEADER).isPresent());
+        List<JsonNode> page = persons.subList(0, Math.min(size, persons.size()));
+
+        if (more && !page.isEmpty()) {
+            JsonNode last = page.getLast();
+            response.setHeader(
+                    PersonController.NEXT_CURSOR_HEADER,
+                    new PersonNameIndex.Key(last.path("name").asText(), last.path("id").asLong()).toCursor()
+            );
+        }
+
+        write(page, response);
+    }
+
+    /**
+     * Streams every shard's export merged by name, holding one person per
+     * shard at a time.
+     */
+    public void export(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = ShardClient.pathOf(request);
+        List<String> validators = validators(request);
+        List<CompletableFuture<HttpResponse<InputStream>>> calls = new ArrayList<>(topology.size());
+
+        for (int node = 0; node < topology.size(); node++) {
+            calls.add(client.open(node, shardRequest(node, path, MediaType.APPLICATION_NDJSON_VALUE, validators)));
+        }
+
+        List<HttpResponse<InputStream>> shards = new ArrayList<>(calls.size());
+
+        try {
+            for (CompletableFuture<HttpResponse<InputStream>> call : calls) {
+                shards.add(ShardClient.await(call));
+            }
+
+            refetchUnchanged(shards, node -> {
+                calls.add(client.open(node, shardRequest(node, path, MediaType.APPLICATION_NDJSON_VALUE, null)));
+                return calls.getLast();
+            });
+
+            for (HttpResponse<InputStream> shard : shards) {
+                if (!answered(shard)) {
+                    ShardClient.relayStream(shard, response);
+                    return;
+                }
+            }
+
+            String etag = etag(shards);
+
+            if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return;
+            }
+
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setHeader(HttpHeaders.ETAG, etag);
+
+            PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::person, NAME_ORDER));
+
+            for (HttpResponse<InputStream> shard : shards) {
+                MappingIterator<JsonNode> persons = objectMapper.readerFor(JsonNode.class).readValues(shard.body());
+
+                if (persons.hasNext()) {
+                    heads.add(new Head(persons.next(), persons));
+                }
+            }
+
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+                generator.setRootValueSeparator(null);
+                long written = 0;
+
+                while (!heads.isEmpty()) {
+                    Head head = heads.poll();
+
+                    generator.writeTree(head.person());
+                    generator.writeRaw('\n');
+
+                    if (written++ % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+
+                    if (head.rest().hasNext()) {
+                        heads.add(new Head(head.rest().next(), head.rest()));
+                    }
+                }
+            }
+        } finally {
+            for (HttpResponse<InputStream> shard : shards) {
+                shard.body().close();
+            }
+
+            // calls still pending when one failed
+            calls.forEach(call -> call.thenAccept(shard -> {
+                try {
+                    shard.body().close();
+                } catch (IOException e) {
+                    // nothing was read from it
+                }
+            }));
+        }
+    }
+
+    public void search(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        list(request, response, SEARCH_ORDER, limit(request, "limit", PersonService.DEFAULT_SEARCH_SIZE));
+    }
+
+    public void findBornBetween(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        list(request, response, dateOrder("birthDate"), Integer.MAX_VALUE);
+    }
+
+    public void findAdmittedBetween(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        list(request, response, dateOrder("admissionDate"), Integer.MAX_VALUE);
+    }
+
+    public void findAnniversaries(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        list(request, response, Comparator
+                .comparing((JsonNode anniversary) -> anniversary.path("date").asText())
+                .thenComparingLong(anniversary -> anniversary.path("person").path("id").asLong()), Integer.MAX_VALUE);
+    }
+
+    public void findWithin(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        list(request, response, null, limit(request, "limit", PersonService.DEFAULT_PAGE_SIZE));
+    }
+
+    public void findNearby(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        list(request, response, DISTANCE_ORDER, limit(request, "limit", PersonService.DEFAULT_PAGE_SIZE));
+    }
+
+    public void findNearest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        list(request, response, DISTANCE_ORDER, limit(request, "k", PersonService.DEFAULT_NEAREST_SIZE));
+    }
+
+    public void ageAnalytics(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DistributionDto ages = distribution(request, response);
+
+        if (ages != null) {
+            write(analyticsService.summarizeAges(
+                    AgeEnum.valueOf(request.getParameter("output").trim()),
+                    ages,
+                    number(request, "bucketWidth", Long.class)
+            ), response);
+        }
+    }
+
+    public void salaryAnalytics(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DistributionDto tenures = distribution(request, response);
+
+        if (tenures != null) {
+            write(analyticsService.summarizeSalaries(
+                    SalaryEnum.valueOf(request.getParameter("output").trim()),
+                    tenures,
+                    number(request, "bucketWidth", BigDecimal.class)
+            ), response);
+        }
+    }
+
+    /**
+     * Sum of the shards' distributions behind an analytics request, or null
+     * when a shard turned the request down and its answer was passed on.
+     */
+    private DistributionDto distribution(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = ShardClient.pathOf(request).replaceFirst("^v1/persons/", PersonShardController.PATH + "/");
+        List<HttpResponse<byte[]>> shards = scatter(path, response);
+
+        if (shards == null) {
+            return null;
+        }
+
+        List<DistributionDto> distributions = new ArrayList<>(shards.size());
+
+        for (HttpResponse<byte[]> shard : shards) {
+            distributions.add(objectMapper.readValue(shard.body(), DistributionDto.class));
+        }
+
+        return PersonAnalyticsService.merge(distributions);
+    }
+
+    private void list(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Comparator<JsonNode> order,
+            int limit
+    ) throws IOException {
+        List<HttpResponse<byte[]>> shards = scatter(ShardClient.pathOf(request), response);
+
+        if (shards != null) {
+            List<JsonNode> merged = merge(shards, order);
+            write(merged.subList(0, Math.min(limit, merged.size())), response);
+        }
+    }
+
+    /**
+     * Sends a GET to every shard and waits for all of them. Returns null
+     * after passing on the first answer that is not a success.
+     */
+    private List<HttpResponse<byte[]>> scatter(String path, HttpServletResponse response) throws IOException {
+        return scatter(path, null, response);
+    }
+
+    /**
+     * Like {@link #scatter(String, HttpServletResponse)}, sending each shard
+     * its validator when there are any. Either every shard answered 304 or
+     * none did: a shard that had not changed is asked again for its body when
+     * another one had.
+     */
+    private List<HttpResponse<byte[]>> scatter(
+            String path,
+            List<String> validators,
+            HttpServletResponse response
+    ) throws IOException {
+        List<CompletableFuture<HttpResponse<byte[]>>> calls = new ArrayList<>(topology.size());
+
+        for (int node = 0; node < topology.size(); node++) {
+            calls.add(client.send(node, shardRequest(node, path, MediaType.APPLICATION_JSON_VALUE, validators)));
+        }
+
+        List<HttpResponse<byte[]>> shards = new ArrayList<>(calls.size());
+
+        for (CompletableFuture<HttpResponse<byte[]>> call : calls) {
+            shards.add(ShardClient.await(call));
+        }
+
+        refetchUnchanged(shards, node -> client.send(node, shardRequest(node, path, MediaType.APPLICATION_JSON_VALUE, null)));
+
+        for (HttpResponse<byte[]> shard : shards) {
+            if (!answered(shard)) {
+                ShardClient.relay(shard, response);
+                return null;
+            }
+        }
+
+        return shards;
+    }
+
+    private HttpRequest shardRequest(int node, String path, String accept, List<String> validators) {
+        HttpRequest.Builder builder = client.request(node, path).header(HttpHeaders.ACCEPT, accept);
+
+        if (validators != null) {
+            builder.header(HttpHeaders.IF_NONE_MATCH, validators.get(node));
+        }
+
+        return builder.GET().build();
+    }
+
+    /**
+     * Each shard's part of the collection ETag a client sent back in
+     * {@code If-None-Match}, or null unless the header holds a single tag
+     * with one part per shard.
+     */
+    private List<String> validators(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        if (header == null) {
+            return null;
+        }
+
+        List<ETag> tags = ETag.parse(header);
+
+        if (tags.size() != 1 || tags.getFirst().isWildcard()) {
+            return null;
+        }
+
+        ETag tag = tags.getFirst();
+        String[] parts = tag.tag().split("\\.", -1);
+
+        if (parts.length != topology.size()) {
+            return null;
+        }
+
+        return Arrays.stream(parts).map(part -> new ETag(part, tag.weak()).formattedTag()).toList();
+    }
+
+    /**
+     * Replaces the 304s among the answers with a fresh call unless every
+     * shard answered 304, since a merged body needs every shard's part.
+     */
+    private static <T> void refetchUnchanged(
+            List<HttpResponse<T>> shards,
+            IntFunction<CompletableFuture<HttpResponse<T>>> refetch
+    ) {
+        if (shards.stream().allMatch(ShardClient::notModified)) {
+            return;
+        }
+
+        List<CompletableFuture<HttpResponse<T>>> calls = new ArrayList<>(shards.size());
+
+        for (int node = 0; node < shards.size(); node++) {
+            calls.add(ShardClient.notModified(shards.get(node)) ? refetch.apply(node) : null);
+        }
+
+        for (int node = 0; node < shards.size(); node++) {
+            if (calls.get(node) != null) {
+                shards.set(node, ShardClient.await(calls.get(node)));
+            }
+        }
+    }
+
+    private static boolean answered(HttpResponse<?> shard) {
+        return shard.statusCode() == HttpStatus.OK.value() || ShardClient.notModified(shard);
+    }
+
+    private List<JsonNode> merge(List<HttpResponse<byte[]>> shards, Comparator<JsonNode> order) throws IOException {
+        List<JsonNode> merged = new ArrayList<>();
+
+        for (HttpResponse<byte[]> shard : shards) {
+            objectMapper.readTree(shard.body()).forEach(merged::add);
+        }
+
+        if (order != null) {
+            merged.sort(order);
+        }
+
+        return merged;
+    }
+
+    private void write(Object body, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static Comparator<JsonNode> dateOrder(String field) {
+        // ISO dates sort as text
+        return Comparator
+                .comparing((JsonNode person) -> person.path(field).asText())
+                .thenComparingLong(person -> person.path("id").asLong());
+    }
+
+    private static String etag(List<? extends HttpResponse<?>> shards) {
+        return shards.stream()
+                .map(shard -> shard.headers().firstValue(HttpHeaders.ETAG).orElse("").replace("\"", ""))
+                .collect(Collectors.joining(".", "\"", "\""));
+    }
+
+    private static int limit(HttpServletRequest request, String name, int defaultLimit) {
+        Integer limit = number(request, name, Integer.class);
+        return limit == null ? defaultLimit : limit;
+    }
+
+    /**
+     * A numeric parameter parsed like Spring binds it; shards have already
+     * rejected values that do not parse.
+     */
+    private static <T extends Number> T number(HttpServletRequest request, String name, Class<T> type) {
+        String value = request.getParameter(name);
+        return StringUtils.hasText(value) ? NumberUtils.parseNumber(value.trim(), type) : null;
+    }
+
+    private record Head(JsonNode person, MappingIterator<JsonNode> rest) {
+    }
+}
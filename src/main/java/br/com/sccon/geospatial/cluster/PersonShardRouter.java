@@ -0,0 +1,307 @@
+package br.com.sccon.geospatial.cluster;
+
+import br.com.sccon.geospatial.exception.ShardUnavailableException;
+import br.com.sccon.geospatial.id.IdAllocator;
+import br.com.sccon.geospatial.model.dto.BulkResultDto;
+import br.com.sccon.geospatial.model.enums.BulkStatusEnum;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * Sends every request about one person to the node that owns it.
+ * <p>
+ * Requests naming an id are passed on as they are. A create without an id
+ * takes one from this node's {@link IdAllocator} first, so it can be routed
+ * like any other; with the file id source every node hands out distinct
+ * ids, and an id that was taken in the meantime is replaced by a fresh one
+ * rather than reported as a conflict. Bulk input is read in batches of
+ * {@value #BATCH_SIZE} records, each batch split by owner and sent to every
+ * owner at once, and the per-record results are put back in input order
+ * before the next batch is read.
+ */
+@Component
+@ConditionalOnProperty(prefix = "geospatial.cluster", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class PersonShardRouter {
+
+    static final int BATCH_SIZE = 1000;
+
+    /**
+     * Tries a record with a generated id gets when each id turns out taken.
+     */
+    static final int CREATE_ATTEMPTS = 8;
+
+    private static final String BULK_PATH = "v1/persons/bulk";
+
+    private final ClusterTopology topology;
+
+    private final ShardClient client;
+
+    private final IdAllocator ids;
+
+    private final ObjectMapper objectMapper;
+
+    public void forward(int node, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+
+        HttpRequest forwarded = client.request(node, ShardClient.pathOf(request), request)
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        ShardClient.relay(ShardClient.await(client.send(node, forwarded)), response);
+    }
+
+    public void create(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        ObjectNode person = parse(body);
+
+        // unreadable bodies and explicit ids go as they came; this node answers for the unreadable ones
+        if (person == null || person.hasNonNull("id")) {
+            int owner = person == null ? topology.self() : owner(person);
+            send(owner, ShardClient.pathOf(request), request, body, response);
+            return;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            person.put("id", ids.next());
+            int owner = owner(person);
+
+            HttpResponse<byte[]> created = ShardClient.await(client.send(owner, client
+                    .request(owner, ShardClient.pathOf(request), request)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(person)))
+                    .build()));
+
+            if (created.statusCode() != HttpStatus.CONFLICT.value() || attempt == CREATE_ATTEMPTS) {
+                ShardClient.relay(created, response);
+                return;
+            }
+        }
+    }
+
+    public void bulk(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        try (JsonParser parser = objectMapper.createParser(request.getInputStream());
+             JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+
+            generator.setRootValueSeparator(null);
+
+            List<JsonNode> batch = new ArrayList<>(BATCH_SIZE);
+            long index = 0;
+
+            try {
+                JsonToken token = parser.nextToken();
+
+                if (token == JsonToken.START_ARRAY) {
+                    parser.nextToken();
+                }
+
+                while (parser.currentToken() != null && parser.currentToken() != JsonToken.END_ARRAY) {
+                    batch.add(objectMapper.readTree(parser));
+                    parser.nextToken();
+
+                    if (batch.size() == BATCH_SIZE) {
+                        write(scatter(index, batch), generator);
+                        index += batch.size();
+                        batch.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                write(scatter(index, batch), generator);
+                index += batch.size();
+
+                write(List.of(result(index, BulkStatusEnum.INVALID, null, "Malformed JSON request")), generator);
+                return;
+            }
+
+            write(scatter(index, batch), generator);
+        }
+    }
+
+    /**
+     * Creates one batch on the owners of its records and returns their
+     * results in input order, numbered from {@code offset}.
+     */
+    private List<JsonNode> scatter(long offset, List<JsonNode> records) throws IOException {
+        JsonNode[] results = new JsonNode[records.size()];
+        boolean[] generated = new boolean[records.size()];
+        List<Integer> pending = IntStream.range(0, records.size()).boxed().toList();
+
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<List<Integer>> positions = new ArrayList<>(topology.size());
+
+            for (int node = 0; node < topology.size(); node++) {
+                positions.add(new ArrayList<>());
+            }
+
+            for (int position : pending) {
+                JsonNode record = records.get(position);
+
+                if (record instanceof ObjectNode person && (generated[position] || !person.hasNonNull("id"))) {
+                    person.put("id", ids.next());
+                    generated[position] = true;
+                }
+
+                positions.get(owner(record)).add(position);
+            }
+
+            List<CompletableFuture<HttpResponse<byte[]>>> calls = new ArrayList<>(topology.size());
+
+            for (int node = 0; node < topology.size(); node++) {
+                calls.add(positions.get(node).isEmpty() ? null : client.send(node, client.request(node, BULK_PATH)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(ndjson(records, positions.get(node))))
+                        .build()));
+            }
+
+            List<Integer> retry = new ArrayList<>();
+
+            for (int node = 0; node < topology.size(); node++) {
+                if (calls.get(node) == null) {
+                    continue;
+                }
+
+                List<Integer> sent = positions.get(node);
+
+                try {
+                    HttpResponse<byte[]> shard = ShardClient.await(calls.get(node));
+
+                    if (shard.statusCode() != HttpStatus.OK.value()) {
+                        throw new ShardUnavailableException(
+                                "Shard " + node + " answered the bulk request with " + shard.statusCode(), null
+                        );
+                    }
+
+                    try (MappingIterator<ObjectNode> lines = objectMapper.readerFor(ObjectNode.class).readValues(shard.body())) {
+                        while (lines.hasNext()) {
+                            ObjectNode result = lines.next();
+                            int position = sent.get(result.path("index").asInt());
+
+                            if (generated[position]
+                                    && BulkStatusEnum.CONFLICT.name().equals(result.path("status").asText())
+                                    && attempt < CREATE_ATTEMPTS) {
+                                retry.add(position);
+                                continue;
+                            }
+
+                            result.put("index", offset + position);
+                            results[position] = result;
+                        }
+                    }
+                } catch (ShardUnavailableException e) {
+                    for (int position : sent) {
+                        results[position] = result(
+                                offset + position, BulkStatusEnum.UNAVAILABLE, id(records.get(position)), e.getMessage()
+                        );
+                    }
+                }
+            }
+
+            pending = retry;
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private byte[] ndjson(List<JsonNode> records, List<Integer> positions) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(positions.size() * 128);
+
+        for (int position : positions) {
+            objectMapper.writeValue(out, records.get(position));
+            out.write('\n');
+        }
+
+        return out.toByteArray();
+    }
+
+    private void send(
+            int node,
+            String path,
+            HttpServletRequest request,
+            byte[] body,
+            HttpServletResponse response
+    ) throws IOException {
+        ShardClient.relay(ShardClient.await(client.send(node, client.request(node, path, request)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build())), response);
+    }
+
+    /**
+     * Owner of a record's id; a record without a usable id goes to this
+     * node, which rejects it the way a single node would.
+     */
+    private int owner(JsonNode record) {
+        Long id = id(record);
+        return id == null ? topology.self() : topology.owner(id);
+    }
+
+    /**
+     * The id a shard would bind from the record, if it has one.
+     */
+    private static Long id(JsonNode record) {
+        JsonNode id = record.path("id");
+
+        if (id.isNumber() && id.canConvertToLong()) {
+            return id.asLong();
+        }
+
+        if (id.isTextual()) {
+            try {
+                return Long.parseLong(id.asText().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    private ObjectNode parse(byte[] body) {
+        try {
+            return objectMapper.readTree(body) instanceof ObjectNode person ? person : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private JsonNode result(long index, BulkStatusEnum status, Long id, String message) {
+        return objectMapper.valueToTree(new BulkResultDto(index, status, id, message));
+    }
+
+    private void write(List<JsonNode> results, JsonGenerator generator) throws IOException {
+        for (JsonNode result : results) {
+            objectMapper.writeTree(generator, result);
+            generator.writeRaw('\n');
+        }
+
+        generator.flush();
+    }
+}
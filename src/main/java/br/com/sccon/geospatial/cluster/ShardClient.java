@@ -0,0 +1,216 @@
+package br.com.sccon.geospatial.cluster;
+
+import br.com.sccon.geospatial.controller.PersonController;
+import br.com.sccon.geospatial.exception.ShardUnavailableException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP calls from this node to the others, itself included.
+ * <p>
+ * Every call carries the cluster secret in {@link #SHARD_HEADER}, which
+ * tells the receiving node to serve the request from its own data instead
+ * of routing it again. Clients outside the cluster do not know the secret,
+ * so they cannot skip routing by sending the header themselves.
+ * Responses are handled on virtual threads, so a scatter to every node
+ * holds no platform thread while the shards work.
+ */
+@Component
+@ConditionalOnProperty(prefix = "geospatial.cluster", name = "enabled", havingValue = "true")
+public class ShardClient implements AutoCloseable {
+
+    public static final String SHARD_HEADER = "X-Geospatial-Shard";
+
+    /**
+     * Request headers that change what a shard answers.
+     */
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ACCEPT,
+            HttpHeaders.IF_MATCH,
+            HttpHeaders.IF_NONE_MATCH
+    );
+
+    /**
+     * Response headers a client of the receiving node has to see.
+     */
+    private static final List<String> RELAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG,
+            PersonController.NEXT_CURSOR_HEADER
+    );
+
+    private final ClusterTopology topology;
+
+    private final Duration timeout;
+
+    private final byte[] secret;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final HttpClient client;
+
+    public ShardClient(ClusterTopology topology, ClusterProperties properties) {
+        this.topology = topology;
+        this.timeout = properties.getTimeout();
+
+        if (!StringUtils.hasText(properties.getSecret())) {
+            throw new IllegalStateException("geospatial.cluster.secret must be set when the cluster is enabled");
+        }
+
+        this.secret = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * A request to {@code path}, relative to the node's base URI.
+     */
+    public HttpRequest.Builder request(int node, String path) {
+        return HttpRequest.newBuilder(topology.node(node).resolve(path))
+                .timeout(timeout)
+                .header(SHARD_HEADER, new String(secret, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether a request came from a node of this cluster. Compares in
+     * constant time, so response times tell nothing about the secret.
+     */
+    public boolean fromNode(HttpServletRequest request) {
+        String value = request.getHeader(SHARD_HEADER);
+        return value != null && MessageDigest.isEqual(secret, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A request to {@code path} carrying the headers of {@code original}
+     * that affect the answer, for passing a client's request on as it is.
+     */
+    public HttpRequest.Builder request(int node, String path, HttpServletRequest original) {
+        HttpRequest.Builder builder = request(node, path);
+
+        for (String name : FORWARDED_HEADERS) {
+            String value = original.getHeader(name);
+
+            if (value != null) {
+                builder.header(name, value);
+            }
+        }
+
+        return builder;
+    }
+
+    public CompletableFuture<HttpResponse<byte[]>> send(int node, HttpRequest request) {
+        return send(node, request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Completes once the response headers arrive; the body is read as the
+     * caller consumes it.
+     */
+    public CompletableFuture<HttpResponse<InputStream>> open(int node, HttpRequest request) {
+        return send(node, request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(
+            int node,
+            HttpRequest request,
+            HttpResponse.BodyHandler<T> handler
+    ) {
+        return client.sendAsync(request, handler)
+                .exceptionally(error -> {
+                    throw unavailable(node, error);
+                });
+    }
+
+    /**
+     * Path and query of a client's request relative to the context path, as
+     * {@link #request} expects them.
+     */
+    public static String pathOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length() + 1);
+        String query = request.getQueryString();
+
+        return query == null ? path : path + "?" + query;
+    }
+
+    /**
+     * Waits for a response, surfacing a failed call as the
+     * {@link ShardUnavailableException} behind it.
+     */
+    public static <T> T await(CompletableFuture<T> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ShardUnavailableException unavailable) {
+                throw unavailable;
+            }
+
+            throw e;
+        }
+    }
+
+    public static boolean notModified(HttpResponse<?> shard) {
+        return shard.statusCode() == HttpStatus.NOT_MODIFIED.value();
+    }
+
+    /**
+     * Copies a shard's answer to the client as it is.
+     */
+    public static void relay(HttpResponse<byte[]> shard, HttpServletResponse response) throws IOException {
+        relayHeaders(shard, response);
+        response.getOutputStream().write(shard.body());
+    }
+
+    public static void relayStream(HttpResponse<InputStream> shard, HttpServletResponse response) throws IOException {
+        relayHeaders(shard, response);
+
+        try (InputStream body = shard.body()) {
+            body.transferTo(response.getOutputStream());
+        }
+    }
+
+    private static void relayHeaders(HttpResponse<?> shard, HttpServletResponse response) {
+        response.setStatus(shard.statusCode());
+
+        for (String name : RELAYED_HEADERS) {
+            shard.headers().firstValue(name).ifPresent(value -> response.setHeader(name, value));
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        executor.shutdownNow();
+    }
+
+    private ShardUnavailableException unavailable(int node, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        return new ShardUnavailableException(
+                "Shard " + node + " (" + topology.node(node) + ") is unavailable: " + cause.getMessage(),
+                cause
+        );
+    }
+}
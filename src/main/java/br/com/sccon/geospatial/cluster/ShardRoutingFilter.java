@@ -0,0 +1,170 @@
+package br.com.sccon.geospatial.cluster;
+
+import br.com.sccon.geospatial.exception.ForbiddenException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * The routing layer in front of {@code PersonController} when persons are
+ * partitioned across nodes.
+ * <p>
+ * Requests about one person run here when this node owns it and are passed
+ * to the owner otherwise; creates and bulk loads go to the owners of their
+ * ids; listings, searches, geospatial queries and analytics are gathered
+ * from every shard. The change stream stays per node, each one numbering
+ * its own changes. Requests from other nodes carry the cluster secret in
+ * {@link ShardClient#SHARD_HEADER} and are always served locally; any other
+ * value in that header is refused with 403. Errors raised while routing go
+ * through the same exception handlers as the controllers.
+ */
+@Component
+@ConditionalOnProperty(prefix = "geospatial.cluster", name = "enabled", havingValue = "true")
+public class ShardRoutingFilter extends OncePerRequestFilter {
+
+    private static final String PERSONS = "/v1/persons";
+
+    private static final Pattern ID = Pattern.compile("-?\\d{1,19}");
+
+    private final ClusterTopology topology;
+
+    private final PersonShardRouter router;
+
+    private final PersonShardGatherer gatherer;
+
+    private final ShardClient client;
+
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public ShardRoutingFilter(
+            ClusterTopology topology,
+            PersonShardRouter router,
+            PersonShardGatherer gatherer,
+            ShardClient client,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver
+    ) {
+        this.topology = topology;
+        this.router = router;
+        this.gatherer = gatherer;
+        this.client = client;
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith(PERSONS) || client.fromNode(request);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        try {
+            if (request.getHeader(ShardClient.SHARD_HEADER) != null) {
+                throw new ForbiddenException(ShardClient.SHARD_HEADER + " is only accepted from nodes of this cluster");
+            }
+
+            if (!route(path(request).substring(PERSONS.length()), request, response)) {
+                chain.doFilter(request, response);
+            }
+        } catch (RuntimeException e) {
+            if (response.isCommitted() || exceptionResolver.resolveException(request, response, null, e) == null) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Handles the request unless this node should simply serve it, in which
+     * case it returns false.
+     */
+    private boolean route(String path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String method = request.getMethod();
+        String[] segments = path.isEmpty() || path.equals("/") ? new String[0] : path.substring(1).split("/");
+
+        if (segments.length == 0) {
+            switch (method) {
+                case "GET" -> {
+                    if (acceptsNdjson(request)) {
+                        gatherer.export(request, response);
+                    } else {
+                        gatherer.findAll(request, response);
+                    }
+                }
+                case "POST" -> router.create(request, response);
+                default -> {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (ID.matcher(segments[0]).matches()) {
+            int owner;
+
+            try {
+                owner = topology.owner(Long.parseLong(segments[0]));
+            } catch (NumberFormatException e) {
+                // out of range; rejected here like any malformed id
+                return false;
+            }
+
+            if (owner == topology.self()) {
+                return false;
+            }
+
+            router.forward(owner, request, response);
+            return true;
+        }
+
+        if (method.equals("POST") && path.equals("/bulk")) {
+            router.bulk(request, response);
+            return true;
+        }
+
+        if (!method.equals("GET")) {
+            return false;
+        }
+
+        switch (path) {
+            case "/search" -> gatherer.search(request, response);
+            case "/born" -> gatherer.findBornBetween(request, response);
+            case "/admitted" -> gatherer.findAdmittedBetween(request, response);
+            case "/anniversaries" -> gatherer.findAnniversaries(request, response);
+            case "/within" -> gatherer.findWithin(request, response);
+            case "/nearby" -> gatherer.findNearby(request, response);
+            case "/nearest" -> gatherer.findNearest(request, response);
+            case "/analytics/age" -> gatherer.ageAnalytics(request, response);
+            case "/analytics/salary" -> gatherer.salaryAnalytics(request, response);
+            default -> {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean acceptsNdjson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
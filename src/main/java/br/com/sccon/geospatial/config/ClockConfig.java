@@ -0,0 +1,19 @@
+package br.com.sccon.geospatial.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    /**
+     * Single source of time for date-dependent results; tests replace it
+     * with a fixed clock.
+     */
+    @Bean
+    Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
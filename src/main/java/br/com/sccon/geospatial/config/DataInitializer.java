@@ -1,38 +1,56 @@
 package br.com.sccon.geospatial.config;
 
+import br.com.sccon.geospatial.cluster.ClusterTopology;
 import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.enums.ReplicationRoleEnum;
+import br.com.sccon.geospatial.replication.ReplicationProperties;
 import br.com.sccon.geospatial.service.PersonService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Configuration
 public class DataInitializer {
 
+    /**
+     * Seeds an empty store; in a cluster each node only seeds the persons it
+     * owns, so every one of them exists once. Followers get theirs from the
+     * leader.
+     */
     @Bean
-    CommandLineRunner loadData(PersonService service) {
+    CommandLineRunner loadData(PersonService service, ClusterTopology topology, ReplicationProperties replication) {
         return args -> {
-            service.create(new PersonDto(
-                    1L,
-                    "Bruno Rocha",
-                    LocalDate.of(1985, 12, 9),
-                    LocalDate.of(2020, 1, 1)
-            ));
-            service.create(new PersonDto(
+            if (!service.isEmpty() || replication.getRole() == ReplicationRoleEnum.FOLLOWER) {
+                return;
+            }
+
+            List.of(
+                    new PersonDto(
+                            1L,
+                            "Bruno Rocha",
+                            LocalDate.of(1985, 12, 9),
+                            LocalDate.of(2020, 1, 1)
+                    ),
+                    new PersonDto(
                             2L,
                             "Fulano de Tal",
                             LocalDate.of(1978, 3, 25),
                             LocalDate.of(2018, 8, 15)
-            ));
-            service.create(new PersonDto(
+                    ),
+                    new PersonDto(
                             3L,
                             "Ciclano de Tal",
                             LocalDate.of(1992, 7, 5),
                             LocalDate.of(2021, 2, 10)
-            ));
-            service.syncIdGenerator();
+                    )
+            ).forEach(person -> {
+                if (topology.owns(person.id())) {
+                    service.create(person);
+                }
+            });
         };
     }
 }
@@ -0,0 +1,25 @@
+package br.com.sccon.geospatial.config;
+
+import br.com.sccon.geospatial.id.FileIdBlockSource;
+import br.com.sccon.geospatial.id.IdBlockSource;
+import br.com.sccon.geospatial.id.IdProperties;
+import br.com.sccon.geospatial.id.InMemoryIdBlockSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "geospatial.ids", name = "source", havingValue = "memory", matchIfMissing = true)
+    IdBlockSource inMemoryIdBlockSource() {
+        return new InMemoryIdBlockSource();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "geospatial.ids", name = "source", havingValue = "file")
+    IdBlockSource fileIdBlockSource(IdProperties properties) {
+        return new FileIdBlockSource(properties.getFile());
+    }
+}
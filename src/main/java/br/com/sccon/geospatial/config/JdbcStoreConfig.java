@@ -0,0 +1,55 @@
+package br.com.sccon.geospatial.config;
+
+import br.com.sccon.geospatial.repository.JdbcPersonRepository;
+import br.com.sccon.geospatial.repository.JdbcStoreProperties;
+import br.com.sccon.geospatial.service.PersonService;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection pool of the jdbc store engine. Spring Boot's own DataSource is
+ * turned off, so the other engines never open a database.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "geospatial.store", name = "engine", havingValue = "jdbc")
+public class JdbcStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    HikariDataSource personDataSource(JdbcStoreProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("persons");
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setMaximumPoolSize(properties.getPoolSize());
+        return dataSource;
+    }
+
+    /**
+     * Rebuilds the service's indexes from rows left in a database that
+     * outlives the process, before {@link DataInitializer} decides to seed.
+     */
+    @Bean
+    SmartInitializingSingleton jdbcStoreRecovery(JdbcPersonRepository repository, PersonService service) {
+        return () -> {
+            AtomicLong indexed = new AtomicLong();
+
+            repository.forEach(person -> {
+                service.reindex(person);
+                indexed.incrementAndGet();
+            });
+            service.syncIdGenerator();
+
+            if (indexed.get() > 0) {
+                log.info("Indexed {} persons already in the database", indexed.get());
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.sccon.geospatial.config;
+
+import br.com.sccon.geospatial.persistence.MappedPersonJournal;
+import br.com.sccon.geospatial.persistence.PersistenceProperties;
+import br.com.sccon.geospatial.persistence.PersonJournal;
+import br.com.sccon.geospatial.service.PersonService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersistenceConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "geospatial.persistence", name = "enabled", havingValue = "true")
+    MappedPersonJournal mappedPersonJournal(PersistenceProperties properties) {
+        return new MappedPersonJournal(properties);
+    }
+
+    /**
+     * Replays the journal once every singleton exists, which is before the
+     * web server starts and before {@link DataInitializer} decides to seed.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "geospatial.persistence", name = "enabled", havingValue = "true")
+    SmartInitializingSingleton personJournalRecovery(MappedPersonJournal journal, PersonService service) {
+        return () -> journal.recover(service);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "geospatial.persistence", name = "enabled", havingValue = "false", matchIfMissing = true)
+    PersonJournal personJournal() {
+        return PersonJournal.NONE;
+    }
+}
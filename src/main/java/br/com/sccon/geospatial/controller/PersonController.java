@@ -1,23 +1,54 @@
 package br.com.sccon.geospatial.controller;
 
+import br.com.sccon.geospatial.metrics.PersonMetrics;
+import br.com.sccon.geospatial.model.dto.AgeDto;
+import br.com.sccon.geospatial.model.dto.AnniversaryDto;
+import br.com.sccon.geospatial.model.dto.PersonAnalyticsDto;
+import br.com.sccon.geospatial.model.dto.PersonDistanceDto;
 import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.dto.PersonFilterDto;
+import br.com.sccon.geospatial.model.dto.PersonPageDto;
 import br.com.sccon.geospatial.model.dto.PersonPatchDto;
+import br.com.sccon.geospatial.model.dto.PersonSearchHitDto;
+import br.com.sccon.geospatial.model.dto.SalaryDto;
+import br.com.sccon.geospatial.model.dto.VersionedDto;
 import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.AnniversaryEnum;
 import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import br.com.sccon.geospatial.service.PersonAnalyticsService;
+import br.com.sccon.geospatial.service.PersonBulkService;
+import br.com.sccon.geospatial.service.PersonChangeService;
 import br.com.sccon.geospatial.service.PersonService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.List;
 
 @RequiredArgsConstructor
 @RestController
@@ -28,39 +59,374 @@ import java.util.Map;
 )
 public class PersonController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private static final int EXPORT_FLUSH_INTERVAL = 1024;
+
     private final PersonService service;
 
+    private final PersonBulkService bulkService;
+
+    private final PersonAnalyticsService analyticsService;
+
+    private final PersonChangeService changeService;
+
+    private final PersonMetrics metrics;
+
+    private final ObjectMapper objectMapper;
+
     @Operation(
             summary = "List all persons",
-            description = "Returns all persons ordered alphabetically by name"
+            description = """
+                    Returns all persons ordered alphabetically by name.
+                    When limit or cursor is provided, a single page is returned and
+                    the cursor of the next page is sent in the X-Next-Cursor header.
+                    The ETag is the collection version; send it back in If-None-Match
+                    to get 304 while nothing has changed.
+                    """
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Persons returned successfully"),
+            @ApiResponse(responseCode = "304", description = "Collection not modified"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit or cursor"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public Collection<PersonDto> findAll() {
-        return service.findAll();
+    public ResponseEntity<Collection<PersonDto>> findAll(
+            @Parameter(
+                    description = "Maximum number of persons in the page",
+                    example = "50"
+            )
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor returned in the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) String cursor,
+            WebRequest request
+    ) {
+        String etag = PersonETags.of(service.epoch(), service.version());
+
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .body(metrics.record("findAll", service::findAll));
+        }
+
+        PersonPageDto page = metrics.record("findPage", () -> service.findPage(cursor, limit));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+
+        return response.body(page.items());
+    }
+
+    @Operation(
+            summary = "Export all persons as NDJSON",
+            description = """
+                    Streams all persons ordered alphabetically by name, one JSON document per line.
+                    Persons are written as the index is walked, so memory use does not grow
+                    with the size of the collection. Honors If-None-Match like the JSON listing.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Persons streamed successfully"),
+            @ApiResponse(responseCode = "304", description = "Collection not modified"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(WebRequest request) {
+
+        String etag = PersonETags.of(service.epoch(), service.version());
+
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        // the generator is flushed every EXPORT_FLUSH_INTERVAL persons, not after each one
+        ObjectWriter writer = objectMapper.writerFor(PersonDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+
+                Iterator<PersonDto> persons = service.stream().iterator();
+                long written = 0;
+
+                while (persons.hasNext()) {
+                    writer.writeValue(generator, persons.next());
+                    generator.writeRaw('\n');
+
+                    if (written++ % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Stream person changes",
+            description = """
+                    Server-Sent Events stream of every create, update and delete, in the order
+                    they were applied. Each event is named after the change type and has the
+                    change sequence as its id; reconnecting with Last-Event-ID, or passing after,
+                    resumes right after that sequence. Without either, only new changes are sent.
+                    A consumer that falls too far behind receives a final OVERRUN event and is
+                    disconnected, and has to reload the collection before following again.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Change stream opened"),
+            @ApiResponse(responseCode = "400", description = "Sequence ahead of the feed"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(
+            @Parameter(description = "Last sequence already seen; takes precedence over Last-Event-ID", example = "42")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Last sequence already seen, sent by EventSource on reconnection")
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId
+    ) {
+        return changeService.subscribe(after != null ? after : lastEventId);
+    }
+
+    @Operation(
+            summary = "Search persons by name",
+            description = """
+                    Ignores case and accents. Names starting with the query come first,
+                    in name order, followed by names with similar trigrams, best first,
+                    so small typos still match. Queries under three characters match by
+                    prefix only.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search executed successfully"),
+            @ApiResponse(responseCode = "400", description = "Blank query or invalid limit"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PersonSearchHitDto> search(
+            @Parameter(
+                    description = "Name or part of it",
+                    example = "ciclano"
+            )
+            @RequestParam String q,
+            @Parameter(
+                    description = "Maximum number of results (1 to 100, defaults to 10)",
+                    example = "10"
+            )
+            @RequestParam(required = false) Integer limit
+    ) {
+        return metrics.record("search", () -> service.search(q, limit));
+    }
+
+    @Operation(
+            summary = "Persons born in a date range",
+            description = """
+                    Returns every person whose birth date is between from and to, both
+                    inclusive, ordered by birth date. Served from a sorted index, so
+                    the cost depends on the number of matches, not on the store size.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Persons returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing or inverted date range"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/born", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PersonDto> findBornBetween(
+            @Parameter(description = "First birth date (inclusive)", example = "1990-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last birth date (inclusive)", example = "1990-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return metrics.record("findBornBetween", () -> service.findBornBetween(from, to));
+    }
+
+    @Operation(
+            summary = "Persons admitted in a date range",
+            description = """
+                    Returns every person whose admission date is between from and to,
+                    both inclusive, ordered by admission date.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Persons returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing or inverted date range"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/admitted", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PersonDto> findAdmittedBetween(
+            @Parameter(description = "First admission date (inclusive)", example = "2018-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last admission date (inclusive)", example = "2018-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return metrics.record("findAdmittedBetween", () -> service.findAdmittedBetween(from, to));
+    }
+
+    @Operation(
+            summary = "Upcoming anniversaries",
+            description = """
+                    Returns birthdays or work anniversaries from today through the given
+                    number of days, soonest first, with the date and the years completed.
+                    - BIRTHDAY: anniversaries of the birth date
+                    - ADMISSION: anniversaries of the admission date
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Anniversaries returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid type or number of days"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/anniversaries", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<AnniversaryDto> findAnniversaries(
+            @Parameter(description = "Anniversary type", example = "BIRTHDAY")
+            @RequestParam AnniversaryEnum type,
+            @Parameter(description = "Days ahead of today (0 to 365, defaults to 7)", example = "7")
+            @RequestParam(required = false) Integer days
+    ) {
+        return metrics.record("findAnniversaries", () -> service.findAnniversaries(type, days));
+    }
+
+    @Operation(
+            summary = "Persons inside a bounding box",
+            description = """
+                    Returns up to limit persons whose location is inside the box, edges
+                    included, in no particular order. A box with minLongitude greater than
+                    maxLongitude crosses the antimeridian. Persons without location are
+                    never returned.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Persons returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates or limit"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/within", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PersonDto> findWithin(
+            @Parameter(description = "Southern edge in decimal degrees", example = "-23.70")
+            @RequestParam double minLatitude,
+            @Parameter(description = "Western edge in decimal degrees", example = "-46.83")
+            @RequestParam double minLongitude,
+            @Parameter(description = "Northern edge in decimal degrees", example = "-23.45")
+            @RequestParam double maxLatitude,
+            @Parameter(description = "Eastern edge in decimal degrees", example = "-46.36")
+            @RequestParam double maxLongitude,
+            @Parameter(description = "Maximum number of results (1 to 1000, defaults to 50)", example = "50")
+            @RequestParam(required = false) Integer limit
+    ) {
+        return metrics.record("findWithin", () ->
+                service.findWithin(minLatitude, minLongitude, maxLatitude, maxLongitude, limit)
+        );
+    }
+
+    @Operation(
+            summary = "Persons within a radius",
+            description = """
+                    Returns up to limit persons within radius meters of the point by
+                    great-circle distance, nearest first, with their distance in meters.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Persons returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates, radius or limit"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/nearby", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PersonDistanceDto> findNearby(
+            @Parameter(description = "Latitude of the center in decimal degrees", example = "-23.5505")
+            @RequestParam double latitude,
+            @Parameter(description = "Longitude of the center in decimal degrees", example = "-46.6333")
+            @RequestParam double longitude,
+            @Parameter(description = "Radius in meters", example = "5000")
+            @RequestParam double radius,
+            @Parameter(description = "Maximum number of results (1 to 1000, defaults to 50)", example = "50")
+            @RequestParam(required = false) Integer limit
+    ) {
+        return metrics.record("findNearby", () -> service.findNearby(latitude, longitude, radius, limit));
+    }
+
+    @Operation(
+            summary = "Nearest persons",
+            description = """
+                    Returns the k located persons closest to the point by great-circle
+                    distance, nearest first, with their distance in meters. Age and tenure
+                    bounds are whole years, inclusive, and leave out persons without the
+                    corresponding date.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Persons returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates, k or bounds"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/nearest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PersonDistanceDto> findNearest(
+            @Parameter(description = "Latitude of the point in decimal degrees", example = "-23.5505")
+            @RequestParam double latitude,
+            @Parameter(description = "Longitude of the point in decimal degrees", example = "-46.6333")
+            @RequestParam double longitude,
+            @Parameter(description = "Number of neighbours (1 to 1000, defaults to 10)", example = "10")
+            @RequestParam(required = false) Integer k,
+            @Parameter(description = "Minimum age in years", example = "30")
+            @RequestParam(required = false) Integer minAge,
+            @Parameter(description = "Maximum age in years", example = "50")
+            @RequestParam(required = false) Integer maxAge,
+            @Parameter(description = "Minimum tenure in years", example = "2")
+            @RequestParam(required = false) Integer minTenure,
+            @Parameter(description = "Maximum tenure in years", example = "10")
+            @RequestParam(required = false) Integer maxTenure
+    ) {
+        return metrics.record("findNearest", () ->
+                service.findNearest(latitude, longitude, k, minAge, maxAge, minTenure, maxTenure)
+        );
     }
 
     @Operation(
             summary = "Get person by ID",
-            description = "Returns a person by its unique identifier"
+            description = """
+                    Returns a person by its unique identifier.
+                    The ETag is the person's version; send it back in If-None-Match
+                    to get 304 while the person has not changed.
+                    """
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Person found"),
+            @ApiResponse(responseCode = "304", description = "Person not modified"),
             @ApiResponse(responseCode = "404", description = "Person not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public PersonDto findById(
+    public ResponseEntity<PersonDto> findById(
             @Parameter(
                     description = "Person identifier",
                     example = "1"
             )
-            @PathVariable Long id
+            @PathVariable Long id,
+            WebRequest request
     ) {
-        return service.findById(id);
+        VersionedDto<PersonDto> person = metrics.record("findById", () -> service.findVersionedById(id));
+        String etag = PersonETags.of(service.epoch(), person.version());
+
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(person.body());
     }
 
     @Operation(
@@ -79,41 +445,90 @@ public class PersonController {
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public PersonDto create(@Valid @RequestBody PersonDto dto) {
-        return service.create(dto);
+        return metrics.record("create", () -> service.create(dto));
+    }
+
+    @Operation(
+            summary = "Create persons in bulk",
+            description = """
+                    Creates many persons from a JSON array or an NDJSON stream.
+                    Records are processed in batches as they arrive and one result line
+                    (CREATED, CONFLICT or INVALID) is streamed back per input record,
+                    in input order. Invalid or conflicting records do not abort the request.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-record results streamed successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping(
+            value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> createAll(HttpServletRequest request) throws IOException {
+
+        InputStream in = request.getInputStream();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bulkService.ingest(in, out));
     }
 
     @Operation(
             summary = "Update a person",
-            description = "Replaces all attributes of an existing person"
+            description = """
+                    Replaces all attributes of an existing person.
+                    With If-Match, the update only happens if the person still has that ETag.
+                    """
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Person updated successfully"),
             @ApiResponse(responseCode = "404", description = "Person not found"),
+            @ApiResponse(responseCode = "412", description = "Person was modified since the ETag in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public PersonDto update(
+    public ResponseEntity<PersonDto> update(
             @PathVariable Long id,
+            @Parameter(description = "ETag the person must still have")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody PersonDto dto
     ) {
-        return service.update(id, dto);
+        return versioned(metrics.record("update", () ->
+                service.update(id, dto, PersonETags.ifMatch(service.epoch(), ifMatch))
+        ));
     }
 
     @Operation(
             summary = "Partially update a person",
-            description = "Updates one or more attributes of a person"
+            description = """
+                    Updates one or more attributes of a person.
+                    With If-Match, the update only happens if the person still has that ETag.
+                    """
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Person updated successfully"),
             @ApiResponse(responseCode = "404", description = "Person not found"),
+            @ApiResponse(responseCode = "412", description = "Person was modified since the ETag in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PatchMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public PersonDto patch(
+    public ResponseEntity<PersonDto> patch(
             @PathVariable Long id,
+            @Parameter(description = "ETag the person must still have")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody PersonPatchDto dto
     ) {
-        return service.patch(id, dto);
+        return versioned(metrics.record("patch", () ->
+                service.patch(id, dto, PersonETags.ifMatch(service.epoch(), ifMatch))
+        ));
+    }
+
+    private ResponseEntity<PersonDto> versioned(VersionedDto<PersonDto> person) {
+        return ResponseEntity.ok()
+                .eTag(PersonETags.of(service.epoch(), person.version()))
+                .body(person.body());
     }
 
     @Operation(
@@ -128,7 +543,7 @@ public class PersonController {
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
-        service.delete(id);
+        metrics.record("delete", () -> service.delete(id));
     }
 
     @Operation(
@@ -142,7 +557,7 @@ public class PersonController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping(value = "/{id}/age", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Map<String, Object> getAge(
+    public AgeDto getAge(
             @PathVariable Long id,
             @Parameter(
                     description = "Age output format",
@@ -150,7 +565,7 @@ public class PersonController {
             )
             @RequestParam AgeEnum output
     ) {
-        return service.calculateAge(id, output);
+        return metrics.record("calculateAge", () -> service.calculateAge(id, output));
     }
 
     @Operation(
@@ -168,7 +583,7 @@ public class PersonController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping(value = "/{id}/salary", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Map<String, Object> getSalary(
+    public SalaryDto getSalary(
             @PathVariable Long id,
             @Parameter(
                     description = "Salary output format",
@@ -176,6 +591,68 @@ public class PersonController {
             )
             @RequestParam SalaryEnum output
     ) {
-        return service.calculateSalary(id, output);
+        return metrics.record("calculateSalary", () -> service.calculateSalary(id, output));
+    }
+
+    @Operation(
+            summary = "Age distribution",
+            description = """
+                    Returns count, min, max, average, total, percentiles (p50, p90, p95, p99)
+                    and a histogram of ages in days, months or years, over every person or
+                    only those matching the optional filters. Computed in one parallel pass.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Analytics calculated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid output, filter or bucket width"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/analytics/age", produces = MediaType.APPLICATION_JSON_VALUE)
+    public PersonAnalyticsDto<Long> getAgeAnalytics(
+            @Parameter(
+                    description = "Age output format",
+                    example = "YEARS"
+            )
+            @RequestParam AgeEnum output,
+            @Parameter(
+                    description = "Histogram bucket width in the output unit (defaults to ten years)",
+                    example = "10"
+            )
+            @RequestParam(required = false) Long bucketWidth,
+            @ParameterObject @ModelAttribute PersonFilterDto filter
+    ) {
+        return metrics.record("ageAnalytics", () -> analyticsService.age(output, filter, bucketWidth));
+    }
+
+    @Operation(
+            summary = "Salary distribution",
+            description = """
+                    Returns count, min, max, average, total, percentiles (p50, p90, p95, p99)
+                    and a histogram of salaries, over every person or only those matching the
+                    optional filters. Computed in one parallel pass.
+                    - FULL: values in BRL
+                    - MIN: values in minimum wages
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Analytics calculated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid output, filter or bucket width"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/analytics/salary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public PersonAnalyticsDto<BigDecimal> getSalaryAnalytics(
+            @Parameter(
+                    description = "Salary output format",
+                    example = "FULL"
+            )
+            @RequestParam SalaryEnum output,
+            @Parameter(
+                    description = "Histogram bucket width in the output unit (defaults to 1000 BRL or 1 minimum wage)",
+                    example = "1000"
+            )
+            @RequestParam(required = false) BigDecimal bucketWidth,
+            @ParameterObject @ModelAttribute PersonFilterDto filter
+    ) {
+        return metrics.record("salaryAnalytics", () -> analyticsService.salary(output, filter, bucketWidth));
     }
-}
\ No newline at end of file
+}
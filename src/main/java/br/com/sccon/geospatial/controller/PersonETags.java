@@ -0,0 +1,65 @@
+package br.com.sccon.geospatial.controller;
+
+import org.springframework.http.ETag;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Strong entity tags for person and collection versions.
+ * <p>
+ * Versions only grow within one run of the application, so tags carry the
+ * {@linkplain br.com.sccon.geospatial.service.PersonService#epoch() epoch}
+ * they count in: a tag handed out before a restart never matches
+ * afterwards, even if the counter reaches the same value again. A follower
+ * uses its leader's epoch and versions, so tags work across the two.
+ */
+final class PersonETags {
+
+    private PersonETags() {}
+
+    static String of(String epoch, long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * Turns an {@code If-Match} header into a test on the current version:
+     * absent or {@code *} accepts any version, otherwise one of the listed
+     * tags must strongly match it. Weak and foreign tags never match.
+     */
+    static LongPredicate ifMatch(String epoch, String header) {
+        if (header == null) {
+            return version -> true;
+        }
+
+        List<ETag> tags = ETag.parse(header);
+
+        if (tags.stream().anyMatch(ETag::isWildcard)) {
+            return version -> true;
+        }
+
+        String prefix = epoch + "-";
+        long[] versions = tags.stream()
+                .filter(tag -> !tag.weak() && tag.tag().startsWith(prefix))
+                .mapToLong(tag -> parse(tag.tag().substring(prefix.length())))
+                .toArray();
+
+        return version -> {
+            for (long candidate : versions) {
+                if (candidate == version) {
+                    return true;
+                }
+            }
+
+            return false;
+        };
+    }
+
+    private static long parse(String version) {
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.sccon.geospatial.converter;
+
+import br.com.sccon.geospatial.model.dto.AgeDto;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link AgeDto} straight into the generator with field names and
+ * output labels encoded once, instead of going through bean introspection.
+ */
+public class AgeDtoSerializer extends StdSerializer<AgeDto> {
+
+    private static final SerializableString AGE = new SerializedString("age");
+
+    private static final SerializableString[] LABELS = JsonLabels.of(AgeEnum.values());
+
+    public AgeDtoSerializer() {
+        super(AgeDto.class);
+    }
+
+    @Override
+    public void serialize(AgeDto value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(value);
+        JsonLabels.writeIdAndName(generator, value.id(), value.name());
+        generator.writeFieldName(JsonLabels.OUTPUT);
+        generator.writeString(LABELS[value.output().ordinal()]);
+        generator.writeFieldName(AGE);
+        generator.writeNumber(value.age());
+        generator.writeEndObject();
+    }
+}
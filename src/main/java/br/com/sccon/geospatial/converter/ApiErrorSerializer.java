@@ -0,0 +1,93 @@
+package br.com.sccon.geospatial.converter;
+
+import br.com.sccon.geospatial.exception.ApiError;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes {@link ApiError} from pre-encoded parts: field names and the reason
+ * phrase of every status are encoded once, and the timestamp text is kept
+ * for as long as the handler hands out the same timestamp, so only the
+ * message and path are escaped per response.
+ */
+public class ApiErrorSerializer extends StdSerializer<ApiError> {
+
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+
+    private static final SerializableString STATUS = new SerializedString("status");
+
+    private static final SerializableString ERROR = new SerializedString("error");
+
+    private static final SerializableString MESSAGE = new SerializedString("message");
+
+    private static final SerializableString PATH = new SerializedString("path");
+
+    private static final SerializableString[] REASONS = new SerializableString[600];
+
+    static {
+        for (HttpStatus status : HttpStatus.values()) {
+            REASONS[status.value()] = new SerializedString(status.getReasonPhrase());
+        }
+    }
+
+    private volatile Timestamp last = new Timestamp(LocalDateTime.MIN, null);
+
+    public ApiErrorSerializer() {
+        super(ApiError.class);
+    }
+
+    @Override
+    public void serialize(ApiError value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(value);
+
+        generator.writeFieldName(TIMESTAMP);
+
+        if (value.timestamp() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(timestamp(value.timestamp()));
+        }
+
+        generator.writeFieldName(STATUS);
+        generator.writeNumber(value.status());
+
+        generator.writeFieldName(ERROR);
+        SerializableString reason = value.status() >= 0 && value.status() < REASONS.length
+                ? REASONS[value.status()]
+                : null;
+
+        if (reason != null && reason.getValue().equals(value.error())) {
+            generator.writeString(reason);
+        } else {
+            generator.writeString(value.error());
+        }
+
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(value.message());
+        generator.writeFieldName(PATH);
+        generator.writeString(value.path());
+        generator.writeEndObject();
+    }
+
+    private SerializableString timestamp(LocalDateTime time) {
+        Timestamp current = last;
+
+        if (!current.time().equals(time)) {
+            current = new Timestamp(time, new SerializedString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time)));
+            last = current;
+        }
+
+        return current.text();
+    }
+
+    private record Timestamp(LocalDateTime time, SerializableString text) {
+    }
+}
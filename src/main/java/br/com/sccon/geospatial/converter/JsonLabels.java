@@ -0,0 +1,44 @@
+package br.com.sccon.geospatial.converter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Field names and enum labels shared by the hand-written serializers.
+ */
+final class JsonLabels {
+
+    static final SerializableString ID = new SerializedString("id");
+
+    static final SerializableString NAME = new SerializedString("name");
+
+    static final SerializableString OUTPUT = new SerializedString("output");
+
+    private JsonLabels() {}
+
+    /**
+     * Lower-case labels indexed by ordinal.
+     */
+    static SerializableString[] of(Enum<?>[] values) {
+        return Arrays.stream(values)
+                .map(value -> new SerializedString(value.name().toLowerCase()))
+                .toArray(SerializableString[]::new);
+    }
+
+    static void writeIdAndName(JsonGenerator generator, Long id, String name) throws IOException {
+        generator.writeFieldName(ID);
+
+        if (id == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(id);
+        }
+
+        generator.writeFieldName(NAME);
+        generator.writeString(name);
+    }
+}
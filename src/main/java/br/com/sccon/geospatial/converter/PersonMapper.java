@@ -1,7 +1,9 @@
 package br.com.sccon.geospatial.converter;
 
 import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.dto.ReplicationEventDto;
 import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.model.enums.ReplicationEventEnum;
 
 import java.util.function.Function;
 
@@ -13,14 +15,48 @@ public final class PersonMapper {
                     person.getId(),
                     person.getName(),
                     person.getBirthDate(),
-                    person.getAdmissionDate()
+                    person.getAdmissionDate(),
+                    person.getLatitude(),
+                    person.getLongitude(),
+                    person.getUpdatedAt()
             );
 
     public static final Function<PersonDto, Person> TO_ENTITY =
-            dto -> new Person(
-                    dto.id(),
-                    dto.name(),
-                    dto.birthDate(),
-                    dto.admissionDate()
-            );
+            dto -> Person.builder()
+                    .id(dto.id())
+                    .name(dto.name())
+                    .birthDate(dto.birthDate())
+                    .admissionDate(dto.admissionDate())
+                    .latitude(dto.latitude())
+                    .longitude(dto.longitude())
+                    .build();
+
+    public static ReplicationEventDto toEvent(ReplicationEventEnum type, long sequence, Person person) {
+        return new ReplicationEventDto(
+                type,
+                sequence,
+                person.getId(),
+                person.getName(),
+                person.getBirthDate(),
+                person.getAdmissionDate(),
+                person.getLatitude(),
+                person.getLongitude(),
+                person.getUpdatedAt(),
+                person.getVersion(),
+                null
+        );
+    }
+
+    public static Person fromEvent(ReplicationEventDto event) {
+        return Person.builder()
+                .id(event.id())
+                .name(event.name())
+                .birthDate(event.birthDate())
+                .admissionDate(event.admissionDate())
+                .latitude(event.latitude())
+                .longitude(event.longitude())
+                .updatedAt(event.updatedAt())
+                .version(event.version() == null ? 0 : event.version())
+                .build();
+    }
 }
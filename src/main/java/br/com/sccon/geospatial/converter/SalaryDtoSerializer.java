@@ -0,0 +1,44 @@
+package br.com.sccon.geospatial.converter;
+
+import br.com.sccon.geospatial.model.dto.SalaryDto;
+import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link SalaryDto} straight into the generator, naming the value
+ * after the output format with pre-encoded field names.
+ */
+public class SalaryDtoSerializer extends StdSerializer<SalaryDto> {
+
+    private static final SerializableString[] LABELS = JsonLabels.of(SalaryEnum.values());
+
+    private static final SerializableString[] VALUE_FIELDS = new SerializableString[SalaryEnum.values().length];
+
+    static {
+        VALUE_FIELDS[SalaryEnum.FULL.ordinal()] = new SerializedString("salary");
+        VALUE_FIELDS[SalaryEnum.MIN.ordinal()] = new SerializedString("minimumWages");
+    }
+
+    public SalaryDtoSerializer() {
+        super(SalaryDto.class);
+    }
+
+    @Override
+    public void serialize(SalaryDto value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        int output = value.output().ordinal();
+
+        generator.writeStartObject(value);
+        JsonLabels.writeIdAndName(generator, value.id(), value.name());
+        generator.writeFieldName(JsonLabels.OUTPUT);
+        generator.writeString(LABELS[output]);
+        generator.writeFieldName(VALUE_FIELDS[output]);
+        generator.writeNumber(value.value());
+        generator.writeEndObject();
+    }
+}
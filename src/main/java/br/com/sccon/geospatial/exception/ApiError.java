@@ -1,7 +1,11 @@
 package br.com.sccon.geospatial.exception;
 
+import br.com.sccon.geospatial.converter.ApiErrorSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.time.LocalDateTime;
 
+@JsonSerialize(using = ApiErrorSerializer.class)
 public record ApiError(
         LocalDateTime timestamp,
         int status,
@@ -1,6 +1,6 @@
 package br.com.sccon.geospatial.exception;
 
-public class BusinessException extends RuntimeException {
+public class BusinessException extends DomainException {
 
     public BusinessException(String message) {
         super(message);
@@ -1,6 +1,6 @@
 package br.com.sccon.geospatial.exception;
 
-public class ConflictException extends RuntimeException {
+public class ConflictException extends DomainException {
 
     public ConflictException(String message) {
         super(message);
@@ -0,0 +1,17 @@
+package br.com.sccon.geospatial.exception;
+
+/**
+ * Base of the exceptions the service throws for expected outcomes, such as
+ * a missing id or a stale version, which the handler turns into error
+ * responses.
+ * <p>
+ * They carry no stack trace: a client probing missing ids throws one per
+ * request, filling in the trace would cost more than the lookup itself,
+ * and the message already says everything the response and logs need.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
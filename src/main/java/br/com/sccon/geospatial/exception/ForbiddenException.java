@@ -0,0 +1,8 @@
+package br.com.sccon.geospatial.exception;
+
+public class ForbiddenException extends DomainException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
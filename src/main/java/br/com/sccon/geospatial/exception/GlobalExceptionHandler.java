@@ -1,40 +1,53 @@
 package br.com.sccon.geospatial.exception;
 
+import br.com.sccon.geospatial.metrics.PersonMetrics;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.lang.reflect.RecordComponent;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
+@RequiredArgsConstructor
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final PersonMetrics metrics;
+
+    private final Clock clock;
+
+    private volatile Second second = new Second(Long.MIN_VALUE, null);
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ApiError> handleMethodArgumentTypeMismatch(
             MethodArgumentTypeMismatchException ex,
             HttpServletRequest request
     ) {
 
-        String message = String.format(
-                "Invalid value '%s' for parameter '%s'. Allowed values are: %s",
-                ex.getValue(),
-                ex.getName(),
-                Arrays.toString(
-                        Objects.requireNonNull(ex.getRequiredType()).getEnumConstants()
-                )
-        );
+        String message = "Invalid value '" + ex.getValue()
+                + "' for parameter '" + ex.getName()
+                + "'. Allowed values are: "
+                + Arrays.toString(Objects.requireNonNull(ex.getRequiredType()).getEnumConstants());
 
         return buildError(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 message,
                 request.getRequestURI()
@@ -47,30 +60,98 @@ public class GlobalExceptionHandler {
             HttpServletRequest request
     ) {
         return buildError(
+                ex,
                 HttpStatus.CONFLICT,
                 ex.getMessage(),
                 request.getRequestURI()
         );
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiError> handlePreconditionFailed(
+            PreconditionFailedException ex,
+            HttpServletRequest request
+    ) {
+        return buildError(
+                ex,
+                HttpStatus.PRECONDITION_FAILED,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
+    @ExceptionHandler(ForbiddenException.class)
+    public ResponseEntity<ApiError> handleForbidden(
+            ForbiddenException ex,
+            HttpServletRequest request
+    ) {
+        return buildError(
+                ex,
+                HttpStatus.FORBIDDEN,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ApiError> handleNotFound(
             NotFoundException ex,
             HttpServletRequest request
     ) {
         return buildError(
+                ex,
                 HttpStatus.NOT_FOUND,
                 ex.getMessage(),
                 request.getRequestURI()
         );
     }
 
+    @ExceptionHandler(StaleReplicaException.class)
+    public ResponseEntity<ApiError> handleStaleReplica(
+            StaleReplicaException ex,
+            HttpServletRequest request
+    ) {
+        return buildError(
+                ex,
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
+    @ExceptionHandler(ReadOnlyReplicaException.class)
+    public ResponseEntity<ApiError> handleReadOnlyReplica(
+            ReadOnlyReplicaException ex,
+            HttpServletRequest request
+    ) {
+        return buildError(
+                ex,
+                HttpStatus.METHOD_NOT_ALLOWED,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
+    @ExceptionHandler(ShardUnavailableException.class)
+    public ResponseEntity<ApiError> handleShardUnavailable(
+            ShardUnavailableException ex,
+            HttpServletRequest request
+    ) {
+        return buildError(
+                ex,
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ApiError> handleBusiness(
             BusinessException ex,
             HttpServletRequest request
     ) {
         return buildError(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 ex.getMessage(),
                 request.getRequestURI()
@@ -83,15 +164,24 @@ public class GlobalExceptionHandler {
             HttpServletRequest request
     ) {
 
-        String message = ex.getBindingResult()
-                .getFieldErrors()
-                .stream()
-                .map(FieldError::getDefaultMessage)
+        // field errors in declaration order, then class-level ones such as @CompleteLocation
+        String message = Stream.concat(
+                        ex.getBindingResult()
+                                .getFieldErrors()
+                                .stream()
+                                .sorted(declarationOrder(ex.getBindingResult().getTarget()))
+                                .map(FieldError::getDefaultMessage),
+                        ex.getBindingResult()
+                                .getGlobalErrors()
+                                .stream()
+                                .map(ObjectError::getDefaultMessage)
+                )
                 .distinct()
                 .reduce((a, b) -> a + "; " + b)
                 .orElse("Validation error");
 
         return buildError(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 message,
                 request.getRequestURI()
@@ -119,14 +209,11 @@ public class GlobalExceptionHandler {
 
             Object value = ife.getValue();
 
-            message = String.format(
-                    "Invalid value '%s' for field '%s'",
-                    value,
-                    field
-            );
+            message = "Invalid value '" + value + "' for field '" + field + "'";
         }
 
         return buildError(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 message,
                 request.getRequestURI()
@@ -139,26 +226,43 @@ public class GlobalExceptionHandler {
             HttpServletRequest request
     ) {
 
-        String message = String.format(
-                "Required request parameter '%s' of type '%s' is missing",
-                ex.getParameterName(),
-                ex.getParameterType()
-        );
+        String message = "Required request parameter '" + ex.getParameterName()
+                + "' of type '" + ex.getParameterType() + "' is missing";
 
         return buildError(
+                ex,
                 HttpStatus.BAD_REQUEST,
                 message,
                 request.getRequestURI()
         );
     }
 
+    /**
+     * Orders field errors by the declaration order of the validated record,
+     * so messages do not depend on the validator's iteration order.
+     */
+    private static Comparator<FieldError> declarationOrder(Object target) {
+        if (target == null || !target.getClass().isRecord()) {
+            return (a, b) -> 0;
+        }
+
+        List<String> fields = Arrays.stream(target.getClass().getRecordComponents())
+                .map(RecordComponent::getName)
+                .toList();
+
+        return Comparator.comparingInt(error -> fields.indexOf(error.getField()));
+    }
+
     private ResponseEntity<ApiError> buildError(
+            Exception ex,
             HttpStatus status,
             String message,
             String path
     ) {
+        metrics.error(ex, status.value());
+
         ApiError error = new ApiError(
-                LocalDateTime.now(),
+                now(),
                 status.value(),
                 status.getReasonPhrase(),
                 message,
@@ -167,4 +271,27 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(status).body(error);
     }
+
+    /**
+     * Current time to the second, built once per second; every error in the
+     * same second shares it, and with it the timestamp text the serializer
+     * encoded for the first one.
+     */
+    private LocalDateTime now() {
+        long epochSecond = Math.floorDiv(clock.millis(), 1000);
+        Second current = second;
+
+        if (current.epochSecond() != epochSecond) {
+            current = new Second(
+                    epochSecond,
+                    LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), clock.getZone())
+            );
+            second = current;
+        }
+
+        return current.time();
+    }
+
+    private record Second(long epochSecond, LocalDateTime time) {
+    }
 }
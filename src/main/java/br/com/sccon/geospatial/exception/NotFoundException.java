@@ -1,6 +1,6 @@
 package br.com.sccon.geospatial.exception;
 
-public class NotFoundException extends RuntimeException {
+public class NotFoundException extends DomainException {
 
     public NotFoundException(String message) {
         super(message);
@@ -0,0 +1,8 @@
+package br.com.sccon.geospatial.exception;
+
+public class PreconditionFailedException extends DomainException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
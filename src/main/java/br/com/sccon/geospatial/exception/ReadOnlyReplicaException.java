@@ -0,0 +1,8 @@
+package br.com.sccon.geospatial.exception;
+
+public class ReadOnlyReplicaException extends DomainException {
+
+    public ReadOnlyReplicaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.sccon.geospatial.exception;
+
+public class ShardUnavailableException extends RuntimeException {
+
+    public ShardUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.sccon.geospatial.exception;
+
+public class StaleReplicaException extends DomainException {
+
+    public StaleReplicaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.sccon.geospatial.id;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Source shared by every instance that can reach the same file, e.g. on a
+ * shared volume. The file holds the high-water mark as one long, and every
+ * change reads, updates and forces it under an exclusive OS file lock, so
+ * instances in different processes never reserve overlapping blocks.
+ * <p>
+ * OS locks are held per process, so threads also take a lock kept per file
+ * in this process first; several sources on one file, like the nodes of a
+ * cluster started in one JVM, then take turns instead of failing.
+ */
+public class FileIdBlockSource implements IdBlockSource {
+
+    private static final ConcurrentMap<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path path;
+
+    private final ReentrantLock localLock;
+
+    public FileIdBlockSource(Path path) {
+        this.path = path;
+
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the id block directory for " + path, e);
+        }
+
+        this.localLock = LOCAL_LOCKS.computeIfAbsent(path.toAbsolutePath().normalize(), key -> new ReentrantLock());
+    }
+
+    @Override
+    public long reserve(int size) {
+        return update(mark -> mark + size) - size + 1;
+    }
+
+    @Override
+    public void claim(long id) {
+        update(mark -> Math.max(mark, id));
+    }
+
+    @Override
+    public long highWaterMark() {
+        return update(LongUnaryOperator.identity());
+    }
+
+    /**
+     * Applies the change to the stored mark and returns the new value.
+     */
+    private long update(LongUnaryOperator change) {
+        localLock.lock();
+
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            FileLock lock = channel.lock();
+
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+                long mark = channel.read(buffer, 0) == Long.BYTES ? buffer.flip().getLong() : 0;
+                long updated = change.applyAsLong(mark);
+
+                if (updated != mark) {
+                    channel.write(buffer.clear().putLong(updated).flip(), 0);
+                    channel.force(false);
+                }
+
+                return updated;
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot update the id block file " + path, e);
+        } finally {
+            localLock.unlock();
+        }
+    }
+}
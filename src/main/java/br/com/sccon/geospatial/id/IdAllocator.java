@@ -0,0 +1,131 @@
+package br.com.sccon.geospatial.id;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hi/lo id allocator: ids come from a block reserved from the shared
+ * {@link IdBlockSource}, and only running out of the block goes back to it.
+ * Handing out an id is one atomic increment.
+ * <p>
+ * Ids taken explicitly by clients are claimed on the source, so blocks
+ * reserved afterwards, here or on another instance, start above them. An
+ * explicit id may still fall inside a block reserved earlier; callers skip
+ * those by taking the next id when the insert conflicts.
+ * <p>
+ * Recovery does not scan the store: restored ids are {@linkplain #observe
+ * observed} locally as they are replayed and claimed once at the end.
+ */
+@Component
+public class IdAllocator {
+
+    private static final Block EXHAUSTED = new Block(1, 1);
+
+    private final IdBlockSource source;
+
+    private final int blockSize;
+
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    private final AtomicLong lastIssued = new AtomicLong();
+
+    private final AtomicLong observed = new AtomicLong();
+
+    /**
+     * A value the source's high-water mark is known to have reached; the mark
+     * never goes down, so ids up to it need no claim.
+     */
+    private final AtomicLong covered = new AtomicLong();
+
+    private volatile Block block = EXHAUSTED;
+
+    @Autowired
+    public IdAllocator(IdBlockSource source, IdProperties properties) {
+        this(source, properties.getBlockSize());
+    }
+
+    public IdAllocator(IdBlockSource source, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be greater than zero");
+        }
+
+        this.source = source;
+        this.blockSize = blockSize;
+    }
+
+    public long next() {
+        while (true) {
+            Block current = block;
+            long id = current.next.getAndIncrement();
+
+            if (id < current.end) {
+                lastIssued.accumulateAndGet(id, Math::max);
+                return id;
+            }
+
+            refillLock.lock();
+
+            try {
+                if (block == current) {
+                    long first = source.reserve(blockSize);
+                    block = new Block(first, first + blockSize);
+                    covered.accumulateAndGet(first + blockSize - 1, Math::max);
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Keeps an explicitly chosen id out of future blocks.
+     */
+    public void claim(long id) {
+        observe(id);
+        cover(id);
+    }
+
+    /**
+     * Records an id restored into the store, without contacting the source.
+     */
+    public void observe(long id) {
+        observed.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Claims the highest id observed since startup on the source, once
+     * recovery or seeding is done.
+     */
+    public void claimObserved() {
+        cover(observed.get());
+    }
+
+    /**
+     * Highest id handed out by this instance; 0 before the first one.
+     */
+    public long lastIssued() {
+        return lastIssued.get();
+    }
+
+    private void cover(long id) {
+        if (id > covered.get()) {
+            source.claim(id);
+            covered.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+
+        private final long end;
+
+        private Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.sccon.geospatial.id;
+
+/**
+ * Shared source of id blocks, the "hi" half of a hi/lo allocator: every
+ * instance reserves whole blocks from it and hands out the ids inside them
+ * on its own, so the source is only contacted once per block.
+ * <p>
+ * Implementations must be safe for every instance sharing the source, not
+ * just for the threads of one JVM.
+ */
+public interface IdBlockSource {
+
+    /**
+     * Reserves {@code size} consecutive ids that no other reservation will
+     * ever overlap, and returns the first one.
+     */
+    long reserve(int size);
+
+    /**
+     * Makes sure ids up to {@code id}, taken explicitly by a client, are not
+     * part of any block reserved from now on.
+     */
+    void claim(long id);
+
+    /**
+     * Highest id reserved or claimed so far.
+     */
+    long highWaterMark();
+}
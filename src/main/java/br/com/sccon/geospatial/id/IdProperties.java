@@ -0,0 +1,27 @@
+package br.com.sccon.geospatial.id;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "geospatial.ids")
+public class IdProperties {
+
+    /**
+     * memory: blocks from an in-process counter; file: blocks from a file shared by every instance.
+     */
+    private String source = "memory";
+
+    /**
+     * Ids reserved from the source at a time.
+     */
+    private int blockSize = 1000;
+
+    private Path file = Path.of("data", "person-ids");
+}
@@ -0,0 +1,27 @@
+package br.com.sccon.geospatial.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source for a single instance: the high-water mark lives in memory and is
+ * rebuilt from the ids seen while the store is recovered.
+ */
+public class InMemoryIdBlockSource implements IdBlockSource {
+
+    private final AtomicLong highWaterMark = new AtomicLong();
+
+    @Override
+    public long reserve(int size) {
+        return highWaterMark.getAndAdd(size) + 1;
+    }
+
+    @Override
+    public void claim(long id) {
+        highWaterMark.accumulateAndGet(id, Math::max);
+    }
+
+    @Override
+    public long highWaterMark() {
+        return highWaterMark.get();
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.sccon.geospatial.index;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing set of primitive longs with linear probing and
+ * backward-shift deletion. Not thread-safe; callers synchronize.
+ */
+final class LongHashSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] slots = newSlots(8);
+
+    private int size;
+
+    private boolean containsEmpty;
+
+    boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !containsEmpty;
+            containsEmpty = true;
+            return added;
+        }
+
+        if ((size + 1) * 4 > slots.length * 3) {
+            rehash(slots.length * 2);
+        }
+
+        int mask = slots.length - 1;
+        int slot = hash(value) & mask;
+
+        while (slots[slot] != EMPTY) {
+            if (slots[slot] == value) {
+                return false;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        slots[slot] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove(long value) {
+        if (value == EMPTY) {
+            boolean removed = containsEmpty;
+            containsEmpty = false;
+            return removed;
+        }
+
+        int mask = slots.length - 1;
+        int slot = hash(value) & mask;
+
+        while (slots[slot] != value) {
+            if (slots[slot] == EMPTY) {
+                return false;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        int hole = slot;
+        slot = (slot + 1) & mask;
+
+        while (slots[slot] != EMPTY) {
+            int home = hash(slots[slot]) & mask;
+
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                slots[hole] = slots[slot];
+                hole = slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        slots[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size + (containsEmpty ? 1 : 0);
+    }
+
+    /**
+     * Visits the values until {@code action} returns false.
+     */
+    void forEachWhile(LongPredicate action) {
+        if (containsEmpty && !action.test(EMPTY)) {
+            return;
+        }
+
+        for (long value : slots) {
+            if (value != EMPTY && !action.test(value)) {
+                return;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] previous = slots;
+        slots = newSlots(capacity);
+        size = 0;
+
+        for (long value : previous) {
+            if (value != EMPTY) {
+                add(value);
+            }
+        }
+    }
+
+    private static long[] newSlots(int capacity) {
+        long[] slots = new long[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.sccon.geospatial.index;
+
+/**
+ * Open-addressing map from primitive longs to non-negative ints with linear
+ * probing and backward-shift deletion, the map counterpart of
+ * {@link LongHashSet}. Not thread-safe; callers synchronize.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private long[] keys = new long[8];
+
+    // value + 1, so 0 marks a free slot
+    private int[] values = new int[8];
+
+    private int size;
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (values[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if ((size + 1) * 4 > keys.length * 3) {
+            rehash(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (values[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        if (values[slot] == 0) {
+            size++;
+        }
+
+        keys[slot] = key;
+        values[slot] = value + 1;
+    }
+
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (keys[slot] != key || values[slot] == 0) {
+            if (values[slot] == 0) {
+                return MISSING;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        int removed = values[slot] - 1;
+        int hole = slot;
+        slot = (slot + 1) & mask;
+
+        while (values[slot] != 0) {
+            int home = hash(keys[slot]) & mask;
+
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[hole] = 0;
+        values[hole] = 0;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        long[] previousKeys = keys;
+        int[] previousValues = values;
+
+        keys = new long[capacity];
+        values = new int[capacity];
+        size = 0;
+
+        for (int slot = 0; slot < previousKeys.length; slot++) {
+            if (previousValues[slot] != 0) {
+                put(previousKeys[slot], previousValues[slot] - 1);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
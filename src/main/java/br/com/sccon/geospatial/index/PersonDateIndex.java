@@ -0,0 +1,119 @@
+package br.com.sccon.geospatial.index;
+
+import br.com.sccon.geospatial.model.entity.Person;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Secondary index of persons ordered by one of their dates (ties broken by
+ * id), reduced to a long key: the epoch day for range queries or the day of
+ * the year for anniversaries.
+ * <p>
+ * Kept up to date by the caller inside its per-id critical section. Readers
+ * check every entry against the store, so entries left behind by a
+ * concurrent change or delete are skipped.
+ */
+public class PersonDateIndex {
+
+    /**
+     * Leap year used to number days of the year, so February 29 has a slot
+     * of its own between February 28 and March 1.
+     */
+    private static final int LEAP_YEAR = 2000;
+
+    private final ConcurrentSkipListSet<Key> keys = new ConcurrentSkipListSet<>();
+
+    private final Function<Person, LocalDate> date;
+
+    private final ToLongFunction<LocalDate> key;
+
+    private PersonDateIndex(Function<Person, LocalDate> date, ToLongFunction<LocalDate> key) {
+        this.date = date;
+        this.key = key;
+    }
+
+    public static PersonDateIndex byEpochDay(Function<Person, LocalDate> date) {
+        return new PersonDateIndex(date, LocalDate::toEpochDay);
+    }
+
+    public static PersonDateIndex byDayOfYear(Function<Person, LocalDate> date) {
+        return new PersonDateIndex(date, PersonDateIndex::dayOfYear);
+    }
+
+    /**
+     * Day of the year from 1 to 366 as if every year were a leap year.
+     */
+    public static long dayOfYear(LocalDate date) {
+        return date.withYear(LEAP_YEAR).getDayOfYear();
+    }
+
+    /**
+     * Moves the person to the position of its current date; null on either
+     * side means the person is being created or removed. The new key is
+     * inserted before the old one is removed, as in {@link PersonNameIndex}.
+     */
+    public void update(Person previous, Person person) {
+        Key before = keyOf(previous);
+        Key after = keyOf(person);
+
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (after != null) {
+            keys.add(after);
+        }
+        if (before != null) {
+            keys.remove(before);
+        }
+    }
+
+    /**
+     * Persons whose key is between {@code from} and {@code to}, both
+     * inclusive, in key order.
+     */
+    public Stream<Person> between(long from, long to, LongFunction<Person> lookup) {
+        if (from > to) {
+            return Stream.empty();
+        }
+
+        return keys.subSet(new Key(from, Long.MIN_VALUE), true, new Key(to, Long.MAX_VALUE), true)
+                .stream()
+                .map(entry -> {
+                    Person person = lookup.apply(entry.id());
+                    return entry.equals(keyOf(person)) ? person : null;
+                })
+                .filter(Objects::nonNull);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    private Key keyOf(Person person) {
+        if (person == null) {
+            return null;
+        }
+
+        LocalDate value = date.apply(person);
+        return value == null ? null : new Key(key.applyAsLong(value), person.getId());
+    }
+
+    private record Key(long key, long id) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator
+                .comparingLong(Key::key)
+                .thenComparingLong(Key::id);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.sccon.geospatial.index;
+
+import br.com.sccon.geospatial.exception.BusinessException;
+import br.com.sccon.geospatial.model.entity.Person;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Secondary index of persons ordered by name (ties broken by id).
+ * Kept up to date by the repositories inside their per-id critical section,
+ * so listings walk the index instead of sorting the whole store.
+ */
+public class PersonNameIndex {
+
+    private final ConcurrentSkipListSet<Key> keys = new ConcurrentSkipListSet<>();
+
+    public void add(String name, long id) {
+        keys.add(new Key(name, id));
+    }
+
+    public void remove(String name, long id) {
+        keys.remove(new Key(name, id));
+    }
+
+    /**
+     * Moves an entry to its new position; a null name on either side means the
+     * person is being created or removed. The new key is inserted before the
+     * old one is removed so concurrent readers never lose sight of the entry.
+     */
+    public void update(String previousName, String name, long id) {
+        if (Objects.equals(previousName, name)) {
+            return;
+        }
+        if (name != null) {
+            add(name, id);
+        }
+        if (previousName != null) {
+            remove(previousName, id);
+        }
+    }
+
+    /**
+     * Walks the persons behind the entries after the given key, skipping
+     * entries that are stale because of a concurrent rename or delete.
+     */
+    public Stream<Person> persons(Key after, LongFunction<Person> lookup) {
+        return after(after).stream()
+                .map(key -> {
+                    Person person = lookup.apply(key.id());
+                    return person != null && key.name().equals(person.getName()) ? person : null;
+                })
+                .filter(Objects::nonNull);
+    }
+
+    public NavigableSet<Key> ascending() {
+        return keys;
+    }
+
+    public NavigableSet<Key> after(Key key) {
+        return key == null ? keys : keys.tailSet(key, false);
+    }
+
+    public record Key(String name, long id) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator
+                .comparing(Key::name)
+                .thenComparingLong(Key::id);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+
+        public String toCursor() {
+            return Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString((id + ":" + name).getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Key fromCursor(String cursor) {
+            try {
+                String decoded = new String(
+                        Base64.getUrlDecoder().decode(cursor),
+                        StandardCharsets.UTF_8
+                );
+                int separator = decoded.indexOf(':');
+                return new Key(
+                        decoded.substring(separator + 1),
+                        Long.parseLong(decoded.substring(0, separator))
+                );
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new BusinessException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
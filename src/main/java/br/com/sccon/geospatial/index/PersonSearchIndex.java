@@ -0,0 +1,351 @@
+package br.com.sccon.geospatial.index;
+
+import br.com.sccon.geospatial.model.entity.Person;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Name search by prefix and by trigram similarity, over names folded to
+ * lower case without accents.
+ * <p>
+ * Prefixes are answered from a {@link PersonNameIndex} of folded names.
+ * Fuzzy matches come from an inverted index of trigrams (three-character
+ * windows of the folded name padded with spaces) over distinct folded
+ * names rather than persons: names repeat a lot, so a common trigram points
+ * at thousands of names instead of millions of ids, and each name is scored
+ * once. A query only scans the postings of its rarest trigrams: a name
+ * whose Jaccard similarity to the query reaches the threshold must share at
+ * least {@code ceil(threshold * |query trigrams|)} of them, so it is bound
+ * to appear in one of the remaining lists. The best names are then expanded
+ * to their persons through the prefix index.
+ * <p>
+ * Entries are changed by the caller inside its per-id critical section.
+ * Readers check every hit against the store, so entries left behind by a
+ * concurrent rename or delete are skipped.
+ */
+public class PersonSearchIndex {
+
+    public static final double DEFAULT_SIMILARITY = 0.3;
+
+    /**
+     * Queries shorter than this are served by prefix only; their trigrams
+     * are shared by too many names to narrow anything down.
+     */
+    public static final int MIN_FUZZY_LENGTH = 3;
+
+    /**
+     * Upper bound on distinct names scored per query, which keeps the worst
+     * case bounded when even the rarest trigrams are very common.
+     */
+    static final int MAX_CANDIDATES = 20_000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final PersonNameIndex prefixes = new PersonNameIndex();
+
+    private final Map<String, Term> terms = new ConcurrentHashMap<>();
+
+    private final Map<Long, Term> termsById = new ConcurrentHashMap<>();
+
+    private final Map<Long, Posting> postings = new ConcurrentHashMap<>();
+
+    private final AtomicLong termIds = new AtomicLong();
+
+    /**
+     * Moves the person from its previous name to the new one; null on either
+     * side means the person is being created or removed.
+     */
+    public void update(String previousName, String name, long id) {
+        String before = previousName == null ? null : fold(previousName);
+        String after = name == null ? null : fold(name);
+
+        if (Objects.equals(before, after)) {
+            return;
+        }
+
+        prefixes.update(before, after, id);
+
+        if (after != null) {
+            terms.compute(after, (key, term) -> {
+                if (term == null) {
+                    term = new Term(termIds.incrementAndGet(), key, trigrams(key));
+                    termsById.put(term.id, term);
+
+                    long termId = term.id;
+
+                    for (long trigram : term.trigrams) {
+                        postings.compute(trigram, (unused, posting) -> {
+                            Posting target = posting == null ? new Posting() : posting;
+                            target.add(termId);
+                            return target;
+                        });
+                    }
+                }
+
+                term.persons++;
+                return term;
+            });
+        }
+
+        if (before != null) {
+            terms.computeIfPresent(before, (key, term) -> {
+                if (--term.persons > 0) {
+                    return term;
+                }
+
+                for (long trigram : term.trigrams) {
+                    postings.computeIfPresent(trigram, (unused, posting) ->
+                            posting.remove(term.id) ? posting : null
+                    );
+                }
+
+                termsById.remove(term.id);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Persons whose folded name starts with the folded query, in name order.
+     */
+    public Stream<Person> startingWith(String query, LongFunction<Person> lookup) {
+        String prefix = fold(query);
+
+        return prefixes.ascending()
+                .tailSet(new PersonNameIndex.Key(prefix, Long.MIN_VALUE), true)
+                .stream()
+                .takeWhile(key -> key.name().startsWith(prefix))
+                .map(key -> current(key, lookup))
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Persons whose name has a trigram Jaccard similarity of at least
+     * {@code threshold} to the query, best first.
+     */
+    public List<Match> similarTo(String query, double threshold, int limit, LongFunction<Person> lookup) {
+        String folded = fold(query);
+
+        if (folded.length() < MIN_FUZZY_LENGTH) {
+            return List.of();
+        }
+
+        long[] wanted = trigrams(folded);
+        int minOverlap = Math.max(1, (int) Math.ceil(threshold * wanted.length - 1e-9));
+
+        // sizes are read once so concurrent writers cannot reorder the lists mid-sort
+        Sized[] lists = Arrays.stream(wanted)
+                .mapToObj(postings::get)
+                .filter(Objects::nonNull)
+                .map(posting -> new Sized(posting, posting.size()))
+                .sorted(Comparator.comparingInt(Sized::size))
+                .toArray(Sized[]::new);
+
+        // trigrams nobody has cannot be shared, so the overlap must come from the lists found
+        if (minOverlap > lists.length) {
+            return List.of();
+        }
+
+        LongHashSet candidates = new LongHashSet();
+        int probes = lists.length - minOverlap + 1;
+
+        for (int i = 0; i < probes && candidates.size() < MAX_CANDIDATES; i++) {
+            lists[i].posting().copyInto(candidates, MAX_CANDIDATES);
+        }
+
+        List<Scored> scored = new ArrayList<>();
+
+        candidates.forEachWhile(termId -> {
+            Term term = termsById.get(termId);
+
+            if (term != null) {
+                double similarity = similarity(wanted, term.trigrams);
+
+                if (similarity >= threshold) {
+                    scored.add(new Scored(term.name, similarity));
+                }
+            }
+
+            return true;
+        });
+
+        scored.sort(Comparator.comparingDouble(Scored::similarity).reversed()
+                .thenComparing(Scored::name));
+
+        List<Match> matches = new ArrayList<>(limit);
+
+        for (Scored name : scored) {
+            prefixes.ascending()
+                    .subSet(new PersonNameIndex.Key(name.name(), Long.MIN_VALUE), true,
+                            new PersonNameIndex.Key(name.name(), Long.MAX_VALUE), true)
+                    .stream()
+                    .map(key -> current(key, lookup))
+                    .filter(Objects::nonNull)
+                    .limit(limit - matches.size())
+                    .forEach(person -> matches.add(new Match(person, name.similarity())));
+
+            if (matches.size() == limit) {
+                break;
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Lower case without diacritics and with single spaces, so "Cíclano  de
+     * Tal" and "ciclano de tal" are the same name.
+     */
+    public static String fold(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String unaccented = MARKS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(unaccented.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    /**
+     * Distinct trigrams of a folded name, sorted, each packed as three
+     * 16-bit chars.
+     */
+    static long[] trigrams(String folded) {
+        String padded = "  " + folded + " ";
+        long[] trigrams = new long[padded.length() - 2];
+
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) padded.charAt(i) << 32)
+                    | ((long) padded.charAt(i + 1) << 16)
+                    | padded.charAt(i + 2);
+        }
+
+        Arrays.sort(trigrams);
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    static double similarity(long[] a, long[] b) {
+        int shared = 0;
+
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    public record Match(Person person, double similarity) {
+    }
+
+    private record Sized(Posting posting, int size) {
+    }
+
+    private record Scored(String name, double similarity) {
+    }
+
+    /**
+     * The person behind an index entry, unless it was renamed or removed
+     * since the entry was read.
+     */
+    private static Person current(PersonNameIndex.Key key, LongFunction<Person> lookup) {
+        Person person = lookup.apply(key.id());
+        return person != null && person.getName() != null && key.name().equals(fold(person.getName())) ? person : null;
+    }
+
+    /**
+     * A distinct folded name and how many persons carry it; only changed
+     * inside the compute of its own entry in {@code terms}.
+     */
+    private static final class Term {
+
+        private final long id;
+
+        private final String name;
+
+        private final long[] trigrams;
+
+        private int persons;
+
+        private Term(long id, String name, long[] trigrams) {
+            this.id = id;
+            this.name = name;
+            this.trigrams = trigrams;
+        }
+    }
+
+    /**
+     * Ids of the distinct names containing one trigram.
+     */
+    private static final class Posting {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final LongHashSet ids = new LongHashSet();
+
+        void add(long id) {
+            lock.lock();
+
+            try {
+                ids.add(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Returns whether the posting still has ids.
+         */
+        boolean remove(long id) {
+            lock.lock();
+
+            try {
+                ids.remove(id);
+                return ids.size() > 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+
+            try {
+                return ids.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void copyInto(LongHashSet target, int limit) {
+            lock.lock();
+
+            try {
+                ids.forEachWhile(id -> {
+                    target.add(id);
+                    return target.size() < limit;
+                });
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,735 @@
+package br.com.sccon.geospatial.index;
+
+import br.com.sccon.geospatial.model.entity.Person;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * Spatial index of the persons that have a location: a fixed grid of
+ * {@value #CELL_DEGREES}-degree cells (about 11 km of latitude), of which
+ * only the occupied ones are allocated. Each cell keeps its points as
+ * primitive columns, so a query tests coordinates without touching the store
+ * and only materializes the persons it returns.
+ * <p>
+ * A query visits the cells overlapping its box, or the occupied cells when
+ * there are fewer of them than the box covers, so a world-wide box costs the
+ * same as walking the index once. Boxes may cross the antimeridian
+ * ({@code minLongitude > maxLongitude}).
+ * <p>
+ * Nearest-neighbour queries run best-first over a pyramid of coarser tiles
+ * (each level doubling the tile side, up to one tile for the whole grid)
+ * that records how many occupied cells lie under each tile. Tiles are
+ * popped in order of their minimum possible distance to the query point
+ * and the search stops as soon as that bound exceeds the k-th best
+ * distance found, so only the cells around the point are ever scanned.
+ * Cells also keep each point's birth and admission epoch days, so age and
+ * tenure filters are applied without touching the store.
+ * <p>
+ * Entries are changed by the caller inside its per-id critical section, and
+ * each cell has its own read/write lock. Ids are collected under the cell
+ * lock and looked up after releasing it, so store locks are never taken
+ * while a cell is locked; hits moved or removed in the meantime are
+ * skipped, which can leave a full page a few results short.
+ */
+public class PersonSpatialIndex {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    static final double CELL_DEGREES = 0.1;
+
+    private static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+
+    private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+
+    private static final int LEVELS = 32 - Integer.numberOfLeadingZeros(COLUMNS - 1);
+
+    private static final int NULL_DAY = Integer.MIN_VALUE;
+
+    private final Map<Integer, Cell> cells = new ConcurrentHashMap<>();
+
+    /**
+     * Occupied cells under each tile, keyed by {@link #tile(int, int, int)};
+     * level 0 is the cells themselves and is not stored.
+     */
+    private final Map<Long, Integer> occupancy = new ConcurrentHashMap<>();
+
+    /**
+     * Moves the person to the cell of its current location; null on either
+     * side, or a person without location, means there is nothing to index
+     * on that side.
+     */
+    public void update(Person previous, Person person) {
+        boolean before = previous != null && previous.hasLocation();
+        boolean after = person != null && person.hasLocation();
+
+        if (!before && !after) {
+            return;
+        }
+
+        Integer from = before ? cellOf(previous.getLatitude(), previous.getLongitude()) : null;
+        Integer to = after ? cellOf(person.getLatitude(), person.getLongitude()) : null;
+
+        if (after) {
+            cells.compute(to, (key, cell) -> {
+                Cell target = cell;
+
+                if (target == null) {
+                    target = new Cell();
+                    occupy(key, 1);
+                }
+
+                target.put(
+                        person.getId(),
+                        person.getLatitude(),
+                        person.getLongitude(),
+                        epochDay(person.getBirthDate()),
+                        epochDay(person.getAdmissionDate())
+                );
+                return target;
+            });
+        }
+
+        if (before && !from.equals(to)) {
+            cells.computeIfPresent(from, (key, cell) -> {
+                if (cell.remove(previous.getId())) {
+                    return cell;
+                }
+
+                occupy(key, -1);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Up to {@code limit} persons inside the box, edges included, in no
+     * particular order.
+     */
+    public List<Person> within(
+            double minLatitude,
+            double minLongitude,
+            double maxLatitude,
+            double maxLongitude,
+            int limit,
+            LongFunction<Person> lookup
+    ) {
+        Box box = new Box(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        long[] ids = new long[limit];
+        int[] found = {0};
+
+        scan(box, (id, latitude, longitude) -> {
+            ids[found[0]++] = id;
+            return found[0] < limit;
+        });
+
+        List<Person> persons = new ArrayList<>(found[0]);
+
+        for (int i = 0; i < found[0]; i++) {
+            Person person = lookup.apply(ids[i]);
+
+            if (person != null && person.hasLocation() && box.contains(person.getLatitude(), person.getLongitude())) {
+                persons.add(person);
+            }
+        }
+
+        return persons;
+    }
+
+    /**
+     * The {@code limit} persons closest to the point within the radius,
+     * nearest first, by great-circle distance.
+     */
+    public List<Hit> nearby(
+            double latitude,
+            double longitude,
+            double radiusMeters,
+            int limit,
+            LongFunction<Person> lookup
+    ) {
+        Nearest nearest = new Nearest(limit);
+
+        scan(Box.around(latitude, longitude, radiusMeters), (id, pointLatitude, pointLongitude) -> {
+            double distance = distanceMeters(latitude, longitude, pointLatitude, pointLongitude);
+
+            if (distance <= radiusMeters) {
+                nearest.offer(id, distance);
+            }
+
+            return true;
+        });
+
+        List<Hit> hits = new ArrayList<>(nearest.size);
+
+        for (long id : nearest.sortedIds()) {
+            Person person = lookup.apply(id);
+
+            if (person != null && person.hasLocation()) {
+                double distance = distanceMeters(latitude, longitude, person.getLatitude(), person.getLongitude());
+
+                if (distance <= radiusMeters) {
+                    hits.add(new Hit(person, distance));
+                }
+            }
+        }
+
+        return hits;
+    }
+
+    /**
+     * The {@code k} persons closest to the point whose dates pass the
+     * filter, nearest first, found by best-first search over the tile
+     * pyramid.
+     */
+    public List<Hit> nearest(
+            double latitude,
+            double longitude,
+            int k,
+            DayFilter filter,
+            LongFunction<Person> lookup
+    ) {
+        Nearest nearest = new Nearest(k);
+        PriorityQueue<Tile> queue = new PriorityQueue<>(Comparator.comparingDouble(Tile::bound));
+
+        if (occupied(LEVELS, 0, 0)) {
+            queue.add(Tile.of(LEVELS, 0, 0, latitude, longitude));
+        }
+
+        while (!queue.isEmpty()) {
+            Tile tile = queue.poll();
+
+            if (nearest.isFull() && tile.bound() > nearest.farthest()) {
+                break;
+            }
+
+            if (tile.level() == 0) {
+                Cell cell = cells.get(tile.row() * COLUMNS + tile.column());
+
+                if (cell != null) {
+                    cell.nearest(latitude, longitude, filter, nearest);
+                }
+                continue;
+            }
+
+            int level = tile.level() - 1;
+
+            for (int row = tile.row() * 2; row <= tile.row() * 2 + 1; row++) {
+                for (int column = tile.column() * 2; column <= tile.column() * 2 + 1; column++) {
+                    if (occupied(level, row, column)) {
+                        Tile child = Tile.of(level, row, column, latitude, longitude);
+
+                        if (!nearest.isFull() || child.bound() <= nearest.farthest()) {
+                            queue.add(child);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(nearest.size);
+
+        for (long id : nearest.sortedIds()) {
+            Person person = lookup.apply(id);
+
+            if (person != null && person.hasLocation()) {
+                hits.add(new Hit(
+                        person,
+                        distanceMeters(latitude, longitude, person.getLatitude(), person.getLongitude())
+                ));
+            }
+        }
+
+        return hits;
+    }
+
+    /**
+     * Haversine distance on a spherical Earth of mean radius.
+     */
+    public static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+
+        double a = Math.pow(Math.sin(dLatitude / 2), 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.pow(Math.sin(dLongitude / 2), 2);
+
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void scan(Box box, PointVisitor visitor) {
+        int fromRow = row(box.minLatitude());
+        int toRow = row(box.maxLatitude());
+        int[][] columns = box.crossesAntimeridian()
+                ? new int[][]{{column(box.minLongitude()), COLUMNS - 1}, {0, column(box.maxLongitude())}}
+                : new int[][]{{column(box.minLongitude()), column(box.maxLongitude())}};
+
+        long covered = 0;
+
+        for (int[] range : columns) {
+            covered += (long) (toRow - fromRow + 1) * (range[1] - range[0] + 1);
+        }
+
+        if (covered > cells.size()) {
+            for (Map.Entry<Integer, Cell> entry : cells.entrySet()) {
+                int row = entry.getKey() / COLUMNS;
+                int column = entry.getKey() % COLUMNS;
+
+                if (row >= fromRow && row <= toRow && inRanges(column, columns)
+                        && !entry.getValue().scan(box, visitor)) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int[] range : columns) {
+                for (int column = range[0]; column <= range[1]; column++) {
+                    Cell cell = cells.get(row * COLUMNS + column);
+
+                    if (cell != null && !cell.scan(box, visitor)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean occupied(int level, int row, int column) {
+        if (row << level >= ROWS || column << level >= COLUMNS) {
+            return false;
+        }
+
+        return level == 0
+                ? cells.containsKey(row * COLUMNS + column)
+                : occupancy.containsKey(tile(level, row, column));
+    }
+
+    /**
+     * Adds {@code delta} to the count of every tile above the cell; called
+     * inside the cell's compute, when it is created or dropped.
+     */
+    private void occupy(int cell, int delta) {
+        int row = cell / COLUMNS;
+        int column = cell % COLUMNS;
+
+        for (int level = 1; level <= LEVELS; level++) {
+            occupancy.compute(tile(level, row >> level, column >> level), (key, count) -> {
+                int updated = (count == null ? 0 : count) + delta;
+                return updated == 0 ? null : updated;
+            });
+        }
+    }
+
+    private static long tile(int level, int row, int column) {
+        return ((long) level << 48) | ((long) row << 24) | column;
+    }
+
+    private static double degrees(double meters) {
+        return Math.toDegrees(meters / EARTH_RADIUS_METERS);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NULL_DAY : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static boolean inRanges(int column, int[][] ranges) {
+        for (int[] range : ranges) {
+            if (column >= range[0] && column <= range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int cellOf(double latitude, double longitude) {
+        return row(latitude) * COLUMNS + column(longitude);
+    }
+
+    private static int row(double latitude) {
+        return Math.clamp((long) Math.floor((latitude + 90) / CELL_DEGREES), 0, ROWS - 1);
+    }
+
+    private static int column(double longitude) {
+        return Math.clamp((long) Math.floor((longitude + 180) / CELL_DEGREES), 0, COLUMNS - 1);
+    }
+
+    public record Hit(Person person, double distanceMeters) {
+    }
+
+    /**
+     * Inclusive epoch-day bounds on the birth and admission dates; a point
+     * without a date only passes when that date is unbounded.
+     */
+    public record DayFilter(long minBirthDay, long maxBirthDay, long minAdmissionDay, long maxAdmissionDay) {
+
+        public static final DayFilter NONE = new DayFilter(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        boolean test(int birthDay, int admissionDay) {
+            return accepts(birthDay, minBirthDay, maxBirthDay)
+                    && accepts(admissionDay, minAdmissionDay, maxAdmissionDay);
+        }
+
+        private static boolean accepts(int day, long min, long max) {
+            if (day == NULL_DAY) {
+                return min == Long.MIN_VALUE && max == Long.MAX_VALUE;
+            }
+            return day >= min && day <= max;
+        }
+    }
+
+    /**
+     * A tile of the pyramid with the smallest distance any point inside it
+     * can have to the query point.
+     */
+    private record Tile(int level, int row, int column, double bound) {
+
+        static Tile of(int level, int row, int column, double latitude, double longitude) {
+            int span = 1 << level;
+            double minLatitude = -90 + (double) row * span * CELL_DEGREES;
+            double maxLatitude = Math.min(90, minLatitude + span * CELL_DEGREES);
+            double minLongitude = -180 + (double) column * span * CELL_DEGREES;
+            double maxLongitude = Math.min(180, minLongitude + span * CELL_DEGREES);
+
+            return new Tile(level, row, column, minDistanceMeters(
+                    latitude, longitude, minLatitude, maxLatitude, minLongitude, maxLongitude
+            ));
+        }
+    }
+
+    /**
+     * Great-circle distance from the point to the nearest point of a
+     * latitude/longitude rectangle; zero inside it. Outside its longitude
+     * range the nearest point lies on one of the two bounding meridians, at
+     * the latitude closest to the point along that meridian, clamped to the
+     * rectangle.
+     */
+    static double minDistanceMeters(
+            double latitude,
+            double longitude,
+            double minLatitude,
+            double maxLatitude,
+            double minLongitude,
+            double maxLongitude
+    ) {
+        if (maxLongitude - minLongitude >= 360 || (longitude >= minLongitude && longitude <= maxLongitude)) {
+            double nearestLatitude = Math.clamp(latitude, minLatitude, maxLatitude);
+            return EARTH_RADIUS_METERS * Math.toRadians(Math.abs(latitude - nearestLatitude));
+        }
+
+        return Math.min(
+                distanceToMeridian(latitude, longitude, minLongitude, minLatitude, maxLatitude),
+                distanceToMeridian(latitude, longitude, maxLongitude, minLatitude, maxLatitude)
+        );
+    }
+
+    private static double distanceToMeridian(
+            double latitude,
+            double longitude,
+            double meridian,
+            double minLatitude,
+            double maxLatitude
+    ) {
+        double phi = Math.toRadians(latitude);
+        double dLongitude = Math.toRadians(meridian - longitude);
+        double closest = Math.toDegrees(Math.atan2(Math.sin(phi), Math.cos(phi) * Math.cos(dLongitude)));
+
+        return distanceMeters(latitude, longitude, Math.clamp(closest, minLatitude, maxLatitude), meridian);
+    }
+
+    @FunctionalInterface
+    private interface PointVisitor {
+
+        /**
+         * Returns whether the scan should go on.
+         */
+        boolean visit(long id, double latitude, double longitude);
+    }
+
+    /**
+     * Latitude and longitude bounds, inclusive; the longitude range wraps
+     * when {@code minLongitude > maxLongitude}.
+     */
+    private record Box(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+        /**
+         * Smallest box holding the circle, from the bounding coordinates
+         * method: the longitude span widens with latitude, and a circle
+         * reaching a pole covers every longitude.
+         */
+        static Box around(double latitude, double longitude, double radiusMeters) {
+            double angular = radiusMeters / EARTH_RADIUS_METERS;
+            double dLatitude = Math.toDegrees(angular);
+            double minLatitude = latitude - dLatitude;
+            double maxLatitude = latitude + dLatitude;
+
+            if (minLatitude <= -90 || maxLatitude >= 90 || angular >= Math.PI / 2) {
+                return new Box(Math.max(minLatitude, -90), Math.min(maxLatitude, 90), -180, 180);
+            }
+
+            double dLongitude = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(latitude))));
+            double minLongitude = longitude - dLongitude;
+            double maxLongitude = longitude + dLongitude;
+
+            if (dLongitude >= 180) {
+                return new Box(minLatitude, maxLatitude, -180, 180);
+            }
+
+            return new Box(
+                    minLatitude,
+                    maxLatitude,
+                    minLongitude < -180 ? minLongitude + 360 : minLongitude,
+                    maxLongitude > 180 ? maxLongitude - 360 : maxLongitude
+            );
+        }
+
+        boolean crossesAntimeridian() {
+            return minLongitude > maxLongitude;
+        }
+
+        boolean contains(double latitude, double longitude) {
+            if (latitude < minLatitude || latitude > maxLatitude) {
+                return false;
+            }
+
+            return crossesAntimeridian()
+                    ? longitude >= minLongitude || longitude <= maxLongitude
+                    : longitude >= minLongitude && longitude <= maxLongitude;
+        }
+    }
+
+    /**
+     * Points of one cell as dense columns; a removal moves the last point
+     * into the hole.
+     */
+    private static final class Cell {
+
+        private final StampedLock lock = new StampedLock();
+
+        private final LongIntHashMap rows = new LongIntHashMap();
+
+        private long[] ids = new long[4];
+
+        private double[] latitudes = new double[4];
+
+        private double[] longitudes = new double[4];
+
+        private int[] birthDays = new int[4];
+
+        private int[] admissionDays = new int[4];
+
+        private int size;
+
+        void put(long id, double latitude, double longitude, int birthDay, int admissionDay) {
+            long stamp = lock.writeLock();
+
+            try {
+                int row = rows.get(id);
+
+                if (row == LongIntHashMap.MISSING) {
+                    if (size == ids.length) {
+                        ids = Arrays.copyOf(ids, size * 2);
+                        latitudes = Arrays.copyOf(latitudes, size * 2);
+                        longitudes = Arrays.copyOf(longitudes, size * 2);
+                        birthDays = Arrays.copyOf(birthDays, size * 2);
+                        admissionDays = Arrays.copyOf(admissionDays, size * 2);
+                    }
+
+                    row = size++;
+                    ids[row] = id;
+                    rows.put(id, row);
+                }
+
+                latitudes[row] = latitude;
+                longitudes[row] = longitude;
+                birthDays[row] = birthDay;
+                admissionDays[row] = admissionDay;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Returns whether the cell still has points.
+         */
+        boolean remove(long id) {
+            long stamp = lock.writeLock();
+
+            try {
+                int row = rows.remove(id);
+
+                if (row != LongIntHashMap.MISSING) {
+                    int last = --size;
+
+                    if (row != last) {
+                        ids[row] = ids[last];
+                        latitudes[row] = latitudes[last];
+                        longitudes[row] = longitudes[last];
+                        birthDays[row] = birthDays[last];
+                        admissionDays[row] = admissionDays[last];
+                        rows.put(ids[row], row);
+                    }
+                }
+
+                return size > 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Visits the points inside the box; returns false if the visitor
+         * stopped the scan.
+         */
+        boolean scan(Box box, PointVisitor visitor) {
+            long stamp = lock.readLock();
+
+            try {
+                for (int row = 0; row < size; row++) {
+                    if (box.contains(latitudes[row], longitudes[row])
+                            && !visitor.visit(ids[row], latitudes[row], longitudes[row])) {
+                        return false;
+                    }
+                }
+
+                return true;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Offers the points passing the filter to the running k best. The
+         * latitude gap alone is a lower bound on the distance, so once the
+         * heap is full most points of a dense cell are rejected without
+         * computing the haversine.
+         */
+        void nearest(double latitude, double longitude, DayFilter filter, Nearest nearest) {
+            long stamp = lock.readLock();
+
+            try {
+                double reach = nearest.isFull() ? degrees(nearest.farthest()) : Double.POSITIVE_INFINITY;
+
+                for (int row = 0; row < size; row++) {
+                    if (Math.abs(latitudes[row] - latitude) > reach || !filter.test(birthDays[row], admissionDays[row])) {
+                        continue;
+                    }
+
+                    nearest.offer(ids[row], distanceMeters(latitude, longitude, latitudes[row], longitudes[row]));
+
+                    if (nearest.isFull()) {
+                        reach = degrees(nearest.farthest());
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Bounded max-heap on distance keeping the closest points seen.
+     */
+    private static final class Nearest {
+
+        private final long[] ids;
+
+        private final double[] distances;
+
+        private int size;
+
+        Nearest(int capacity) {
+            ids = new long[capacity];
+            distances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        double farthest() {
+            return distances[0];
+        }
+
+        void offer(long id, double distance) {
+            if (size < ids.length) {
+                ids[size] = id;
+                distances[size] = distance;
+                siftUp(size++);
+            } else if (distance < distances[0]) {
+                ids[0] = id;
+                distances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Empties the heap, returning the ids nearest first.
+         */
+        long[] sortedIds() {
+            long[] sorted = new long[size];
+
+            for (int i = size - 1; i >= 0; i--) {
+                sorted[i] = ids[0];
+                ids[0] = ids[size - 1];
+                distances[0] = distances[size - 1];
+                size--;
+                siftDown(0);
+            }
+
+            return sorted;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+
+                if (left < size && distances[left] > distances[largest]) {
+                    largest = left;
+                }
+                if (right < size && distances[right] > distances[largest]) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+
+            double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.sccon.geospatial.metrics;
+
+import br.com.sccon.geospatial.exception.BusinessException;
+import br.com.sccon.geospatial.exception.ConflictException;
+import br.com.sccon.geospatial.exception.NotFoundException;
+import br.com.sccon.geospatial.exception.PreconditionFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for person operations.
+ * <p>
+ * Every operation is timed under {@value #OPERATIONS}, tagged with the
+ * operation name and its outcome, which is derived from the exception the
+ * service threw. Percentiles and histograms are configured per meter name
+ * under {@code management.metrics.distribution}.
+ */
+@Component
+public class PersonMetrics {
+
+    public static final String OPERATIONS = "persons.operations";
+
+    public static final String ERRORS = "persons.errors";
+
+    public static final String SUCCESS = "success";
+
+    public static final String NOT_FOUND = "not_found";
+
+    public static final String CONFLICT = "conflict";
+
+    public static final String PRECONDITION_FAILED = "precondition_failed";
+
+    public static final String INVALID = "invalid";
+
+    public static final String ERROR = "error";
+
+    private final Meter.MeterProvider<Timer> operations;
+
+    private final Meter.MeterProvider<Counter> errors;
+
+    public PersonMetrics(MeterRegistry registry) {
+        this.operations = Timer.builder(OPERATIONS)
+                .description("Latency of person operations by outcome")
+                .withRegistry(registry);
+        this.errors = Counter.builder(ERRORS)
+                .description("Exceptions translated into error responses")
+                .withRegistry(registry);
+    }
+
+    public <T> T record(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = ERROR;
+
+        try {
+            T result = call.get();
+            outcome = SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            operations.withTags("operation", operation, "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void record(String operation, Runnable call) {
+        record(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public void error(Exception exception, int status) {
+        errors.withTags(
+                "exception", exception.getClass().getSimpleName(),
+                "status", String.valueOf(status)
+        ).increment();
+    }
+
+    private static String outcome(RuntimeException e) {
+        return switch (e) {
+            case NotFoundException ignored -> NOT_FOUND;
+            case ConflictException ignored -> CONFLICT;
+            case PreconditionFailedException ignored -> PRECONDITION_FAILED;
+            case BusinessException ignored -> INVALID;
+            default -> ERROR;
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.sccon.geospatial.metrics;
+
+import br.com.sccon.geospatial.service.PersonNearCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Near-cache statistics, read from the cache when the registry is scraped.
+ */
+@RequiredArgsConstructor
+@Component
+public class PersonNearCacheMetrics implements MeterBinder {
+
+    private final PersonNearCache cache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("persons.cache.requests", cache, c -> c.stats().hitCount())
+                .description("Person lookups by whether the near-cache held the person")
+                .tag("result", "hit")
+                .register(registry);
+
+        FunctionCounter.builder("persons.cache.requests", cache, c -> c.stats().missCount())
+                .description("Person lookups by whether the near-cache held the person")
+                .tag("result", "miss")
+                .register(registry);
+
+        FunctionCounter.builder("persons.cache.evictions", cache, c -> c.stats().evictionCount())
+                .description("Persons dropped from the near-cache for size or age")
+                .register(registry);
+
+        Gauge.builder("persons.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of person lookups served by the near-cache since startup")
+                .register(registry);
+
+        Gauge.builder("persons.cache.size", cache, PersonNearCache::size)
+                .description("Persons held in the near-cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.sccon.geospatial.metrics;
+
+import br.com.sccon.geospatial.replication.PersonReplica;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * How far a follower is behind its leader.
+ */
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(prefix = "geospatial.replication", name = "role", havingValue = "follower")
+public class PersonReplicaMetrics implements MeterBinder {
+
+    private final PersonReplica replica;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("persons.replication.lag", replica, PersonReplica::lag)
+                .description("Changes known on the leader and not yet applied here")
+                .register(registry);
+
+        Gauge.builder("persons.replication.staleness", replica, PersonReplica::stalenessSeconds)
+                .description("Time since this copy was last known to be up to date")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+}
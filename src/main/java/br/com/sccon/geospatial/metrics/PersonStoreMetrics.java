@@ -0,0 +1,29 @@
+package br.com.sccon.geospatial.metrics;
+
+import br.com.sccon.geospatial.service.PersonService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges sampled from the store when the registry is scraped.
+ */
+@RequiredArgsConstructor
+@Component
+public class PersonStoreMetrics implements MeterBinder {
+
+    private final PersonService service;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("persons.store.size", service, PersonService::count)
+                .description("Number of persons in the store")
+                .register(registry);
+
+        Gauge.builder("persons.id.generator", service, PersonService::lastGeneratedId)
+                .description("Last id handed out by the id generator")
+                .register(registry);
+    }
+}
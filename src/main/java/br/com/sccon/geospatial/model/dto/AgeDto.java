@@ -0,0 +1,16 @@
+package br.com.sccon.geospatial.model.dto;
+
+import br.com.sccon.geospatial.converter.AgeDtoSerializer;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonSerialize(using = AgeDtoSerializer.class)
+public record AgeDto(
+        Long id,
+        String name,
+        @Schema(description = "Output unit in lower case", example = "years")
+        AgeEnum output,
+        long age
+) {
+}
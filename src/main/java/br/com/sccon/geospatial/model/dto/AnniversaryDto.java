@@ -0,0 +1,10 @@
+package br.com.sccon.geospatial.model.dto;
+
+import java.time.LocalDate;
+
+public record AnniversaryDto(
+        PersonDto person,
+        LocalDate date,
+        long years
+) {
+}
@@ -0,0 +1,13 @@
+package br.com.sccon.geospatial.model.dto;
+
+import br.com.sccon.geospatial.model.enums.BulkStatusEnum;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkResultDto(
+        long index,
+        BulkStatusEnum status,
+        Long id,
+        String message
+) {
+}
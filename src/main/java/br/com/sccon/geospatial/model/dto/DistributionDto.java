@@ -0,0 +1,25 @@
+package br.com.sccon.geospatial.model.dto;
+
+/**
+ * Run-length encoded multiset of whole numbers: {@code counts[i]} persons
+ * have {@code values[i]}, with values strictly ascending. Distributions from
+ * several shards add up exactly, so aggregates computed from the sum match
+ * the ones a single node would compute.
+ */
+public record DistributionDto(
+        long[] values,
+        long[] counts
+) {
+
+    public static final DistributionDto EMPTY = new DistributionDto(new long[0], new long[0]);
+
+    public long size() {
+        long size = 0;
+
+        for (long count : counts) {
+            size += count;
+        }
+
+        return size;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.sccon.geospatial.model.dto;
+
+/**
+ * Histogram bucket covering values in {@code [from, to)}.
+ */
+public record HistogramBucketDto<T extends Number>(
+        T from,
+        T to,
+        long count
+) {
+}
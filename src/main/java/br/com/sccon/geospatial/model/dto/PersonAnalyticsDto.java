@@ -0,0 +1,25 @@
+package br.com.sccon.geospatial.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distribution of a derived value over the matched persons. Statistics are
+ * omitted when nobody matched, and the histogram only lists non-empty
+ * buckets.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PersonAnalyticsDto<T extends Number>(
+        String output,
+        long count,
+        T min,
+        T max,
+        BigDecimal average,
+        T total,
+        Map<String, T> percentiles,
+        List<HistogramBucketDto<T>> histogram
+) {
+}
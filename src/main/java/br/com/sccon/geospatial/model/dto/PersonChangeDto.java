@@ -0,0 +1,18 @@
+package br.com.sccon.geospatial.model.dto;
+
+import br.com.sccon.geospatial.model.enums.ChangeTypeEnum;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One mutation of the store: its position in the change feed, the version
+ * it produced and the person after it, absent for deletions.
+ */
+public record PersonChangeDto(
+        long sequence,
+        ChangeTypeEnum type,
+        Long id,
+        long version,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        PersonDto person
+) {
+}
@@ -0,0 +1,7 @@
+package br.com.sccon.geospatial.model.dto;
+
+public record PersonDistanceDto(
+        PersonDto person,
+        double distance
+) {
+}
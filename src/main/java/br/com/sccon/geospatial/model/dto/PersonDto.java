@@ -1,10 +1,17 @@
 package br.com.sccon.geospatial.model.dto;
 
+import br.com.sccon.geospatial.validator.CompleteLocation;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
+@CompleteLocation
 public record PersonDto(
         Long id,
         @NotBlank(message = "name is required")
@@ -14,6 +21,24 @@ public record PersonDto(
         LocalDate birthDate,
 
         @NotNull(message = "admissionDate is required")
-        LocalDate admissionDate
+        LocalDate admissionDate,
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @DecimalMin(value = "-90", message = "latitude must be between -90 and 90")
+        @DecimalMax(value = "90", message = "latitude must be between -90 and 90")
+        Double latitude,
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @DecimalMin(value = "-180", message = "longitude must be between -180 and 180")
+        @DecimalMax(value = "180", message = "longitude must be between -180 and 180")
+        Double longitude,
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+        Instant updatedAt
 ) {
+
+    public PersonDto(Long id, String name, LocalDate birthDate, LocalDate admissionDate) {
+        this(id, name, birthDate, admissionDate, null, null, null);
+    }
 }
@@ -0,0 +1,61 @@
+package br.com.sccon.geospatial.model.dto;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+/**
+ * Optional criteria selecting a subset of persons; absent criteria match
+ * everyone and date bounds are inclusive.
+ */
+public record PersonFilterDto(
+        @Schema(description = "Case-insensitive name prefix", example = "Bruno")
+        String namePrefix,
+
+        @Schema(description = "Born on or after", example = "1980-01-01")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate bornFrom,
+
+        @Schema(description = "Born on or before", example = "1999-12-31")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate bornTo,
+
+        @Schema(description = "Admitted on or after", example = "2015-01-01")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate admittedFrom,
+
+        @Schema(description = "Admitted on or before", example = "2024-12-31")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate admittedTo
+) implements Predicate<Person> {
+
+    public static final PersonFilterDto ALL = new PersonFilterDto(null, null, null, null, null);
+
+    @Override
+    public boolean test(Person person) {
+        return matchesName(person.getName())
+                && within(person.getBirthDate(), bornFrom, bornTo)
+                && within(person.getAdmissionDate(), admittedFrom, admittedTo);
+    }
+
+    private boolean matchesName(String name) {
+        if (namePrefix == null || namePrefix.isEmpty()) {
+            return true;
+        }
+
+        return name != null && name.regionMatches(true, 0, namePrefix, 0, namePrefix.length());
+    }
+
+    private static boolean within(LocalDate date, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return true;
+        }
+
+        return date != null
+                && (from == null || !date.isBefore(from))
+                && (to == null || !date.isAfter(to));
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.sccon.geospatial.model.dto;
+
+import java.util.List;
+
+public record PersonPageDto(
+        List<PersonDto> items,
+        String nextCursor
+) {
+}
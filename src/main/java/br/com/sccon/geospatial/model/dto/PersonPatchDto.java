@@ -1,14 +1,29 @@
 package br.com.sccon.geospatial.model.dto;
 
 import br.com.sccon.geospatial.validator.AtLeastOneField;
-import jakarta.validation.constraints.NotBlank;
+import br.com.sccon.geospatial.validator.CompleteLocation;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 
 import java.time.LocalDate;
 
 @AtLeastOneField
+@CompleteLocation
 public record PersonPatchDto(
         String name,
         LocalDate birthDate,
-        LocalDate admissionDate
+        LocalDate admissionDate,
+
+        @DecimalMin(value = "-90", message = "latitude must be between -90 and 90")
+        @DecimalMax(value = "90", message = "latitude must be between -90 and 90")
+        Double latitude,
+
+        @DecimalMin(value = "-180", message = "longitude must be between -180 and 180")
+        @DecimalMax(value = "180", message = "longitude must be between -180 and 180")
+        Double longitude
 ) {
+
+    public PersonPatchDto(String name, LocalDate birthDate, LocalDate admissionDate) {
+        this(name, birthDate, admissionDate, null, null);
+    }
 }
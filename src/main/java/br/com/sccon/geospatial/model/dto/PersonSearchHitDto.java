@@ -0,0 +1,10 @@
+package br.com.sccon.geospatial.model.dto;
+
+import br.com.sccon.geospatial.model.enums.SearchMatchEnum;
+
+public record PersonSearchHitDto(
+        PersonDto person,
+        SearchMatchEnum match,
+        double score
+) {
+}
@@ -0,0 +1,34 @@
+package br.com.sccon.geospatial.model.dto;
+
+import br.com.sccon.geospatial.model.enums.ReplicationEventEnum;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One line of the replication streams. Persons travel as post-images with
+ * the time they were written and their version, so a follower stores
+ * exactly what the leader holds and hands out the same ETags. The snapshot's
+ * {@code BEGIN} carries the leader's epoch and its {@code END} the
+ * collection version reached.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReplicationEventDto(
+        ReplicationEventEnum type,
+        long sequence,
+        Long id,
+        String name,
+        LocalDate birthDate,
+        LocalDate admissionDate,
+        Double latitude,
+        Double longitude,
+        Instant updatedAt,
+        Long version,
+        String epoch
+) {
+
+    public ReplicationEventDto(ReplicationEventEnum type, long sequence) {
+        this(type, sequence, null, null, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.sccon.geospatial.model.dto;
+
+import br.com.sccon.geospatial.converter.SalaryDtoSerializer;
+import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+/**
+ * Salary of a person; {@code value} is written as {@code salary} for
+ * {@link SalaryEnum#FULL} and as {@code minimumWages} for {@link SalaryEnum#MIN}.
+ */
+@JsonSerialize(using = SalaryDtoSerializer.class)
+public record SalaryDto(
+        Long id,
+        String name,
+        @Schema(description = "Output format in lower case", example = "full")
+        SalaryEnum output,
+        @Schema(description = "Serialized as salary (FULL) or minimumWages (MIN)", example = "5000.00")
+        BigDecimal value
+) {
+}
@@ -0,0 +1,10 @@
+package br.com.sccon.geospatial.model.dto;
+
+/**
+ * A value together with the version it was read or written at.
+ */
+public record VersionedDto<T>(
+        T body,
+        long version
+) {
+}
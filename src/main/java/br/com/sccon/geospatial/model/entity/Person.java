@@ -3,24 +3,52 @@ package br.com.sccon.geospatial.model.entity;
 import lombok.*;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDate;
 
-@NoArgsConstructor
+/**
+ * Immutable snapshot of a person. Writers never change a stored person;
+ * they build a new one and swap it into the store, so readers need no lock
+ * to see a version and fields that belong together, and a person can be
+ * shared freely with indexes, caches and the change feed.
+ */
 @AllArgsConstructor
-@Setter
 @Getter
-@Builder
-public class Person implements Serializable {
-
-    private Long id;
-    private String name;
-    private LocalDate birthDate;
-    private LocalDate admissionDate;
-
-    public void update(Person person) {
-        this.name = person.name;
-        this.birthDate = person.birthDate;
-        this.admissionDate = person.admissionDate;
+@Builder(toBuilder = true)
+public final class Person implements Serializable {
+
+    private final Long id;
+    private final String name;
+    private final LocalDate birthDate;
+    private final LocalDate admissionDate;
+
+    /**
+     * Optional location in decimal degrees (WGS 84); both are set or both
+     * are null.
+     */
+    private final Double latitude;
+    private final Double longitude;
+
+    /**
+     * Stamp of the last write to this person, taken from a counter shared by
+     * the whole store, so it grows on every change and is never reused for
+     * the same id after a delete.
+     */
+    @With
+    private final long version;
+
+    /**
+     * When the person was last created or changed through the API.
+     */
+    @With
+    private final Instant updatedAt;
+
+    public Person(Long id, String name, LocalDate birthDate, LocalDate admissionDate) {
+        this(id, name, birthDate, admissionDate, null, null, 0, null);
+    }
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
     }
 
 }
@@ -0,0 +1,9 @@
+package br.com.sccon.geospatial.model.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(enumAsRef = true)
+public enum AnniversaryEnum {
+    BIRTHDAY,
+    ADMISSION
+}
@@ -0,0 +1,10 @@
+package br.com.sccon.geospatial.model.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(enumAsRef = true)
+public enum ChangeTypeEnum {
+    CREATED,
+    UPDATED,
+    DELETED
+}
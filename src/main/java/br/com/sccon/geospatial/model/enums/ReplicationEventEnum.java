@@ -0,0 +1,28 @@
+package br.com.sccon.geospatial.model.enums;
+
+public enum ReplicationEventEnum {
+    /**
+     * A snapshot starts; the changes after its sequence complete it.
+     */
+    BEGIN,
+    /**
+     * A person in a snapshot.
+     */
+    PERSON,
+    /**
+     * The snapshot is over; it is consistent once the changes up to its
+     * sequence are applied.
+     */
+    END,
+    UPSERT,
+    DELETE,
+    /**
+     * Every change up to its sequence has been sent.
+     */
+    HEARTBEAT,
+    /**
+     * The changes requested are no longer kept; the follower has to start
+     * over from a snapshot.
+     */
+    OVERRUN
+}
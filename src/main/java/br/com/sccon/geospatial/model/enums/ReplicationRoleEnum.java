@@ -0,0 +1,7 @@
+package br.com.sccon.geospatial.model.enums;
+
+public enum ReplicationRoleEnum {
+    NONE,
+    LEADER,
+    FOLLOWER
+}
@@ -0,0 +1,230 @@
+package br.com.sccon.geospatial.persistence;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.service.PersonService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-ahead journal backed by a memory-mapped {@link MutationLog} and
+ * periodic {@link SnapshotStore snapshots}.
+ * <p>
+ * Mutations hold the read side of a checkpoint lock while they append and
+ * apply their records. A snapshot only takes the write side long enough to
+ * read the last appended sequence, which guarantees that every record up to
+ * that sequence is already visible in the store it then copies.
+ */
+@Slf4j
+public class MappedPersonJournal implements PersonJournal, Closeable {
+
+    private final PersistenceProperties properties;
+
+    private final MutationLog mutationLog;
+
+    private final SnapshotStore snapshots;
+
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("person-journal-snapshot").daemon().factory()
+    );
+
+    private PersonService service;
+
+    private long lastSnapshotSeq;
+
+    private long lastSnapshotNanos;
+
+    private MutationLog.Stats lastSnapshotStats = new MutationLog.Stats(0, 0, 0);
+
+    public MappedPersonJournal(PersistenceProperties properties) {
+        this.properties = properties;
+
+        try {
+            Files.createDirectories(properties.getDirectory());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create " + properties.getDirectory(), e);
+        }
+
+        this.mutationLog = new MutationLog(
+                properties.getDirectory(),
+                Math.toIntExact(properties.getSegmentSize().toBytes())
+        );
+        this.snapshots = new SnapshotStore(properties.getDirectory());
+    }
+
+    /**
+     * Restores the latest snapshot and the log tail into the service, then
+     * opens a new segment for appends and schedules snapshots.
+     */
+    public void recover(PersonService service) {
+        this.service = service;
+
+        long start = System.nanoTime();
+        long[] restored = {0, 0};
+
+        long snapshotSeq = snapshots.load(person -> {
+            service.restore(person);
+            restored[0]++;
+        });
+
+        long lastSeq = mutationLog.replay(snapshotSeq, record -> {
+            if (record.person() == null) {
+                service.evict(record.id());
+            } else {
+                service.restore(record.person());
+            }
+            restored[1]++;
+        });
+
+        service.syncIdGenerator();
+
+        mutationLog.open(lastSeq + 1, properties.getGroupCommitInterval());
+        lastSnapshotSeq = snapshotSeq;
+        lastSnapshotNanos = System.nanoTime();
+
+        log.info(
+                "Recovered {} persons from snapshot {} and replayed {} log records in {} ms",
+                restored[0],
+                snapshotSeq,
+                restored[1],
+                TimeUnit.NANOSECONDS.toMillis(lastSnapshotNanos - start)
+        );
+
+        long interval = properties.getSnapshotInterval().toMillis();
+
+        scheduler.scheduleWithFixedDelay(
+                () -> snapshot(false),
+                interval,
+                interval,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    @Override
+    public Transaction begin() {
+        checkpointLock.readLock().lock();
+        return new JournalTransaction();
+    }
+
+    /**
+     * Takes a snapshot when enough records were appended since the previous
+     * one (or unconditionally when forced) and drops the covered segments.
+     */
+    public void snapshot(boolean force) {
+        snapshotLock.lock();
+
+        try {
+            snapshotLocked(force);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void snapshotLocked(boolean force) {
+        if (service == null) {
+            return;
+        }
+
+        long seq;
+
+        checkpointLock.writeLock().lock();
+
+        try {
+            seq = mutationLog.appendedSeq();
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+
+        long pending = seq - lastSnapshotSeq;
+
+        if (pending == 0 || (!force && pending < properties.getSnapshotThreshold())) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        snapshots.write(seq, service::forEachPerson);
+        mutationLog.deleteSegmentsUpTo(seq);
+
+        reportThroughput(seq, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        lastSnapshotSeq = seq;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+
+        try {
+            snapshot(true);
+        } finally {
+            mutationLog.close();
+        }
+    }
+
+    private void reportThroughput(long seq, long snapshotMillis) {
+        long now = System.nanoTime();
+        MutationLog.Stats stats = mutationLog.stats();
+
+        long records = stats.records() - lastSnapshotStats.records();
+        long bytes = stats.bytes() - lastSnapshotStats.bytes();
+        long fsyncs = stats.fsyncs() - lastSnapshotStats.fsyncs();
+        double seconds = Math.max(now - lastSnapshotNanos, 1) / 1e9;
+
+        log.info(
+                "Snapshot {} written in {} ms; since previous snapshot: {} records ({} KB) at {} records/s, {} fsyncs, {} records per fsync",
+                seq,
+                snapshotMillis,
+                records,
+                bytes / 1024,
+                Math.round(records / seconds),
+                fsyncs,
+                fsyncs == 0 ? 0 : records / fsyncs
+        );
+
+        lastSnapshotStats = stats;
+        lastSnapshotNanos = now;
+    }
+
+    private final class JournalTransaction implements Transaction {
+
+        private long lastSeq;
+
+        private boolean closed;
+
+        @Override
+        public void upserted(Person person) {
+            lastSeq = mutationLog.append(seq -> PersonRecordCodec.encodeUpsert(seq, person));
+        }
+
+        @Override
+        public void deleted(long id) {
+            lastSeq = mutationLog.append(seq -> PersonRecordCodec.encodeDelete(seq, id));
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            checkpointLock.readLock().unlock();
+
+            if (lastSeq > 0 && properties.isDurableWrites()) {
+                mutationLog.awaitDurable(lastSeq);
+            }
+        }
+    }
+}
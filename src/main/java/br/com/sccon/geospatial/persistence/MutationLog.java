@@ -0,0 +1,375 @@
+package br.com.sccon.geospatial.persistence;
+
+import br.com.sccon.geospatial.persistence.PersonRecordCodec.LogRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log made of fixed-size, memory-mapped segment files.
+ * <p>
+ * Appends only copy the record into the mapped segment; a single flusher
+ * thread forces the written range to disk and publishes the highest durable
+ * sequence, so every record appended while one fsync is running is covered
+ * by the next one (group commit).
+ */
+final class MutationLog implements Closeable {
+
+    private static final String SUFFIX = ".wal";
+
+    private static final int SEGMENT_HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final ReentrantLock durabilityLock = new ReentrantLock();
+
+    private final Condition durability = durabilityLock.newCondition();
+
+    private final AtomicLong appendedRecords = new AtomicLong();
+
+    private final AtomicLong appendedBytes = new AtomicLong();
+
+    private final AtomicLong fsyncs = new AtomicLong();
+
+    private Segment current;
+
+    private volatile long appendedSeq;
+
+    private volatile long durableSeq;
+
+    private Segment flushedSegment;
+
+    private int flushedPosition;
+
+    private volatile boolean running;
+
+    private volatile boolean closed;
+
+    private Thread flusher;
+
+    MutationLog(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Feeds every record with a sequence above {@code afterSeq} to the
+     * consumer, in log order, and returns the last sequence found.
+     */
+    long replay(long afterSeq, Consumer<LogRecord> consumer) {
+        long lastSeq = afterSeq;
+
+        for (Path path : segments()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+                if (!readHeader(buffer)) {
+                    continue;
+                }
+
+                LogRecord record;
+
+                while ((record = PersonRecordCodec.decode(buffer)) != null) {
+                    if (record.seq() > lastSeq) {
+                        consumer.accept(record);
+                        lastSeq = record.seq();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not replay " + path, e);
+            }
+        }
+
+        return lastSeq;
+    }
+
+    /**
+     * Starts a fresh segment for appends; recovered segments are never
+     * written to again. A segment already named after {@code nextSeq} is the
+     * tail of a run that appended nothing to it (replay would have gone past
+     * it otherwise), so it is replaced.
+     */
+    void open(long nextSeq, Duration groupCommitInterval) {
+        appendedSeq = nextSeq - 1;
+        durableSeq = nextSeq - 1;
+
+        try {
+            Files.deleteIfExists(segmentPath(nextSeq));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete " + segmentPath(nextSeq), e);
+        }
+
+        current = createSegment(nextSeq);
+        running = true;
+
+        long waitMillis = Math.max(1, groupCommitInterval.toMillis());
+
+        flusher = Thread.ofPlatform()
+                .name("mutation-log-flusher")
+                .daemon()
+                .start(() -> flushLoop(waitMillis));
+    }
+
+    long append(LongFunction<byte[]> encoder) {
+        appendLock.lock();
+
+        try {
+            long seq = appendedSeq + 1;
+            byte[] record = encoder.apply(seq);
+
+            if (record.length > segmentSize - SEGMENT_HEADER_BYTES) {
+                throw new IllegalArgumentException(
+                        "Record of " + record.length + " bytes does not fit in a log segment"
+                );
+            }
+
+            if (current.buffer().remaining() < record.length) {
+                roll(seq);
+            }
+
+            current.buffer().put(record);
+            appendedSeq = seq;
+
+            appendedRecords.incrementAndGet();
+            appendedBytes.addAndGet(record.length);
+
+            return seq;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    long appendedSeq() {
+        return appendedSeq;
+    }
+
+    /**
+     * Waits until {@code seq} has been forced to disk; fails if the log was
+     * closed without getting that far.
+     */
+    void awaitDurable(long seq) {
+        durabilityLock.lock();
+
+        try {
+            durability.signalAll();
+
+            while (durableSeq < seq) {
+                if (closed) {
+                    throw new IllegalStateException("Mutation log closed before record " + seq + " was forced to disk");
+                }
+
+                durability.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for log durability", e);
+        } finally {
+            durabilityLock.unlock();
+        }
+    }
+
+    /**
+     * Removes segments whose records are all covered by a snapshot taken at
+     * {@code snapshotSeq}. The segment being appended to is always kept.
+     */
+    void deleteSegmentsUpTo(long snapshotSeq) {
+        List<Path> paths = segments();
+
+        for (int i = 0; i < paths.size() - 1; i++) {
+            long nextFirstSeq = firstSeq(paths.get(i + 1));
+
+            if (nextFirstSeq - 1 <= snapshotSeq && !paths.get(i).equals(current.path())) {
+                try {
+                    Files.deleteIfExists(paths.get(i));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not delete " + paths.get(i), e);
+                }
+            }
+        }
+    }
+
+    Stats stats() {
+        return new Stats(appendedRecords.get(), appendedBytes.get(), fsyncs.get());
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        signalDurability();
+
+        try {
+            flusher.join();
+            flush();
+            current.channel().close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closed = true;
+            signalDurability();
+        }
+    }
+
+    private void flushLoop(long waitMillis) {
+        while (running) {
+            durabilityLock.lock();
+
+            try {
+                if (durableSeq == appendedSeq && running) {
+                    durability.await(waitMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                durabilityLock.unlock();
+            }
+
+            flush();
+        }
+    }
+
+    private void flush() {
+        Segment segment;
+        int position;
+        long seq;
+
+        appendLock.lock();
+
+        try {
+            segment = current;
+            position = segment.buffer().position();
+            seq = appendedSeq;
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (seq == durableSeq) {
+            return;
+        }
+
+        int from = segment == flushedSegment ? flushedPosition : 0;
+        segment.buffer().force(from, position - from);
+
+        flushedSegment = segment;
+        flushedPosition = position;
+        fsyncs.incrementAndGet();
+
+        durableSeq = seq;
+        signalDurability();
+    }
+
+    private void signalDurability() {
+        durabilityLock.lock();
+
+        try {
+            durability.signalAll();
+        } finally {
+            durabilityLock.unlock();
+        }
+    }
+
+    /**
+     * Called with the append lock held; everything in the previous segment is
+     * forced before it is abandoned so the flusher only tracks one segment.
+     */
+    private void roll(long firstSeq) {
+        current.buffer().force();
+
+        try {
+            current.channel().close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        current = createSegment(firstSeq);
+    }
+
+    private Segment createSegment(long firstSeq) {
+        Path path = segmentPath(firstSeq);
+
+        try {
+            FileChannel channel = FileChannel.open(
+                    path,
+                    StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE
+            );
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+
+            buffer.putInt(PersonRecordCodec.MAGIC)
+                    .putInt(PersonRecordCodec.FORMAT_VERSION)
+                    .putLong(firstSeq);
+            buffer.force(0, SEGMENT_HEADER_BYTES);
+
+            return new Segment(path, channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create log segment " + path, e);
+        }
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return directory.resolve(String.format("%020d%s", firstSeq, SUFFIX));
+    }
+
+    private static boolean readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < SEGMENT_HEADER_BYTES || buffer.getInt() != PersonRecordCodec.MAGIC) {
+            return false;
+        }
+
+        int version = buffer.getInt();
+
+        if (version < PersonRecordCodec.MIN_FORMAT_VERSION || version > PersonRecordCodec.FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported log format version " + version);
+        }
+
+        buffer.getLong();
+        return true;
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list " + directory, e);
+        }
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private record Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    record Stats(long records, long bytes, long fsyncs) {
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.sccon.geospatial.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "geospatial.persistence")
+public class PersistenceProperties {
+
+    private boolean enabled = false;
+
+    private Path directory = Path.of("data");
+
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * When true, a mutation only returns after its log record was forced to disk.
+     */
+    private boolean durableWrites = true;
+
+    /**
+     * Upper bound for how long the group-commit flusher idles between fsyncs.
+     */
+    private Duration groupCommitInterval = Duration.ofMillis(2);
+
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+
+    /**
+     * Minimum number of log records since the last snapshot before a new one is taken.
+     */
+    private long snapshotThreshold = 10_000;
+}
@@ -0,0 +1,42 @@
+package br.com.sccon.geospatial.persistence;
+
+import br.com.sccon.geospatial.model.entity.Person;
+
+/**
+ * Records every mutation applied to the person store.
+ * <p>
+ * A mutation opens a {@link Transaction}, reports the post-image of each
+ * person it changed from inside the per-id critical section, and closes the
+ * transaction once the store was updated, which waits for durability when
+ * the journal requires it.
+ */
+public interface PersonJournal {
+
+    PersonJournal NONE = () -> Transaction.NONE;
+
+    Transaction begin();
+
+    interface Transaction extends AutoCloseable {
+
+        Transaction NONE = new Transaction() {
+            @Override
+            public void upserted(Person person) {
+            }
+
+            @Override
+            public void deleted(long id) {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        void upserted(Person person);
+
+        void deleted(long id);
+
+        @Override
+        void close();
+    }
+}
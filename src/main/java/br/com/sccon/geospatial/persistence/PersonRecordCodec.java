@@ -0,0 +1,176 @@
+package br.com.sccon.geospatial.persistence;
+
+import br.com.sccon.geospatial.model.entity.Person;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout shared by log segments and snapshots:
+ * <pre>
+ * int length | int crc32c | long seq | byte type | long id | [upsert payload]
+ * upsert payload: int nameLength | name utf-8 | int birthEpochDay | int admissionEpochDay
+ *                 | double latitude | double longitude | long updatedAtEpochMilli
+ * </pre>
+ * {@code length} and {@code crc32c} cover everything after the crc field.
+ * A zero length marks the end of the written region.
+ * <p>
+ * Version 1 upserts end after the admission date; records are always
+ * decoded up to their length, so files of both versions are read.
+ */
+final class PersonRecordCodec {
+
+    static final int MAGIC = 0x47454F4A;
+
+    static final int FORMAT_VERSION = 2;
+
+    static final int MIN_FORMAT_VERSION = 1;
+
+    static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    static final byte UPSERT = 1;
+
+    static final byte DELETE = 2;
+
+    private static final int NULL_MARKER = Integer.MIN_VALUE;
+
+    private static final long NULL_INSTANT = Long.MIN_VALUE;
+
+    private PersonRecordCodec() {}
+
+    static byte[] encodeUpsert(long seq, Person person) {
+        byte[] name = person.getName() == null
+                ? null
+                : person.getName().getBytes(StandardCharsets.UTF_8);
+
+        int bodyLength = Long.BYTES + 1 + Long.BYTES
+                + Integer.BYTES + (name == null ? 0 : name.length)
+                + Integer.BYTES * 2
+                + Double.BYTES * 2 + Long.BYTES;
+
+        ByteBuffer buffer = header(bodyLength);
+        buffer.putLong(seq).put(UPSERT).putLong(person.getId());
+
+        if (name == null) {
+            buffer.putInt(NULL_MARKER);
+        } else {
+            buffer.putInt(name.length).put(name);
+        }
+
+        buffer.putInt(epochDay(person.getBirthDate()));
+        buffer.putInt(epochDay(person.getAdmissionDate()));
+        buffer.putDouble(coordinate(person.getLatitude()));
+        buffer.putDouble(coordinate(person.getLongitude()));
+        buffer.putLong(epochMilli(person.getUpdatedAt()));
+
+        return seal(buffer);
+    }
+
+    static byte[] encodeDelete(long seq, long id) {
+        ByteBuffer buffer = header(Long.BYTES + 1 + Long.BYTES);
+        buffer.putLong(seq).put(DELETE).putLong(id);
+        return seal(buffer);
+    }
+
+    /**
+     * Decodes the record at the buffer position, or returns null at the end
+     * of the written region or at a torn record, leaving the position there.
+     */
+    static LogRecord decode(ByteBuffer buffer) {
+        int start = buffer.position();
+
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+
+        int length = buffer.getInt();
+        int crc = buffer.getInt();
+
+        if (length <= 0 || length > buffer.remaining() || crc != crc(buffer, buffer.position(), length)) {
+            buffer.position(start);
+            return null;
+        }
+
+        int end = buffer.position() + length;
+        long seq = buffer.getLong();
+        byte type = buffer.get();
+        long id = buffer.getLong();
+
+        if (type == DELETE) {
+            return new LogRecord(seq, id, null);
+        }
+
+        int nameLength = buffer.getInt();
+        String name = null;
+
+        if (nameLength != NULL_MARKER) {
+            byte[] bytes = new byte[nameLength];
+            buffer.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Person.PersonBuilder person = Person.builder()
+                .id(id)
+                .name(name)
+                .birthDate(date(buffer.getInt()))
+                .admissionDate(date(buffer.getInt()));
+
+        if (buffer.position() < end) {
+            person.latitude(coordinate(buffer.getDouble()))
+                    .longitude(coordinate(buffer.getDouble()))
+                    .updatedAt(instant(buffer.getLong()));
+        }
+
+        return new LogRecord(seq, id, person.build());
+    }
+
+    private static ByteBuffer header(int bodyLength) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        buffer.putInt(bodyLength).putInt(0);
+        return buffer;
+    }
+
+    private static byte[] seal(ByteBuffer buffer) {
+        buffer.putInt(Integer.BYTES, crc(buffer, HEADER_BYTES, buffer.capacity() - HEADER_BYTES));
+        return buffer.array();
+    }
+
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NULL_MARKER : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static LocalDate date(int epochDay) {
+        return epochDay == NULL_MARKER ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static double coordinate(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static Double coordinate(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static long epochMilli(Instant instant) {
+        return instant == null ? NULL_INSTANT : instant.toEpochMilli();
+    }
+
+    private static Instant instant(long epochMilli) {
+        return epochMilli == NULL_INSTANT ? null : Instant.ofEpochMilli(epochMilli);
+    }
+
+    /**
+     * A decoded record; {@code person} is null for deletions.
+     */
+    record LogRecord(long seq, long id, Person person) {
+    }
+}
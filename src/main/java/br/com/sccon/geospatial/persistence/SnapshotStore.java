@@ -0,0 +1,156 @@
+package br.com.sccon.geospatial.persistence;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.persistence.PersonRecordCodec.LogRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Compact point-in-time copies of the store, written with the same record
+ * layout as the log and terminated by a zero-length record.
+ * <p>
+ * A snapshot named after sequence {@code S} holds the effect of every log
+ * record up to {@code S}; records after it may or may not be reflected, which
+ * is harmless because replaying post-images is idempotent.
+ */
+final class SnapshotStore {
+
+    private static final String SUFFIX = ".snapshot";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+
+    SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Loads the most recent snapshot into the consumer and returns its
+     * sequence, or zero when there is none.
+     */
+    long load(Consumer<Person> consumer) {
+        List<Path> snapshots = snapshots();
+
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+
+        Path path = snapshots.get(snapshots.size() - 1);
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+
+            if (in.readInt() != PersonRecordCodec.MAGIC) {
+                throw new IllegalStateException("Not a snapshot: " + path);
+            }
+
+            int version = in.readInt();
+
+            if (version < PersonRecordCodec.MIN_FORMAT_VERSION || version > PersonRecordCodec.FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported snapshot format version " + version);
+            }
+
+            long seq = in.readLong();
+
+            while (true) {
+                int length = in.readInt();
+                int crc = in.readInt();
+
+                if (length == 0) {
+                    return seq;
+                }
+
+                ByteBuffer record = ByteBuffer.allocate(PersonRecordCodec.HEADER_BYTES + length);
+                record.putInt(length).putInt(crc);
+                in.readFully(record.array(), PersonRecordCodec.HEADER_BYTES, length);
+
+                LogRecord decoded = PersonRecordCodec.decode(record.rewind());
+
+                if (decoded == null || decoded.person() == null) {
+                    throw new IllegalStateException("Corrupted snapshot: " + path);
+                }
+
+                consumer.accept(decoded.person());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load snapshot " + path, e);
+        }
+    }
+
+    /**
+     * Writes a snapshot next to the previous ones, atomically publishes it and
+     * removes the older snapshots.
+     */
+    void write(long seq, Consumer<Consumer<Person>> source) {
+        String name = String.format("%020d%s", seq, SUFFIX);
+        Path temporary = directory.resolve(name + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(
+                temporary,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+        )) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)
+            );
+
+            out.writeInt(PersonRecordCodec.MAGIC);
+            out.writeInt(PersonRecordCodec.FORMAT_VERSION);
+            out.writeLong(seq);
+
+            source.accept(person -> {
+                try {
+                    out.write(PersonRecordCodec.encodeUpsert(seq, person));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            out.writeInt(0);
+            out.writeInt(0);
+            out.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + temporary, e);
+        }
+
+        try {
+            Files.move(temporary, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+
+            for (Path older : snapshots()) {
+                if (!older.getFileName().toString().equals(name)) {
+                    Files.deleteIfExists(older);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not publish snapshot " + name, e);
+        }
+    }
+
+    private List<Path> snapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list " + directory, e);
+        }
+    }
+}
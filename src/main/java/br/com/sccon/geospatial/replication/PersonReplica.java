@@ -0,0 +1,330 @@
+package br.com.sccon.geospatial.replication;
+
+import br.com.sccon.geospatial.converter.PersonMapper;
+import br.com.sccon.geospatial.model.dto.ReplicationEventDto;
+import br.com.sccon.geospatial.model.enums.ReplicationEventEnum;
+import br.com.sccon.geospatial.service.PersonService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * A follower's copy of the leader's store, kept up to date by one virtual
+ * thread.
+ * <p>
+ * The thread starts from a snapshot, then follows the change stream from
+ * the snapshot's checkpoint, applying each change through
+ * {@link PersonService#restore} or {@link PersonService#evict}, so local
+ * indexes, caches and the local change feed stay in step. Persons keep the
+ * leader's versions and the copy takes the leader's epoch, so an ETag from
+ * either node is good on the other. When the
+ * connection drops it resumes after the last change applied; when the
+ * leader no longer has that change, or a change is missing, it takes a new
+ * snapshot.
+ * <p>
+ * The copy counts as caught up when a heartbeat arrives and every change
+ * it covers has been applied, past the end of the last snapshot.
+ * {@link #isFresh()} holds while that happened less than the configured
+ * maximum staleness ago. A watchdog drops a connection that stays silent
+ * longer than the timeout, since a leader that vanished without closing it
+ * would otherwise leave the reader blocked for good.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "geospatial.replication", name = "role", havingValue = "follower")
+public class PersonReplica implements SmartLifecycle {
+
+    private final PersonService service;
+
+    private final ReplicationProperties properties;
+
+    private final URI leader;
+
+    private final ObjectReader reader;
+
+    private final HttpClient client;
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    private Thread watchdog;
+
+    /**
+     * Last change applied; negative while a snapshot is needed.
+     */
+    private volatile long applied = -1;
+
+    /**
+     * End sequence of the last snapshot applied.
+     */
+    private volatile long consistentAt;
+
+    private volatile long leaderSequence;
+
+    private volatile long caughtUpNanos;
+
+    private volatile long lastHeardNanos;
+
+    private volatile InputStream connection;
+
+    public PersonReplica(PersonService service, ReplicationProperties properties, ObjectMapper objectMapper) {
+        if (properties.getLeader() == null) {
+            throw new IllegalStateException("geospatial.replication.leader is required on a follower");
+        }
+
+        URI uri = properties.getLeader();
+
+        this.service = service;
+        this.properties = properties;
+        this.leader = uri.getPath().endsWith("/") ? uri : URI.create(uri + "/");
+        this.reader = objectMapper.readerFor(ReplicationEventDto.class);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getTimeout())
+                .build();
+    }
+
+    /**
+     * Whether the copy was known to be up to date within the maximum staleness.
+     */
+    public boolean isFresh() {
+        long caughtUp = caughtUpNanos;
+        return caughtUp != 0 && System.nanoTime() - caughtUp <= properties.getMaxStaleness().toNanos();
+    }
+
+    /**
+     * Seconds since the copy was last known to be up to date; infinite before
+     * the first time.
+     */
+    public double stalenessSeconds() {
+        long caughtUp = caughtUpNanos;
+        return caughtUp == 0 ? Double.POSITIVE_INFINITY : (System.nanoTime() - caughtUp) / 1e9;
+    }
+
+    /**
+     * Changes the leader was known to have that are not applied here yet.
+     */
+    public long lag() {
+        return Math.max(0, leaderSequence - Math.max(applied, 0));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofVirtual().name("person-replica").start(this::replicate);
+        watchdog = Thread.ofVirtual().name("person-replica-watchdog").start(this::watch);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        disconnect();
+        worker.interrupt();
+        watchdog.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void replicate() {
+        while (running) {
+            try {
+                if (applied < 0) {
+                    catchUp();
+                }
+
+                follow();
+            } catch (IOException | UncheckedIOException | IllegalStateException e) {
+                if (!running) {
+                    return;
+                }
+
+                log.warn("Replication from {} interrupted, retrying: {}", leader, e.toString());
+
+                try {
+                    TimeUnit.NANOSECONDS.sleep(properties.getRetryInterval().toNanos());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the local copy with a snapshot of the leader.
+     */
+    private void catchUp() throws IOException {
+        try (MappingIterator<ReplicationEventDto> events = reader.readValues(connect("/snapshot"))) {
+            long begin = -1;
+            long restored = 0;
+
+            while (events.hasNext()) {
+                ReplicationEventDto event = events.next();
+                heard();
+
+                switch (event.type()) {
+                    case BEGIN -> {
+                        begin = event.sequence();
+                        caughtUpNanos = 0;
+                        evictAll();
+
+                        if (event.epoch() != null) {
+                            service.adoptEpoch(event.epoch());
+                        }
+                    }
+                    case PERSON -> {
+                        service.restore(PersonMapper.fromEvent(event));
+                        restored++;
+                    }
+                    case END -> {
+                        consistentAt = event.sequence();
+
+                        if (event.version() != null) {
+                            service.advanceVersion(event.version());
+                        }
+
+                        leaderSequence = Math.max(leaderSequence, event.sequence());
+                        applied = begin;
+                        log.info("Copied {} persons from {} at sequence {}", restored, leader, begin);
+                        return;
+                    }
+                    default -> throw new IllegalStateException("Unexpected " + event.type() + " in a snapshot");
+                }
+            }
+
+            throw new IOException("Snapshot from " + leader + " ended early");
+        } finally {
+            disconnect();
+        }
+    }
+
+    private void evictAll() {
+        LongStream.Builder ids = LongStream.builder();
+        service.forEachPerson(person -> ids.add(person.getId()));
+        ids.build().forEach(service::evict);
+    }
+
+    /**
+     * Applies changes as they come until the leader ends the stream.
+     */
+    private void follow() throws IOException {
+        try (MappingIterator<ReplicationEventDto> events = reader.readValues(connect("/changes?after=" + applied))) {
+            while (events.hasNext()) {
+                ReplicationEventDto event = events.next();
+                heard();
+
+                switch (event.type()) {
+                    case UPSERT -> apply(event, () -> service.restore(PersonMapper.fromEvent(event)));
+                    case DELETE -> apply(event, () -> {
+                        if (event.version() == null) {
+                            service.evict(event.id());
+                        } else {
+                            service.evict(event.id(), event.version());
+                        }
+                    });
+                    case HEARTBEAT -> {
+                        leaderSequence = Math.max(leaderSequence, event.sequence());
+
+                        if (applied >= event.sequence() && applied >= consistentAt) {
+                            caughtUpNanos = System.nanoTime();
+                        }
+                    }
+                    case OVERRUN -> {
+                        log.warn("Fell out of the leader's change feed after {}; taking a new snapshot", applied);
+                        applied = -1;
+                        return;
+                    }
+                    default -> throw new IllegalStateException("Unexpected " + event.type() + " in the change stream");
+                }
+            }
+        } finally {
+            disconnect();
+        }
+    }
+
+    private void apply(ReplicationEventDto event, Runnable change) {
+        if (event.sequence() != applied + 1) {
+            long expected = applied + 1;
+            applied = -1;
+            throw new IllegalStateException("Expected change " + expected + " but got " + event.sequence());
+        }
+
+        change.run();
+        applied = event.sequence();
+        leaderSequence = Math.max(leaderSequence, applied);
+    }
+
+    private InputStream connect(String path) throws IOException {
+        URI uri = leader.resolve(PersonReplicationController.PATH + path);
+
+        try {
+            HttpResponse<InputStream> response = client.send(
+                    HttpRequest.newBuilder(uri).timeout(properties.getTimeout()).build(),
+                    HttpResponse.BodyHandlers.ofInputStream()
+            );
+
+            if (response.statusCode() != 200) {
+                response.body().close();
+                throw new IOException("Leader answered " + uri + " with " + response.statusCode());
+            }
+
+            heard();
+            connection = response.body();
+            return connection;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while connecting to " + uri, e);
+        }
+    }
+
+    private void heard() {
+        lastHeardNanos = System.nanoTime();
+    }
+
+    private void disconnect() {
+        InputStream current = connection;
+        connection = null;
+
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // already broken
+            }
+        }
+    }
+
+    private void watch() {
+        long timeoutNanos = properties.getTimeout().toNanos();
+
+        while (running) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(timeoutNanos / 4);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (connection != null && System.nanoTime() - lastHeardNanos > timeoutNanos) {
+                log.warn("Nothing heard from {} in {}, reconnecting", leader, properties.getTimeout());
+                disconnect();
+            }
+        }
+    }
+}
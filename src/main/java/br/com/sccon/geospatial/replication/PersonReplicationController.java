@@ -0,0 +1,41 @@
+package br.com.sccon.geospatial.replication;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Leader endpoints followers replicate from.
+ */
+@Hidden
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(PersonReplicationController.PATH)
+@ConditionalOnProperty(prefix = "geospatial.replication", name = "role", havingValue = "leader")
+public class PersonReplicationController {
+
+    static final String PATH = "v1/persons/replication";
+
+    private final PersonReplicationSource source;
+
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> snapshot() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(source.snapshot());
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> changes(@RequestParam long after) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(source.changesAfter(after));
+    }
+}
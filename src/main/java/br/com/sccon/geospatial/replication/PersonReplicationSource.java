@@ -0,0 +1,159 @@
+package br.com.sccon.geospatial.replication;
+
+import br.com.sccon.geospatial.converter.PersonMapper;
+import br.com.sccon.geospatial.exception.BusinessException;
+import br.com.sccon.geospatial.model.dto.ReplicationEventDto;
+import br.com.sccon.geospatial.model.enums.ChangeTypeEnum;
+import br.com.sccon.geospatial.model.enums.ReplicationEventEnum;
+import br.com.sccon.geospatial.service.PersonChangeFeed;
+import br.com.sccon.geospatial.service.PersonService;
+import br.com.sccon.geospatial.util.ChangeFeedProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The leader's side of replication: a copy of the store to start from and
+ * the ordered stream of changes after it, both as NDJSON.
+ * <p>
+ * A snapshot is not a frozen image. It starts at a
+ * {@linkplain PersonChangeFeed#checkpoint() checkpoint}, copies the store
+ * while writes go on and ends at the sequence reached meanwhile. Changes
+ * are post-images, so a follower that applies the copy and then every
+ * change after the checkpoint ends up exactly like the leader once it has
+ * passed the end sequence.
+ * <p>
+ * The change stream is read from the change feed. Whenever it has sent
+ * every change published so far it adds a {@link ReplicationEventEnum#HEARTBEAT}
+ * at most once per heartbeat interval; that is how a follower knows how
+ * fresh it is. A follower that falls out of the feed gets an
+ * {@link ReplicationEventEnum#OVERRUN} and has to take a new snapshot.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@ConditionalOnProperty(prefix = "geospatial.replication", name = "role", havingValue = "leader")
+public class PersonReplicationSource {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final PersonService service;
+
+    private final PersonChangeFeed feed;
+
+    private final ChangeFeedProperties changeFeedProperties;
+
+    private final ReplicationProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    public StreamingResponseBody snapshot() {
+        return out -> {
+            ObjectWriter writer = objectMapper.writerFor(ReplicationEventDto.class);
+
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+
+                long begin = feed.checkpoint();
+                write(writer, generator, new ReplicationEventDto(ReplicationEventEnum.BEGIN, begin,
+                        null, null, null, null, null, null, null, null, service.epoch()));
+
+                service.forEachPerson(person -> {
+                    try {
+                        write(writer, generator, PersonMapper.toEvent(ReplicationEventEnum.PERSON, begin, person));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+                // versions taken before the sequence, so the end covers every change they count
+                long version = service.version();
+                write(writer, generator, new ReplicationEventDto(ReplicationEventEnum.END, feed.lastSequence(),
+                        null, null, null, null, null, null, null, version, null));
+                generator.flush();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    /**
+     * Streams the changes after {@code after} until the follower goes away.
+     */
+    public StreamingResponseBody changesAfter(long after) {
+        long last = feed.lastSequence();
+
+        if (after < 0 || after > last) {
+            throw new BusinessException("after must be between 0 and the last sequence, " + last);
+        }
+
+        return out -> {
+            ObjectWriter writer = objectMapper.writerFor(ReplicationEventDto.class);
+
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                pump(writer, generator, after + 1);
+            }
+        };
+    }
+
+    private void pump(ObjectWriter writer, JsonGenerator generator, long from) throws IOException {
+        PersonChangeFeed.Change[] batch = new PersonChangeFeed.Change[BATCH_SIZE];
+        long pollNanos = changeFeedProperties.getPollInterval().toNanos();
+        long heartbeatNanos = properties.getHeartbeatInterval().toNanos();
+        long next = from;
+        long lastHeartbeat = System.nanoTime() - heartbeatNanos;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            int read = feed.read(next, batch);
+
+            if (read == PersonChangeFeed.OVERRUN) {
+                long oldest = feed.firstAvailable();
+                log.warn("Replication follower cut off at sequence {}, oldest available is {}", next, oldest);
+
+                write(writer, generator, new ReplicationEventDto(ReplicationEventEnum.OVERRUN, oldest));
+                generator.flush();
+                return;
+            }
+
+            for (int i = 0; i < read; i++) {
+                PersonChangeFeed.Change change = batch[i];
+                batch[i] = null;
+
+                write(writer, generator, change.type() == ChangeTypeEnum.DELETED
+                        ? new ReplicationEventDto(ReplicationEventEnum.DELETE, change.sequence(), change.id(),
+                                null, null, null, null, null, null, change.version(), null)
+                        : PersonMapper.toEvent(ReplicationEventEnum.UPSERT, change.sequence(), change.person()));
+            }
+
+            next += read;
+
+            if (read < BATCH_SIZE) {
+                if (System.nanoTime() - lastHeartbeat >= heartbeatNanos) {
+                    write(writer, generator, new ReplicationEventDto(ReplicationEventEnum.HEARTBEAT, next - 1));
+                    lastHeartbeat = System.nanoTime();
+                }
+
+                generator.flush();
+
+                if (read == 0) {
+                    LockSupport.parkNanos(pollNanos);
+                }
+            }
+        }
+    }
+
+    private static void write(ObjectWriter writer, JsonGenerator generator, ReplicationEventDto event) throws IOException {
+        writer.writeValue(generator, event);
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.sccon.geospatial.replication;
+
+import br.com.sccon.geospatial.exception.ReadOnlyReplicaException;
+import br.com.sccon.geospatial.exception.StaleReplicaException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Keeps a follower read-only and its reads within the staleness bound.
+ * <p>
+ * Writes are refused, since they belong on the leader. Reads are served
+ * while the copy is {@linkplain PersonReplica#isFresh() fresh} and carry
+ * {@value #STALENESS_HEADER}, the milliseconds since the copy was last
+ * known to be up to date; a stale copy refuses them until it catches up.
+ * The change stream is the follower's own and is always served.
+ */
+@Component
+@ConditionalOnProperty(prefix = "geospatial.replication", name = "role", havingValue = "follower")
+public class ReplicaFilter extends OncePerRequestFilter {
+
+    public static final String STALENESS_HEADER = "X-Replica-Staleness";
+
+    private static final String PERSONS = "/v1/persons";
+
+    private static final String CHANGES = PERSONS + "/changes";
+
+    private static final Set<String> READS = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name()
+    );
+
+    private final PersonReplica replica;
+
+    private final ReplicationProperties properties;
+
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public ReplicaFilter(
+            PersonReplica replica,
+            ReplicationProperties properties,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver
+    ) {
+        this.replica = replica;
+        this.properties = properties;
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith(PERSONS);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        try {
+            check(request, response);
+        } catch (RuntimeException e) {
+            if (exceptionResolver.resolveException(request, response, null, e) == null) {
+                throw e;
+            }
+
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private void check(HttpServletRequest request, HttpServletResponse response) {
+        if (!READS.contains(request.getMethod())) {
+            throw new ReadOnlyReplicaException(
+                    "This node is a read-only replica; send writes to the leader at " + properties.getLeader()
+            );
+        }
+
+        if (path(request).startsWith(CHANGES)) {
+            return;
+        }
+
+        if (!replica.isFresh()) {
+            throw new StaleReplicaException(
+                    "This replica is more than " + properties.getMaxStaleness() + " behind the leader"
+            );
+        }
+
+        response.setHeader(STALENESS_HEADER, Long.toString(Math.round(replica.stalenessSeconds() * 1000)));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.sccon.geospatial.replication;
+
+import br.com.sccon.geospatial.model.enums.ReplicationRoleEnum;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "geospatial.replication")
+public class ReplicationProperties {
+
+    /**
+     * LEADER serves its changes to followers; FOLLOWER copies a leader and only serves reads.
+     */
+    private ReplicationRoleEnum role = ReplicationRoleEnum.NONE;
+
+    /**
+     * Base URI of the leader, context path included; followers only.
+     */
+    private URI leader;
+
+    /**
+     * How far behind the leader a follower may be and still serve reads.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /**
+     * How often the leader confirms to an up-to-date follower that nothing is missing.
+     */
+    private Duration heartbeatInterval = Duration.ofMillis(200);
+
+    /**
+     * Silence after which a follower drops its connection to the leader and opens a new one.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * Pause before a follower reconnects after losing the leader.
+     */
+    private Duration retryInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,505 @@
+package br.com.sccon.geospatial.repository;
+
+import br.com.sccon.geospatial.index.PersonNameIndex;
+import br.com.sccon.geospatial.model.entity.Person;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Compact engine that stores persons column by column instead of one object
+ * per record.
+ * <p>
+ * Records are spread over independent segments by id hash. Each segment keeps
+ * ids in a primitive open-addressing table, versions and update times as
+ * longs, dates as int epoch-days, coordinates as doubles (NaN when absent)
+ * and names as UTF-8 slices of a shared byte arena, with rows kept dense by moving the
+ * last row into the hole left by a removal. {@link Person} objects are only
+ * materialized when a record leaves the store. Reads use optimistic
+ * {@link StampedLock} stamps and fall back to a read lock under contention.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "geospatial.store", name = "engine", havingValue = "columnar")
+public class ColumnarPersonRepository implements PersonRepository {
+
+    private static final int SEGMENTS = 64;
+
+    private static final int NULL_MARKER = Integer.MIN_VALUE;
+
+    private static final long NULL_INSTANT = Long.MIN_VALUE;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final PersonNameIndex nameIndex = new PersonNameIndex();
+
+    public ColumnarPersonRepository() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public Optional<Person> findById(long id) {
+        return Optional.ofNullable(get(id));
+    }
+
+    @Override
+    public Person compute(long id, PersonChange change) {
+        Segment segment = segment(id);
+        long stamp = segment.lock.writeLock();
+
+        try {
+            int row = segment.find(id);
+            Person existing = row < 0 ? null : segment.materialize(row);
+
+            Person person = change.remap(existing);
+
+            if (person == existing) {
+                return person;
+            }
+
+            segment.store(id, person);
+
+            try {
+                change.stored(existing, person);
+            } catch (RuntimeException e) {
+                segment.store(id, existing);
+                throw e;
+            }
+
+            nameIndex.update(
+                    existing == null ? null : existing.getName(),
+                    person == null ? null : person.getName(),
+                    id
+            );
+
+            return person;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Stream<Person> streamOrderedByName(PersonNameIndex.Key after) {
+        return nameIndex.persons(after, this::get);
+    }
+
+    /**
+     * Copies one segment at a time under its read lock and hands the copies
+     * to the consumer after releasing it, so slow consumers never block writers.
+     */
+    @Override
+    public void forEach(Consumer<Person> consumer) {
+        for (Segment segment : segments) {
+            segment.copy().forEach(consumer);
+        }
+    }
+
+    /**
+     * Splits by segment, each one copied under its read lock when reached.
+     */
+    @Override
+    public Stream<Person> stream() {
+        return Arrays.stream(segments).flatMap(segment -> segment.copy().stream());
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+
+        for (Segment segment : segments) {
+            count += segment.size;
+        }
+
+        return count;
+    }
+
+    /**
+     * Bytes held by the column arrays, tables and name arenas, including
+     * unused capacity; used by footprint reports.
+     */
+    public long allocatedBytes() {
+        long bytes = 0;
+
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+
+            try {
+                bytes += segment.allocatedBytes();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+
+        return bytes;
+    }
+
+    private Person get(long id) {
+        Segment segment = segment(id);
+        long stamp = segment.lock.tryOptimisticRead();
+
+        if (stamp != 0) {
+            try {
+                int row = segment.find(id);
+                Person person = row < 0 ? null : segment.materialize(row);
+
+                if (segment.lock.validate(stamp)) {
+                    return person;
+                }
+            } catch (RuntimeException e) {
+                // torn read of arrays being resized or compacted; retry under the read lock
+            }
+        }
+
+        stamp = segment.lock.readLock();
+
+        try {
+            int row = segment.find(id);
+            return row < 0 ? null : segment.materialize(row);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    private Segment segment(long id) {
+        return segments[(int) (mix(id) >>> 58)];
+    }
+
+    private static long mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NULL_MARKER : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static LocalDate date(int epochDay) {
+        return epochDay == NULL_MARKER ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static double coordinate(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static Double coordinate(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static long epochMilli(Instant instant) {
+        return instant == null ? NULL_INSTANT : instant.toEpochMilli();
+    }
+
+    private static Instant instant(long epochMilli) {
+        return epochMilli == NULL_INSTANT ? null : Instant.ofEpochMilli(epochMilli);
+    }
+
+    private static final class Segment {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        final StampedLock lock = new StampedLock();
+
+        // open-addressing table: id -> row + 1 (0 marks a free slot)
+        long[] tableIds = new long[INITIAL_CAPACITY * 2];
+        int[] tableRows = new int[INITIAL_CAPACITY * 2];
+
+        // dense rows
+        long[] ids = new long[INITIAL_CAPACITY];
+        long[] versions = new long[INITIAL_CAPACITY];
+        int[] birthDays = new int[INITIAL_CAPACITY];
+        int[] admissionDays = new int[INITIAL_CAPACITY];
+        int[] nameOffsets = new int[INITIAL_CAPACITY];
+        int[] nameLengths = new int[INITIAL_CAPACITY];
+        double[] latitudes = new double[INITIAL_CAPACITY];
+        double[] longitudes = new double[INITIAL_CAPACITY];
+        long[] updatedAts = new long[INITIAL_CAPACITY];
+
+        byte[] arena = new byte[INITIAL_CAPACITY * 16];
+        int arenaUsed;
+        int arenaGarbage;
+
+        volatile int size;
+
+        int find(long id) {
+            long[] keys = tableIds;
+            int[] rows = tableRows;
+            int mask = keys.length - 1;
+            int slot = (int) mix(id) & mask;
+
+            for (int probe = 0; probe <= mask; probe++) {
+                int row = rows[slot];
+
+                if (row == 0) {
+                    return -1;
+                }
+
+                if (keys[slot] == id) {
+                    return row - 1;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            return -1;
+        }
+
+        List<Person> copy() {
+            long stamp = lock.readLock();
+
+            try {
+                List<Person> persons = new ArrayList<>(size);
+
+                for (int row = 0; row < size; row++) {
+                    persons.add(materialize(row));
+                }
+
+                return persons;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Person materialize(int row) {
+            int length = nameLengths[row];
+            String name = length == NULL_MARKER
+                    ? null
+                    : new String(arena, nameOffsets[row], length, StandardCharsets.UTF_8);
+
+            return new Person(
+                    ids[row],
+                    name,
+                    date(birthDays[row]),
+                    date(admissionDays[row]),
+                    coordinate(latitudes[row]),
+                    coordinate(longitudes[row]),
+                    versions[row],
+                    instant(updatedAts[row])
+            );
+        }
+
+        void insert(Person person) {
+            int row = size;
+
+            if (row == ids.length) {
+                growRows();
+            }
+
+            if ((row + 1) * 4 > tableIds.length * 3) {
+                rehash(tableIds.length * 2);
+            }
+
+            ids[row] = person.getId();
+            setRow(person.getId(), row);
+            write(row, person);
+            size = row + 1;
+        }
+
+        void write(int row, Person person) {
+            versions[row] = person.getVersion();
+            birthDays[row] = epochDay(person.getBirthDate());
+            admissionDays[row] = epochDay(person.getAdmissionDate());
+            latitudes[row] = coordinate(person.getLatitude());
+            longitudes[row] = coordinate(person.getLongitude());
+            updatedAts[row] = epochMilli(person.getUpdatedAt());
+            writeName(row, person.getName());
+        }
+
+        /**
+         * Makes {@code person} the record under {@code id}, or removes the
+         * record when it is null.
+         */
+        void store(long id, Person person) {
+            int row = find(id);
+
+            if (person == null) {
+                if (row >= 0) {
+                    remove(row);
+                }
+            } else if (row < 0) {
+                insert(person);
+            } else {
+                write(row, person);
+            }
+        }
+
+        /**
+         * Removes the row and moves the last row into its place.
+         */
+        void remove(int row) {
+            long id = ids[row];
+            int last = size - 1;
+
+            releaseName(row);
+            deleteSlot(id);
+
+            if (row != last) {
+                ids[row] = ids[last];
+                versions[row] = versions[last];
+                birthDays[row] = birthDays[last];
+                admissionDays[row] = admissionDays[last];
+                nameOffsets[row] = nameOffsets[last];
+                nameLengths[row] = nameLengths[last];
+                latitudes[row] = latitudes[last];
+                longitudes[row] = longitudes[last];
+                updatedAts[row] = updatedAts[last];
+                setRow(ids[row], row);
+            }
+
+            size = last;
+        }
+
+        long allocatedBytes() {
+            return (long) tableIds.length * Long.BYTES
+                    + (long) tableRows.length * Integer.BYTES
+                    + (long) ids.length * Long.BYTES * 3
+                    + (long) ids.length * Double.BYTES * 2
+                    + (long) ids.length * Integer.BYTES * 4
+                    + arena.length;
+        }
+
+        private void writeName(int row, String name) {
+            if (size > row) {
+                releaseName(row);
+            }
+
+            if (name == null) {
+                nameOffsets[row] = 0;
+                nameLengths[row] = NULL_MARKER;
+                return;
+            }
+
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+
+            if (arenaUsed + bytes.length > arena.length) {
+                if (arenaGarbage > arenaUsed / 2) {
+                    compactArena();
+                }
+
+                if (arenaUsed + bytes.length > arena.length) {
+                    arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaUsed + bytes.length));
+                }
+            }
+
+            System.arraycopy(bytes, 0, arena, arenaUsed, bytes.length);
+            nameOffsets[row] = arenaUsed;
+            nameLengths[row] = bytes.length;
+            arenaUsed += bytes.length;
+        }
+
+        private void releaseName(int row) {
+            if (nameLengths[row] != NULL_MARKER) {
+                arenaGarbage += nameLengths[row];
+            }
+        }
+
+        /**
+         * Rewrites live names into a fresh arena. A new array is allocated so
+         * optimistic readers still holding the old one never see moved bytes.
+         */
+        private void compactArena() {
+            byte[] compacted = new byte[arena.length];
+            int used = 0;
+
+            for (int row = 0; row < size; row++) {
+                int length = nameLengths[row];
+
+                if (length != NULL_MARKER) {
+                    System.arraycopy(arena, nameOffsets[row], compacted, used, length);
+                    nameOffsets[row] = used;
+                    used += length;
+                }
+            }
+
+            arena = compacted;
+            arenaUsed = used;
+            arenaGarbage = 0;
+        }
+
+        private void growRows() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            birthDays = Arrays.copyOf(birthDays, capacity);
+            admissionDays = Arrays.copyOf(admissionDays, capacity);
+            nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            updatedAts = Arrays.copyOf(updatedAts, capacity);
+        }
+
+        private void rehash(int capacity) {
+            long[] keys = new long[capacity];
+            int[] rows = new int[capacity];
+            int mask = capacity - 1;
+
+            for (int row = 0; row < size; row++) {
+                int slot = (int) mix(ids[row]) & mask;
+
+                while (rows[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+
+                keys[slot] = ids[row];
+                rows[slot] = row + 1;
+            }
+
+            tableIds = keys;
+            tableRows = rows;
+        }
+
+        private void setRow(long id, int row) {
+            int mask = tableIds.length - 1;
+            int slot = (int) mix(id) & mask;
+
+            while (tableRows[slot] != 0 && tableIds[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+
+            tableIds[slot] = id;
+            tableRows[slot] = row + 1;
+        }
+
+        /**
+         * Linear-probing deletion with backward shift, so lookups never need
+         * tombstones.
+         */
+        private void deleteSlot(long id) {
+            int mask = tableIds.length - 1;
+            int slot = (int) mix(id) & mask;
+
+            while (tableIds[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+
+            int hole = slot;
+            slot = (slot + 1) & mask;
+
+            while (tableRows[slot] != 0) {
+                int home = (int) mix(tableIds[slot]) & mask;
+
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                    tableIds[hole] = tableIds[slot];
+                    tableRows[hole] = tableRows[slot];
+                    hole = slot;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            tableIds[hole] = 0;
+            tableRows[hole] = 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.sccon.geospatial.repository;
+
+import br.com.sccon.geospatial.index.PersonNameIndex;
+import br.com.sccon.geospatial.model.entity.Person;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Default engine: one {@link Person} object per record in a
+ * {@link ConcurrentHashMap}, whose bin lock makes {@link #compute} atomic.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "geospatial.store", name = "engine", havingValue = "map", matchIfMissing = true)
+public class InMemoryPersonRepository implements PersonRepository {
+
+    private final Map<Long, Person> database = new ConcurrentHashMap<>();
+
+    private final PersonNameIndex nameIndex = new PersonNameIndex();
+
+    @Override
+    public Optional<Person> findById(long id) {
+        return Optional.ofNullable(database.get(id));
+    }
+
+    @Override
+    public Person compute(long id, PersonChange change) {
+        return database.compute(id, (k, existing) -> {
+
+            Person person = change.remap(existing);
+
+            if (person != existing) {
+                // a throwing stored() leaves the entry as it was, so the name index only follows after it
+                change.stored(existing, person);
+                nameIndex.update(
+                        existing == null ? null : existing.getName(),
+                        person == null ? null : person.getName(),
+                        id
+                );
+            }
+
+            return person;
+        });
+    }
+
+    @Override
+    public Stream<Person> streamOrderedByName(PersonNameIndex.Key after) {
+        return nameIndex.persons(after, database::get);
+    }
+
+    @Override
+    public void forEach(Consumer<Person> consumer) {
+        database.values().forEach(consumer);
+    }
+
+    @Override
+    public Stream<Person> stream() {
+        return database.values().stream();
+    }
+
+    @Override
+    public long count() {
+        return database.size();
+    }
+}
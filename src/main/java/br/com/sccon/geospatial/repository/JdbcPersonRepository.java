@@ -0,0 +1,625 @@
+package br.com.sccon.geospatial.repository;
+
+import br.com.sccon.geospatial.index.PersonNameIndex;
+import br.com.sccon.geospatial.model.entity.Person;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Engine that keeps persons in a relational table behind a connection pool,
+ * an embedded H2 database by default.
+ * <p>
+ * The per-id atomicity of {@link #compute} comes from striped locks held by
+ * this process around reading the row, running the remapping and writing
+ * it back, so the table must not be written by anyone else: the engine
+ * keeps the owner row of the store locked for as long as it lives, on a
+ * connection of its own outside the pool, and a second instance pointed at
+ * the same database fails to start. Every write first checks that this
+ * connection is still alive, and once it is gone the engine refuses writes,
+ * since another instance may have taken the store over. Each change
+ * hears that it was stored only after its statement went through, so a
+ * failed write leaves the caller's indexes and journals as they were.
+ * Batches from {@link #computeAll} lock all their stripes, read every row
+ * in one query and send their inserts, updates and deletes as
+ * prepared-statement batches in a single transaction, whose changes hear
+ * back once it commits.
+ * <p>
+ * Walks over the table use keyset pagination: each page is the rows
+ * strictly after the last one seen, in (name, id) order over the
+ * {@code person_name_id} index or by primary key, so no page costs more
+ * than its own rows and concurrent writes never shift it. Pages start small
+ * and double up to the configured size, and no connection is held while
+ * the caller consumes a page.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "geospatial.store", name = "engine", havingValue = "jdbc")
+public class JdbcPersonRepository implements PersonRepository, AutoCloseable {
+
+    private static final int STRIPES = 256;
+
+    private static final int FIRST_PAGE = 64;
+
+    private static final String[] SCHEMA = {
+            """
+            CREATE TABLE IF NOT EXISTS person (
+                id BIGINT PRIMARY KEY,
+                name CHARACTER VARYING,
+                birth_date DATE,
+                admission_date DATE,
+                latitude DOUBLE PRECISION,
+                longitude DOUBLE PRECISION,
+                version BIGINT NOT NULL,
+                updated_at TIMESTAMP(9) WITH TIME ZONE
+            )""",
+            "CREATE INDEX IF NOT EXISTS person_name_id ON person (name, id)",
+            "CREATE TABLE IF NOT EXISTS person_store_owner (id INT PRIMARY KEY)",
+            "INSERT INTO person_store_owner (id) SELECT 1 WHERE NOT EXISTS (SELECT id FROM person_store_owner)"
+    };
+
+    private static final String OWN = "SELECT id FROM person_store_owner FOR UPDATE NOWAIT";
+
+    private static final String SELECT =
+            "SELECT id, name, birth_date, admission_date, latitude, longitude, version, updated_at FROM person";
+
+    private static final String FIND = SELECT + " WHERE id = ?";
+
+    private static final String FIND_ALL = SELECT + " WHERE id = ANY(?)";
+
+    // the id goes last in both, so one binding serves inserts and updates
+    private static final String INSERT =
+            "INSERT INTO person (name, birth_date, admission_date, latitude, longitude, version, updated_at, id)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE =
+            "UPDATE person SET name = ?, birth_date = ?, admission_date = ?, latitude = ?, longitude = ?,"
+                    + " version = ?, updated_at = ? WHERE id = ?";
+
+    private static final String DELETE = "DELETE FROM person WHERE id = ?";
+
+    private static final String FIRST_BY_ID = SELECT + " ORDER BY id LIMIT ?";
+
+    private static final String NEXT_BY_ID = SELECT + " WHERE id > ? ORDER BY id LIMIT ?";
+
+    // persons without a name are left out of the name ordering, as in the other engines
+    private static final String FIRST_BY_NAME = SELECT + " WHERE name IS NOT NULL ORDER BY name, id LIMIT ?";
+
+    // the redundant name >= ? bound lets the database start the index scan at the key
+    private static final String NEXT_BY_NAME =
+            SELECT + " WHERE name >= ? AND (name > ? OR id > ?) ORDER BY name, id LIMIT ?";
+
+    private static final String COUNT = "SELECT COUNT(*) FROM person";
+
+    private static final int OWNER_CHECK_SECONDS = 5;
+
+    private final DataSource dataSource;
+
+    private final SQLExceptionTranslator translator;
+
+    private final int batchSize;
+
+    private final int pageSize;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    /**
+     * Unpooled connection whose open transaction holds the owner row's lock.
+     */
+    private final Connection owner;
+
+    public JdbcPersonRepository(DataSource dataSource, JdbcStoreProperties properties) {
+        if (properties.getBatchSize() < 1 || properties.getPageSize() < 1) {
+            throw new IllegalArgumentException("batchSize and pageSize must be greater than zero");
+        }
+
+        this.dataSource = dataSource;
+        this.translator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+        this.batchSize = properties.getBatchSize();
+        this.pageSize = properties.getPageSize();
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+
+        createSchema();
+        this.owner = own(properties);
+    }
+
+    @Override
+    public Optional<Person> findById(long id) {
+        try (Connection connection = dataSource.getConnection()) {
+            return Optional.ofNullable(find(connection, id));
+        } catch (SQLException e) {
+            throw translate("findById", FIND, e);
+        }
+    }
+
+    @Override
+    public Person compute(long id, PersonChange change) {
+        checkOwner();
+
+        ReentrantLock lock = stripes[stripe(id)];
+        lock.lock();
+
+        try (Connection connection = dataSource.getConnection()) {
+            Person existing = find(connection, id);
+            Person person = change.remap(existing);
+
+            if (person == null) {
+                if (existing != null) {
+                    try (PreparedStatement statement = connection.prepareStatement(DELETE)) {
+                        statement.setLong(1, id);
+                        statement.executeUpdate();
+                    }
+                }
+            } else if (person != existing) {
+                try (PreparedStatement statement = connection.prepareStatement(existing == null ? INSERT : UPDATE)) {
+                    bind(statement, id, person);
+                    statement.executeUpdate();
+                }
+            }
+
+            if (person != existing) {
+                change.stored(existing, person);
+            }
+
+            return person;
+        } catch (SQLException e) {
+            throw translate("compute", SELECT, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Holds every stripe the ids fall on, in stripe order so concurrent
+     * batches cannot deadlock, while the remappings run against the rows
+     * read up front and the final state of each id is written back. When a
+     * remapping throws, the ones before it are still written, as they would
+     * have been by calling {@link #compute} one after the other. Changes
+     * hear they were stored, in order, only once the transaction commits.
+     */
+    @Override
+    public void computeAll(long[] ids, IntFunction<PersonChange> changes) {
+        if (ids.length == 0) {
+            return;
+        }
+
+        checkOwner();
+
+        boolean[] needed = new boolean[STRIPES];
+
+        for (long id : ids) {
+            needed[stripe(id)] = true;
+        }
+
+        int locked = 0;
+
+        try {
+            for (; locked < STRIPES; locked++) {
+                if (needed[locked]) {
+                    stripes[locked].lock();
+                }
+            }
+
+            try (Connection connection = dataSource.getConnection()) {
+                Map<Long, Person> stored = findAll(connection, ids);
+                Map<Long, Person> current = new LinkedHashMap<>(stored);
+                List<Applied> applied = new ArrayList<>(ids.length);
+                RuntimeException failure = null;
+
+                try {
+                    for (int i = 0; i < ids.length; i++) {
+                        PersonChange change = changes.apply(i);
+                        Person existing = current.get(ids[i]);
+                        Person person = change.remap(existing);
+
+                        if (person != existing) {
+                            applied.add(new Applied(change, existing, person));
+                        }
+
+                        if (person == null) {
+                            current.remove(ids[i]);
+                        } else {
+                            current.put(ids[i], person);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+
+                write(connection, stored, current);
+
+                for (Applied change : applied) {
+                    change.change().stored(change.previous(), change.person());
+                }
+
+                if (failure != null) {
+                    throw failure;
+                }
+            } catch (SQLException e) {
+                throw translate("computeAll", INSERT, e);
+            }
+        } finally {
+            for (int i = 0; i < locked; i++) {
+                if (needed[i]) {
+                    stripes[i].unlock();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Stream<Person> streamOrderedByName(PersonNameIndex.Key after) {
+        return paged((last, limit) -> {
+            PersonNameIndex.Key key = last == null ? after : new PersonNameIndex.Key(last.getName(), last.getId());
+
+            return key == null
+                    ? query(FIRST_BY_NAME, limit)
+                    : query(NEXT_BY_NAME, key.name(), key.name(), key.id(), limit);
+        });
+    }
+
+    @Override
+    public void forEach(Consumer<Person> consumer) {
+        stream().forEach(consumer);
+    }
+
+    /**
+     * Walks the table in id order; made parallel, the pages are still read
+     * one after the other but their rows are handed out in batches.
+     */
+    @Override
+    public Stream<Person> stream() {
+        return paged((last, limit) -> last == null
+                ? query(FIRST_BY_ID, limit)
+                : query(NEXT_BY_ID, last.getId(), limit));
+    }
+
+    @Override
+    public long count() {
+        return single(COUNT);
+    }
+
+    private void createSchema() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+        } catch (SQLException e) {
+            throw translate("createSchema", SCHEMA[0], e);
+        }
+    }
+
+    /**
+     * Locks the owner row in a transaction left open until {@link #close},
+     * failing at once when another instance holds it. The connection is
+     * opened straight from the driver, so the pool keeps all its connections
+     * and never recycles this one.
+     */
+    private Connection own(JdbcStoreProperties properties) {
+        Connection connection = null;
+
+        try {
+            connection = DriverManager.getConnection(
+                    properties.getUrl(),
+                    properties.getUsername(),
+                    properties.getPassword()
+            );
+            connection.setAutoCommit(false);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.executeQuery(OWN).close();
+            }
+
+            return connection;
+        } catch (SQLException e) {
+            release(connection);
+            throw new IllegalStateException(
+                    "The person store is in use by another instance; the jdbc engine must be its only writer",
+                    translate("own", OWN, e)
+            );
+        }
+    }
+
+    private void checkOwner() {
+        boolean valid;
+
+        try {
+            valid = owner.isValid(OWNER_CHECK_SECONDS);
+        } catch (SQLException e) {
+            valid = false;
+        }
+
+        if (!valid) {
+            throw new IllegalStateException(
+                    "The jdbc engine lost the connection holding the person store's owner lock; "
+                            + "another instance may be writing it, so this one no longer does"
+            );
+        }
+    }
+
+    /**
+     * Lets another instance take the store over.
+     */
+    @Override
+    public void close() {
+        release(owner);
+    }
+
+    private static void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        try (connection) {
+            connection.rollback();
+        } catch (SQLException e) {
+            // closing the connection ends the transaction and its lock anyway
+        }
+    }
+
+    private static Person find(Connection connection, long id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(FIND)) {
+            statement.setLong(1, id);
+
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next() ? read(rows) : null;
+            }
+        }
+    }
+
+    private static Map<Long, Person> findAll(Connection connection, long[] ids) throws SQLException {
+        Long[] boxed = new Long[ids.length];
+
+        for (int i = 0; i < ids.length; i++) {
+            boxed[i] = ids[i];
+        }
+
+        Map<Long, Person> found = new HashMap<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(FIND_ALL)) {
+            statement.setArray(1, connection.createArrayOf("BIGINT", boxed));
+
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    Person person = read(rows);
+                    found.put(person.getId(), person);
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Writes the difference between the rows read and their final state in
+     * one transaction, each kind of statement as its own batch.
+     */
+    private void write(Connection connection, Map<Long, Person> stored, Map<Long, Person> current) throws SQLException {
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement inserts = connection.prepareStatement(INSERT);
+             PreparedStatement updates = connection.prepareStatement(UPDATE);
+             PreparedStatement deletes = connection.prepareStatement(DELETE)) {
+            Batch insertBatch = new Batch(inserts);
+            Batch updateBatch = new Batch(updates);
+            Batch deleteBatch = new Batch(deletes);
+
+            for (Map.Entry<Long, Person> entry : current.entrySet()) {
+                Person existing = stored.get(entry.getKey());
+
+                if (existing == null) {
+                    bind(inserts, entry.getKey(), entry.getValue());
+                    insertBatch.add();
+                } else if (entry.getValue() != existing) {
+                    bind(updates, entry.getKey(), entry.getValue());
+                    updateBatch.add();
+                }
+            }
+
+            for (Long id : stored.keySet()) {
+                if (!current.containsKey(id)) {
+                    deletes.setLong(1, id);
+                    deleteBatch.add();
+                }
+            }
+
+            insertBatch.flush();
+            updateBatch.flush();
+            deleteBatch.flush();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private List<Person> query(String sql, Object... parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+
+            try (ResultSet rows = statement.executeQuery()) {
+                List<Person> page = new ArrayList<>();
+
+                while (rows.next()) {
+                    page.add(read(rows));
+                }
+
+                return page;
+            }
+        } catch (SQLException e) {
+            throw translate("query", sql, e);
+        }
+    }
+
+    private long single(String sql) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rows = statement.executeQuery()) {
+            rows.next();
+            return rows.getLong(1);
+        } catch (SQLException e) {
+            throw translate("query", sql, e);
+        }
+    }
+
+    private Stream<Person> paged(PageQuery query) {
+        return StreamSupport.stream(new Pages(query), false);
+    }
+
+    private static void bind(PreparedStatement statement, long id, Person person) throws SQLException {
+        Optional<OffsetDateTime> updatedAt = Optional.ofNullable(person.getUpdatedAt())
+                .map(instant -> instant.atOffset(ZoneOffset.UTC));
+
+        statement.setString(1, person.getName());
+        statement.setObject(2, person.getBirthDate(), Types.DATE);
+        statement.setObject(3, person.getAdmissionDate(), Types.DATE);
+        statement.setObject(4, person.getLatitude(), Types.DOUBLE);
+        statement.setObject(5, person.getLongitude(), Types.DOUBLE);
+        statement.setLong(6, person.getVersion());
+        statement.setObject(7, updatedAt.orElse(null), Types.TIMESTAMP_WITH_TIMEZONE);
+        statement.setLong(8, id);
+    }
+
+    private static Person read(ResultSet rows) throws SQLException {
+        OffsetDateTime updatedAt = rows.getObject(8, OffsetDateTime.class);
+
+        return Person.builder()
+                .id(rows.getLong(1))
+                .name(rows.getString(2))
+                .birthDate(rows.getObject(3, LocalDate.class))
+                .admissionDate(rows.getObject(4, LocalDate.class))
+                .latitude(rows.getObject(5, Double.class))
+                .longitude(rows.getObject(6, Double.class))
+                .version(rows.getLong(7))
+                .updatedAt(updatedAt == null ? null : updatedAt.toInstant())
+                .build();
+    }
+
+    private static int stripe(long id) {
+        int hash = Long.hashCode(id);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private DataAccessException translate(String task, String sql, SQLException e) {
+        DataAccessException translated = translator.translate(task, sql, e);
+        return translated != null ? translated : new UncategorizedSQLException(task, sql, e);
+    }
+
+    private record Applied(PersonChange change, Person previous, Person person) {
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+
+        /**
+         * Up to {@code limit} persons following {@code last} in the walk's
+         * order, or from the start when it is null.
+         */
+        List<Person> next(Person last, int limit);
+    }
+
+    /**
+     * Sends a prepared statement's accumulated rows every {@code batchSize}
+     * additions and once more at the end.
+     */
+    private final class Batch {
+
+        private final PreparedStatement statement;
+
+        private int pending;
+
+        private Batch(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        void add() throws SQLException {
+            statement.addBatch();
+
+            if (++pending == batchSize) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+    }
+
+    private final class Pages extends Spliterators.AbstractSpliterator<Person> {
+
+        private final PageQuery query;
+
+        private List<Person> page = List.of();
+
+        private int next;
+
+        private int limit = Math.min(FIRST_PAGE, pageSize);
+
+        private boolean exhausted;
+
+        private Pages(PageQuery query) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.query = query;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Person> action) {
+            if (next == page.size()) {
+                if (exhausted) {
+                    return false;
+                }
+
+                page = query.next(page.isEmpty() ? null : page.getLast(), limit);
+                next = 0;
+                exhausted = page.size() < limit;
+                limit = Math.min(limit * 2, pageSize);
+
+                if (page.isEmpty()) {
+                    return false;
+                }
+            }
+
+            action.accept(page.get(next++));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.sccon.geospatial.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "geospatial.store.jdbc")
+public class JdbcStoreProperties {
+
+    /**
+     * Database holding the person table; an in-memory H2 database unless
+     * overridden. The engine also opens its owner-lock connection here.
+     */
+    private String url = "jdbc:h2:mem:persons;DB_CLOSE_DELAY=-1";
+
+    private String username = "sa";
+
+    private String password = "";
+
+    /**
+     * Connections kept open by the pool.
+     */
+    private int poolSize = 8;
+
+    /**
+     * Statements sent to the database in one round trip by batched writes.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Largest number of rows fetched per query when walking the table.
+     */
+    private int pageSize = 512;
+}
@@ -0,0 +1,44 @@
+package br.com.sccon.geospatial.repository;
+
+import br.com.sccon.geospatial.model.entity.Person;
+
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A write to one person, in two steps run atomically for its id:
+ * {@link #remap} works out the new state from the stored one, and
+ * {@link #stored} runs once the engine holds it. Indexes, journals and
+ * feeds kept from {@code stored} never get ahead of a write that fails.
+ */
+@FunctionalInterface
+public interface PersonChange {
+
+    /**
+     * New state of the person, given the stored one or null; null removes
+     * it, and returning {@code existing} itself leaves the store as it is.
+     */
+    Person remap(Person existing);
+
+    /**
+     * Runs after the new state was written, only when it is not the stored
+     * person itself.
+     */
+    default void stored(Person previous, Person person) {
+    }
+
+    static PersonChange of(UnaryOperator<Person> remap, BiConsumer<Person, Person> stored) {
+        return new PersonChange() {
+
+            @Override
+            public Person remap(Person existing) {
+                return remap.apply(existing);
+            }
+
+            @Override
+            public void stored(Person previous, Person person) {
+                stored.accept(previous, person);
+            }
+        };
+    }
+}
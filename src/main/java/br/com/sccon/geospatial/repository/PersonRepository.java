@@ -0,0 +1,69 @@
+package br.com.sccon.geospatial.repository;
+
+import br.com.sccon.geospatial.index.PersonNameIndex;
+import br.com.sccon.geospatial.model.entity.Person;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine behind {@link br.com.sccon.geospatial.service.PersonService}.
+ * <p>
+ * All writes go through {@link #compute}, which runs a {@link PersonChange}
+ * atomically for the given id, so callers can keep their own indexes and
+ * journals consistent from its {@link PersonChange#stored} step, which only
+ * runs once the write went through. Implementations keep the name ordering
+ * used by listings up to date themselves.
+ */
+public interface PersonRepository {
+
+    Optional<Person> findById(long id);
+
+    /**
+     * Atomically replaces the person stored under {@code id} with the result
+     * of the change, which receives the current person or null, then lets
+     * the change know it was stored. Returning null removes the person;
+     * throwing, or failing to write, leaves the store unchanged and skips
+     * {@link PersonChange#stored}.
+     */
+    Person compute(long id, PersonChange change);
+
+    default Person computeIfPresent(long id, PersonChange change) {
+        return compute(id, PersonChange.of(
+                person -> person == null ? null : change.remap(person),
+                change::stored
+        ));
+    }
+
+    /**
+     * Same as calling {@link #compute} for each id in order, with the change
+     * for the id at each position; engines that can write several persons in
+     * one round trip override it.
+     */
+    default void computeAll(long[] ids, IntFunction<PersonChange> changes) {
+        for (int i = 0; i < ids.length; i++) {
+            compute(ids[i], changes.apply(i));
+        }
+    }
+
+    /**
+     * Lazily walks persons ordered by name and id, strictly after the given
+     * key, or from the beginning when it is null.
+     */
+    Stream<Person> streamOrderedByName(PersonNameIndex.Key after);
+
+    /**
+     * Visits every person in no particular order.
+     */
+    void forEach(Consumer<Person> consumer);
+
+    /**
+     * Weakly consistent stream of every person in no particular order, which
+     * splits well when made parallel.
+     */
+    Stream<Person> stream();
+
+    long count();
+}
@@ -0,0 +1,330 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.exception.BusinessException;
+import br.com.sccon.geospatial.model.dto.DistributionDto;
+import br.com.sccon.geospatial.model.dto.HistogramBucketDto;
+import br.com.sccon.geospatial.model.dto.PersonAnalyticsDto;
+import br.com.sccon.geospatial.model.dto.PersonFilterDto;
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import br.com.sccon.geospatial.repository.PersonRepository;
+import br.com.sccon.geospatial.util.Today;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Aggregates over the whole store, or the subset matching a filter.
+ * <p>
+ * The store is scanned once on the common fork-join pool: matching persons
+ * are reduced to a primitive value in parallel and the values are sorted
+ * with {@link Arrays#parallelSort(long[])}. The sorted values are folded
+ * into a {@link DistributionDto} of distinct values and their counts, and
+ * everything else (percentiles, totals, histogram) is a sequential pass over
+ * it. Salaries only depend on whole years of tenure, so they are looked up
+ * once per distinct tenure instead of once per person.
+ * <p>
+ * In a cluster every shard returns its distributions and the node that
+ * received the request {@linkplain #merge merges} them before summarizing,
+ * which gives the same result as a single node holding everyone.
+ */
+@RequiredArgsConstructor
+@Service
+public class PersonAnalyticsService {
+
+    static final double[] PERCENTILES = {50, 90, 95, 99};
+
+    private static final int SCALE = 2;
+
+    private final PersonRepository repository;
+
+    private final SalaryCalculator salaryCalculator;
+
+    private final Today today;
+
+    public PersonAnalyticsDto<Long> age(AgeEnum output, PersonFilterDto filter, Long bucketWidth) {
+        return summarizeAges(output, ageDistribution(output, filter, bucketWidth), bucketWidth);
+    }
+
+    /**
+     * Summarizes ages already reduced to a distribution, such as the sum of
+     * every shard's {@link #ageDistribution}.
+     */
+    public PersonAnalyticsDto<Long> summarizeAges(AgeEnum output, DistributionDto ages, Long bucketWidth) {
+        return ages(output, ages, ageWidth(output, bucketWidth));
+    }
+
+    /**
+     * Ages in the output unit of the persons matching the filter. Takes the
+     * bucket width only to reject it like {@link #age} would, so shards turn
+     * bad requests down before any of them scans.
+     */
+    public DistributionDto ageDistribution(AgeEnum output, PersonFilterDto filter, Long bucketWidth) {
+        ageWidth(output, bucketWidth);
+
+        ChronoUnit unit = switch (output) {
+            case DAYS -> ChronoUnit.DAYS;
+            case MONTHS -> ChronoUnit.MONTHS;
+            case YEARS -> ChronoUnit.YEARS;
+        };
+
+        return distribution(scan(filter, Person::getBirthDate, unit, today.get()));
+    }
+
+    private PersonAnalyticsDto<Long> ages(AgeEnum output, DistributionDto ages, long width) {
+        long size = ages.size();
+
+        if (size == 0) {
+            return empty(output.name());
+        }
+
+        long[] values = ages.values();
+        long[] counts = ages.counts();
+        long total = 0;
+        Map<Long, Long> buckets = new LinkedHashMap<>();
+
+        for (int i = 0; i < values.length; i++) {
+            total += values[i] * counts[i];
+            buckets.merge(Math.floorDiv(values[i], width), counts[i], Long::sum);
+        }
+
+        List<HistogramBucketDto<Long>> histogram = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, count) ->
+                histogram.add(new HistogramBucketDto<>(bucket * width, (bucket + 1) * width, count))
+        );
+
+        return new PersonAnalyticsDto<>(
+                output.name().toLowerCase(),
+                size,
+                values[0],
+                values[values.length - 1],
+                BigDecimal.valueOf(total).divide(BigDecimal.valueOf(size), SCALE, RoundingMode.HALF_EVEN),
+                total,
+                percentiles(ages, size, value -> value),
+                histogram
+        );
+    }
+
+    public PersonAnalyticsDto<BigDecimal> salary(SalaryEnum output, PersonFilterDto filter, BigDecimal bucketWidth) {
+        return summarizeSalaries(output, tenureDistribution(output, filter, bucketWidth), bucketWidth);
+    }
+
+    /**
+     * Summarizes salaries from whole years of tenure already reduced to a
+     * distribution, such as the sum of every shard's
+     * {@link #tenureDistribution}.
+     */
+    public PersonAnalyticsDto<BigDecimal> summarizeSalaries(SalaryEnum output, DistributionDto tenures, BigDecimal bucketWidth) {
+        return salaries(output, tenures, salaryWidth(output, bucketWidth));
+    }
+
+    /**
+     * Whole years of tenure of the persons matching the filter, which is all
+     * a salary depends on. Output and bucket width are only checked, as in
+     * {@link #ageDistribution}.
+     */
+    public DistributionDto tenureDistribution(SalaryEnum output, PersonFilterDto filter, BigDecimal bucketWidth) {
+        salaryWidth(output, bucketWidth);
+
+        return distribution(scan(filter, Person::getAdmissionDate, ChronoUnit.YEARS, today.get()));
+    }
+
+    private PersonAnalyticsDto<BigDecimal> salaries(SalaryEnum output, DistributionDto tenures, BigDecimal width) {
+        LongFunction<BigDecimal> value = switch (output) {
+            case FULL -> salaryCalculator::salary;
+            case MIN -> salaryCalculator::minimumWages;
+        };
+
+        long size = tenures.size();
+
+        if (size == 0) {
+            return empty(output.name());
+        }
+
+        long[] values = tenures.values();
+        long[] counts = tenures.counts();
+        BigDecimal total = BigDecimal.ZERO;
+        Map<BigDecimal, Long> buckets = new LinkedHashMap<>();
+
+        for (int i = 0; i < values.length; i++) {
+            BigDecimal salary = value.apply(values[i]);
+            long count = counts[i];
+
+            total = total.add(salary.multiply(BigDecimal.valueOf(count)));
+            buckets.merge(
+                    salary.divide(width, 0, RoundingMode.FLOOR).multiply(width),
+                    count,
+                    Long::sum
+            );
+        }
+
+        List<HistogramBucketDto<BigDecimal>> histogram = new ArrayList<>(buckets.size());
+        buckets.forEach((from, count) ->
+                histogram.add(new HistogramBucketDto<>(from, from.add(width), count))
+        );
+
+        return new PersonAnalyticsDto<>(
+                output.name().toLowerCase(),
+                size,
+                value.apply(values[0]),
+                value.apply(values[values.length - 1]),
+                total.divide(BigDecimal.valueOf(size), SCALE, RoundingMode.HALF_EVEN),
+                total,
+                percentiles(tenures, size, value),
+                histogram
+        );
+    }
+
+    /**
+     * Adds distributions up, as when gathering one from every shard.
+     */
+    public static DistributionDto merge(List<DistributionDto> distributions) {
+        DistributionDto merged = DistributionDto.EMPTY;
+
+        for (DistributionDto distribution : distributions) {
+            merged = merge(merged, distribution);
+        }
+
+        return merged;
+    }
+
+    private static DistributionDto merge(DistributionDto a, DistributionDto b) {
+        long[] values = new long[a.values().length + b.values().length];
+        long[] counts = new long[values.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+
+        while (i < a.values().length || j < b.values().length) {
+            if (j == b.values().length || (i < a.values().length && a.values()[i] < b.values()[j])) {
+                values[n] = a.values()[i];
+                counts[n++] = a.counts()[i++];
+            } else if (i == a.values().length || b.values()[j] < a.values()[i]) {
+                values[n] = b.values()[j];
+                counts[n++] = b.counts()[j++];
+            } else {
+                values[n] = a.values()[i];
+                counts[n++] = a.counts()[i++] + b.counts()[j++];
+            }
+        }
+
+        return new DistributionDto(Arrays.copyOf(values, n), Arrays.copyOf(counts, n));
+    }
+
+    /**
+     * The one parallel pass over the store: filter, measure the distance from
+     * the given date to {@code asOf}, and sort. Persons without that date are
+     * skipped.
+     */
+    private long[] scan(
+            PersonFilterDto filter,
+            Function<Person, LocalDate> date,
+            ChronoUnit unit,
+            LocalDate asOf
+    ) {
+        PersonFilterDto criteria = Objects.requireNonNullElse(filter, PersonFilterDto.ALL);
+
+        long[] values = repository.stream()
+                .parallel()
+                .filter(criteria)
+                .map(date)
+                .filter(Objects::nonNull)
+                .mapToLong(from -> unit.between(from, asOf))
+                .toArray();
+
+        Arrays.parallelSort(values);
+        return values;
+    }
+
+    /**
+     * Folds sorted values into distinct values and how often each occurs.
+     */
+    private static DistributionDto distribution(long[] sorted) {
+        long[] values = new long[sorted.length];
+        long[] counts = new long[sorted.length];
+        int n = 0;
+
+        for (int i = 0; i < sorted.length; i++) {
+            if (n > 0 && values[n - 1] == sorted[i]) {
+                counts[n - 1]++;
+            } else {
+                values[n] = sorted[i];
+                counts[n++] = 1;
+            }
+        }
+
+        return new DistributionDto(Arrays.copyOf(values, n), Arrays.copyOf(counts, n));
+    }
+
+    /**
+     * Nearest-rank percentiles over a distribution of {@code size} values;
+     * {@code value} must be non-decreasing so the rank of the input is the
+     * rank of the output.
+     */
+    private static <T extends Number> Map<String, T> percentiles(
+            DistributionDto distribution,
+            long size,
+            LongFunction<T> value
+    ) {
+        Map<String, T> percentiles = new LinkedHashMap<>();
+        long[] counts = distribution.counts();
+        int i = 0;
+        long seen = counts[0];
+
+        for (double p : PERCENTILES) {
+            long rank = Math.max((long) Math.ceil(p / 100 * size), 1);
+
+            while (seen < rank) {
+                seen += counts[++i];
+            }
+
+            percentiles.put("p" + (int) p, value.apply(distribution.values()[i]));
+        }
+
+        return percentiles;
+    }
+
+    private static long ageWidth(AgeEnum output, Long requested) {
+        long width = Objects.requireNonNullElse(requested, switch (output) {
+            case DAYS -> 3650L;
+            case MONTHS -> 120L;
+            case YEARS -> 10L;
+        });
+
+        if (width <= 0) {
+            throw new BusinessException("bucketWidth must be greater than zero");
+        }
+
+        return width;
+    }
+
+    private static BigDecimal salaryWidth(SalaryEnum output, BigDecimal requested) {
+        BigDecimal width = Objects.requireNonNullElse(requested, switch (output) {
+            case FULL -> BigDecimal.valueOf(1000);
+            case MIN -> BigDecimal.ONE;
+        });
+
+        if (width.signum() <= 0) {
+            throw new BusinessException("bucketWidth must be greater than zero");
+        }
+
+        return width;
+    }
+
+    private static <T extends Number> PersonAnalyticsDto<T> empty(String output) {
+        return new PersonAnalyticsDto<>(output.toLowerCase(), 0, null, null, null, null, null, List.of());
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.model.dto.BulkResultDto;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.enums.BulkStatusEnum;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Ingests a JSON array or an NDJSON stream of persons in fixed-size batches.
+ * <p>
+ * Each batch is bound and validated in parallel, the valid records are
+ * inserted under a single journal transaction, those without an id taking
+ * the next ones from the id allocator, and the per-record results are
+ * written before the next batch is read, so neither the input nor the
+ * output is ever held in full.
+ */
+@RequiredArgsConstructor
+@Service
+public class PersonBulkService {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final PersonService service;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    public void ingest(InputStream in, OutputStream out) throws IOException {
+
+        ObjectWriter writer = objectMapper.writerFor(BulkResultDto.class);
+
+        try (JsonParser parser = objectMapper.createParser(in);
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+
+            generator.setRootValueSeparator(null);
+
+            List<JsonNode> batch = new ArrayList<>(BATCH_SIZE);
+            long index = 0;
+
+            try {
+                JsonToken token = parser.nextToken();
+
+                if (token == JsonToken.START_ARRAY) {
+                    parser.nextToken();
+                }
+
+                while (parser.currentToken() != null && parser.currentToken() != JsonToken.END_ARRAY) {
+                    batch.add(objectMapper.readTree(parser));
+                    parser.nextToken();
+
+                    if (batch.size() == BATCH_SIZE) {
+                        write(process(index, batch), writer, generator);
+                        index += batch.size();
+                        batch.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                write(process(index, batch), writer, generator);
+                index += batch.size();
+                batch.clear();
+
+                write(List.of(invalid(index, "Malformed JSON request")), writer, generator);
+                return;
+            }
+
+            write(process(index, batch), writer, generator);
+        }
+    }
+
+    private List<BulkResultDto> process(long offset, List<JsonNode> nodes) {
+
+        List<Candidate> candidates = IntStream.range(0, nodes.size())
+                .parallel()
+                .mapToObj(i -> bind(offset + i, nodes.get(i)))
+                .toList();
+
+        List<PersonDto> accepted = new ArrayList<>(candidates.size());
+
+        for (Candidate candidate : candidates) {
+            if (candidate.person() != null) {
+                accepted.add(candidate.person());
+            }
+        }
+
+        Iterator<PersonDto> created = service.createAll(accepted).iterator();
+        List<BulkResultDto> results = new ArrayList<>(candidates.size());
+
+        for (Candidate candidate : candidates) {
+            if (candidate.person() == null) {
+                results.add(invalid(candidate.index(), candidate.error()));
+                continue;
+            }
+
+            // only explicit ids conflict; generated ones skip taken ids
+            PersonDto person = created.next();
+            Long id = person != null ? person.id() : candidate.person().id();
+
+            results.add(person != null
+                    ? new BulkResultDto(candidate.index(), BulkStatusEnum.CREATED, id, null)
+                    : new BulkResultDto(candidate.index(), BulkStatusEnum.CONFLICT, id,
+                            "Person already exists with id: " + id)
+            );
+        }
+
+        return results;
+    }
+
+    private Candidate bind(long index, JsonNode node) {
+        PersonDto person;
+
+        try {
+            person = objectMapper.treeToValue(node, PersonDto.class);
+        } catch (InvalidFormatException e) {
+            String field = e.getPath()
+                    .stream()
+                    .map(ref -> ref.getFieldName())
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse("unknown");
+
+            return new Candidate(index, null,
+                    "Invalid value '" + e.getValue() + "' for field '" + field + "'");
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return new Candidate(index, null, "Malformed JSON request");
+        }
+
+        String violations = validator.validate(person)
+                .stream()
+                .map(ConstraintViolation::getMessage)
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining("; "));
+
+        return violations.isEmpty()
+                ? new Candidate(index, person, null)
+                : new Candidate(index, null, violations);
+    }
+
+    private static BulkResultDto invalid(long index, String message) {
+        return new BulkResultDto(index, BulkStatusEnum.INVALID, null, message);
+    }
+
+    private static void write(
+            List<BulkResultDto> results,
+            ObjectWriter writer,
+            JsonGenerator generator
+    ) throws IOException {
+        for (BulkResultDto result : results) {
+            writer.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private record Candidate(long index, PersonDto person, String error) {
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.model.enums.ChangeTypeEnum;
+import br.com.sccon.geospatial.util.ChangeFeedProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The last {@code capacity} mutations of the store, numbered from 1 in the
+ * order they were applied.
+ * <p>
+ * Writers publish inside the store's per-id compute, so changes to one
+ * person are numbered in the order they happened. Publishing takes a
+ * sequence from a counter and swaps the change into its slot with a CAS;
+ * nothing ever waits on a reader. Readers poll from the sequence they want
+ * next: a slot holding an older change means the next one is not published
+ * yet, and a slot holding a newer one means the reader fell a whole ring
+ * behind and missed changes.
+ * <p>
+ * Writers hold the read side of a checkpoint lock from before they take a
+ * sequence until their change is visible in the store; a
+ * {@linkplain #checkpoint() checkpoint} takes the write side just long
+ * enough to read the last sequence, so every change up to it can be seen by
+ * a copy of the store made afterwards.
+ */
+@Component
+public class PersonChangeFeed {
+
+    /**
+     * Returned by {@link #read} when the requested change was overwritten.
+     */
+    public static final int OVERRUN = -1;
+
+    private final AtomicReferenceArray<Change> slots;
+
+    private final int mask;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public PersonChangeFeed(ChangeFeedProperties properties) {
+        this(properties.getCapacity());
+    }
+
+    public PersonChangeFeed(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + (1 << 30));
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    void publish(ChangeTypeEnum type, long id, long version, Person person) {
+        Change change = new Change(sequence.incrementAndGet(), type, id, version, person);
+        int slot = (int) (change.sequence() & mask);
+
+        // a writer stalled for a whole lap must not overwrite the newer change in its slot
+        Change current;
+        do {
+            current = slots.get(slot);
+
+            if (current != null && current.sequence() > change.sequence()) {
+                return;
+            }
+        } while (!slots.compareAndSet(slot, current, change));
+    }
+
+    /**
+     * Copies the published changes from {@code from} onwards into
+     * {@code batch}, stopping at the first one not published yet. Returns
+     * how many were copied, or {@link #OVERRUN} when {@code from} is no
+     * longer in the ring.
+     */
+    public int read(long from, Change[] batch) {
+        int read = 0;
+
+        for (long next = from; read < batch.length; next++) {
+            Change change = slots.get((int) (next & mask));
+
+            if (change == null || change.sequence() < next) {
+                break;
+            }
+
+            if (change.sequence() > next) {
+                return read == 0 ? OVERRUN : read;
+            }
+
+            batch[read++] = change;
+        }
+
+        return read;
+    }
+
+    /**
+     * Held by writers around the store update that publishes a change.
+     */
+    Lock writeGuard() {
+        return checkpointLock.readLock();
+    }
+
+    /**
+     * Sequence of the last change whose effect is already visible in the store.
+     */
+    public long checkpoint() {
+        checkpointLock.writeLock().lock();
+
+        try {
+            return sequence.get();
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sequence of the last change handed out; 0 before the first one.
+     */
+    public long lastSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Oldest sequence a reader can still resume from.
+     */
+    public long firstAvailable() {
+        return Math.max(1, sequence.get() - mask);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public record Change(long sequence, ChangeTypeEnum type, long id, long version, Person person) {
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.converter.PersonMapper;
+import br.com.sccon.geospatial.exception.BusinessException;
+import br.com.sccon.geospatial.model.dto.PersonChangeDto;
+import br.com.sccon.geospatial.util.ChangeFeedProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams the change feed to Server-Sent Events subscribers.
+ * <p>
+ * Each subscriber is pumped by its own virtual thread, which is the only
+ * one that ever blocks on its connection. Events carry their sequence as
+ * the SSE id, so a client reconnecting with {@code Last-Event-ID} resumes
+ * right after the last change it saw. A subscriber that falls more than the
+ * ring's capacity behind gets a final {@value #OVERRUN_EVENT} event naming
+ * the oldest sequence still available and is disconnected; it has to
+ * reload the collection before following the feed again.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class PersonChangeService {
+
+    public static final String OVERRUN_EVENT = "OVERRUN";
+
+    private static final int BATCH_SIZE = 256;
+
+    private final PersonChangeFeed feed;
+
+    private final ChangeFeedProperties properties;
+
+    private final AtomicLong subscriptions = new AtomicLong();
+
+    /**
+     * Starts streaming the changes after {@code after}, or only the ones
+     * yet to come when it is null.
+     */
+    public SseEmitter subscribe(Long after) {
+        long last = feed.lastSequence();
+        long from = after == null ? last + 1 : after + 1;
+
+        if (after != null && (after < 0 || after > last)) {
+            throw new BusinessException("after must be between 0 and the last sequence, " + last);
+        }
+
+        SseEmitter emitter = new SseEmitter();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(error -> closed.set(true));
+
+        Thread.ofVirtual()
+                .name("person-changes-" + subscriptions.incrementAndGet())
+                .start(() -> pump(emitter, from, closed));
+
+        return emitter;
+    }
+
+    private void pump(SseEmitter emitter, long from, AtomicBoolean closed) {
+        PersonChangeFeed.Change[] batch = new PersonChangeFeed.Change[BATCH_SIZE];
+        long pollNanos = properties.getPollInterval().toNanos();
+        long heartbeatNanos = properties.getHeartbeatInterval().toNanos();
+        long next = from;
+        long lastSent = System.nanoTime();
+
+        try {
+            while (!closed.get()) {
+                int read = feed.read(next, batch);
+
+                if (read == PersonChangeFeed.OVERRUN) {
+                    long oldest = feed.firstAvailable();
+                    log.warn("Change feed subscriber cut off at sequence {}, oldest available is {}", next, oldest);
+
+                    emitter.send(SseEmitter.event()
+                            .name(OVERRUN_EVENT)
+                            .data(Map.of("missed", next, "firstAvailable", oldest), MediaType.APPLICATION_JSON));
+                    emitter.complete();
+                    return;
+                }
+
+                if (read == 0) {
+                    if (System.nanoTime() - lastSent >= heartbeatNanos) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        lastSent = System.nanoTime();
+                    }
+
+                    LockSupport.parkNanos(pollNanos);
+                    continue;
+                }
+
+                for (int i = 0; i < read; i++) {
+                    PersonChangeFeed.Change change = batch[i];
+                    batch[i] = null;
+
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.sequence()))
+                            .name(change.type().name())
+                            .data(toDto(change), MediaType.APPLICATION_JSON));
+                }
+
+                next += read;
+                lastSent = System.nanoTime();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client went away or the emitter timed out; nothing left to send to
+            emitter.completeWithError(e);
+        }
+    }
+
+    static PersonChangeDto toDto(PersonChangeFeed.Change change) {
+        return new PersonChangeDto(
+                change.sequence(),
+                change.type(),
+                change.id(),
+                change.version(),
+                change.person() == null ? null : PersonMapper.TO_DTO.apply(change.person())
+        );
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.util.NearCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongFunction;
+
+/**
+ * Read-through copy of the persons most recently read from the store.
+ * <p>
+ * Caffeine bounds the entries with W-TinyLFU, which admits a new person
+ * only when it is read more often than the one it would evict, so scans
+ * over the indexes don't flush the hot set. Entries expire {@code ttl}
+ * after they were loaded and are dropped when their person is written
+ * here. Concurrent misses for one id share a single load, run inside the
+ * cache's per-key compute; as with {@link PersonResultCache}, writers
+ * invalidate after their store write, so a load that read the old person
+ * finishes before the invalidation and never leaves it behind. Ids the
+ * store doesn't hold are not cached.
+ */
+@Component
+public class PersonNearCache {
+
+    private final Cache<Long, Person> entries;
+
+    @Autowired
+    public PersonNearCache(NearCacheProperties properties) {
+        this(properties.getMaxSize(), properties.getTtl(), Ticker.systemTicker());
+    }
+
+    public PersonNearCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Ticker.systemTicker());
+    }
+
+    PersonNearCache(int maxSize, Duration ttl, Ticker ticker) {
+        this.entries = maxSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .ticker(ticker)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    /**
+     * The cached person, or the one {@code loader} reads from the store;
+     * null when the store doesn't hold it.
+     */
+    Person get(long id, LongFunction<Person> loader) {
+        return entries == null ? loader.apply(id) : entries.get(id, loader::apply);
+    }
+
+    void invalidate(long id) {
+        if (entries != null) {
+            entries.invalidate(id);
+        }
+    }
+
+    public long size() {
+        return entries == null ? 0 : entries.estimatedSize();
+    }
+
+    /**
+     * Hits, misses, loads and evictions since startup.
+     */
+    public CacheStats stats() {
+        return entries == null ? CacheStats.empty() : entries.stats();
+    }
+
+    /**
+     * Runs pending evictions and expirations now rather than on later reads.
+     */
+    void cleanUp() {
+        if (entries != null) {
+            entries.cleanUp();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.model.dto.AgeDto;
+import br.com.sccon.geospatial.model.dto.SalaryDto;
+import br.com.sccon.geospatial.util.ResultCacheProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Age and salary results per person, valid for the day they were computed.
+ * <p>
+ * Entries are dropped when their person is written and all at once at day
+ * rollover. A miss loads inside the map's per-key compute, and writers
+ * invalidate after their store write, so a load that read the old person
+ * always finishes before the invalidation that follows it and can never
+ * leave a stale entry behind. Once {@code maxSize} persons are cached,
+ * further misses are computed without being kept until the next rollover.
+ */
+@Component
+public class PersonResultCache {
+
+    private final int maxSize;
+
+    private final Map<Long, Results> entries = new ConcurrentHashMap<>();
+
+    private volatile LocalDate day;
+
+    @Autowired
+    public PersonResultCache(ResultCacheProperties properties) {
+        this(properties.getMaxSize());
+    }
+
+    public PersonResultCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    Results get(long id, LocalDate today, Supplier<Results> loader) {
+        Results results = entries.get(id);
+
+        if (results != null && results.day().equals(today)) {
+            return results;
+        }
+
+        if (!today.equals(day)) {
+            day = today;
+            entries.clear();
+        }
+
+        if (entries.size() >= maxSize) {
+            return loader.get();
+        }
+
+        return entries.compute(id, (key, current) ->
+                current != null && current.day().equals(today) ? current : loader.get()
+        );
+    }
+
+    void invalidate(long id) {
+        entries.remove(id);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Every output of both endpoints, indexed by enum ordinal.
+     */
+    record Results(LocalDate day, AgeDto[] ages, SalaryDto[] salaries) {
+    }
+}
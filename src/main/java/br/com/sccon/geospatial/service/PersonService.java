@@ -1,203 +1,911 @@
 package br.com.sccon.geospatial.service;
 
 import br.com.sccon.geospatial.converter.PersonMapper;
+import br.com.sccon.geospatial.exception.BusinessException;
 import br.com.sccon.geospatial.exception.ConflictException;
 import br.com.sccon.geospatial.exception.NotFoundException;
+import br.com.sccon.geospatial.exception.PreconditionFailedException;
+import br.com.sccon.geospatial.id.IdAllocator;
+import br.com.sccon.geospatial.index.PersonDateIndex;
+import br.com.sccon.geospatial.index.PersonNameIndex;
+import br.com.sccon.geospatial.index.PersonSearchIndex;
+import br.com.sccon.geospatial.index.PersonSpatialIndex;
+import br.com.sccon.geospatial.model.dto.AgeDto;
+import br.com.sccon.geospatial.model.dto.AnniversaryDto;
+import br.com.sccon.geospatial.model.dto.PersonDistanceDto;
 import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.dto.PersonPageDto;
 import br.com.sccon.geospatial.model.dto.PersonPatchDto;
+import br.com.sccon.geospatial.model.dto.PersonSearchHitDto;
+import br.com.sccon.geospatial.model.dto.SalaryDto;
+import br.com.sccon.geospatial.model.dto.VersionedDto;
 import br.com.sccon.geospatial.model.entity.Person;
 import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.AnniversaryEnum;
+import br.com.sccon.geospatial.model.enums.ChangeTypeEnum;
 import br.com.sccon.geospatial.model.enums.SalaryEnum;
-import br.com.sccon.geospatial.util.SalaryProperties;
+import br.com.sccon.geospatial.model.enums.SearchMatchEnum;
+import br.com.sccon.geospatial.persistence.PersonJournal;
+import br.com.sccon.geospatial.repository.PersonChange;
+import br.com.sccon.geospatial.repository.PersonRepository;
+import br.com.sccon.geospatial.util.Today;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
 public class PersonService {
 
-    private final Map<Long, Person> database = new ConcurrentHashMap<>();
+    public static final int DEFAULT_PAGE_SIZE = 50;
 
-    private final AtomicLong idGenerator = new AtomicLong(0);
+    public static final int MAX_PAGE_SIZE = 1000;
 
-    private final SalaryProperties salaryProperties;
+    public static final int DEFAULT_SEARCH_SIZE = 10;
 
+    public static final int MAX_SEARCH_SIZE = 100;
+
+    public static final int DEFAULT_ANNIVERSARY_DAYS = 7;
+
+    public static final int DEFAULT_NEAREST_SIZE = 10;
+
+    public static final int MAX_ANNIVERSARY_DAYS = 365;
+
+    private final PersonRepository repository;
+
+    /**
+     * Bumped by every mutation; its current value is the collection version
+     * and each write stamps the person it touches with the value it got.
+     */
+    private final AtomicLong versions = new AtomicLong(0);
+
+    /**
+     * Names the run {@link #versions} count in, so versions handed out before
+     * a restart are never taken for current ones.
+     */
+    private volatile String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final SalaryCalculator salaryCalculator;
+
+    private final PersonJournal journal;
+
+    private final Today today;
+
+    private final PersonResultCache resultCache;
+
+    private final PersonNearCache nearCache;
+
+    private final PersonChangeFeed changes;
+
+    private final IdAllocator ids;
+
+    private final PersonSearchIndex searchIndex = new PersonSearchIndex();
+
+    private final PersonDateIndex birthDates = PersonDateIndex.byEpochDay(Person::getBirthDate);
+
+    private final PersonDateIndex admissionDates = PersonDateIndex.byEpochDay(Person::getAdmissionDate);
+
+    private final PersonDateIndex birthdays = PersonDateIndex.byDayOfYear(Person::getBirthDate);
+
+    private final PersonDateIndex workAnniversaries = PersonDateIndex.byDayOfYear(Person::getAdmissionDate);
+
+    private final PersonSpatialIndex locations = new PersonSpatialIndex();
+
+    /**
+     * Claims the ids restored since startup on the shared id source, so
+     * generated ids start above them; called once recovery is done.
+     */
     public void syncIdGenerator() {
-        idGenerator.set(
-                database.keySet()
-                        .stream()
-                        .mapToLong(Long::longValue)
-                        .max()
-                        .orElse(0)
-        );
+        ids.claimObserved();
+    }
+
+    public boolean isEmpty() {
+        return repository.count() == 0;
+    }
+
+    public long count() {
+        return repository.count();
+    }
+
+    public long lastGeneratedId() {
+        return ids.lastIssued();
+    }
+
+    /**
+     * Version of the collection as a whole; changes whenever any person is
+     * created, updated or removed.
+     */
+    public long version() {
+        return versions.get();
+    }
+
+    /**
+     * Epoch of {@link #version()} and of every person's version.
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * Takes over the epoch of the instance this one copies, a follower's
+     * leader, before the copy starts. Versions count from zero again, since
+     * the copied persons bring the leader's.
+     */
+    public void adoptEpoch(String epoch) {
+        this.epoch = epoch;
+        versions.set(0);
+    }
+
+    /**
+     * Moves the collection version up to one reached elsewhere, as a follower
+     * does at the end of a snapshot: deletions before it counted on the
+     * leader though the copy cannot show them.
+     */
+    public void advanceVersion(long version) {
+        versions.accumulateAndGet(version, Math::max);
+    }
+
+    /**
+     * Puts a recovered or replicated post-image in the store, bypassing the
+     * journal. Used when the state is rebuilt from a durable source. A
+     * replicated person keeps the version its leader gave it; a recovered
+     * one, which the journal stores without a version, gets the next one.
+     */
+    public void restore(Person person) {
+        ids.observe(person.getId());
+
+        if (person.getVersion() > 0) {
+            advanceVersion(person.getVersion());
+        }
+
+        publishing(() -> repository.compute(person.getId(), PersonChange.of(
+                existing -> person.getVersion() > 0 ? person : stamp(person),
+                (existing, stamped) -> {
+                    index(existing, stamped);
+                    changes.publish(
+                            existing == null ? ChangeTypeEnum.CREATED : ChangeTypeEnum.UPDATED,
+                            stamped.getId(),
+                            stamped.getVersion(),
+                            stamped
+                    );
+                }
+        )));
+        invalidate(person.getId());
+    }
+
+    /**
+     * Indexes a person the store already holds from before this process
+     * started, as a store that outlives it does. Versions continue above the
+     * ones stored, so they never repeat for a person.
+     */
+    public void reindex(Person person) {
+        ids.observe(person.getId());
+        versions.accumulateAndGet(person.getVersion(), Math::max);
+        index(null, person);
+    }
+
+    /**
+     * Removes a person without journaling it; counterpart of {@link #restore}.
+     */
+    public void evict(Long id) {
+        evict(id, versions::incrementAndGet);
+    }
+
+    /**
+     * Removes a replicated person, with the version its leader gave the
+     * deletion.
+     */
+    public void evict(Long id, long version) {
+        advanceVersion(version);
+        evict(id, () -> version);
+    }
+
+    private void evict(Long id, LongSupplier version) {
+        publishing(() -> repository.computeIfPresent(id, PersonChange.of(
+                person -> null,
+                (person, none) -> {
+                    index(person, null);
+                    changes.publish(ChangeTypeEnum.DELETED, id, version.getAsLong(), null);
+                }
+        )));
+        invalidate(id);
+    }
+
+    public void forEachPerson(Consumer<Person> consumer) {
+        repository.forEach(consumer);
     }
 
     public Collection<PersonDto> findAll() {
-        return database.values()
-                .stream()
+        return stream().toList();
+    }
+
+    /**
+     * Lazily walks the name index, mapping one person at a time, so callers
+     * can consume the whole collection without materializing it.
+     */
+    public Stream<PersonDto> stream() {
+        return repository.streamOrderedByName(null)
+                .map(PersonMapper.TO_DTO);
+    }
+
+    public PersonPageDto findPage(String cursor, Integer limit) {
+
+        int size = Optional.ofNullable(limit).orElse(DEFAULT_PAGE_SIZE);
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException(
+                    "limit must be between 1 and " + MAX_PAGE_SIZE
+            );
+        }
+
+        PersonNameIndex.Key after = Optional.ofNullable(cursor)
+                .map(PersonNameIndex.Key::fromCursor)
+                .orElse(null);
+
+        List<PersonDto> items = repository.streamOrderedByName(after)
+                .limit(size + 1L)
                 .map(PersonMapper.TO_DTO)
-                .sorted(Comparator.comparing(PersonDto::name))
                 .toList();
+
+        if (items.size() <= size) {
+            return new PersonPageDto(items, null);
+        }
+
+        PersonDto last = items.get(size - 1);
+
+        return new PersonPageDto(
+                items.subList(0, size),
+                new PersonNameIndex.Key(last.name(), last.id()).toCursor()
+        );
     }
 
-    public PersonDto findById(Long id) {
-        return Optional.ofNullable(database.get(id))
+    /**
+     * Names starting with the query come first, in name order, followed by
+     * the closest fuzzy matches; both ignore case and accents.
+     */
+    public List<PersonSearchHitDto> search(String query, Integer limit) {
+
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("q must not be blank");
+        }
+
+        int size = Optional.ofNullable(limit).orElse(DEFAULT_SEARCH_SIZE);
+
+        if (size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new BusinessException(
+                    "limit must be between 1 and " + MAX_SEARCH_SIZE
+            );
+        }
+
+        LongFunction<Person> lookup = this::lookup;
+        Map<Long, PersonSearchHitDto> hits = new LinkedHashMap<>();
+
+        searchIndex.startingWith(query, lookup)
+                .limit(size)
+                .forEach(person -> hits.put(person.getId(), new PersonSearchHitDto(
+                        PersonMapper.TO_DTO.apply(person), SearchMatchEnum.PREFIX, 1.0
+                )));
+
+        if (hits.size() < size) {
+            for (PersonSearchIndex.Match match : searchIndex.similarTo(
+                    query, PersonSearchIndex.DEFAULT_SIMILARITY, size, lookup)) {
+
+                if (hits.size() == size) {
+                    break;
+                }
+
+                hits.putIfAbsent(match.person().getId(), new PersonSearchHitDto(
+                        PersonMapper.TO_DTO.apply(match.person()), SearchMatchEnum.FUZZY, match.similarity()
+                ));
+            }
+        }
+
+        return List.copyOf(hits.values());
+    }
+
+    public List<PersonDto> findBornBetween(LocalDate from, LocalDate to) {
+        return between(birthDates, from, to);
+    }
+
+    public List<PersonDto> findAdmittedBetween(LocalDate from, LocalDate to) {
+        return between(admissionDates, from, to);
+    }
+
+    /**
+     * Persons whose date is in the inclusive range, in date order.
+     */
+    private List<PersonDto> between(PersonDateIndex index, LocalDate from, LocalDate to) {
+
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new BusinessException("from and to are required and from must not be after to");
+        }
+
+        return index.between(from.toEpochDay(), to.toEpochDay(), this::lookup)
                 .map(PersonMapper.TO_DTO)
-                .orElseThrow(() ->
-                        new NotFoundException("Person not found: " + id)
+                .toList();
+    }
+
+    /**
+     * Birthdays or work anniversaries from today through {@code days} days
+     * ahead, soonest first. A window crossing New Year reads the days of
+     * year in two ranges, and a February 29 date is celebrated on February
+     * 28 in common years.
+     */
+    public List<AnniversaryDto> findAnniversaries(AnniversaryEnum type, Integer days) {
+
+        int window = Optional.ofNullable(days).orElse(DEFAULT_ANNIVERSARY_DAYS);
+
+        if (window < 0 || window > MAX_ANNIVERSARY_DAYS) {
+            throw new BusinessException(
+                    "days must be between 0 and " + MAX_ANNIVERSARY_DAYS
+            );
+        }
+
+        PersonDateIndex index = switch (type) {
+            case BIRTHDAY -> birthdays;
+            case ADMISSION -> workAnniversaries;
+        };
+
+        Function<Person, LocalDate> date = switch (type) {
+            case BIRTHDAY -> Person::getBirthDate;
+            case ADMISSION -> Person::getAdmissionDate;
+        };
+
+        LocalDate start = today.get();
+        LocalDate end = start.plusDays(window);
+
+        long last = PersonDateIndex.dayOfYear(end);
+
+        if (end.getMonth() == Month.FEBRUARY && end.getDayOfMonth() == 28 && !end.isLeapYear()) {
+            last++;
+        }
+
+        Stream<AnniversaryDto> anniversaries = start.getYear() == end.getYear()
+                ? anniversaries(index, date, PersonDateIndex.dayOfYear(start), last, start.getYear())
+                : Stream.concat(
+                        anniversaries(index, date, PersonDateIndex.dayOfYear(start), Long.MAX_VALUE, start.getYear()),
+                        anniversaries(index, date, Long.MIN_VALUE, last, end.getYear())
                 );
+
+        return anniversaries.toList();
     }
 
-    public PersonDto create(PersonDto dto) {
+    private Stream<AnniversaryDto> anniversaries(
+            PersonDateIndex index,
+            Function<Person, LocalDate> date,
+            long from,
+            long to,
+            int year
+    ) {
+        return index.between(from, to, this::lookup)
+                .map(person -> {
+                    LocalDate original = date.apply(person);
+                    LocalDate occurrence = MonthDay.from(original).atYear(year);
+                    long years = year - original.getYear();
+
+                    return years > 0
+                            ? new AnniversaryDto(PersonMapper.TO_DTO.apply(person), occurrence, years)
+                            : null;
+                })
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Persons located inside the box, edges included; the box crosses the
+     * antimeridian when {@code minLongitude > maxLongitude}.
+     */
+    public List<PersonDto> findWithin(
+            double minLatitude,
+            double minLongitude,
+            double maxLatitude,
+            double maxLongitude,
+            Integer limit
+    ) {
+        checkLatitude(minLatitude);
+        checkLatitude(maxLatitude);
+        checkLongitude(minLongitude);
+        checkLongitude(maxLongitude);
+
+        if (minLatitude > maxLatitude) {
+            throw new BusinessException("minLatitude must not be greater than maxLatitude");
+        }
+
+        return locations.within(minLatitude, minLongitude, maxLatitude, maxLongitude, spatialLimit(limit), this::lookup)
+                .stream()
+                .map(PersonMapper.TO_DTO)
+                .toList();
+    }
+
+    /**
+     * Persons within {@code radius} meters of the point, nearest first.
+     */
+    public List<PersonDistanceDto> findNearby(double latitude, double longitude, double radius, Integer limit) {
+        checkLatitude(latitude);
+        checkLongitude(longitude);
+
+        if (!(radius > 0)) {
+            throw new BusinessException("radius must be greater than zero");
+        }
 
-        Long id = Optional.ofNullable(dto.id())
-                .orElseGet(idGenerator::incrementAndGet);
+        return locations.nearby(latitude, longitude, radius, spatialLimit(limit), this::lookup)
+                .stream()
+                .map(hit -> new PersonDistanceDto(PersonMapper.TO_DTO.apply(hit.person()), hit.distanceMeters()))
+                .toList();
+    }
 
-        Person person = new Person(
-                id,
-                dto.name(),
-                dto.birthDate(),
-                dto.admissionDate()
+    /**
+     * The {@code k} located persons closest to the point, nearest first,
+     * optionally restricted to whole-year age and tenure ranges (inclusive).
+     */
+    public List<PersonDistanceDto> findNearest(
+            double latitude,
+            double longitude,
+            Integer k,
+            Integer minAge,
+            Integer maxAge,
+            Integer minTenure,
+            Integer maxTenure
+    ) {
+        checkLatitude(latitude);
+        checkLongitude(longitude);
+
+        int size = Optional.ofNullable(k).orElse(DEFAULT_NEAREST_SIZE);
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("k must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        LocalDate date = today.get();
+        long[] birthDays = dayRange(date, minAge, maxAge, "age");
+        long[] admissionDays = dayRange(date, minTenure, maxTenure, "tenure");
+
+        PersonSpatialIndex.DayFilter filter = new PersonSpatialIndex.DayFilter(
+                birthDays[0], birthDays[1], admissionDays[0], admissionDays[1]
         );
 
-        Person existing = database.putIfAbsent(id, person);
+        return locations.nearest(latitude, longitude, size, filter, this::lookup)
+                .stream()
+                .map(hit -> new PersonDistanceDto(PersonMapper.TO_DTO.apply(hit.person()), hit.distanceMeters()))
+                .toList();
+    }
+
+    /**
+     * Epoch-day bounds of the dates that are between {@code min} and
+     * {@code max} whole years before {@code date}; a missing side is open.
+     */
+    private static long[] dayRange(LocalDate date, Integer min, Integer max, String field) {
+        if ((min != null && min < 0) || (max != null && max < 0)) {
+            throw new BusinessException(field + " bounds must not be negative");
+        }
+
+        if (min != null && max != null && min > max) {
+            throw new BusinessException("min" + capitalize(field) + " must not be greater than max" + capitalize(field));
+        }
+
+        return new long[]{
+                max == null ? Long.MIN_VALUE : date.minusYears(max + 1L).plusDays(1).toEpochDay(),
+                min == null ? Long.MAX_VALUE : date.minusYears(min).toEpochDay()
+        };
+    }
+
+    private static String capitalize(String field) {
+        return Character.toUpperCase(field.charAt(0)) + field.substring(1);
+    }
 
-        if (existing != null) {
-            throw new ConflictException(
-                    "Person already exists with id: " + id
+    private static int spatialLimit(Integer limit) {
+        int size = Optional.ofNullable(limit).orElse(DEFAULT_PAGE_SIZE);
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException(
+                    "limit must be between 1 and " + MAX_PAGE_SIZE
             );
         }
 
-        return PersonMapper.TO_DTO.apply(person);
+        return size;
     }
 
+    private static void checkLatitude(double latitude) {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new BusinessException("latitude must be between -90 and 90");
+        }
+    }
 
+    private static void checkLongitude(double longitude) {
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new BusinessException("longitude must be between -180 and 180");
+        }
+    }
 
-    public PersonDto update(Long id, PersonDto dto) {
-        return Optional.ofNullable(
-                        database.computeIfPresent(id, (k, person) -> {
-                            person.update(PersonMapper.TO_ENTITY.apply(dto));
-                            return person;
-                        })
-                )
-                .map(PersonMapper.TO_DTO)
+    /**
+     * The person with the id, read through the near-cache; null when the
+     * store doesn't hold it.
+     */
+    private Person lookup(long id) {
+        return nearCache.get(id, key -> repository.findById(key).orElse(null));
+    }
+
+    public PersonDto findById(Long id) {
+        return findVersionedById(id).body();
+    }
+
+    public VersionedDto<PersonDto> findVersionedById(Long id) {
+        return Optional.ofNullable(lookup(id))
+                .map(PersonService::versioned)
                 .orElseThrow(() ->
                         new NotFoundException("Person not found: " + id)
                 );
     }
 
-    public PersonDto patch(Long id, PersonPatchDto dto) {
+    public PersonDto create(PersonDto dto) {
 
-        return Optional.ofNullable(
-                        database.computeIfPresent(id, (k, person) -> {
+        Person person = Person.builder()
+                .id(dto.id())
+                .name(dto.name())
+                .birthDate(dto.birthDate())
+                .admissionDate(dto.admissionDate())
+                .latitude(dto.latitude())
+                .longitude(dto.longitude())
+                .build();
+
+        try (PersonJournal.Transaction tx = journal.begin()) {
+            Person inserted = insertWithId(person, tx);
+
+            if (inserted == null) {
+                throw new ConflictException(
+                        "Person already exists with id: " + dto.id()
+                );
+            }
 
-                            Optional.ofNullable(dto.name())
-                                    .ifPresent(person::setName);
+            return PersonMapper.TO_DTO.apply(inserted);
+        }
+    }
 
-                            Optional.ofNullable(dto.birthDate())
-                                    .ifPresent(person::setBirthDate);
+    /**
+     * Inserts a batch of persons under a single journal transaction, so the
+     * whole batch waits for one durable write, and as one
+     * {@linkplain PersonRepository#computeAll store batch}. Persons without
+     * an id get a generated one. The result has one entry per input, null
+     * where the explicit id was taken. Explicit ids are claimed once per
+     * batch, through the highest of them, so a migration keeping its ids
+     * doesn't update the id source for every row.
+     */
+    public List<PersonDto> createAll(List<PersonDto> dtos) {
+        Person[] persons = new Person[dtos.size()];
+        long[] keys = new long[persons.length];
+        Person[] inserted = new Person[persons.length];
+
+        long maxExplicitId = 0;
+
+        for (int i = 0; i < persons.length; i++) {
+            Person person = PersonMapper.TO_ENTITY.apply(dtos.get(i));
+
+            if (person.getId() != null) {
+                maxExplicitId = Math.max(maxExplicitId, person.getId());
+            } else {
+                person = person.toBuilder().id(ids.next()).build();
+            }
 
-                            Optional.ofNullable(dto.admissionDate())
-                                    .ifPresent(person::setAdmissionDate);
+            persons[i] = person;
+            keys[i] = person.getId();
+        }
 
-                            return person;
-                        })
-                )
-                .map(PersonMapper.TO_DTO)
-                .orElseThrow(() -> new NotFoundException(
-                        "Person not found: " + id
-                ));
+        if (maxExplicitId > 0) {
+            ids.claim(maxExplicitId);
+        }
+
+        try (PersonJournal.Transaction tx = journal.begin()) {
+            publishing(() -> {
+                repository.computeAll(keys, i -> inserting(persons[i], tx, stored -> inserted[i] = stored));
+                return null;
+            });
+
+            for (int i = 0; i < persons.length; i++) {
+                if (inserted[i] == null && dtos.get(i).id() == null) {
+                    inserted[i] = insertWithId(PersonMapper.TO_ENTITY.apply(dtos.get(i)), tx);
+                }
+            }
+        }
+
+        return Arrays.stream(inserted)
+                .map(person -> person == null ? null : PersonMapper.TO_DTO.apply(person))
+                .toList();
+    }
+
+    /**
+     * Inserts under the id the person carries, claiming it so no generated
+     * id reuses it, or under the next generated id that is still free when
+     * it has none. Returns the stored copy, or null when the explicit id is
+     * taken.
+     */
+    private Person insertWithId(Person person, PersonJournal.Transaction tx) {
+        if (person.getId() != null) {
+            ids.claim(person.getId());
+            return insert(person, tx);
+        }
+
+        while (true) {
+            Person inserted = insert(person.toBuilder().id(ids.next()).build(), tx);
+
+            // a miss means the id was taken explicitly after its block was reserved; skip it
+            if (inserted != null) {
+                return inserted;
+            }
+        }
+    }
+
+    /**
+     * Stores the person unless its id is taken; returns the stamped copy
+     * that was stored, or null on conflict.
+     */
+    private Person insert(Person person, PersonJournal.Transaction tx) {
+        AtomicReference<Person> inserted = new AtomicReference<>();
+
+        publishing(() -> repository.compute(person.getId(), inserting(person, tx, inserted::set)));
+
+        return inserted.get();
+    }
+
+    /**
+     * Change of an insert: keeps the person already stored, or stamps the
+     * new one and, once it is stored, journals, indexes and publishes it and
+     * hands it to {@code inserted}.
+     */
+    private PersonChange inserting(Person person, PersonJournal.Transaction tx, Consumer<Person> inserted) {
+        return PersonChange.of(
+                existing -> existing != null ? existing : touch(person),
+                (existing, stamped) -> {
+                    tx.upserted(stamped);
+                    index(null, stamped);
+                    changes.publish(ChangeTypeEnum.CREATED, stamped.getId(), stamped.getVersion(), stamped);
+                    inserted.accept(stamped);
+                }
+        );
+    }
+
+    public PersonDto update(Long id, PersonDto dto) {
+        return update(id, dto, version -> true).body();
+    }
+
+    /**
+     * Replaces the person if its current version satisfies {@code ifMatch},
+     * checked atomically with the write, and throws
+     * {@link PreconditionFailedException} otherwise.
+     */
+    public VersionedDto<PersonDto> update(Long id, PersonDto dto, LongPredicate ifMatch) {
+        return replace(id, ifMatch, person -> Person.builder()
+                .id(id)
+                .name(dto.name())
+                .birthDate(dto.birthDate())
+                .admissionDate(dto.admissionDate())
+                .latitude(dto.latitude())
+                .longitude(dto.longitude())
+                .build());
+    }
+
+    public PersonDto patch(Long id, PersonPatchDto dto) {
+        return patch(id, dto, version -> true).body();
+    }
+
+    public VersionedDto<PersonDto> patch(Long id, PersonPatchDto dto, LongPredicate ifMatch) {
+        boolean moved = dto.latitude() != null;
+
+        return replace(id, ifMatch, person -> person.toBuilder()
+                .name(Optional.ofNullable(dto.name()).orElse(person.getName()))
+                .birthDate(Optional.ofNullable(dto.birthDate()).orElse(person.getBirthDate()))
+                .admissionDate(Optional.ofNullable(dto.admissionDate()).orElse(person.getAdmissionDate()))
+                .latitude(moved ? dto.latitude() : person.getLatitude())
+                .longitude(moved ? dto.longitude() : person.getLongitude())
+                .build());
+    }
+
+    /**
+     * Swaps the stored person for a new object instead of changing it in
+     * place, so concurrent readers always see a version and fields that
+     * belong together.
+     */
+    private VersionedDto<PersonDto> replace(
+            Long id,
+            LongPredicate ifMatch,
+            UnaryOperator<Person> change
+    ) {
+        try (PersonJournal.Transaction tx = journal.begin()) {
+            Person replaced = publishing(() -> repository.computeIfPresent(id, PersonChange.of(
+                    person -> {
+                        if (!ifMatch.test(person.getVersion())) {
+                            throw new PreconditionFailedException(
+                                    "Person " + id + " was modified, current version is " + person.getVersion()
+                            );
+                        }
+
+                        return touch(change.apply(person));
+                    },
+                    (person, changed) -> {
+                        tx.upserted(changed);
+                        index(person, changed);
+                        changes.publish(ChangeTypeEnum.UPDATED, id, changed.getVersion(), changed);
+                    }
+            )));
+
+            invalidate(id);
+
+            return Optional.ofNullable(replaced)
+                    .map(PersonService::versioned)
+                    .orElseThrow(() ->
+                            new NotFoundException("Person not found: " + id)
+                    );
+        }
     }
 
     public void delete(Long id) {
-        Optional.ofNullable(database.remove(id))
+
+        AtomicReference<Person> removed = new AtomicReference<>();
+
+        try (PersonJournal.Transaction tx = journal.begin()) {
+            publishing(() -> repository.computeIfPresent(id, PersonChange.of(
+                    person -> null,
+                    (person, none) -> {
+                        tx.deleted(id);
+                        index(person, null);
+                        changes.publish(ChangeTypeEnum.DELETED, id, versions.incrementAndGet(), null);
+                        removed.set(person);
+                    }
+            )));
+        }
+
+        invalidate(id);
+
+        Optional.ofNullable(removed.get())
                 .orElseThrow(() ->
                         new NotFoundException("Person not found: " + id)
                 );
     }
 
-    public Map<String, Object> calculateAge(Long id, AgeEnum output) {
+    /**
+     * Runs a store update that publishes a change under the feed's write
+     * guard, so a checkpoint never sees the change before the store does.
+     */
+    private <T> T publishing(Supplier<T> update) {
+        Lock guard = changes.writeGuard();
+        guard.lock();
+
+        try {
+            return update.get();
+        } finally {
+            guard.unlock();
+        }
+    }
 
-        Person person = Optional.ofNullable(database.get(id))
-                .orElseThrow(() -> new NotFoundException(
-                        "Person not found: " + id
-                ));
+    /**
+     * Drops the cached copies of a person after its store write. The
+     * near-cache goes first, as results are computed from what it returns.
+     */
+    private void invalidate(long id) {
+        nearCache.invalidate(id);
+        resultCache.invalidate(id);
+    }
 
-        LocalDate today = LocalDate.now();
-        LocalDate birthDate = person.getBirthDate();
+    /**
+     * Moves the person in every secondary index; called inside the store's
+     * per-id compute, with null for a person being created or removed.
+     */
+    private void index(Person previous, Person person) {
+        searchIndex.update(
+                previous == null ? null : previous.getName(),
+                person == null ? null : person.getName(),
+                person == null ? previous.getId() : person.getId()
+        );
+        birthDates.update(previous, person);
+        admissionDates.update(previous, person);
+        birthdays.update(previous, person);
+        workAnniversaries.update(previous, person);
+        locations.update(previous, person);
+    }
 
-        long age = switch (output) {
-            case DAYS -> ChronoUnit.DAYS.between(birthDate, today);
-            case MONTHS -> ChronoUnit.MONTHS.between(birthDate, today);
-            case YEARS -> ChronoUnit.YEARS.between(birthDate, today);
-        };
+    /**
+     * Copy of the person carrying the next version; the argument is left
+     * untouched, as persons are never changed once built.
+     */
+    private Person stamp(Person person) {
+        return person.withVersion(versions.incrementAndGet());
+    }
 
-        return Map.of(
-                "id", person.getId(),
-                "name", person.getName(),
-                "output", output.name().toLowerCase(),
-                "age", age
-        );
+    /**
+     * Stamps a write coming from the API, which also records when it
+     * happened; restored persons keep the time they were written.
+     */
+    private Person touch(Person person) {
+        return stamp(person.withUpdatedAt(today.now()));
     }
 
-    public Map<String, Object> calculateSalary(Long id, SalaryEnum output) {
+    private static VersionedDto<PersonDto> versioned(Person person) {
+        return new VersionedDto<>(PersonMapper.TO_DTO.apply(person), person.getVersion());
+    }
 
-        Person person = Optional.ofNullable(database.get(id))
-                .orElseThrow(() -> new NotFoundException(
-                        "Person not found: " + id
-                ));
+    public AgeDto calculateAge(Long id, AgeEnum output) {
+        return results(id).ages()[output.ordinal()];
+    }
 
-        BigDecimal minimumWage = salaryProperties.getMinimumWage();
-        BigDecimal salary = minimumWage;
+    public SalaryDto calculateSalary(Long id, SalaryEnum output) {
+        return results(id).salaries()[output.ordinal()];
+    }
 
-        long years = ChronoUnit.YEARS.between(
-                person.getAdmissionDate(),
-                LocalDate.now()
-        );
+    /**
+     * Every age and salary output of the person as of today, served from the
+     * day-scoped cache.
+     */
+    private PersonResultCache.Results results(Long id) {
+        LocalDate date = today.get();
+
+        return resultCache.get(id, date, () -> {
+            Person person = Optional.ofNullable(lookup(id))
+                    .orElseThrow(() -> new NotFoundException(
+                            "Person not found: " + id
+                    ));
+
+            return new PersonResultCache.Results(date, ages(person, date), salaries(person, date));
+        });
+    }
 
-        for (int i = 0; i < years; i++) {
-            salary = salary
-                    .add(salary.multiply(
-                            salaryProperties.getAnnualIncreaseRate()
-                    ))
-                    .add(
-                            salaryProperties.getAnnualFixedIncrease()
-                    );
+    private static AgeDto[] ages(Person person, LocalDate today) {
+        AgeDto[] ages = new AgeDto[AgeEnum.values().length];
+
+        for (AgeEnum output : AgeEnum.values()) {
+            LocalDate birthDate = person.getBirthDate();
+
+            long age = switch (output) {
+                case DAYS -> ChronoUnit.DAYS.between(birthDate, today);
+                case MONTHS -> ChronoUnit.MONTHS.between(birthDate, today);
+                case YEARS -> ChronoUnit.YEARS.between(birthDate, today);
+            };
+
+            ages[output.ordinal()] = new AgeDto(person.getId(), person.getName(), output, age);
         }
 
-        salary = salary.setScale(2, RoundingMode.CEILING);
+        return ages;
+    }
 
-        return switch (output) {
-            case FULL -> Map.of(
-                    "id", person.getId(),
-                    "name", person.getName(),
-                    "output", "full",
-                    "salary", salary
-            );
+    private SalaryDto[] salaries(Person person, LocalDate today) {
+        SalaryDto[] salaries = new SalaryDto[SalaryEnum.values().length];
+
+        long years = ChronoUnit.YEARS.between(
+                person.getAdmissionDate(),
+                today
+        );
 
-            case MIN -> {
-                BigDecimal minQuantity = salary
-                        .divide(minimumWage, 2, RoundingMode.CEILING);
+        for (SalaryEnum output : SalaryEnum.values()) {
+            BigDecimal value = switch (output) {
+                case FULL -> salaryCalculator.salary(years);
+                case MIN -> salaryCalculator.minimumWages(years);
+            };
 
-                yield Map.of(
-                        "id", person.getId(),
-                        "name", person.getName(),
-                        "output", "min",
-                        "minimumWages", minQuantity
-                );
-            }
-        };
+            salaries[output.ordinal()] = new SalaryDto(person.getId(), person.getName(), output, value);
+        }
+
+        return salaries;
     }
 
 }
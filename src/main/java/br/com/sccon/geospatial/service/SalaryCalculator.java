@@ -0,0 +1,171 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.util.SalaryProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Salary engine backed by a per-tenure-year table of fixed-point results.
+ * <p>
+ * The table is computed once with the exact compounding recurrence and
+ * stores the CEILING-rounded values as long cents, so lookups are O(1) and
+ * return exactly what the per-year loop used to. It is rebuilt whenever
+ * {@link SalaryProperties} no longer match the values it was built from.
+ */
+@RequiredArgsConstructor
+@Component
+public class SalaryCalculator {
+
+    static final int CACHED_YEARS = 100;
+
+    private static final int SCALE = 2;
+
+    private final SalaryProperties salaryProperties;
+
+    private volatile SalaryTable table;
+
+    public BigDecimal salary(long years) {
+        SalaryTable current = table();
+        int year = current.clamp(years);
+
+        if (year < current.salaryCents.length) {
+            return BigDecimal.valueOf(current.salaryCents[year], SCALE);
+        }
+
+        return current.exactSalary(year).setScale(SCALE, RoundingMode.CEILING);
+    }
+
+    public BigDecimal minimumWages(long years) {
+        SalaryTable current = table();
+        int year = current.clamp(years);
+
+        if (year < current.minimumWageHundredths.length) {
+            return BigDecimal.valueOf(current.minimumWageHundredths[year], SCALE);
+        }
+
+        return current.exactSalary(year)
+                .setScale(SCALE, RoundingMode.CEILING)
+                .divide(current.minimumWage, SCALE, RoundingMode.CEILING);
+    }
+
+    private SalaryTable table() {
+        SalaryTable current = table;
+
+        if (current == null || !current.matches(salaryProperties)) {
+            current = SalaryTable.build(salaryProperties);
+            table = current;
+        }
+
+        return current;
+    }
+
+    private static final class SalaryTable {
+
+        private final BigDecimal minimumWage;
+        private final BigDecimal annualIncreaseRate;
+        private final BigDecimal annualFixedIncrease;
+
+        private final long[] salaryCents;
+        private final long[] minimumWageHundredths;
+
+        private final BigDecimal lastExactSalary;
+        private final int lastExactYear;
+
+        private SalaryTable(
+                BigDecimal minimumWage,
+                BigDecimal annualIncreaseRate,
+                BigDecimal annualFixedIncrease,
+                long[] salaryCents,
+                long[] minimumWageHundredths,
+                BigDecimal lastExactSalary,
+                int lastExactYear
+        ) {
+            this.minimumWage = minimumWage;
+            this.annualIncreaseRate = annualIncreaseRate;
+            this.annualFixedIncrease = annualFixedIncrease;
+            this.salaryCents = salaryCents;
+            this.minimumWageHundredths = minimumWageHundredths;
+            this.lastExactSalary = lastExactSalary;
+            this.lastExactYear = lastExactYear;
+        }
+
+        static SalaryTable build(SalaryProperties properties) {
+            BigDecimal minimumWage = properties.getMinimumWage();
+            BigDecimal rate = properties.getAnnualIncreaseRate();
+            BigDecimal fixed = properties.getAnnualFixedIncrease();
+
+            long[] salaries = new long[CACHED_YEARS + 1];
+            long[] minimumWages = new long[CACHED_YEARS + 1];
+
+            BigDecimal exact = minimumWage;
+            int year = 0;
+
+            for (; year <= CACHED_YEARS; year++) {
+                if (year > 0) {
+                    exact = next(exact, rate, fixed);
+                }
+
+                BigDecimal rounded = exact.setScale(SCALE, RoundingMode.CEILING);
+                BigDecimal quantity = rounded.divide(minimumWage, SCALE, RoundingMode.CEILING);
+
+                if (!fitsInLong(rounded) || !fitsInLong(quantity)) {
+                    break;
+                }
+
+                salaries[year] = rounded.unscaledValue().longValue();
+                minimumWages[year] = quantity.unscaledValue().longValue();
+            }
+
+            return new SalaryTable(
+                    minimumWage,
+                    rate,
+                    fixed,
+                    Arrays.copyOf(salaries, year),
+                    Arrays.copyOf(minimumWages, year),
+                    exact,
+                    Math.min(year, CACHED_YEARS)
+            );
+        }
+
+        boolean matches(SalaryProperties properties) {
+            return Objects.equals(minimumWage, properties.getMinimumWage())
+                    && Objects.equals(annualIncreaseRate, properties.getAnnualIncreaseRate())
+                    && Objects.equals(annualFixedIncrease, properties.getAnnualFixedIncrease());
+        }
+
+        /**
+         * Tenure is never negative for the recurrence, and anything past
+         * {@code Integer.MAX_VALUE} years is not a meaningful admission date.
+         */
+        int clamp(long years) {
+            return (int) Math.min(Math.max(years, 0), Integer.MAX_VALUE);
+        }
+
+        /**
+         * Continues the exact recurrence from the last tabulated year, for
+         * tenures whose values no longer fit in long cents.
+         */
+        BigDecimal exactSalary(int year) {
+            BigDecimal exact = lastExactSalary;
+
+            for (int i = lastExactYear; i < year; i++) {
+                exact = next(exact, annualIncreaseRate, annualFixedIncrease);
+            }
+
+            return exact;
+        }
+
+        private static BigDecimal next(BigDecimal salary, BigDecimal rate, BigDecimal fixed) {
+            return salary.add(salary.multiply(rate)).add(fixed);
+        }
+
+        private static boolean fitsInLong(BigDecimal value) {
+            return value.unscaledValue().bitLength() < Long.SIZE;
+        }
+    }
+}
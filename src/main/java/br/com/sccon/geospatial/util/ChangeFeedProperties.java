@@ -0,0 +1,31 @@
+package br.com.sccon.geospatial.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "geospatial.changes")
+public class ChangeFeedProperties {
+
+    /**
+     * Changes kept for consumers to catch up on, rounded up to a power of two;
+     * a consumer further behind than this is cut off.
+     */
+    private int capacity = 65_536;
+
+    /**
+     * How long an idle consumer sleeps before looking for new changes.
+     */
+    private Duration pollInterval = Duration.ofMillis(20);
+
+    /**
+     * Idle time after which a comment is sent, so dead connections are noticed.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
@@ -0,0 +1,27 @@
+package br.com.sccon.geospatial.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "geospatial.near-cache")
+public class NearCacheProperties {
+
+    /**
+     * Persons kept in front of the store; 0 disables the cache.
+     */
+    private int maxSize = 100_000;
+
+    /**
+     * How long a person is served from the cache after it was loaded. Writes
+     * through this instance drop it at once, and no other instance writes the
+     * store, so this only ages out persons nobody asks for.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+}
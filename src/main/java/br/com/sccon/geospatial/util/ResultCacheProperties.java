@@ -0,0 +1,18 @@
+package br.com.sccon.geospatial.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "geospatial.result-cache")
+public class ResultCacheProperties {
+
+    /**
+     * Persons whose age and salary results are kept for the day; 0 disables the cache.
+     */
+    private int maxSize = 100_000;
+}
@@ -0,0 +1,61 @@
+package br.com.sccon.geospatial.util;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Current date of the injected {@link Clock}, cached until the next
+ * midnight in the clock's zone.
+ * <p>
+ * A read only costs {@link Clock#millis()} and a comparison against the
+ * bounds of the cached day; the date is recomputed when the clock leaves
+ * them, forwards at rollover or backwards after a clock adjustment.
+ */
+@Component
+public class Today {
+
+    private final Clock clock;
+
+    private volatile Day day;
+
+    public Today(Clock clock) {
+        this.clock = clock;
+    }
+
+    public LocalDate get() {
+        long now = clock.millis();
+        Day current = day;
+
+        if (current == null || now < current.startMillis() || now >= current.endMillis()) {
+            current = Day.of(now, clock.getZone());
+            day = current;
+        }
+
+        return current.date();
+    }
+
+    /**
+     * Current instant of the same clock to the millisecond, the precision
+     * timestamps are stored with; not cached.
+     */
+    public Instant now() {
+        return Instant.ofEpochMilli(clock.millis());
+    }
+
+    private record Day(LocalDate date, long startMillis, long endMillis) {
+
+        static Day of(long millis, ZoneId zone) {
+            LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone);
+
+            return new Day(
+                    date,
+                    date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli()
+            );
+        }
+    }
+}
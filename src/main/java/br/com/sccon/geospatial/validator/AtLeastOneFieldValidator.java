@@ -20,7 +20,9 @@ public class AtLeastOneFieldValidator
         if (value instanceof PersonPatchDto dto) {
             return dto.name() != null && !dto.name().isBlank()
                     || dto.birthDate() != null
-                    || dto.admissionDate() != null;
+                    || dto.admissionDate() != null
+                    || dto.latitude() != null
+                    || dto.longitude() != null;
         }
 
         return false;
@@ -0,0 +1,27 @@
+package br.com.sccon.geospatial.validator;
+
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.dto.PersonPatchDto;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class CompleteLocationValidator
+        implements ConstraintValidator<CompleteLocation, Object> {
+
+    @Override
+    public boolean isValid(
+            Object value,
+            ConstraintValidatorContext context
+    ) {
+
+        if (value instanceof PersonDto dto) {
+            return (dto.latitude() == null) == (dto.longitude() == null);
+        }
+
+        if (value instanceof PersonPatchDto dto) {
+            return (dto.latitude() == null) == (dto.longitude() == null);
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.sccon.geospatial.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsistentHashRingTest {
+
+    private static final int IDS = 100_000;
+
+    private static final List<String> NODES = List.of(
+            "http://localhost:8081/geospatial/",
+            "http://localhost:8082/geospatial/",
+            "http://localhost:8083/geospatial/",
+            "http://localhost:8084/geospatial/"
+    );
+
+    @Test
+    void shouldSpreadSequentialIdsEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        int[] owned = new int[NODES.size()];
+
+        for (long id = 1; id <= IDS; id++) {
+            owned[ring.owner(id)]++;
+        }
+
+        for (int count : owned) {
+            assertThat(count).isBetween(IDS / 4 * 8 / 10, IDS / 4 * 12 / 10);
+        }
+    }
+
+    @Test
+    void shouldOnlyMoveIdsToANewNode() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        List<String> grown = new ArrayList<>(NODES);
+        grown.add("http://localhost:8085/geospatial/");
+        ConsistentHashRing after = new ConsistentHashRing(grown, 128);
+
+        int moved = 0;
+
+        for (long id = 1; id <= IDS; id++) {
+            int owner = after.owner(id);
+
+            if (owner != before.owner(id)) {
+                assertThat(owner).isEqualTo(4);
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(IDS / 5 * 7 / 10, IDS / 5 * 13 / 10);
+    }
+
+    @Test
+    void shouldAgreeOnOwnersWhateverTheNodeOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 64);
+        ConsistentHashRing reversed = new ConsistentHashRing(NODES.reversed(), 64);
+
+        for (long id = -1_000; id <= 1_000; id++) {
+            assertThat(NODES.get(ring.owner(id))).isEqualTo(NODES.reversed().get(reversed.owner(id)));
+        }
+    }
+
+    @Test
+    void shouldRejectEmptyRings() {
+        assertThatThrownBy(() -> new ConsistentHashRing(List.of(), 128))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ConsistentHashRing(NODES, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,429 @@
+package br.com.sccon.geospatial.cluster;
+
+import br.com.sccon.geospatial.GeospatialApplication;
+import br.com.sccon.geospatial.controller.PersonController;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes of one cluster running in this JVM, each with its own store,
+ * driven over HTTP like clients would. Tests share the cluster, so each one
+ * works on persons with names of its own.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PersonClusterTest {
+
+    private static final String SECRET = "cluster-test-secret";
+
+    @TempDir
+    static Path directory;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    private final List<URI> baseUris = new ArrayList<>();
+
+    @BeforeAll
+    void startCluster() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                baseUris.add(URI.create("http://localhost:" + socket.getLocalPort() + "/geospatial/"));
+            }
+        }
+
+        String nodeList = baseUris.stream().map(URI::toString).collect(Collectors.joining(","));
+
+        for (int i = 0; i < baseUris.size(); i++) {
+            nodes.add(new SpringApplicationBuilder(GeospatialApplication.class).run(
+                    "--server.port=" + baseUris.get(i).getPort(),
+                    "--geospatial.cluster.enabled=true",
+                    "--geospatial.cluster.nodes=" + nodeList,
+                    "--geospatial.cluster.self=" + i,
+                    "--geospatial.cluster.secret=" + SECRET,
+                    "--geospatial.ids.source=file",
+                    "--geospatial.ids.block-size=10",
+                    "--geospatial.ids.file=" + directory.resolve("person-ids")
+            ));
+        }
+    }
+
+    @AfterAll
+    void stopCluster() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        http.close();
+    }
+
+    @Test
+    void shouldSeedEachPersonOnce() throws Exception {
+        for (long id = 1; id <= 3; id++) {
+            assertThat(owners(id)).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldStoreCreatedPersonsOnlyOnTheirOwner() throws Exception {
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i < 30; i++) {
+            HttpResponse<String> created = send(i % 2, "POST", "v1/persons",
+                    "{\"name\":\"Owner " + i + "\",\"birthDate\":\"1990-01-01\",\"admissionDate\":\"2020-01-01\"}");
+
+            assertThat(created.statusCode()).isEqualTo(201);
+            ids.add(json(created).get("id").asLong());
+        }
+
+        assertThat(ids).doesNotHaveDuplicates();
+
+        int[] owned = new int[2];
+
+        for (long id : ids) {
+            List<Integer> owners = owners(id);
+            assertThat(owners).hasSize(1);
+            owned[owners.getFirst()]++;
+
+            for (int node = 0; node < 2; node++) {
+                assertThat(send(node, "GET", "v1/persons/" + id, null).statusCode()).isEqualTo(200);
+            }
+        }
+
+        assertThat(owned[0]).isPositive();
+        assertThat(owned[1]).isPositive();
+    }
+
+    @Test
+    void shouldRouteReadsAndWritesOfOnePersonToItsOwner() throws Exception {
+        long id = 50_000;
+        int other = 1 - owners(id, "POST").getFirst();
+
+        HttpResponse<String> patched = send(other, "PATCH", "v1/persons/" + id, "{\"name\":\"Routed Two\"}");
+        assertThat(patched.statusCode()).isEqualTo(200);
+        assertThat(json(patched).get("name").asText()).isEqualTo("Routed Two");
+
+        String etag = patched.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<String> unchanged = http.send(
+                HttpRequest.newBuilder(baseUris.get(other).resolve("v1/persons/" + id))
+                        .header("If-None-Match", etag)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertThat(unchanged.statusCode()).isEqualTo(304);
+
+        assertThat(send(other, "GET", "v1/persons/" + id + "/age?output=YEARS", null).statusCode()).isEqualTo(200);
+        assertThat(send(other, "DELETE", "v1/persons/" + id, null).statusCode()).isEqualTo(204);
+        assertThat(send(0, "GET", "v1/persons/" + id, null).statusCode()).isEqualTo(404);
+        assertThat(send(1, "GET", "v1/persons/" + id, null).statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    void shouldListEveryPersonOnceInNameOrderFromAnyNode() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            send(i % 2, "POST", "v1/persons",
+                    "{\"name\":\"Listed " + (char) ('A' + (i * 7) % 25) + "\",\"birthDate\":\"1980-05-05\",\"admissionDate\":\"2010-01-01\"}");
+        }
+
+        List<String> all = new ArrayList<>();
+        json(send(1, "GET", "v1/persons", null)).forEach(person -> all.add(person.get("name").asText()));
+
+        assertThat(all).isSorted();
+        assertThat(all.stream().filter(name -> name.startsWith("Listed "))).hasSize(25);
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            HttpResponse<String> page = send(0, "GET", "v1/persons?limit=7" + (cursor == null ? "" : "&cursor=" + cursor), null);
+            json(page).forEach(person -> paged.add(person.get("name").asText()));
+            cursor = page.headers().firstValue(PersonController.NEXT_CURSOR_HEADER).orElse(null);
+        } while (cursor != null);
+
+        assertThat(paged).isEqualTo(all);
+
+        String etag = send(0, "GET", "v1/persons", null).headers().firstValue("ETag").orElseThrow();
+        HttpResponse<String> unchanged = http.send(
+                HttpRequest.newBuilder(baseUris.get(1).resolve("v1/persons"))
+                        .header("If-None-Match", etag)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertThat(unchanged.statusCode()).isEqualTo(304);
+
+        HttpResponse<String> export = http.send(
+                HttpRequest.newBuilder(baseUris.get(0).resolve("v1/persons"))
+                        .header("Accept", "application/x-ndjson")
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        List<String> exported = export.body().lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line).get("name").asText();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+
+        assertThat(exported).isSorted().containsAll(all);
+    }
+
+    @Test
+    void shouldAnswerConditionalListingsFromEachShardsValidator() throws Exception {
+        HttpResponse<String> listed = send(0, "GET", "v1/persons", null);
+        String etag = listed.headers().firstValue("ETag").orElseThrow();
+        long shardsUnchanged = shardsNotModified();
+
+        for (String accept : List.of("application/json", "application/x-ndjson")) {
+            HttpResponse<String> unchanged = http.send(
+                    HttpRequest.newBuilder(baseUris.get(1).resolve("v1/persons"))
+                            .header("Accept", accept)
+                            .header("If-None-Match", etag)
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString()
+            );
+
+            assertThat(unchanged.statusCode()).isEqualTo(304);
+            assertThat(unchanged.headers().firstValue("ETag")).contains(etag);
+        }
+
+        assertThat(shardsNotModified()).isEqualTo(shardsUnchanged + 4);
+
+        send(0, "POST", "v1/persons", "{\"name\":\"Validated\",\"birthDate\":\"1982-01-01\",\"admissionDate\":\"2011-01-01\"}");
+
+        HttpResponse<String> changed = http.send(
+                HttpRequest.newBuilder(baseUris.get(1).resolve("v1/persons"))
+                        .header("If-None-Match", etag)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.headers().firstValue("ETag")).isNotEqualTo(Optional.of(etag));
+        assertThat(json(changed)).hasSize(json(listed).size() + 1);
+    }
+
+    @Test
+    void shouldGatherAnalyticsAsOneNodeWould() throws Exception {
+        List<LocalDate> birthDates = IntStream.range(0, 40)
+                .mapToObj(i -> LocalDate.of(1950, 1, 1).plusDays(i * 397L))
+                .toList();
+
+        for (int i = 0; i < birthDates.size(); i++) {
+            send(i % 2, "POST", "v1/persons", "{\"name\":\"Counted " + i + "\",\"birthDate\":\"" + birthDates.get(i)
+                    + "\",\"admissionDate\":\"2015-03-01\"}");
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Long> ages = birthDates.stream().map(date -> ChronoUnit.DAYS.between(date, today)).sorted().toList();
+
+        for (int node = 0; node < 2; node++) {
+            JsonNode analytics = json(send(node, "GET", "v1/persons/analytics/age?output=DAYS&namePrefix=Counted", null));
+
+            assertThat(analytics.get("count").asLong()).isEqualTo(40);
+            assertThat(analytics.get("min").asLong()).isEqualTo(ages.getFirst());
+            assertThat(analytics.get("max").asLong()).isEqualTo(ages.getLast());
+            assertThat(analytics.get("total").asLong()).isEqualTo(ages.stream().mapToLong(Long::longValue).sum());
+            assertThat(analytics.get("percentiles").get("p50").asLong()).isEqualTo(ages.get(19));
+            assertThat(analytics.get("percentiles").get("p90").asLong()).isEqualTo(ages.get(35));
+        }
+
+        JsonNode salaries = json(send(1, "GET", "v1/persons/analytics/salary?output=MIN&namePrefix=Counted", null));
+        assertThat(salaries.get("count").asLong()).isEqualTo(40);
+        assertThat(salaries.get("histogram")).hasSize(1);
+
+        HttpResponse<String> invalid = send(0, "GET", "v1/persons/analytics/age?output=DAYS&bucketWidth=0", null);
+        assertThat(invalid.statusCode()).isEqualTo(400);
+        assertThat(json(invalid).get("message").asText()).isEqualTo("bucketWidth must be greater than zero");
+    }
+
+    @Test
+    void shouldBulkLoadThroughAnyNodeInInputOrder() throws Exception {
+        StringBuilder body = new StringBuilder();
+
+        for (int i = 0; i < 20; i++) {
+            String id = i % 3 == 0 ? "\"id\":" + (60_000 + i) + "," : "";
+            body.append("{").append(id).append("\"name\":\"Bulk ").append(i)
+                    .append("\",\"birthDate\":\"1991-01-01\",\"admissionDate\":\"2019-01-01\"}\n");
+        }
+
+        body.append("{\"id\":60000,\"name\":\"Bulk again\",\"birthDate\":\"1991-01-01\",\"admissionDate\":\"2019-01-01\"}\n");
+        body.append("{\"name\":\"\",\"birthDate\":\"1991-01-01\",\"admissionDate\":\"2019-01-01\"}\n");
+
+        HttpResponse<String> response = http.send(
+                HttpRequest.newBuilder(baseUris.get(1).resolve("v1/persons/bulk"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : response.body().lines().toList()) {
+            results.add(objectMapper.readTree(line));
+        }
+
+        assertThat(results).hasSize(22);
+        assertThat(results).extracting(result -> result.get("index").asLong())
+                .containsExactlyElementsOf(IntStream.range(0, 22).mapToObj(Long::valueOf).toList());
+        assertThat(results.subList(0, 20)).allSatisfy(result ->
+                assertThat(result.get("status").asText()).isEqualTo("CREATED"));
+        assertThat(results.get(20).get("status").asText()).isEqualTo("CONFLICT");
+        assertThat(results.get(21).get("status").asText()).isEqualTo("INVALID");
+
+        for (JsonNode result : results.subList(0, 20)) {
+            assertThat(owners(result.get("id").asLong())).hasSize(1);
+        }
+
+        assertThat(results.get(3).get("id").asLong()).isEqualTo(60_003);
+    }
+
+    @Test
+    void shouldMergeNearestPersonsByDistance() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            send(i % 2, "POST", "v1/persons", "{\"name\":\"Near " + i + "\",\"birthDate\":\"1985-01-01\","
+                    + "\"admissionDate\":\"2012-01-01\",\"latitude\":" + (-10 - i * 0.01) + ",\"longitude\":-50.0}");
+        }
+
+        JsonNode nearest = json(send(1, "GET", "v1/persons/nearest?latitude=-10&longitude=-50&k=5", null));
+
+        assertThat(nearest).hasSize(5);
+        assertThat(nearest).extracting(hit -> hit.get("person").get("name").asText())
+                .containsExactly("Near 0", "Near 1", "Near 2", "Near 3", "Near 4");
+
+        List<Double> distances = new ArrayList<>();
+        nearest.forEach(hit -> distances.add(hit.get("distance").asDouble()));
+        assertThat(distances).isSortedAccordingTo(Comparator.naturalOrder());
+    }
+
+    @Test
+    void shouldMergeSearchHitsInFoldedNameOrder() throws Exception {
+        for (String name : List.of("Orla Zeca", "Órla Bruno", "orla Maria")) {
+            send(0, "POST", "v1/persons", "{\"name\":\"" + name + "\",\"birthDate\":\"1988-01-01\","
+                    + "\"admissionDate\":\"2014-01-01\"}");
+        }
+
+        for (int node = 0; node < 2; node++) {
+            JsonNode hits = json(send(node, "GET", "v1/persons/search?q=orla", null));
+
+            assertThat(hits).filteredOn(hit -> hit.get("match").asText().equals("PREFIX"))
+                    .extracting(hit -> hit.get("person").get("name").asText())
+                    .containsExactly("Órla Bruno", "orla Maria", "Orla Zeca");
+        }
+    }
+
+    @Test
+    void shouldRefuseTheShardHeaderWithoutTheSecret() throws Exception {
+        HttpResponse<String> spoofed = http.send(
+                HttpRequest.newBuilder(baseUris.get(0).resolve("v1/persons"))
+                        .header(ShardClient.SHARD_HEADER, "0")
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        assertThat(spoofed.statusCode()).isEqualTo(403);
+        assertThat(json(spoofed).get("message").asText())
+                .isEqualTo(ShardClient.SHARD_HEADER + " is only accepted from nodes of this cluster");
+    }
+
+    @Test
+    void shouldReturnShardErrorsAsTheyAre() throws Exception {
+        HttpResponse<String> blank = send(0, "GET", "v1/persons/search?q=%20", null);
+
+        assertThat(blank.statusCode()).isEqualTo(400);
+        assertThat(json(blank).get("message").asText()).isEqualTo("q must not be blank");
+    }
+
+    /**
+     * Creates a person with the given id if needed and returns the nodes
+     * holding it, asking each one for its own data only.
+     */
+    private List<Integer> owners(long id, String create) throws Exception {
+        send(0, create, "v1/persons", "{\"id\":" + id
+                + ",\"name\":\"Routed One\",\"birthDate\":\"1990-01-01\",\"admissionDate\":\"2020-01-01\"}");
+        return owners(id);
+    }
+
+    private List<Integer> owners(long id) throws Exception {
+        List<Integer> owners = new ArrayList<>();
+
+        for (int node = 0; node < baseUris.size(); node++) {
+            HttpResponse<Void> local = http.send(
+                    HttpRequest.newBuilder(baseUris.get(node).resolve("v1/persons/" + id))
+                            .header(ShardClient.SHARD_HEADER, SECRET)
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding()
+            );
+
+            if (local.statusCode() == 200) {
+                owners.add(node);
+            }
+        }
+
+        return owners;
+    }
+
+    /**
+     * Listings the shards themselves answered with 304, which the routing
+     * node's own answers are not counted among.
+     */
+    private long shardsNotModified() throws Exception {
+        long count = 0;
+
+        for (int node = 0; node < baseUris.size(); node++) {
+            HttpResponse<String> metric = send(node, "GET",
+                    "actuator/metrics/http.server.requests?tag=uri:/v1/persons&tag=status:304", null);
+
+            if (metric.statusCode() == 200) {
+                count += json(metric).get("measurements").get(0).get("value").asLong();
+            }
+        }
+
+        return count;
+    }
+
+    private HttpResponse<String> send(int node, String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUris.get(node).resolve(path));
+
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+
+        return http.send(
+                request.method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -1,30 +1,83 @@
 package br.com.sccon.geospatial.controller;
 
+import br.com.sccon.geospatial.exception.BusinessException;
 import br.com.sccon.geospatial.exception.ConflictException;
 import br.com.sccon.geospatial.exception.NotFoundException;
+import br.com.sccon.geospatial.exception.PreconditionFailedException;
+import br.com.sccon.geospatial.metrics.PersonMetrics;
+import br.com.sccon.geospatial.model.dto.AgeDto;
+import br.com.sccon.geospatial.model.dto.AnniversaryDto;
+import br.com.sccon.geospatial.model.dto.HistogramBucketDto;
+import br.com.sccon.geospatial.model.dto.PersonAnalyticsDto;
+import br.com.sccon.geospatial.model.dto.PersonDistanceDto;
 import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.dto.PersonFilterDto;
+import br.com.sccon.geospatial.model.dto.PersonPageDto;
+import br.com.sccon.geospatial.model.dto.PersonPatchDto;
+import br.com.sccon.geospatial.model.dto.PersonSearchHitDto;
+import br.com.sccon.geospatial.model.dto.SalaryDto;
+import br.com.sccon.geospatial.model.dto.VersionedDto;
 import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.AnniversaryEnum;
 import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import br.com.sccon.geospatial.model.enums.SearchMatchEnum;
+import br.com.sccon.geospatial.service.PersonAnalyticsService;
+import br.com.sccon.geospatial.service.PersonBulkService;
+import br.com.sccon.geospatial.service.PersonChangeService;
 import br.com.sccon.geospatial.service.PersonService;
 import br.com.sccon.geospatial.util.PersonTestProperties;
+import br.com.sccon.geospatial.util.TestClock;
 import br.com.sccon.geospatial.util.Util;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
-
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(
@@ -34,18 +87,68 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         }
 )
 @EnableConfigurationProperties(PersonTestProperties.class)
+@Import({PersonMetrics.class, SimpleMeterRegistry.class})
 @ActiveProfiles("test")
 class PersonControllerTest {
 
+    private static final String EPOCH = "epoch";
+
     @Autowired
     private MockMvc mvc;
 
+    @Autowired
+    private PersonController controller;
+
     @MockitoBean
     private PersonService service;
 
+    @MockitoBean
+    private PersonBulkService bulkService;
+
+    @MockitoBean
+    private PersonAnalyticsService analyticsService;
+
+    @MockitoBean
+    private PersonChangeService changeService;
+
     @Autowired
     private PersonTestProperties testProperties;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Jackson's auto-configuration is excluded, so the mapper the controller
+     * streams with is supplied here, with dates as ISO text like Boot's.
+     */
+    @TestConfiguration
+    static class JacksonConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+        }
+    }
+
+    /**
+     * Error bodies are stamped from the clock bean, so it stands still here.
+     */
+    @TestConfiguration
+    static class ClockConfig {
+
+        @Bean
+        Clock clock() {
+            return TestClock.at(LocalDate.of(2026, 3, 14), LocalTime.of(9, 26, 53));
+        }
+    }
+
+    @BeforeEach
+    void epoch() {
+        given(service.epoch()).willReturn(EPOCH);
+    }
+
 
     // ==================== FIND ALL ====================
 
@@ -74,6 +177,143 @@ class PersonControllerTest {
         verify(service).findAll();
     }
 
+    @Test
+    void shouldReturn304WhenCollectionNotModified() throws Exception {
+        given(service.version()).willReturn(42L);
+
+        mvc.perform(get("/v1/persons")
+                        .header(HttpHeaders.IF_NONE_MATCH, PersonETags.of(EPOCH, 42))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, PersonETags.of(EPOCH, 42)));
+
+        verify(service, never()).findAll();
+    }
+
+    @Test
+    void shouldReturnPageWithNextCursor() throws Exception {
+        PersonDto dto = new PersonDto(
+                1L,
+                "Bruno Rocha",
+                LocalDate.of(1985, 12, 9),
+                LocalDate.of(2020, 1, 1)
+        );
+
+        given(service.findPage(null, 1))
+                .willReturn(new PersonPageDto(List.of(dto), "next"));
+
+        mvc.perform(get("/v1/persons")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PersonController.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Bruno Rocha"));
+
+        verify(service).findPage(null, 1);
+        verify(service, never()).findAll();
+    }
+
+    @Test
+    void shouldOmitNextCursorOnLastPage() throws Exception {
+        given(service.findPage("last", null))
+                .willReturn(new PersonPageDto(List.of(), null));
+
+        mvc.perform(get("/v1/persons")
+                        .param("cursor", "last")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PersonController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        verify(service).findPage("last", null);
+    }
+
+    @Test
+    void shouldReturn400WhenPageLimitIsInvalid() throws Exception {
+        given(service.findPage(null, 0))
+                .willThrow(new BusinessException("limit must be between 1 and 1000"));
+
+        mvc.perform(get("/v1/persons")
+                        .param("limit", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message")
+                        .value("limit must be between 1 and 1000"));
+    }
+
+    @Test
+    void shouldStreamPersonsAsNdjson() throws Exception {
+        given(service.stream()).willReturn(Stream.of(
+                new PersonDto(1L, "Bruno Rocha", LocalDate.of(1985, 12, 9), LocalDate.of(2020, 1, 1)),
+                new PersonDto(3L, "Ciclano de Tal", LocalDate.of(1992, 7, 5), LocalDate.of(2021, 2, 10))
+        ));
+
+        MvcResult result = mvc.perform(get("/v1/persons")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("""
+                        {"id":1,"name":"Bruno Rocha","birthDate":"1985-12-09","admissionDate":"2020-01-01"}
+                        {"id":3,"name":"Ciclano de Tal","birthDate":"1992-07-05","admissionDate":"2021-02-10"}
+                        """));
+
+        verify(service).stream();
+        verify(service, never()).findAll();
+    }
+
+    @Test
+    void shouldFlushExportInBatchesRatherThanPerPerson() throws Exception {
+        given(service.stream()).willReturn(LongStream.rangeClosed(1, 3000).mapToObj(id ->
+                new PersonDto(id, "Person " + id, LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1))
+        ));
+
+        AtomicInteger flushes = new AtomicInteger();
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        controller.export(new ServletWebRequest(new MockHttpServletRequest()))
+                .getBody()
+                .writeTo(out);
+
+        assertThat(out.toString()).hasLineCount(3000);
+        assertThat(flushes.get()).isLessThan(10);
+    }
+
+    // ==================== BULK ====================
+
+    @Test
+    void shouldStreamBulkResultsFromService() throws Exception {
+        willAnswer(invocation -> {
+            InputStream in = invocation.getArgument(0);
+            OutputStream out = invocation.getArgument(1);
+            out.write(("{\"received\":" + in.readAllBytes().length + "}\n").getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(bulkService).ingest(any(), any());
+
+        String body = "{\"name\":\"Bruno Rocha\"}\n";
+
+        MvcResult result = mvc.perform(post("/v1/persons/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"received\":" + body.length() + "}\n"));
+    }
+
     // ==================== FIND BY ID ====================
 
     @Test
@@ -85,28 +325,78 @@ class PersonControllerTest {
                 LocalDate.of(2020, 1, 1)
         );
 
-        when(service.findById(1L)).thenReturn(dto);
+        when(service.findVersionedById(1L)).thenReturn(new VersionedDto<>(dto, 3));
 
         mvc.perform(get("/v1/persons/{id}", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, PersonETags.of(EPOCH, 3)))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Bruno Rocha"));
 
-        verify(service).findById(1L);
+        verify(service).findVersionedById(1L);
+    }
+
+    @Test
+    void shouldReturn304WhenPersonNotModified() throws Exception {
+        PersonDto dto = new PersonDto(
+                1L,
+                "Bruno Rocha",
+                LocalDate.of(1985, 12, 9),
+                LocalDate.of(2020, 1, 1)
+        );
+
+        when(service.findVersionedById(1L)).thenReturn(new VersionedDto<>(dto, 3));
+
+        mvc.perform(get("/v1/persons/{id}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, PersonETags.of(EPOCH, 3)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, PersonETags.of(EPOCH, 3)))
+                .andExpect(content().string(""));
+
+        mvc.perform(get("/v1/persons/{id}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, PersonETags.of(EPOCH, 2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Bruno Rocha"));
     }
 
     @Test
     void shouldReturn404WhenPersonByIdNotFound() throws Exception {
 
-        when(service.findById(99L))
+        when(service.findVersionedById(99L))
                 .thenThrow(new NotFoundException("Person not found: 99"));
 
+        double notFoundTimings = notFoundTimings();
+        double notFoundErrors = notFoundErrors();
+
         mvc.perform(get("/v1/persons/{id}", 99))
                 .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.timestamp").value("2026-03-14T09:26:53"))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.error").value("Not Found"))
                 .andExpect(jsonPath("$.message")
-                        .value("Person not found: 99"));
+                        .value("Person not found: 99"))
+                .andExpect(jsonPath("$.path").value("/v1/persons/99"));
 
-        verify(service).findById(99L);
+        verify(service).findVersionedById(99L);
+
+        assertThat(notFoundTimings()).isEqualTo(notFoundTimings + 1);
+        assertThat(notFoundErrors()).isEqualTo(notFoundErrors + 1);
+    }
+
+    private double notFoundTimings() {
+        return meterRegistry.timer(
+                PersonMetrics.OPERATIONS,
+                "operation", "findById",
+                "outcome", PersonMetrics.NOT_FOUND
+        ).count();
+    }
+
+    private double notFoundErrors() {
+        return meterRegistry.counter(
+                PersonMetrics.ERRORS,
+                "exception", "NotFoundException",
+                "status", "404"
+        ).count();
     }
 
 
@@ -197,15 +487,44 @@ class PersonControllerTest {
                 LocalDate.of(2020, 1, 1)
         );
 
-        when(service.update(eq(1L), any(PersonDto.class))).thenReturn(dto);
+        when(service.update(eq(1L), any(PersonDto.class), any())).thenReturn(new VersionedDto<>(dto, 7));
 
         mvc.perform(put("/v1/persons/{id}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(Util.asJson(dto)))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, PersonETags.of(EPOCH, 7)))
                 .andExpect(jsonPath("$.name").value("Updated Name"));
 
-        verify(service).update(eq(1L), any(PersonDto.class));
+        verify(service).update(eq(1L), any(PersonDto.class), any());
+    }
+
+    @Test
+    void shouldReturn412WhenPatchingStaleVersion() throws Exception {
+        when(service.patch(eq(1L), any(PersonPatchDto.class), any()))
+                .thenAnswer(invocation -> {
+                    LongPredicate ifMatch = invocation.getArgument(2);
+
+                    if (!ifMatch.test(5)) {
+                        throw new PreconditionFailedException("Person 1 was modified, current version is 5");
+                    }
+
+                    return new VersionedDto<>(new PersonDto(1L, "Patched", null, null), 6);
+                });
+
+        mvc.perform(patch("/v1/persons/{id}", 1)
+                        .header(HttpHeaders.IF_MATCH, PersonETags.of(EPOCH, 4))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Patched\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Person 1 was modified, current version is 5"));
+
+        mvc.perform(patch("/v1/persons/{id}", 1)
+                        .header(HttpHeaders.IF_MATCH, PersonETags.of(EPOCH, 5))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Patched\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, PersonETags.of(EPOCH, 6)));
     }
 
     @Test
@@ -217,7 +536,7 @@ class PersonControllerTest {
                 LocalDate.of(2020, 1, 1)
         );
 
-        when(service.update(eq(99L), any(PersonDto.class)))
+        when(service.update(eq(99L), any(PersonDto.class), any()))
                 .thenThrow(new NotFoundException("Person not found: 99"));
 
         mvc.perform(put("/v1/persons/{id}", 99)
@@ -227,7 +546,7 @@ class PersonControllerTest {
                 .andExpect(jsonPath("$.message")
                         .value("Person not found: 99"));
 
-        verify(service).update(eq(99L), any(PersonDto.class));
+        verify(service).update(eq(99L), any(PersonDto.class), any());
     }
 
 
@@ -259,12 +578,14 @@ class PersonControllerTest {
     @Test
     void shouldReturnAgeInYears() throws Exception {
         when(service.calculateAge(1L, AgeEnum.YEARS))
-                .thenReturn(Map.of("age", 33));
+                .thenReturn(new AgeDto(1L, "Bruno Rocha", AgeEnum.YEARS, 33));
 
         mvc.perform(get("/v1/persons/{id}/age", 1)
                         .param("output", "YEARS"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.age").value(33));
+                .andExpect(content().json("""
+                        {"id":1,"name":"Bruno Rocha","output":"years","age":33}
+                        """, JsonCompareMode.STRICT));
 
         verify(service).calculateAge(1L, AgeEnum.YEARS);
     }
@@ -288,16 +609,30 @@ class PersonControllerTest {
     @Test
     void shouldReturnFullSalary() throws Exception {
         when(service.calculateSalary(1L, SalaryEnum.FULL))
-                .thenReturn(Map.of("salary", 5000));
+                .thenReturn(new SalaryDto(1L, "Bruno Rocha", SalaryEnum.FULL, new BigDecimal("5000.00")));
 
         mvc.perform(get("/v1/persons/{id}/salary", 1)
                         .param("output", "FULL"))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.output").value("full"))
                 .andExpect(jsonPath("$.salary").value(5000));
 
         verify(service).calculateSalary(1L, SalaryEnum.FULL);
     }
 
+    @Test
+    void shouldReturnSalaryInMinimumWages() throws Exception {
+        when(service.calculateSalary(1L, SalaryEnum.MIN))
+                .thenReturn(new SalaryDto(1L, "Bruno Rocha", SalaryEnum.MIN, new BigDecimal("3.21")));
+
+        mvc.perform(get("/v1/persons/{id}/salary", 1)
+                        .param("output", "MIN"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"id":1,"name":"Bruno Rocha","output":"min","minimumWages":3.21}
+                        """, JsonCompareMode.STRICT));
+    }
+
     @Test
     void shouldReturnBadRequestWhenInvalidSalaryEnum() throws Exception {
         mvc.perform(
@@ -312,4 +647,211 @@ class PersonControllerTest {
         verifyNoInteractions(service);
     }
 
+
+    // ==================== ANALYTICS ====================
+
+    @Test
+    void shouldReturnFilteredAgeAnalytics() throws Exception {
+        PersonFilterDto filter = new PersonFilterDto("bru", LocalDate.of(1990, 1, 1), null, null, null);
+
+        when(analyticsService.age(AgeEnum.YEARS, filter, 5L))
+                .thenReturn(new PersonAnalyticsDto<>(
+                        "years", 2, 30L, 34L, new BigDecimal("32.00"), 64L,
+                        Map.of("p50", 30L), List.of(new HistogramBucketDto<>(30L, 35L, 2))
+                ));
+
+        mvc.perform(get("/v1/persons/analytics/age")
+                        .param("output", "YEARS")
+                        .param("bucketWidth", "5")
+                        .param("namePrefix", "bru")
+                        .param("bornFrom", "1990-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.average").value(32.0))
+                .andExpect(jsonPath("$.percentiles.p50").value(30))
+                .andExpect(jsonPath("$.histogram[0].to").value(35));
+
+        verify(analyticsService).age(AgeEnum.YEARS, filter, 5L);
+    }
+
+    // ==================== DATE QUERIES ====================
+
+    @Test
+    void shouldFindPersonsBornInRange() throws Exception {
+        PersonDto person = new PersonDto(3L, "Ciclano de Tal", LocalDate.of(1990, 5, 1), LocalDate.of(2020, 1, 1));
+
+        when(service.findBornBetween(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31)))
+                .thenReturn(List.of(person));
+
+        mvc.perform(get("/v1/persons/born")
+                        .param("from", "1990-01-01")
+                        .param("to", "1990-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void shouldListUpcomingAnniversaries() throws Exception {
+        PersonDto person = new PersonDto(3L, "Ciclano de Tal", LocalDate.of(1990, 5, 1), LocalDate.of(2020, 1, 1));
+
+        when(service.findAnniversaries(AnniversaryEnum.BIRTHDAY, 7))
+                .thenReturn(List.of(new AnniversaryDto(person, LocalDate.of(2026, 5, 1), 36)));
+
+        mvc.perform(get("/v1/persons/anniversaries")
+                        .param("type", "BIRTHDAY")
+                        .param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].person.name").value("Ciclano de Tal"))
+                .andExpect(jsonPath("$[0].date").value("2026-05-01"))
+                .andExpect(jsonPath("$[0].years").value(36));
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvertedRange() throws Exception {
+        when(service.findAdmittedBetween(any(), any()))
+                .thenThrow(new BusinessException("from and to are required and from must not be after to"));
+
+        mvc.perform(get("/v1/persons/admitted")
+                        .param("from", "2019-01-01")
+                        .param("to", "2018-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ==================== LOCATION ====================
+
+    @Test
+    void shouldRejectLatitudeWithoutLongitude() throws Exception {
+
+        String json = """
+        {
+          "name": "Bruno Rocha",
+          "birthDate": "1985-12-09",
+          "admissionDate": "2020-01-01",
+          "latitude": -23.55
+        }
+        """;
+
+        mvc.perform(post("/v1/persons")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("latitude and longitude must be provided together"));
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void shouldFindPersonsInsideBox() throws Exception {
+        PersonDto person = new PersonDto(1L, "Bruno Rocha", LocalDate.of(1985, 12, 9), LocalDate.of(2020, 1, 1),
+                -23.5505, -46.6333, null);
+
+        when(service.findWithin(-24.0, -47.0, -23.0, -46.0, null)).thenReturn(List.of(person));
+
+        mvc.perform(get("/v1/persons/within")
+                        .param("minLatitude", "-24")
+                        .param("minLongitude", "-47")
+                        .param("maxLatitude", "-23")
+                        .param("maxLongitude", "-46"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].latitude").value(-23.5505))
+                .andExpect(jsonPath("$[0].longitude").value(-46.6333));
+    }
+
+    @Test
+    void shouldFindPersonsNearbyWithDistance() throws Exception {
+        PersonDto person = new PersonDto(1L, "Bruno Rocha", LocalDate.of(1985, 12, 9), LocalDate.of(2020, 1, 1),
+                -23.5505, -46.6333, null);
+
+        when(service.findNearby(-23.55, -46.63, 1000.0, 5))
+                .thenReturn(List.of(new PersonDistanceDto(person, 412.5)));
+
+        mvc.perform(get("/v1/persons/nearby")
+                        .param("latitude", "-23.55")
+                        .param("longitude", "-46.63")
+                        .param("radius", "1000")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].person.id").value(1))
+                .andExpect(jsonPath("$[0].distance").value(412.5));
+    }
+
+    @Test
+    void shouldFindNearestPersons() throws Exception {
+        PersonDto person = new PersonDto(1L, "Fulano", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1));
+
+        when(service.findNearest(-23.55, -46.63, 3, 30, null, null, 5))
+                .thenReturn(List.of(new PersonDistanceDto(person, 1250.0)));
+
+        mvc.perform(get("/v1/persons/nearest")
+                        .param("latitude", "-23.55")
+                        .param("longitude", "-46.63")
+                        .param("k", "3")
+                        .param("minAge", "30")
+                        .param("maxTenure", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].person.id").value(1))
+                .andExpect(jsonPath("$[0].distance").value(1250.0));
+    }
+
+    // ==================== CHANGES ====================
+
+    @Test
+    void shouldResumeChangeStreamFromLastEventId() throws Exception {
+        when(changeService.subscribe(41L)).thenReturn(new SseEmitter());
+
+        mvc.perform(get("/v1/persons/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header(PersonController.LAST_EVENT_ID_HEADER, "41"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeService).subscribe(41L);
+    }
+
+    @Test
+    void shouldPreferAfterOverLastEventId() throws Exception {
+        when(changeService.subscribe(7L)).thenReturn(new SseEmitter());
+
+        mvc.perform(get("/v1/persons/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .param("after", "7")
+                        .header(PersonController.LAST_EVENT_ID_HEADER, "41"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeService).subscribe(7L);
+    }
+
+    // ==================== SEARCH ====================
+
+    @Test
+    void shouldSearchPersonsByName() throws Exception {
+        PersonDto person = new PersonDto(3L, "Ciclano de Tal", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1));
+
+        when(service.search("cilcano", 5))
+                .thenReturn(List.of(new PersonSearchHitDto(person, SearchMatchEnum.FUZZY, 0.5)));
+
+        mvc.perform(get("/v1/persons/search")
+                        .param("q", "cilcano")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].person.name").value("Ciclano de Tal"))
+                .andExpect(jsonPath("$[0].match").value("FUZZY"))
+                .andExpect(jsonPath("$[0].score").value(0.5));
+    }
+
+    @Test
+    void shouldReturnSalaryAnalyticsOverEveryone() throws Exception {
+        PersonFilterDto everyone = new PersonFilterDto(null, null, null, null, null);
+
+        when(analyticsService.salary(SalaryEnum.MIN, everyone, null))
+                .thenReturn(new PersonAnalyticsDto<>("min", 0, null, null, null, null, null, List.of()));
+
+        mvc.perform(get("/v1/persons/analytics/salary")
+                        .param("output", "MIN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(0))
+                .andExpect(jsonPath("$.min").doesNotExist());
+
+        verify(analyticsService).salary(SalaryEnum.MIN, everyone, null);
+    }
+
 }
@@ -0,0 +1,45 @@
+package br.com.sccon.geospatial.id;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileIdBlockSourceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldShareBlocksAndClaimsThroughTheFile() {
+        Path file = directory.resolve("ids").resolve("person-ids");
+        FileIdBlockSource first = new FileIdBlockSource(file);
+        FileIdBlockSource second = new FileIdBlockSource(file);
+
+        assertThat(first.reserve(100)).isEqualTo(1);
+        assertThat(second.reserve(100)).isEqualTo(101);
+
+        second.claim(500);
+        first.claim(300);
+
+        assertThat(first.reserve(10)).isEqualTo(501);
+        assertThat(new FileIdBlockSource(file).highWaterMark()).isEqualTo(510);
+    }
+
+    @Test
+    void shouldAllocateDistinctIdsForInstancesSharingTheFile() {
+        Path file = directory.resolve("person-ids");
+        IdAllocator first = new IdAllocator(new FileIdBlockSource(file), 3);
+        IdAllocator second = new IdAllocator(new FileIdBlockSource(file), 5);
+
+        second.claim(2);
+
+        assertThat(first.next()).isEqualTo(3);
+        assertThat(second.next()).isEqualTo(6);
+        assertThat(first.next()).isEqualTo(4);
+        assertThat(first.next()).isEqualTo(5);
+        assertThat(first.next()).isEqualTo(11);
+    }
+}
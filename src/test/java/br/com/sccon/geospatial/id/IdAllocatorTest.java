@@ -0,0 +1,83 @@
+package br.com.sccon.geospatial.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdAllocatorTest {
+
+    private final InMemoryIdBlockSource source = new InMemoryIdBlockSource();
+
+    @Test
+    void shouldHandOutIdsFromReservedBlocks() {
+        IdAllocator first = new IdAllocator(source, 10);
+        IdAllocator second = new IdAllocator(source, 10);
+
+        assertThat(first.next()).isEqualTo(1);
+        assertThat(second.next()).isEqualTo(11);
+        assertThat(first.next()).isEqualTo(2);
+        assertThat(source.highWaterMark()).isEqualTo(20);
+        assertThat(first.lastIssued()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStartLaterBlocksAboveClaimedIds() {
+        IdAllocator allocator = new IdAllocator(source, 10);
+
+        allocator.claim(42);
+        assertThat(allocator.next()).isEqualTo(43);
+
+        // inside a block already reserved: only the source mark is left alone
+        allocator.claim(45);
+        assertThat(source.highWaterMark()).isEqualTo(52);
+    }
+
+    @Test
+    void shouldClaimObservedIdsOnlyWhenAsked() {
+        IdAllocator allocator = new IdAllocator(source, 10);
+
+        allocator.observe(7);
+        allocator.observe(3);
+        assertThat(source.highWaterMark()).isZero();
+
+        allocator.claimObserved();
+        assertThat(allocator.next()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldNeverHandOutTheSameIdTwiceAcrossAllocators() throws Exception {
+        List<IdAllocator> allocators = List.of(new IdAllocator(source, 7), new IdAllocator(source, 13));
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < 4; t++) {
+                IdAllocator allocator = allocators.get(t % 2);
+
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        assertThat(ids.add(allocator.next())).isTrue();
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(40_000);
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.sccon.geospatial.index;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonDateIndexTest {
+
+    private final Map<Long, Person> store = new HashMap<>();
+
+    private final PersonDateIndex index = PersonDateIndex.byEpochDay(Person::getBirthDate);
+
+    @Test
+    void shouldNumberDaysOfYearAsInLeapYear() {
+        assertThat(PersonDateIndex.dayOfYear(LocalDate.of(2027, 2, 28))).isEqualTo(59);
+        assertThat(PersonDateIndex.dayOfYear(LocalDate.of(2028, 2, 29))).isEqualTo(60);
+        assertThat(PersonDateIndex.dayOfYear(LocalDate.of(2027, 3, 1))).isEqualTo(61);
+        assertThat(PersonDateIndex.dayOfYear(LocalDate.of(2027, 12, 31))).isEqualTo(366);
+    }
+
+    @Test
+    void shouldReturnRangeInDateOrderAndFollowChanges() {
+        put(1L, LocalDate.of(1990, 5, 1));
+        put(2L, LocalDate.of(1990, 1, 1));
+        put(3L, LocalDate.of(1991, 1, 1));
+
+        assertThat(ids(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))).containsExactly(2L, 1L);
+
+        put(3L, LocalDate.of(1990, 3, 1));
+        Person removed = store.remove(2L);
+        index.update(removed, null);
+
+        assertThat(ids(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))).containsExactly(3L, 1L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSkipEntriesOutdatedInStore() {
+        put(1L, LocalDate.of(1990, 5, 1));
+        store.put(1L, new Person(1L, "Changed", LocalDate.of(2000, 1, 1), LocalDate.of(2020, 1, 1)));
+
+        assertThat(ids(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))).isEmpty();
+    }
+
+    private void put(long id, LocalDate birthDate) {
+        Person person = new Person(id, "Person " + id, birthDate, LocalDate.of(2020, 1, 1));
+        index.update(store.put(id, person), person);
+    }
+
+    private List<Long> ids(LocalDate from, LocalDate to) {
+        return index.between(from.toEpochDay(), to.toEpochDay(), store::get)
+                .map(Person::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.sccon.geospatial.index;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonSearchIndexTest {
+
+    private final Map<Long, Person> store = new HashMap<>();
+
+    private final LongFunction<Person> lookup = store::get;
+
+    private PersonSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PersonSearchIndex();
+
+        put(1L, "Bruno Rocha");
+        put(2L, "Fulano de Tal");
+        put(3L, "Cíclano de Tal");
+        put(4L, "João Gonçalves");
+    }
+
+    @Test
+    void shouldFoldCaseAccentsAndSpaces() {
+        assertThat(PersonSearchIndex.fold("  João   GONÇALVES ")).isEqualTo("joao goncalves");
+    }
+
+    @Test
+    void shouldMatchPrefixesWithoutAccents() {
+        assertThat(ids(index.startingWith("joao g", lookup).toList())).containsExactly(4L);
+        assertThat(ids(index.startingWith("CICL", lookup).toList())).containsExactly(3L);
+        assertThat(index.startingWith("x", lookup)).isEmpty();
+    }
+
+    @Test
+    void shouldRankTyposBySimilarity() {
+        List<PersonSearchIndex.Match> matches = index.similarTo(
+                "Cilcano de Tal", PersonSearchIndex.DEFAULT_SIMILARITY, 10, lookup
+        );
+
+        assertThat(matches).extracting(match -> match.person().getId()).startsWith(3L, 2L);
+        assertThat(matches.get(0).similarity()).isGreaterThan(matches.get(1).similarity());
+    }
+
+    @Test
+    void shouldSkipFuzzyMatchingForShortQueries() {
+        assertThat(index.similarTo("br", 0.1, 10, lookup)).isEmpty();
+    }
+
+    @Test
+    void shouldForgetOldNamesOnRenameAndDelete() {
+        rename(1L, "Zeca Rocha");
+        index.update(store.remove(2L).getName(), null, 2L);
+
+        assertThat(index.startingWith("bruno", lookup)).isEmpty();
+        assertThat(ids(index.startingWith("zeca", lookup).toList())).containsExactly(1L);
+        assertThat(index.similarTo("fulano de tal", 0.3, 10, lookup))
+                .extracting(match -> match.person().getId())
+                .containsExactly(3L);
+    }
+
+    @Test
+    void shouldBoundCandidatesWhenTrigramsAreCommon() {
+        LongStream.rangeClosed(10, 10 + PersonSearchIndex.MAX_CANDIDATES)
+                .forEach(id -> put(id, "Maria Silva " + id));
+
+        assertThat(index.similarTo("maria silva", 0.1, 5, lookup)).hasSize(5);
+    }
+
+    private void put(long id, String name) {
+        store.put(id, new Person(id, name, LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+        index.update(null, name, id);
+    }
+
+    private void rename(long id, String name) {
+        Person previous = store.get(id);
+        store.put(id, new Person(id, name, previous.getBirthDate(), previous.getAdmissionDate()));
+        index.update(previous.getName(), name, id);
+    }
+
+    private static List<Long> ids(List<Person> persons) {
+        return persons.stream().map(Person::getId).toList();
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.sccon.geospatial.index;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PersonSpatialIndexTest {
+
+    private final Map<Long, Person> store = new HashMap<>();
+
+    private PersonSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PersonSpatialIndex();
+
+        put(1L, -23.5505, -46.6333);
+        put(2L, -22.9068, -43.1729);
+        put(3L, 64.1466, -21.9426);
+        put(4L, -17.7134, 178.0650);
+        put(5L, -16.4900, -179.9000);
+    }
+
+    @Test
+    void shouldMeasureGreatCircleDistance() {
+        assertThat(PersonSpatialIndex.distanceMeters(-23.5505, -46.6333, -22.9068, -43.1729))
+                .isCloseTo(360_749, within(1.0));
+        assertThat(PersonSpatialIndex.distanceMeters(0, 179.5, 0, -179.5))
+                .isCloseTo(111_195, within(10.0));
+    }
+
+    @Test
+    void shouldFindPointsInsideBox() {
+        assertThat(ids(index.within(-24, -47, -22, -43, 10, store::get))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.within(-90, -180, 90, 180, 10, store::get))).hasSize(5);
+        assertThat(index.within(-90, -180, 90, 180, 2, store::get)).hasSize(2);
+    }
+
+    @Test
+    void shouldFindPointsAcrossAntimeridian() {
+        assertThat(ids(index.within(-20, 170, -10, -170, 10, store::get))).containsExactlyInAnyOrder(4L, 5L);
+    }
+
+    @Test
+    void shouldReturnNearestFirstWithinRadius() {
+        List<PersonSpatialIndex.Hit> hits = index.nearby(-23.0, -44.0, 400_000, 10, store::get);
+
+        assertThat(hits).extracting(hit -> hit.person().getId()).containsExactly(2L, 1L);
+        assertThat(hits.get(0).distanceMeters()).isLessThan(hits.get(1).distanceMeters());
+        assertThat(index.nearby(-23.0, -44.0, 400_000, 1, store::get)).hasSize(1);
+    }
+
+    @Test
+    void shouldFollowMovesAndRemovals() {
+        put(1L, -22.91, -43.18);
+        Person removed = store.remove(2L);
+        index.update(removed, null);
+
+        assertThat(ids(index.within(-24, -47, -23, -46, 10, store::get))).isEmpty();
+        assertThat(ids(index.within(-23, -44, -22, -43, 10, store::get))).containsExactly(1L);
+    }
+
+    @Test
+    void shouldMatchBruteForceOnRandomPoints() {
+        Random random = new Random(42);
+
+        for (long id = 100; id < 5_100; id++) {
+            put(id, -24 + random.nextDouble() * 2, -47 + random.nextDouble() * 2);
+        }
+
+        long expected = store.values().stream()
+                .filter(person -> PersonSpatialIndex.distanceMeters(-23, -46, person.getLatitude(), person.getLongitude()) <= 50_000)
+                .count();
+
+        assertThat(index.nearby(-23, -46, 50_000, 10_000, store::get)).hasSize((int) expected);
+    }
+
+    @Test
+    void shouldFindNearestAcrossAntimeridianAndPoles() {
+        assertThat(index.nearest(-17, -179.5, 2, PersonSpatialIndex.DayFilter.NONE, store::get))
+                .extracting(hit -> hit.person().getId())
+                .containsExactly(5L, 4L);
+        assertThat(index.nearest(89.9, 0, 1, PersonSpatialIndex.DayFilter.NONE, store::get))
+                .extracting(hit -> hit.person().getId())
+                .containsExactly(3L);
+        assertThat(index.nearest(0, 0, 10, PersonSpatialIndex.DayFilter.NONE, store::get)).hasSize(5);
+    }
+
+    @Test
+    void shouldMatchBruteForceNearestWithFilter() {
+        Random random = new Random(7);
+
+        for (long id = 100; id < 20_100; id++) {
+            double latitude = random.nextBoolean() ? -33 + random.nextDouble() * 30 : random.nextDouble() * 180 - 90;
+            put(id, latitude, -74 + random.nextDouble() * 40, LocalDate.of(1950, 1, 1).plusDays(random.nextInt(20_000)));
+        }
+
+        long from = LocalDate.of(1970, 1, 1).toEpochDay();
+        long to = LocalDate.of(1980, 12, 31).toEpochDay();
+        PersonSpatialIndex.DayFilter filter = new PersonSpatialIndex.DayFilter(from, to, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        for (int query = 0; query < 20; query++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+
+            List<Long> expected = store.values().stream()
+                    .filter(person -> person.getBirthDate().toEpochDay() >= from && person.getBirthDate().toEpochDay() <= to)
+                    .sorted(Comparator.comparingDouble(person ->
+                            PersonSpatialIndex.distanceMeters(latitude, longitude, person.getLatitude(), person.getLongitude())))
+                    .limit(25)
+                    .map(Person::getId)
+                    .toList();
+
+            assertThat(index.nearest(latitude, longitude, 25, filter, store::get))
+                    .extracting(hit -> hit.person().getId())
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void shouldDropEmptyTilesFromNearestSearch() {
+        for (long id = 1; id <= 5; id++) {
+            index.update(store.remove(id), null);
+        }
+
+        assertThat(index.nearest(0, 0, 3, PersonSpatialIndex.DayFilter.NONE, store::get)).isEmpty();
+
+        put(9L, 10, 10);
+
+        assertThat(index.nearest(-60, 170, 3, PersonSpatialIndex.DayFilter.NONE, store::get))
+                .extracting(hit -> hit.person().getId())
+                .containsExactly(9L);
+    }
+
+    @Test
+    void shouldBoundDistanceToTiles() {
+        assertThat(PersonSpatialIndex.minDistanceMeters(0, 0, -1, 1, -1, 1)).isZero();
+        assertThat(PersonSpatialIndex.minDistanceMeters(60, 0, 0, 10, 10, 20))
+                .isLessThanOrEqualTo(PersonSpatialIndex.distanceMeters(60, 0, 10, 10));
+    }
+
+    private void put(long id, double latitude, double longitude) {
+        put(id, latitude, longitude, LocalDate.of(1990, 1, 1));
+    }
+
+    private void put(long id, double latitude, double longitude, LocalDate birthDate) {
+        Person person = Person.builder()
+                .id(id)
+                .name("Person " + id)
+                .birthDate(birthDate)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+
+        index.update(store.put(id, person), person);
+    }
+
+    private static List<Long> ids(List<Person> persons) {
+        return persons.stream().map(Person::getId).toList();
+    }
+}
@@ -0,0 +1,183 @@
+package br.com.sccon.geospatial.persistence;
+
+import br.com.sccon.geospatial.id.IdAllocator;
+import br.com.sccon.geospatial.id.InMemoryIdBlockSource;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.dto.PersonPatchDto;
+import br.com.sccon.geospatial.repository.InMemoryPersonRepository;
+import br.com.sccon.geospatial.service.PersonChangeFeed;
+import br.com.sccon.geospatial.service.PersonNearCache;
+import br.com.sccon.geospatial.service.PersonResultCache;
+import br.com.sccon.geospatial.service.PersonService;
+import br.com.sccon.geospatial.service.SalaryCalculator;
+import br.com.sccon.geospatial.util.SalaryProperties;
+import br.com.sccon.geospatial.util.Today;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedPersonJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private PersistenceProperties properties;
+
+    private MappedPersonJournal journal;
+
+    private PersonService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PersistenceProperties();
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofKilobytes(4));
+
+        start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void shouldRecoverMutationsFromLog() {
+        service.create(person(null, "Bruno Rocha"));
+        service.create(person(null, "Fulano de Tal"));
+        service.create(person(7L, "Ciclano de Tal"));
+        service.patch(1L, new PersonPatchDto("Bruno Rocha Jr", null, null));
+        service.update(2L, person(2L, "Fulano Atualizado"));
+        service.delete(7L);
+
+        restart();
+
+        assertThat(service.findAll())
+                .extracting(PersonDto::name)
+                .containsExactly("Bruno Rocha Jr", "Fulano Atualizado");
+        assertThat(service.create(person(null, "Novo")).id()).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldRecoverLocationAndUpdateTime() {
+        service.create(new PersonDto(null, "Bruno Rocha", LocalDate.of(1985, 12, 9), LocalDate.of(2020, 1, 1),
+                -23.5505, -46.6333, null));
+        service.patch(1L, new PersonPatchDto(null, null, null, -22.9068, -43.1729));
+        PersonDto before = service.findById(1L);
+
+        journal.snapshot(true);
+        service.create(new PersonDto(null, "Fulano de Tal", LocalDate.of(1985, 12, 9), LocalDate.of(2020, 1, 1),
+                -15.7939, -47.8828, null));
+
+        restart();
+
+        assertThat(service.findById(1L)).isEqualTo(before);
+        assertThat(service.findById(2L).latitude()).isEqualTo(-15.7939);
+        assertThat(service.findNearby(-22.9, -43.17, 5_000, null))
+                .extracting(hit -> hit.person().id())
+                .containsExactly(1L);
+    }
+
+    @Test
+    void shouldRecoverFromSnapshotAndLogTail() {
+        IntStream.rangeClosed(1, 200).forEach(i -> service.create(person(null, "Person " + i)));
+
+        journal.snapshot(true);
+
+        service.delete(1L);
+        service.patch(2L, new PersonPatchDto("Renamed", null, null));
+
+        restart();
+
+        assertThat(service.findAll()).hasSize(199);
+        assertThat(service.findById(2L).name()).isEqualTo("Renamed");
+        assertThat(service.create(person(null, "Next")).id()).isEqualTo(201L);
+    }
+
+    @Test
+    void shouldRestartTwiceWithoutWritesInBetween() {
+        service.create(person(null, "Bruno Rocha"));
+
+        restart();
+        restart();
+
+        assertThat(service.findAll())
+                .extracting(PersonDto::name)
+                .containsExactly("Bruno Rocha");
+        assertThat(service.create(person(null, "Novo")).id()).isEqualTo(2L);
+
+        restart();
+
+        assertThat(service.findAll()).hasSize(2);
+    }
+
+    @Test
+    void shouldNotReportWritesAfterCloseAsDurable() {
+        journal.close();
+
+        assertThatThrownBy(() -> service.create(person(null, "Bruno Rocha")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("forced to disk");
+    }
+
+    @Test
+    void shouldDropSegmentsCoveredBySnapshot() throws Exception {
+        IntStream.rangeClosed(1, 500).forEach(i -> service.create(person(null, "Person " + i)));
+
+        assertThat(files(".wal")).isGreaterThan(1);
+
+        journal.snapshot(true);
+
+        assertThat(files(".wal")).isEqualTo(1);
+        assertThat(files(".snapshot")).isEqualTo(1);
+    }
+
+    private void start() {
+        SalaryProperties salaryProperties = new SalaryProperties();
+        journal = new MappedPersonJournal(properties);
+        service = new PersonService(
+                new InMemoryPersonRepository(),
+                new SalaryCalculator(salaryProperties),
+                journal,
+                new Today(Clock.systemDefaultZone()),
+                new PersonResultCache(1000),
+                new PersonNearCache(1000, Duration.ofMinutes(5)),
+                new PersonChangeFeed(1024),
+                new IdAllocator(new InMemoryIdBlockSource(), 100)
+        );
+        journal.recover(service);
+    }
+
+    private void restart() {
+        journal.close();
+        start();
+    }
+
+    private long files(String suffix) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(suffix)).count();
+        }
+    }
+
+    private static PersonDto person(Long id, String name) {
+        return new PersonDto(
+                id,
+                name,
+                LocalDate.of(1985, 12, 9),
+                LocalDate.of(2020, 1, 1)
+        );
+    }
+}
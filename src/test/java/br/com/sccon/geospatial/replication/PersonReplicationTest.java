@@ -0,0 +1,291 @@
+package br.com.sccon.geospatial.replication;
+
+import br.com.sccon.geospatial.GeospatialApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A leader and its followers running in this JVM, driven over HTTP. The
+ * leader keeps only a short change feed, so followers started after a few
+ * writes can only catch up from a snapshot.
+ */
+class PersonReplicationTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(20);
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @AfterEach
+    void stopNodes() {
+        nodes.reversed().forEach(ConfigurableApplicationContext::close);
+        http.close();
+    }
+
+    @Test
+    void shouldCatchUpFromSnapshotAndFollowChanges() throws Exception {
+        URI leader = start("--geospatial.replication.role=leader", "--geospatial.changes.capacity=64");
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(create(leader, "Copied " + i).statusCode()).isEqualTo(201);
+        }
+
+        URI follower = follower(leader, "5s");
+        awaitSame(leader, follower);
+
+        assertThat(send(follower, "GET", "v1/persons/1", null).headers().firstValue(ReplicaFilter.STALENESS_HEADER))
+                .isPresent();
+
+        assertThat(send(leader, "PATCH", "v1/persons/1", "{\"name\":\"Renamed\"}").statusCode()).isEqualTo(200);
+        assertThat(send(leader, "DELETE", "v1/persons/2", null).statusCode()).isEqualTo(204);
+        assertThat(create(leader, "Created later").statusCode()).isEqualTo(201);
+
+        awaitSame(leader, follower);
+        assertThat(send(follower, "GET", "v1/persons/2", null).statusCode()).isEqualTo(404);
+        assertThat(objectMapper.readTree(send(follower, "GET", "v1/persons/1", null).body()).get("name").asText())
+                .isEqualTo("Renamed");
+        assertThat(send(follower, "GET", "v1/persons/search?q=created", null).body()).contains("Created later");
+    }
+
+    @Test
+    void shouldConvergeWhenCopiedDuringWrites() throws Exception {
+        URI leader = start("--geospatial.replication.role=leader");
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+
+            for (int w = 0; w < 2; w++) {
+                SplittableRandom random = new SplittableRandom(w);
+
+                writers.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        long id = 1_000 + random.nextInt(200);
+                        int pick = random.nextInt(3);
+
+                        if (pick == 0) {
+                            send(leader, "DELETE", "v1/persons/" + id, null);
+                        } else if (pick == 1) {
+                            send(leader, "PATCH", "v1/persons/" + id, "{\"name\":\"Moving " + random.nextInt() + "\"}");
+                        } else {
+                            send(leader, "POST", "v1/persons", "{\"id\":" + id + ",\"name\":\"Moving\","
+                                    + "\"birthDate\":\"1990-01-01\",\"admissionDate\":\"2020-01-01\"}");
+                        }
+                    }
+
+                    return null;
+                }));
+            }
+
+            TimeUnit.MILLISECONDS.sleep(300);
+            URI follower = follower(leader, "5s");
+            TimeUnit.MILLISECONDS.sleep(700);
+
+            writing.set(false);
+
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+
+            awaitSame(leader, follower);
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldHandOutTheLeadersETags() throws Exception {
+        URI leader = start("--geospatial.replication.role=leader");
+
+        for (int i = 0; i < 10; i++) {
+            create(leader, "Tagged " + i);
+        }
+
+        assertThat(send(leader, "DELETE", "v1/persons/2", null).statusCode()).isEqualTo(204);
+
+        URI follower = follower(leader, "5s");
+        awaitSame(leader, follower);
+
+        assertThat(etag(follower, "v1/persons")).isEqualTo(etag(leader, "v1/persons"));
+
+        String copied = etag(follower, "v1/persons/1");
+        HttpResponse<String> updated = http.send(
+                HttpRequest.newBuilder(leader.resolve("v1/persons/1"))
+                        .header("Content-Type", "application/json")
+                        .header("If-Match", copied)
+                        .PUT(HttpRequest.BodyPublishers.ofString(
+                                "{\"name\":\"Tagged again\",\"birthDate\":\"1990-01-01\",\"admissionDate\":\"2020-01-01\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        assertThat(updated.statusCode()).isEqualTo(200);
+
+        String current = updated.headers().firstValue("ETag").orElseThrow();
+        await(() -> {
+            HttpResponse<String> unchanged = send(follower, "GET", "v1/persons/1", null, "If-None-Match", current);
+            return unchanged.statusCode() == 304;
+        });
+
+        assertThat(send(leader, "DELETE", "v1/persons/3", null).statusCode()).isEqualTo(204);
+        awaitSame(leader, follower);
+        assertThat(etag(follower, "v1/persons")).isEqualTo(etag(leader, "v1/persons"));
+    }
+
+    @Test
+    void shouldRefuseWritesOnFollower() throws Exception {
+        URI leader = start("--geospatial.replication.role=leader");
+        URI follower = follower(leader, "5s");
+        awaitSame(leader, follower);
+
+        HttpResponse<String> refused = create(follower, "Refused");
+
+        assertThat(refused.statusCode()).isEqualTo(405);
+        assertThat(objectMapper.readTree(refused.body()).get("message").asText())
+                .startsWith("This node is a read-only replica");
+        assertThat(send(follower, "DELETE", "v1/persons/1", null).statusCode()).isEqualTo(405);
+        assertThat(send(leader, "GET", "v1/persons/1", null).statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldRefuseReadsOnceTooFarBehind() throws Exception {
+        URI leader = start("--geospatial.replication.role=leader");
+        URI follower = follower(leader, "1s");
+        awaitSame(leader, follower);
+
+        nodes.getFirst().close();
+
+        await(() -> send(follower, "GET", "v1/persons/1", null).statusCode() == 503);
+        assertThat(objectMapper.readTree(send(follower, "GET", "v1/persons", null).body()).get("message").asText())
+                .isEqualTo("This replica is more than PT1S behind the leader");
+    }
+
+    @Test
+    void shouldTellFollowersThatFellOutOfTheFeed() throws Exception {
+        URI leader = start("--geospatial.replication.role=leader", "--geospatial.changes.capacity=16");
+
+        for (int i = 0; i < 40; i++) {
+            create(leader, "Overrun " + i);
+        }
+
+        HttpResponse<InputStream> stream = http.send(
+                HttpRequest.newBuilder(leader.resolve("v1/persons/replication/changes?after=0")).build(),
+                HttpResponse.BodyHandlers.ofInputStream()
+        );
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(stream.body(), StandardCharsets.UTF_8))) {
+            assertThat(objectMapper.readTree(lines.readLine()).get("type").asText()).isEqualTo("OVERRUN");
+        }
+
+        assertThat(send(leader, "GET", "v1/persons/replication/changes?after=100000", null).statusCode())
+                .isEqualTo(400);
+    }
+
+    private URI follower(URI leader, String maxStaleness) throws IOException {
+        return start(
+                "--geospatial.replication.role=follower",
+                "--geospatial.replication.leader=" + leader,
+                "--geospatial.replication.max-staleness=" + maxStaleness,
+                "--geospatial.replication.retry-interval=100ms"
+        );
+    }
+
+    private URI start(String... args) throws IOException {
+        int port;
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--server.port=" + port);
+
+        nodes.add(new SpringApplicationBuilder(GeospatialApplication.class).run(arguments.toArray(String[]::new)));
+        return URI.create("http://localhost:" + port + "/geospatial/");
+    }
+
+    /**
+     * Waits until the follower serves the same collection as the leader.
+     */
+    private void awaitSame(URI leader, URI follower) throws Exception {
+        await(() -> {
+            HttpResponse<String> copy = send(follower, "GET", "v1/persons", null);
+            return copy.statusCode() == 200 && copy.body().equals(send(leader, "GET", "v1/persons", null).body());
+        });
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+
+    private HttpResponse<String> create(URI node, String name) {
+        return send(node, "POST", "v1/persons",
+                "{\"name\":\"" + name + "\",\"birthDate\":\"1990-01-01\",\"admissionDate\":\"2020-01-01\"}");
+    }
+
+    private String etag(URI node, String path) {
+        return send(node, "GET", path, null).headers().firstValue("ETag").orElseThrow();
+    }
+
+    private HttpResponse<String> send(URI node, String method, String path, String body, String... headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(node.resolve(path));
+
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+
+        try {
+            return http.send(
+                    request.method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(body)).build(),
+                    HttpResponse.BodyHandlers.ofString()
+            );
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.sccon.geospatial.repository;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarPersonRepositoryTest {
+
+    private final ColumnarPersonRepository repository = new ColumnarPersonRepository();
+
+    @Test
+    void shouldMatchReferenceMapUnderRandomMutations() {
+        Map<Long, Person> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(5_000);
+
+            switch (random.nextInt(3)) {
+                case 0, 1 -> {
+                    Person person = person(id, "Name " + random.nextInt(1_000) + " ção");
+                    repository.compute(id, existing -> person);
+                    reference.put(id, person);
+                }
+                default -> {
+                    repository.computeIfPresent(id, existing -> null);
+                    reference.remove(id);
+                }
+            }
+        }
+
+        assertThat(repository.count()).isEqualTo(reference.size());
+
+        reference.forEach((id, expected) -> {
+            Person actual = repository.findById(id).orElseThrow();
+            assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        });
+
+        List<Person> visited = new ArrayList<>();
+        repository.forEach(visited::add);
+        assertThat(visited).hasSize(reference.size());
+
+        assertThat(repository.streamOrderedByName(null).map(Person::getName).toList())
+                .hasSize(reference.size())
+                .isSorted();
+    }
+
+    @Test
+    void shouldKeepNullableColumns() {
+        repository.compute(1L, existing -> new Person(1L, "Bruno Rocha", null, null));
+
+        Person person = repository.findById(1L).orElseThrow();
+
+        assertThat(person.getBirthDate()).isNull();
+        assertThat(person.getAdmissionDate()).isNull();
+        assertThat(person.getLatitude()).isNull();
+        assertThat(person.getLongitude()).isNull();
+        assertThat(person.getUpdatedAt()).isNull();
+    }
+
+    @Test
+    void shouldServeConsistentReadsWhileWriting() throws Exception {
+        IntStream.range(0, 1_000).forEach(i ->
+                repository.compute(i, existing -> person(i, "Person " + i))
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int round = 0; round < 50; round++) {
+                    for (long id = 0; id < 1_000; id++) {
+                        long current = id;
+                        repository.computeIfPresent(id, p -> person(current, "Person " + current + " r" + p.getName().length()));
+                    }
+                }
+            });
+
+            while (!writer.isDone()) {
+                for (long id = 0; id < 1_000; id++) {
+                    Person person = repository.findById(id).orElseThrow();
+                    assertThat(person.getId()).isEqualTo(id);
+                    assertThat(person.getName()).startsWith("Person " + id);
+                }
+            }
+
+            writer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldUndoWritesWhoseStoredStepThrows() {
+        Person bruno = person(1L, "Bruno Rocha");
+        repository.compute(1L, existing -> bruno);
+        repository.compute(2L, existing -> person(2L, "Carla Dias"));
+
+        assertThatThrownBy(() -> repository.compute(3L, failing(person(3L, "Ana Lima"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> repository.compute(1L, failing(person(1L, "Zeca Rocha"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> repository.compute(2L, failing(null)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.count()).isEqualTo(2);
+        assertThat(repository.findById(3L)).isEmpty();
+        assertThat(repository.findById(1L).orElseThrow()).usingRecursiveComparison().isEqualTo(bruno);
+        assertThat(repository.streamOrderedByName(null).map(Person::getName))
+                .containsExactly("Bruno Rocha", "Carla Dias");
+    }
+
+    private static PersonChange failing(Person person) {
+        return PersonChange.of(existing -> person, (previous, stored) -> {
+            throw new IllegalStateException("journal unavailable");
+        });
+    }
+
+    private static Person person(long id, String name) {
+        boolean located = id % 3 != 0;
+
+        return Person.builder()
+                .id(id)
+                .name(name)
+                .birthDate(LocalDate.ofEpochDay(id))
+                .admissionDate(LocalDate.ofEpochDay(id + 10_000))
+                .latitude(located ? -23.5 + id / 10_000.0 : null)
+                .longitude(located ? -46.6 - id / 10_000.0 : null)
+                .version(id + 1)
+                .updatedAt(Instant.ofEpochMilli(1_700_000_000_000L + id))
+                .build();
+    }
+}
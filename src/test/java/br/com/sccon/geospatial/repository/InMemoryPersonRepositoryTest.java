@@ -0,0 +1,44 @@
+package br.com.sccon.geospatial.repository;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryPersonRepositoryTest {
+
+    private final InMemoryPersonRepository repository = new InMemoryPersonRepository();
+
+    @Test
+    void shouldUndoWritesWhoseStoredStepThrows() {
+        Person bruno = person(1L, "Bruno Rocha");
+        repository.compute(1L, existing -> bruno);
+        repository.compute(2L, existing -> person(2L, "Carla Dias"));
+
+        assertThatThrownBy(() -> repository.compute(3L, failing(person(3L, "Ana Lima"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> repository.compute(1L, failing(person(1L, "Zeca Rocha"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> repository.compute(2L, failing(null)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.count()).isEqualTo(2);
+        assertThat(repository.findById(3L)).isEmpty();
+        assertThat(repository.findById(1L)).containsSame(bruno);
+        assertThat(repository.streamOrderedByName(null).map(Person::getName))
+                .containsExactly("Bruno Rocha", "Carla Dias");
+    }
+
+    private static PersonChange failing(Person person) {
+        return PersonChange.of(existing -> person, (previous, stored) -> {
+            throw new IllegalStateException("journal unavailable");
+        });
+    }
+
+    private static Person person(long id, String name) {
+        return new Person(id, name, LocalDate.of(1985, 12, 9), LocalDate.of(2020, 1, 1));
+    }
+}
@@ -0,0 +1,331 @@
+package br.com.sccon.geospatial.repository;
+
+import br.com.sccon.geospatial.GeospatialApplication;
+import br.com.sccon.geospatial.index.PersonNameIndex;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.service.PersonService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessException;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcPersonRepositoryTest {
+
+    private static final String[] NAMES = {"Ana", "ana", "Ângela", "Bruno", "bruno", "Zé", "Çá", "Ana Maria"};
+
+    private JdbcStoreProperties properties;
+
+    private HikariDataSource dataSource;
+
+    private JdbcPersonRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JdbcStoreProperties();
+        properties.setUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        // small pages and batches so every walk and bulk write spans several of them
+        properties.setPageSize(7);
+        properties.setBatchSize(3);
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setMaximumPoolSize(4);
+
+        repository = new JdbcPersonRepository(dataSource, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void shouldMatchInMemoryEngineUnderRandomMutations() {
+        InMemoryPersonRepository reference = new InMemoryPersonRepository();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 3_000; i++) {
+            long id = random.nextInt(300);
+
+            if (random.nextInt(3) < 2) {
+                Person person = person(id, NAMES[random.nextInt(NAMES.length)]);
+                repository.compute(id, existing -> person);
+                reference.compute(id, existing -> person);
+            } else {
+                repository.computeIfPresent(id, existing -> null);
+                reference.computeIfPresent(id, existing -> null);
+            }
+        }
+
+        assertThat(repository.count()).isEqualTo(reference.count());
+
+        reference.forEach(expected ->
+                assertThat(repository.findById(expected.getId()).orElseThrow())
+                        .usingRecursiveComparison()
+                        .isEqualTo(expected)
+        );
+
+        List<Person> visited = new ArrayList<>();
+        repository.forEach(visited::add);
+        assertThat(visited).hasSize((int) reference.count());
+        assertThat(repository.stream().parallel().count()).isEqualTo(reference.count());
+
+        assertThat(keys(repository, null)).isEqualTo(keys(reference, null));
+    }
+
+    @Test
+    void shouldResumeNameOrderStrictlyAfterKey() {
+        InMemoryPersonRepository reference = new InMemoryPersonRepository();
+
+        for (long id = 1; id <= 40; id++) {
+            Person person = person(id, NAMES[(int) (id % NAMES.length)]);
+            repository.compute(id, existing -> person);
+            reference.compute(id, existing -> person);
+        }
+
+        for (PersonNameIndex.Key after : List.of(
+                new PersonNameIndex.Key("Ana", 9),
+                new PersonNameIndex.Key("Bruno", 0),
+                new PersonNameIndex.Key("B", 100),
+                new PersonNameIndex.Key("zzz", 1)
+        )) {
+            assertThat(keys(repository, after)).isEqualTo(keys(reference, after));
+        }
+    }
+
+    @Test
+    void shouldKeepNullableColumnsAndInstantPrecision() {
+        Instant updatedAt = Instant.parse("2026-03-15T12:00:00.123456789Z");
+
+        repository.compute(1L, existing -> new Person(1L, "Bruno Rocha", null, null));
+        repository.compute(2L, existing -> person(2L, "Ana").withUpdatedAt(updatedAt));
+
+        Person person = repository.findById(1L).orElseThrow();
+
+        assertThat(person.getBirthDate()).isNull();
+        assertThat(person.getAdmissionDate()).isNull();
+        assertThat(person.getLatitude()).isNull();
+        assertThat(person.getLongitude()).isNull();
+        assertThat(person.getUpdatedAt()).isNull();
+        assertThat(repository.findById(2L).orElseThrow().getUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(repository.findById(3L)).isEmpty();
+    }
+
+    @Test
+    void shouldApplyBatchAsIfComputedInOrder() {
+        repository.compute(1L, existing -> person(1L, "Ana"));
+        repository.compute(2L, existing -> person(2L, "Bruno"));
+
+        long[] ids = {1, 2, 3, 4, 3, 5, 6, 7};
+        List<Person> seen = new ArrayList<>();
+
+        repository.computeAll(ids, i -> existing -> {
+            seen.add(existing);
+
+            return switch (i) {
+                case 0 -> existing.withVersion(10);
+                case 1 -> null;
+                case 4 -> existing.withVersion(30);
+                default -> person(ids[i], "Batch " + i);
+            };
+        });
+
+        // the second remapping of id 3 sees the first one's result
+        assertThat(seen.get(4).getName()).isEqualTo("Batch 2");
+        assertThat(repository.findById(1L).orElseThrow().getVersion()).isEqualTo(10);
+        assertThat(repository.findById(2L)).isEmpty();
+        assertThat(repository.findById(3L).orElseThrow().getVersion()).isEqualTo(30);
+        assertThat(repository.count()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldKeepWritesBeforeFailingRemappingInBatch() {
+        assertThatThrownBy(() -> repository.computeAll(new long[]{1, 2, 3}, i -> existing -> {
+            if (i == 2) {
+                throw new IllegalStateException("rejected");
+            }
+
+            return person(i + 1L, "Person " + i);
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.findById(1L)).isPresent();
+        assertThat(repository.findById(2L)).isPresent();
+        assertThat(repository.findById(3L)).isEmpty();
+    }
+
+    @Test
+    void shouldReportStoredChangesOnlyAfterTheWriteWentThrough() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE person ADD CONSTRAINT person_not_rejected CHECK (name <> 'Rejected')");
+        }
+
+        List<Person> stored = new ArrayList<>();
+        PersonChange rejected = PersonChange.of(existing -> person(1L, "Rejected"), (previous, person) -> stored.add(person));
+
+        assertThatThrownBy(() -> repository.compute(1L, rejected)).isInstanceOf(DataAccessException.class);
+        assertThat(stored).isEmpty();
+        assertThat(repository.findById(1L)).isEmpty();
+
+        assertThatThrownBy(() -> repository.computeAll(new long[]{2, 3, 1}, i -> i == 2
+                ? rejected
+                : PersonChange.of(existing -> person(i + 2L, "Accepted"), (previous, person) -> stored.add(person))
+        )).isInstanceOf(DataAccessException.class);
+        assertThat(stored).isEmpty();
+        assertThat(repository.count()).isZero();
+
+        repository.computeAll(new long[]{2, 3}, i ->
+                PersonChange.of(existing -> person(i + 2L, "Accepted"), (previous, person) -> stored.add(person)));
+        assertThat(stored).extracting(Person::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void shouldNotLoseConcurrentUpdatesToTheSameIds() throws Exception {
+        for (long id = 1; id <= 4; id++) {
+            long current = id;
+            repository.compute(id, existing -> person(current, "Person " + current).withVersion(0));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+
+            for (int w = 0; w < 4; w++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        long id = 1 + i % 4;
+
+                        if (i % 10 == 0) {
+                            repository.computeAll(new long[]{id, 5 - id}, k -> p -> p.withVersion(p.getVersion() + 1));
+                        } else {
+                            repository.computeIfPresent(id, p -> p.withVersion(p.getVersion() + 1));
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long total = 0;
+
+        for (long id = 1; id <= 4; id++) {
+            total += repository.findById(id).orElseThrow().getVersion();
+        }
+
+        // 180 single increments and 20 batches of two per writer
+        assertThat(total).isEqualTo(4 * (180 + 20 * 2));
+    }
+
+    @Test
+    void shouldRefuseASecondWriterUntilTheFirstCloses() {
+        assertThatThrownBy(() -> new JdbcPersonRepository(dataSource, properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("in use by another instance");
+
+        repository.close();
+        new JdbcPersonRepository(dataSource, properties).close();
+    }
+
+    @Test
+    void shouldRefuseWritesOnceTheOwnerConnectionIsGone() throws Exception {
+        repository.compute(1L, existing -> person(1L, "Bruno Rocha"));
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeQuery(
+                    "SELECT ABORT_SESSION(SESSION_ID) FROM INFORMATION_SCHEMA.SESSIONS WHERE CONTAINS_UNCOMMITTED"
+            ).close();
+        }
+
+        assertThatThrownBy(() -> repository.compute(2L, existing -> person(2L, "Carla Dias")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("owner lock");
+        assertThat(repository.findById(2L)).isEmpty();
+    }
+
+    @Test
+    void shouldIndexRowsLeftInTheDatabaseOnRestart(@TempDir Path directory) {
+        String[] args = {
+                "--server.port=0",
+                "--geospatial.store.engine=jdbc",
+                "--geospatial.store.jdbc.url=jdbc:h2:file:" + directory.resolve("persons")
+        };
+
+        try (ConfigurableApplicationContext first = new SpringApplicationBuilder(GeospatialApplication.class).run(args)) {
+            PersonService service = first.getBean(PersonService.class);
+
+            assertThat(first.getBean(PersonRepository.class)).isInstanceOf(JdbcPersonRepository.class);
+            List<PersonDto> created = service.createAll(List.of(
+                    new PersonDto(null, "Maria Souza", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)),
+                    new PersonDto(null, "Maria Lima", LocalDate.of(1991, 1, 1), LocalDate.of(2021, 1, 1)),
+                    new PersonDto(1L, "Taken", LocalDate.of(1991, 1, 1), LocalDate.of(2021, 1, 1))
+            ));
+
+            assertThat(created).hasSize(3);
+            assertThat(created.subList(0, 2)).doesNotContainNull();
+            assertThat(created.get(2)).isNull();
+        }
+
+        try (ConfigurableApplicationContext second = new SpringApplicationBuilder(GeospatialApplication.class).run(args)) {
+            PersonService service = second.getBean(PersonService.class);
+
+            // three seeded on the first run, which the second does not repeat
+            assertThat(service.count()).isEqualTo(5);
+            assertThat(service.search("Maria", null)).hasSize(2);
+            assertThat(service.findPage(null, 3).items()).extracting(PersonDto::name)
+                    .containsExactly("Bruno Rocha", "Ciclano de Tal", "Fulano de Tal");
+
+            PersonDto created = service.create(new PersonDto(null, "Novo", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+            assertThat(created.id()).isGreaterThan(3);
+        }
+    }
+
+    private static List<PersonNameIndex.Key> keys(PersonRepository repository, PersonNameIndex.Key after) {
+        return repository.streamOrderedByName(after)
+                .map(person -> new PersonNameIndex.Key(person.getName(), person.getId()))
+                .toList();
+    }
+
+    private static Person person(long id, String name) {
+        boolean located = id % 3 != 0;
+
+        return Person.builder()
+                .id(id)
+                .name(name)
+                .birthDate(LocalDate.ofEpochDay(id))
+                .admissionDate(LocalDate.ofEpochDay(id + 10_000))
+                .latitude(located ? -23.5 + id / 10_000.0 : null)
+                .longitude(located ? -46.6 - id / 10_000.0 : null)
+                .version(id + 1)
+                .updatedAt(Instant.ofEpochMilli(1_700_000_000_000L + id))
+                .build();
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.exception.BusinessException;
+import br.com.sccon.geospatial.model.dto.DistributionDto;
+import br.com.sccon.geospatial.model.dto.HistogramBucketDto;
+import br.com.sccon.geospatial.model.dto.PersonAnalyticsDto;
+import br.com.sccon.geospatial.model.dto.PersonFilterDto;
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import br.com.sccon.geospatial.repository.ColumnarPersonRepository;
+import br.com.sccon.geospatial.repository.PersonRepository;
+import br.com.sccon.geospatial.util.SalaryProperties;
+import br.com.sccon.geospatial.util.TestClock;
+import br.com.sccon.geospatial.util.Today;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class PersonAnalyticsServiceTest {
+
+    private final LocalDate today = LocalDate.of(2026, 3, 15);
+
+    private SalaryCalculator salaryCalculator;
+
+    private PersonAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        SalaryProperties salaryProperties = new SalaryProperties();
+        salaryProperties.setMinimumWage(new BigDecimal("1558.00"));
+        salaryProperties.setAnnualIncreaseRate(new BigDecimal("0.18"));
+        salaryProperties.setAnnualFixedIncrease(new BigDecimal("500.00"));
+
+        salaryCalculator = new SalaryCalculator(salaryProperties);
+
+        PersonRepository repository = new ColumnarPersonRepository();
+        repository.compute(1L, p -> person(1L, "Ana", 20, 0));
+        repository.compute(2L, p -> person(2L, "Bruno", 25, 2));
+        repository.compute(3L, p -> person(3L, "Bruna", 31, 2));
+        repository.compute(4L, p -> person(4L, "Carla", 42, 10));
+        repository.compute(5L, p -> person(5L, "Diego", 58, 30));
+
+        service = new PersonAnalyticsService(
+                repository,
+                salaryCalculator,
+                new Today(TestClock.at(today, LocalTime.NOON))
+        );
+    }
+
+    // ==================== AGE ====================
+
+    @Test
+    void shouldSummarizeAgesOfEveryone() {
+        PersonAnalyticsDto<Long> analytics = service.age(AgeEnum.YEARS, null, null);
+
+        assertThat(analytics.output()).isEqualTo("years");
+        assertThat(analytics.count()).isEqualTo(5);
+        assertThat(analytics.min()).isEqualTo(20L);
+        assertThat(analytics.max()).isEqualTo(58L);
+        assertThat(analytics.total()).isEqualTo(176L);
+        assertThat(analytics.average()).isEqualByComparingTo("35.20");
+        assertThat(analytics.percentiles())
+                .containsExactly(
+                        entry("p50", 31L),
+                        entry("p90", 58L),
+                        entry("p95", 58L),
+                        entry("p99", 58L)
+                );
+        assertThat(analytics.histogram()).containsExactly(
+                new HistogramBucketDto<>(20L, 30L, 2),
+                new HistogramBucketDto<>(30L, 40L, 1),
+                new HistogramBucketDto<>(40L, 50L, 1),
+                new HistogramBucketDto<>(50L, 60L, 1)
+        );
+    }
+
+    @Test
+    void shouldApplyFilterAndBucketWidth() {
+        PersonFilterDto filter = new PersonFilterDto("BRU", null, null, null, null);
+
+        PersonAnalyticsDto<Long> analytics = service.age(AgeEnum.YEARS, filter, 100L);
+
+        assertThat(analytics.count()).isEqualTo(2);
+        assertThat(analytics.total()).isEqualTo(56L);
+        assertThat(analytics.histogram()).containsExactly(new HistogramBucketDto<>(0L, 100L, 2));
+    }
+
+    @Test
+    void shouldReturnEmptyAnalyticsWhenNothingMatches() {
+        PersonFilterDto filter = new PersonFilterDto(null, today, null, null, null);
+
+        PersonAnalyticsDto<Long> analytics = service.age(AgeEnum.DAYS, filter, null);
+
+        assertThat(analytics.count()).isZero();
+        assertThat(analytics.min()).isNull();
+        assertThat(analytics.average()).isNull();
+        assertThat(analytics.histogram()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectNonPositiveBucketWidth() {
+        assertThatThrownBy(() -> service.age(AgeEnum.YEARS, null, 0L))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("bucketWidth must be greater than zero");
+
+        assertThatThrownBy(() -> service.salary(SalaryEnum.FULL, null, BigDecimal.ZERO))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    // ==================== SALARY ====================
+
+    @Test
+    void shouldSummarizeSalariesByTenure() {
+        PersonAnalyticsDto<BigDecimal> analytics = service.salary(SalaryEnum.FULL, null, null);
+
+        BigDecimal expectedTotal = salaryCalculator.salary(0)
+                .add(salaryCalculator.salary(2).multiply(BigDecimal.TWO))
+                .add(salaryCalculator.salary(10))
+                .add(salaryCalculator.salary(30));
+
+        assertThat(analytics.output()).isEqualTo("full");
+        assertThat(analytics.count()).isEqualTo(5);
+        assertThat(analytics.min()).isEqualTo(salaryCalculator.salary(0));
+        assertThat(analytics.max()).isEqualTo(salaryCalculator.salary(30));
+        assertThat(analytics.total()).isEqualByComparingTo(expectedTotal);
+        assertThat(analytics.percentiles().get("p50")).isEqualTo(salaryCalculator.salary(2));
+        assertThat(analytics.histogram())
+                .extracting(HistogramBucketDto::count)
+                .containsExactly(1L, 2L, 1L, 1L);
+        assertThat(analytics.histogram().getFirst().from()).isEqualByComparingTo("1000");
+        assertThat(analytics.histogram().getFirst().to()).isEqualByComparingTo("2000");
+    }
+
+    @Test
+    void shouldSummarizeMinimumWagesOfAdmittedRange() {
+        PersonFilterDto filter = new PersonFilterDto(null, null, null, today.minusYears(5), null);
+
+        PersonAnalyticsDto<BigDecimal> analytics = service.salary(SalaryEnum.MIN, filter, null);
+
+        assertThat(analytics.output()).isEqualTo("min");
+        assertThat(analytics.count()).isEqualTo(3);
+        assertThat(analytics.min()).isEqualTo(salaryCalculator.minimumWages(0));
+        assertThat(analytics.max()).isEqualTo(salaryCalculator.minimumWages(2));
+    }
+
+    // ==================== SHARDS ====================
+
+    @Test
+    void shouldSummarizeMergedShardsAsOneStore() {
+        PersonRepository odd = new ColumnarPersonRepository();
+        PersonRepository even = new ColumnarPersonRepository();
+        odd.compute(1L, p -> person(1L, "Ana", 20, 0));
+        even.compute(2L, p -> person(2L, "Bruno", 25, 2));
+        odd.compute(3L, p -> person(3L, "Bruna", 31, 2));
+        even.compute(4L, p -> person(4L, "Carla", 42, 10));
+        odd.compute(5L, p -> person(5L, "Diego", 58, 30));
+
+        List<PersonAnalyticsService> shards = List.of(shard(odd), shard(even));
+
+        DistributionDto ages = PersonAnalyticsService.merge(shards.stream()
+                .map(shard -> shard.ageDistribution(AgeEnum.DAYS, null, null))
+                .toList());
+        DistributionDto salaries = PersonAnalyticsService.merge(shards.stream()
+                .map(shard -> shard.tenureDistribution(SalaryEnum.FULL, null, null))
+                .toList());
+
+        assertThat(ages.size()).isEqualTo(5);
+        assertThat(service.summarizeAges(AgeEnum.DAYS, ages, null))
+                .isEqualTo(service.age(AgeEnum.DAYS, null, null));
+        assertThat(service.summarizeSalaries(SalaryEnum.FULL, salaries, null))
+                .isEqualTo(service.salary(SalaryEnum.FULL, null, null));
+    }
+
+    @Test
+    void shouldMergeEmptyDistributions() {
+        DistributionDto merged = PersonAnalyticsService.merge(List.of(DistributionDto.EMPTY, DistributionDto.EMPTY));
+
+        assertThat(merged.size()).isZero();
+        assertThat(service.summarizeAges(AgeEnum.YEARS, merged, null).count()).isZero();
+    }
+
+    private PersonAnalyticsService shard(PersonRepository repository) {
+        return new PersonAnalyticsService(repository, salaryCalculator, new Today(TestClock.at(today, LocalTime.NOON)));
+    }
+
+    private Person person(Long id, String name, int age, int tenure) {
+        return new Person(id, name, today.minusYears(age), today.minusYears(tenure));
+    }
+}
@@ -0,0 +1,170 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.id.IdAllocator;
+import br.com.sccon.geospatial.id.InMemoryIdBlockSource;
+import br.com.sccon.geospatial.model.dto.BulkResultDto;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.enums.BulkStatusEnum;
+import br.com.sccon.geospatial.persistence.PersonJournal;
+import br.com.sccon.geospatial.repository.InMemoryPersonRepository;
+import br.com.sccon.geospatial.util.SalaryProperties;
+import br.com.sccon.geospatial.util.Today;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonBulkServiceTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final AtomicInteger claims = new AtomicInteger();
+
+    private PersonService service;
+
+    private PersonBulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        SalaryProperties salaryProperties = new SalaryProperties();
+        salaryProperties.setMinimumWage(new BigDecimal("1558.00"));
+        salaryProperties.setAnnualIncreaseRate(new BigDecimal("0.18"));
+        salaryProperties.setAnnualFixedIncrease(new BigDecimal("500.00"));
+
+        service = new PersonService(
+                new InMemoryPersonRepository(),
+                new SalaryCalculator(salaryProperties),
+                PersonJournal.NONE,
+                new Today(Clock.systemDefaultZone()),
+                new PersonResultCache(1000),
+                new PersonNearCache(1000, Duration.ofMinutes(5)),
+                new PersonChangeFeed(1024),
+                new IdAllocator(new InMemoryIdBlockSource() {
+                    @Override
+                    public void claim(long id) {
+                        claims.incrementAndGet();
+                        super.claim(id);
+                    }
+                }, 100)
+        );
+
+        service.create(new PersonDto(1L, "Bruno Rocha", LocalDate.of(1985, 12, 9), LocalDate.of(2020, 1, 1)));
+        service.syncIdGenerator();
+
+        bulkService = new PersonBulkService(
+                service,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                objectMapper
+        );
+    }
+
+    @Test
+    void shouldReportEachRecordOfJsonArray() throws IOException {
+        List<BulkResultDto> results = ingest("""
+                [
+                  {"name":"Fulano de Tal","birthDate":"1990-01-01","admissionDate":"2020-01-01"},
+                  {"id":1,"name":"Duplicado","birthDate":"1990-01-01","admissionDate":"2020-01-01"},
+                  {"name":"","birthDate":"1990-01-01"},
+                  {"name":"Data Errada","birthDate":"01/01/1990","admissionDate":"2020-01-01"},
+                  {"id":10,"name":"Ciclano de Tal","birthDate":"1992-07-05","admissionDate":"2021-02-10"}
+                ]
+                """);
+
+        assertThat(results).containsExactly(
+                new BulkResultDto(0, BulkStatusEnum.CREATED, 2L, null),
+                new BulkResultDto(1, BulkStatusEnum.CONFLICT, 1L, "Person already exists with id: 1"),
+                new BulkResultDto(2, BulkStatusEnum.INVALID, null, "admissionDate is required; name is required"),
+                new BulkResultDto(3, BulkStatusEnum.INVALID, null, "Invalid value '01/01/1990' for field 'birthDate'"),
+                new BulkResultDto(4, BulkStatusEnum.CREATED, 10L, null)
+        );
+
+        assertThat(service.findById(2L).name()).isEqualTo("Fulano de Tal");
+        assertThat(service.findById(10L).name()).isEqualTo("Ciclano de Tal");
+        assertThat(service.findById(1L).name()).isEqualTo("Bruno Rocha");
+    }
+
+    @Test
+    void shouldClaimExplicitIdsOncePerBatch() {
+        claims.set(0);
+
+        List<PersonDto> created = service.createAll(LongStream.rangeClosed(1001, 1500)
+                .mapToObj(id -> new PersonDto(id, "Migrado " + id, LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)))
+                .toList());
+
+        assertThat(created).hasSize(500).doesNotContainNull();
+        assertThat(claims).hasValue(1);
+        assertThat(service.create(new PersonDto(null, "Gerado", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1))).id())
+                .isGreaterThan(1500);
+    }
+
+    @Test
+    void shouldIngestNdjsonAcrossBatches() throws IOException {
+        int count = PersonBulkService.BATCH_SIZE * 2 + 7;
+
+        String body = IntStream.range(0, count)
+                .mapToObj(i -> "{\"name\":\"Pessoa " + i + "\",\"birthDate\":\"1990-01-01\",\"admissionDate\":\"2020-01-01\"}")
+                .collect(Collectors.joining("\n", "", "\n"));
+
+        List<BulkResultDto> results = ingest(body);
+
+        assertThat(results).hasSize(count);
+        assertThat(results).allMatch(r -> r.status() == BulkStatusEnum.CREATED);
+        assertThat(results).extracting(BulkResultDto::index)
+                .containsExactlyElementsOf(IntStream.range(0, count).mapToObj(i -> (long) i).toList());
+        assertThat(results).extracting(BulkResultDto::id).doesNotHaveDuplicates();
+        assertThat(service.findAll()).hasSize(count + 1);
+
+        assertThat(service.create(new PersonDto(null, "Depois", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1))).id())
+                .isEqualTo(count + 2L);
+    }
+
+    @Test
+    void shouldStopAtMalformedInputKeepingPreviousRecords() throws IOException {
+        List<BulkResultDto> results = ingest("""
+                {"name":"Fulano de Tal","birthDate":"1990-01-01","admissionDate":"2020-01-01"}
+                {"name":"Quebrado",
+                """);
+
+        assertThat(results).containsExactly(
+                new BulkResultDto(0, BulkStatusEnum.CREATED, 2L, null),
+                new BulkResultDto(1, BulkStatusEnum.INVALID, null, "Malformed JSON request")
+        );
+    }
+
+    private List<BulkResultDto> ingest(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        bulkService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        return out.toString(StandardCharsets.UTF_8)
+                .lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, BulkResultDto.class);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.model.enums.ChangeTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonChangeFeedTest {
+
+    @Test
+    void shouldNumberChangesFromOneAndReadThemInOrder() {
+        PersonChangeFeed feed = new PersonChangeFeed(5);
+
+        feed.publish(ChangeTypeEnum.CREATED, 1L, 1, person(1L));
+        feed.publish(ChangeTypeEnum.UPDATED, 1L, 2, person(1L));
+        feed.publish(ChangeTypeEnum.DELETED, 1L, 3, null);
+
+        PersonChangeFeed.Change[] batch = new PersonChangeFeed.Change[10];
+
+        assertThat(feed.capacity()).isEqualTo(8);
+        assertThat(feed.lastSequence()).isEqualTo(3);
+        assertThat(feed.read(1, batch)).isEqualTo(3);
+        assertThat(batch[0].type()).isEqualTo(ChangeTypeEnum.CREATED);
+        assertThat(batch[2].sequence()).isEqualTo(3);
+        assertThat(batch[2].person()).isNull();
+        assertThat(feed.read(3, batch)).isEqualTo(1);
+        assertThat(feed.read(4, batch)).isZero();
+    }
+
+    @Test
+    void shouldReportOverrunOnceReaderIsALapBehind() {
+        PersonChangeFeed feed = new PersonChangeFeed(4);
+
+        for (long id = 1; id <= 6; id++) {
+            feed.publish(ChangeTypeEnum.CREATED, id, id, person(id));
+        }
+
+        PersonChangeFeed.Change[] batch = new PersonChangeFeed.Change[10];
+
+        assertThat(feed.firstAvailable()).isEqualTo(3);
+        assertThat(feed.read(2, batch)).isEqualTo(PersonChangeFeed.OVERRUN);
+        assertThat(feed.read(3, batch)).isEqualTo(4);
+        assertThat(batch[3].id()).isEqualTo(6L);
+    }
+
+    @Test
+    void shouldKeepEveryChangeOfConcurrentWritersWithoutGaps() throws InterruptedException {
+        int writers = 4;
+        int perWriter = 20_000;
+        PersonChangeFeed feed = new PersonChangeFeed(writers * perWriter);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int w = 0; w < writers; w++) {
+                long id = w;
+
+                executor.submit(() -> {
+                    start.await();
+
+                    for (long version = 1; version <= perWriter; version++) {
+                        feed.publish(ChangeTypeEnum.UPDATED, id, version, null);
+                    }
+                    return null;
+                });
+            }
+
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        List<PersonChangeFeed.Change> changes = new ArrayList<>();
+        PersonChangeFeed.Change[] batch = new PersonChangeFeed.Change[1000];
+
+        for (int read; (read = feed.read(changes.size() + 1L, batch)) > 0; ) {
+            changes.addAll(List.of(batch).subList(0, read));
+        }
+
+        assertThat(changes).hasSize(writers * perWriter);
+
+        Map<Long, Long> lastVersions = new HashMap<>();
+
+        for (int i = 0; i < changes.size(); i++) {
+            PersonChangeFeed.Change change = changes.get(i);
+
+            assertThat(change.sequence()).isEqualTo(i + 1L);
+            assertThat(change.version()).isEqualTo(lastVersions.getOrDefault(change.id(), 0L) + 1);
+            lastVersions.put(change.id(), change.version());
+        }
+    }
+
+    private static Person person(long id) {
+        return Person.builder().id(id).name("Person " + id).build();
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.model.entity.Person;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonNearCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldLoadOnceAndServeHitsUntilInvalidated() {
+        PersonNearCache cache = new PersonNearCache(10, Duration.ofMinutes(5), nanos::get);
+
+        Person first = cache.get(1L, this::load);
+
+        assertThat(cache.get(1L, this::load)).isSameAs(first);
+        assertThat(loads).hasValue(1);
+
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L, this::load)).isNotSameAs(first);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCacheMissingPersons() {
+        PersonNearCache cache = new PersonNearCache(10, Duration.ofMinutes(5), nanos::get);
+
+        assertThat(cache.get(1L, id -> null)).isNull();
+        assertThat(cache.get(1L, this::load)).isNotNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReloadAfterTtl() {
+        PersonNearCache cache = new PersonNearCache(10, Duration.ofMinutes(5), nanos::get);
+
+        cache.get(1L, this::load);
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldBoundSizeAndCountEvictions() {
+        PersonNearCache cache = new PersonNearCache(10, Duration.ofMinutes(5), nanos::get);
+
+        for (long id = 1; id <= 100; id++) {
+            cache.get(id, this::load);
+        }
+
+        cache.cleanUp();
+
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.stats().evictionCount()).isEqualTo(90);
+    }
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        PersonNearCache cache = new PersonNearCache(10, Duration.ofMinutes(5), nanos::get);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            Future<Person> leader = executor.submit(() -> cache.get(1L, id -> {
+                loading.countDown();
+                await(release);
+                return load(id);
+            }));
+
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<?>[] followers = new Future<?>[7];
+
+            for (int i = 0; i < followers.length; i++) {
+                followers[i] = executor.submit(() -> cache.get(1L, this::load));
+            }
+
+            release.countDown();
+
+            for (Future<?> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(leader.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldLoadEveryTimeWhenDisabled() {
+        PersonNearCache cache = new PersonNearCache(0, Duration.ofMinutes(5));
+
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().requestCount()).isZero();
+    }
+
+    private Person load(long id) {
+        loads.incrementAndGet();
+
+        return Person.builder()
+                .id(id)
+                .name("Person " + id)
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .admissionDate(LocalDate.of(2020, 1, 1))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
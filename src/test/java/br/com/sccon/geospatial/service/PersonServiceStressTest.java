@@ -0,0 +1,195 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.id.IdAllocator;
+import br.com.sccon.geospatial.id.InMemoryIdBlockSource;
+import br.com.sccon.geospatial.model.dto.AgeDto;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.dto.PersonPatchDto;
+import br.com.sccon.geospatial.model.dto.VersionedDto;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.persistence.PersonJournal;
+import br.com.sccon.geospatial.repository.ColumnarPersonRepository;
+import br.com.sccon.geospatial.repository.InMemoryPersonRepository;
+import br.com.sccon.geospatial.repository.JdbcPersonRepository;
+import br.com.sccon.geospatial.repository.JdbcStoreProperties;
+import br.com.sccon.geospatial.repository.PersonRepository;
+import br.com.sccon.geospatial.util.SalaryProperties;
+import br.com.sccon.geospatial.util.TestClock;
+import br.com.sccon.geospatial.util.Today;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed writers and readers on a few hot persons. Every write sets all
+ * fields from one generation number, so any read mixing two writes shows up
+ * as fields that disagree on it.
+ */
+class PersonServiceStressTest {
+
+    private static final int HOT_IDS = 8;
+
+    private static final int WRITES_PER_WRITER = 5_000;
+
+    private static final LocalDate BIRTH_BASE = LocalDate.of(1950, 1, 1);
+
+    private static final LocalDate ADMISSION_BASE = LocalDate.of(2000, 1, 1);
+
+    private final TestClock clock = TestClock.at(LocalDate.of(2026, 3, 15), LocalTime.NOON);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"map", "columnar", "jdbc"})
+    void shouldNeverServeTornPersonsUnderMixedLoad(String engine) throws Exception {
+        PersonService service = service(engine);
+
+        for (long id = 1; id <= HOT_IDS; id++) {
+            service.create(generation(id, 0));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+
+            for (int w = 0; w < 2; w++) {
+                Random random = new Random(w);
+
+                writers.add(executor.submit(() -> {
+                    for (int i = 1; i <= WRITES_PER_WRITER; i++) {
+                        long id = 1 + random.nextInt(HOT_IDS);
+                        int generation = random.nextInt(100_000);
+
+                        if (random.nextBoolean()) {
+                            service.update(id, generation(id, generation));
+                        } else {
+                            PersonDto next = generation(id, generation);
+                            service.patch(id, new PersonPatchDto(
+                                    next.name(), next.birthDate(), next.admissionDate(), next.latitude(), next.longitude()
+                            ));
+                        }
+                    }
+                }));
+            }
+
+            List<Future<Long>> readers = new ArrayList<>();
+
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    long[] lastVersions = new long[HOT_IDS + 1];
+                    long reads = 0;
+
+                    while (writing.get()) {
+                        for (long id = 1; id <= HOT_IDS; id++) {
+                            VersionedDto<PersonDto> read = service.findVersionedById(id);
+                            assertConsistent(read.body());
+                            assertThat(read.version()).isGreaterThanOrEqualTo(lastVersions[(int) id]);
+                            lastVersions[(int) id] = read.version();
+
+                            AgeDto age = service.calculateAge(id, AgeEnum.DAYS);
+                            assertThat(age.age()).isEqualTo(ChronoUnit.DAYS.between(
+                                    BIRTH_BASE.plusDays(generationOf(age.name())), clock.instant().atZone(clock.getZone()).toLocalDate()
+                            ));
+                        }
+
+                        service.stream().forEach(PersonServiceStressTest::assertConsistent);
+                        reads++;
+                    }
+
+                    return reads;
+                }));
+            }
+
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+
+            writing.set(false);
+
+            for (Future<Long> reader : readers) {
+                assertThat(reader.get()).isPositive();
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+
+        assertThat(service.version()).isEqualTo(HOT_IDS + 2L * WRITES_PER_WRITER);
+        service.stream().forEach(PersonServiceStressTest::assertConsistent);
+    }
+
+    private static PersonDto generation(long id, int generation) {
+        return new PersonDto(
+                id,
+                "Person " + id + " g" + generation,
+                BIRTH_BASE.plusDays(generation),
+                ADMISSION_BASE.plusDays(generation),
+                generation / 1_000_000.0,
+                -generation / 1_000_000.0,
+                null
+        );
+    }
+
+    private static void assertConsistent(PersonDto person) {
+        int generation = generationOf(person.name());
+
+        assertThat(person.name()).startsWith("Person " + person.id() + " g");
+        assertThat(person.birthDate()).isEqualTo(BIRTH_BASE.plusDays(generation));
+        assertThat(person.admissionDate()).isEqualTo(ADMISSION_BASE.plusDays(generation));
+        assertThat(person.latitude()).isEqualTo(generation / 1_000_000.0);
+        assertThat(person.longitude()).isEqualTo(-generation / 1_000_000.0);
+    }
+
+    private static int generationOf(String name) {
+        return Integer.parseInt(name.substring(name.lastIndexOf('g') + 1));
+    }
+
+    private PersonService service(String engine) {
+        SalaryProperties salaryProperties = new SalaryProperties();
+        salaryProperties.setMinimumWage(new BigDecimal("1558.00"));
+        salaryProperties.setAnnualIncreaseRate(new BigDecimal("0.18"));
+        salaryProperties.setAnnualFixedIncrease(new BigDecimal("500.00"));
+
+        PersonRepository repository = switch (engine) {
+            case "map" -> new InMemoryPersonRepository();
+            case "columnar" -> new ColumnarPersonRepository();
+            case "jdbc" -> {
+                JdbcStoreProperties properties = new JdbcStoreProperties();
+                properties.setUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+
+                JdbcDataSource dataSource = new JdbcDataSource();
+                dataSource.setURL(properties.getUrl());
+                dataSource.setUser(properties.getUsername());
+                yield new JdbcPersonRepository(dataSource, properties);
+            }
+            default -> throw new IllegalArgumentException(engine);
+        };
+
+        return new PersonService(
+                repository,
+                new SalaryCalculator(salaryProperties),
+                PersonJournal.NONE,
+                new Today(clock),
+                new PersonResultCache(100),
+                new PersonNearCache(100, Duration.ofMinutes(5)),
+                new PersonChangeFeed(1024),
+                new IdAllocator(new InMemoryIdBlockSource(), 100)
+        );
+    }
+}
@@ -0,0 +1,579 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.exception.BusinessException;
+import br.com.sccon.geospatial.exception.ConflictException;
+import br.com.sccon.geospatial.exception.NotFoundException;
+import br.com.sccon.geospatial.exception.PreconditionFailedException;
+import br.com.sccon.geospatial.id.IdAllocator;
+import br.com.sccon.geospatial.id.InMemoryIdBlockSource;
+import br.com.sccon.geospatial.model.dto.AgeDto;
+import br.com.sccon.geospatial.model.dto.AnniversaryDto;
+import br.com.sccon.geospatial.model.dto.PersonDistanceDto;
+import br.com.sccon.geospatial.model.dto.PersonDto;
+import br.com.sccon.geospatial.model.dto.PersonPageDto;
+import br.com.sccon.geospatial.model.dto.PersonPatchDto;
+import br.com.sccon.geospatial.model.dto.PersonSearchHitDto;
+import br.com.sccon.geospatial.model.dto.SalaryDto;
+import br.com.sccon.geospatial.model.entity.Person;
+import br.com.sccon.geospatial.model.enums.AgeEnum;
+import br.com.sccon.geospatial.model.enums.AnniversaryEnum;
+import br.com.sccon.geospatial.model.enums.ChangeTypeEnum;
+import br.com.sccon.geospatial.model.enums.SalaryEnum;
+import br.com.sccon.geospatial.model.enums.SearchMatchEnum;
+import br.com.sccon.geospatial.persistence.PersonJournal;
+import br.com.sccon.geospatial.repository.InMemoryPersonRepository;
+import br.com.sccon.geospatial.util.SalaryProperties;
+import br.com.sccon.geospatial.util.TestClock;
+import br.com.sccon.geospatial.util.Today;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersonServiceTest {
+
+    private final TestClock clock = TestClock.at(LocalDate.of(2026, 3, 15), LocalTime.of(23, 0));
+
+    private final PersonResultCache resultCache = new PersonResultCache(100);
+
+    private final PersonNearCache nearCache = new PersonNearCache(100, Duration.ofMinutes(5));
+
+    private final PersonChangeFeed changes = new PersonChangeFeed(8);
+
+    private SalaryCalculator salaryCalculator;
+
+    private PersonService service;
+
+    @BeforeEach
+    void setUp() {
+        SalaryProperties salaryProperties = new SalaryProperties();
+        salaryProperties.setMinimumWage(new BigDecimal("1558.00"));
+        salaryProperties.setAnnualIncreaseRate(new BigDecimal("0.18"));
+        salaryProperties.setAnnualFixedIncrease(new BigDecimal("500.00"));
+
+        salaryCalculator = new SalaryCalculator(salaryProperties);
+
+        service = new PersonService(
+                new InMemoryPersonRepository(),
+                salaryCalculator,
+                PersonJournal.NONE,
+                new Today(clock),
+                resultCache,
+                nearCache,
+                changes,
+                new IdAllocator(new InMemoryIdBlockSource(), 100)
+        );
+
+        service.create(person(1L, "Bruno Rocha"));
+        service.create(person(2L, "Fulano de Tal"));
+        service.create(person(3L, "Ciclano de Tal"));
+        service.syncIdGenerator();
+    }
+
+    // ==================== FIND ALL ====================
+
+    @Test
+    void shouldListPersonsOrderedByName() {
+        assertThat(names(service.findAll()))
+                .containsExactly("Bruno Rocha", "Ciclano de Tal", "Fulano de Tal");
+    }
+
+    @Test
+    void shouldKeepOrderAfterRenameAndDelete() {
+        service.patch(1L, new PersonPatchDto("Zeca Rocha", null, null));
+        service.update(2L, person(2L, "Alice de Tal"));
+        service.delete(3L);
+
+        assertThat(names(service.findAll()))
+                .containsExactly("Alice de Tal", "Zeca Rocha");
+    }
+
+    @Test
+    void shouldNotIndexRejectedCreate() {
+        assertThatThrownBy(() -> service.create(person(1L, "Duplicated")))
+                .isInstanceOf(ConflictException.class);
+
+        assertThat(names(service.findAll())).doesNotContain("Duplicated");
+    }
+
+    @Test
+    void shouldThrowNotFoundWhenDeletingTwice() {
+        service.delete(3L);
+
+        assertThatThrownBy(() -> service.delete(3L))
+                .isInstanceOf(NotFoundException.class)
+                .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+    }
+
+    @Test
+    void shouldGenerateIdsAboveExplicitOnesAndSkipClaimedIds() {
+        assertThat(service.create(person(null, "Dora")).id()).isEqualTo(4L);
+
+        service.create(person(6L, "Explicit"));
+
+        assertThat(service.create(person(null, "Eva")).id()).isEqualTo(5L);
+        assertThat(service.create(person(null, "Flora")).id()).isEqualTo(7L);
+        assertThat(service.lastGeneratedId()).isEqualTo(7L);
+    }
+
+    // ==================== VERSIONS ====================
+
+    @Test
+    void shouldBumpPersonAndCollectionVersionsOnWrites() {
+        long created = service.findVersionedById(1L).version();
+        long collection = service.version();
+
+        long updated = service.update(1L, person(1L, "Bruno R."), version -> true).version();
+        long patched = service.patch(1L, new PersonPatchDto(null, LocalDate.of(1986, 1, 1), null), version -> true).version();
+
+        assertThat(updated).isGreaterThan(created);
+        assertThat(patched).isGreaterThan(updated);
+        assertThat(service.findVersionedById(1L).version()).isEqualTo(patched);
+        assertThat(service.findVersionedById(2L).version()).isLessThan(updated);
+
+        service.delete(3L);
+
+        assertThat(service.version()).isGreaterThan(collection).isGreaterThan(patched);
+    }
+
+    @Test
+    void shouldNotReuseVersionWhenIdIsCreatedAgain() {
+        long before = service.findVersionedById(3L).version();
+
+        service.delete(3L);
+        service.create(person(3L, "Ciclano de Tal"));
+
+        assertThat(service.findVersionedById(3L).version()).isGreaterThan(before);
+    }
+
+    @Test
+    void shouldRejectUpdateWhenIfMatchIsStale() {
+        long current = service.findVersionedById(2L).version();
+
+        service.patch(2L, new PersonPatchDto("Beltrano", null, null), version -> version == current);
+
+        assertThatThrownBy(() -> service.update(2L, person(2L, "Lost Update"), version -> version == current))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        assertThat(service.findById(2L).name()).isEqualTo("Beltrano");
+    }
+
+    // ==================== CHANGES ====================
+
+    @Test
+    void shouldPublishEveryMutationInOrder() {
+        long first = changes.lastSequence() + 1;
+
+        PersonDto created = service.create(person(null, "Dora"));
+        service.patch(created.id(), new PersonPatchDto("Dora Rocha", null, null));
+        service.update(1L, person(1L, "Bruno R."));
+        service.delete(created.id());
+
+        PersonChangeFeed.Change[] batch = new PersonChangeFeed.Change[8];
+
+        assertThat(changes.read(first, batch)).isEqualTo(4);
+        assertThat(batch).extracting(change -> change == null ? null : change.type())
+                .startsWith(ChangeTypeEnum.CREATED, ChangeTypeEnum.UPDATED, ChangeTypeEnum.UPDATED, ChangeTypeEnum.DELETED);
+        assertThat(batch[1].person().getName()).isEqualTo("Dora Rocha");
+        assertThat(batch[2].id()).isEqualTo(1L);
+        assertThat(batch[3].person()).isNull();
+        assertThat(batch[3].version()).isEqualTo(service.version());
+        assertThat(batch[1].version()).isEqualTo(batch[0].version() + 1);
+    }
+
+    @Test
+    void shouldNotPublishFailedMutations() {
+        long last = changes.lastSequence();
+
+        assertThatThrownBy(() -> service.create(person(1L, "Duplicate")))
+                .isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> service.delete(99L))
+                .isInstanceOf(NotFoundException.class);
+
+        assertThat(changes.lastSequence()).isEqualTo(last);
+    }
+
+    @Test
+    void shouldNotPublishDeletionsTheJournalRejected() {
+        PersonJournal failing = () -> new PersonJournal.Transaction() {
+            @Override
+            public void upserted(Person person) {
+            }
+
+            @Override
+            public void deleted(long id) {
+                throw new IllegalStateException("journal unavailable");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        PersonService journaled = new PersonService(
+                new InMemoryPersonRepository(),
+                salaryCalculator,
+                failing,
+                new Today(clock),
+                resultCache,
+                nearCache,
+                changes,
+                new IdAllocator(new InMemoryIdBlockSource(), 100)
+        );
+        journaled.create(person(1L, "Bruno Rocha"));
+        long last = changes.lastSequence();
+
+        assertThatThrownBy(() -> journaled.delete(1L))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(changes.lastSequence()).isEqualTo(last);
+        assertThat(names(journaled.findAll())).containsExactly("Bruno Rocha");
+    }
+
+    // ==================== AGE AND SALARY ====================
+
+    @Test
+    void shouldCalculateAgeAndSalaryAsOfClockDate() {
+        assertThat(service.calculateAge(1L, AgeEnum.YEARS).age()).isEqualTo(40);
+        assertThat(service.calculateAge(1L, AgeEnum.MONTHS).age()).isEqualTo(483);
+        assertThat(service.calculateAge(1L, AgeEnum.DAYS).age())
+                .isEqualTo(LocalDate.of(1985, 12, 9).until(LocalDate.of(2026, 3, 15), ChronoUnit.DAYS));
+
+        assertThat(service.calculateSalary(1L, SalaryEnum.FULL).value()).isEqualTo(salaryCalculator.salary(6));
+        assertThat(service.calculateSalary(1L, SalaryEnum.MIN).value()).isEqualTo(salaryCalculator.minimumWages(6));
+    }
+
+    @Test
+    void shouldServeCachedResultsUntilMidnight() {
+        service.patch(1L, new PersonPatchDto(null, LocalDate.of(1986, 3, 16), null));
+
+        AgeDto before = service.calculateAge(1L, AgeEnum.YEARS);
+
+        assertThat(before.age()).isEqualTo(39);
+        assertThat(service.calculateAge(1L, AgeEnum.YEARS)).isSameAs(before);
+
+        clock.advance(Duration.ofHours(2));
+
+        assertThat(service.calculateAge(1L, AgeEnum.YEARS).age()).isEqualTo(40);
+    }
+
+    @Test
+    void shouldDropCachedResultsWhenPersonChanges() {
+        assertThat(service.calculateSalary(2L, SalaryEnum.FULL).name()).isEqualTo("Fulano de Tal");
+
+        service.patch(2L, new PersonPatchDto("Beltrano", null, LocalDate.of(2026, 1, 1)));
+
+        SalaryDto salary = service.calculateSalary(2L, SalaryEnum.FULL);
+
+        assertThat(salary.name()).isEqualTo("Beltrano");
+        assertThat(salary.value()).isEqualTo(salaryCalculator.salary(0));
+
+        service.delete(2L);
+
+        assertThatThrownBy(() -> service.calculateSalary(2L, SalaryEnum.FULL))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void shouldReadPersonsThroughNearCacheAndDropThemOnWrites() {
+        service.findById(3L);
+        service.findById(3L);
+
+        assertThat(nearCache.stats().hitCount()).isEqualTo(1);
+
+        service.patch(3L, new PersonPatchDto("Beltrano de Tal", null, null));
+
+        assertThat(service.findById(3L).name()).isEqualTo("Beltrano de Tal");
+        assertThat(nearCache.stats().missCount()).isEqualTo(2);
+
+        service.delete(3L);
+
+        assertThatThrownBy(() -> service.findById(3L))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    // ==================== PAGINATION ====================
+
+    @Test
+    void shouldWalkAllPagesWithCursor() {
+        service.create(person(null, "Ciclano de Tal"));
+
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            PersonPageDto page = service.findPage(cursor, 2);
+            names.addAll(names(page.items()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(2);
+        assertThat(names)
+                .containsExactly("Bruno Rocha", "Ciclano de Tal", "Ciclano de Tal", "Fulano de Tal");
+    }
+
+    @Test
+    void shouldNotReturnCursorWhenPageIsExact() {
+        PersonPageDto page = service.findPage(null, 3);
+
+        assertThat(page.items()).hasSize(3);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldRejectInvalidLimitAndCursor() {
+        assertThatThrownBy(() -> service.findPage(null, 0))
+                .isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> service.findPage(null, PersonService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> service.findPage("not-a-cursor", 10))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    // ==================== DATE RANGES ====================
+
+    @Test
+    void shouldFindPersonsBornAndAdmittedInRangeInDateOrder() {
+        service.create(new PersonDto(4L, "Dora", LocalDate.of(1990, 6, 1), LocalDate.of(2018, 3, 1)));
+        service.create(new PersonDto(5L, "Enzo", LocalDate.of(1990, 1, 1), LocalDate.of(2018, 12, 31)));
+        service.create(new PersonDto(6L, "Flor", LocalDate.of(1991, 1, 1), LocalDate.of(2019, 1, 1)));
+
+        assertThat(names(service.findBornBetween(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))))
+                .containsExactly("Enzo", "Dora");
+        assertThat(names(service.findAdmittedBetween(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 12, 31))))
+                .containsExactly("Dora", "Enzo");
+
+        service.patch(5L, new PersonPatchDto(null, LocalDate.of(1989, 12, 31), null));
+        service.delete(4L);
+
+        assertThat(service.findBornBetween(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))).isEmpty();
+    }
+
+    @Test
+    void shouldRejectInvertedDateRange() {
+        assertThatThrownBy(() -> service.findBornBetween(LocalDate.of(2000, 1, 2), LocalDate.of(2000, 1, 1)))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    // ==================== ANNIVERSARIES ====================
+
+    @Test
+    void shouldListUpcomingBirthdaysSoonestFirst() {
+        service.create(new PersonDto(4L, "Dora", LocalDate.of(1990, 3, 20), LocalDate.of(2018, 3, 1)));
+        service.create(new PersonDto(5L, "Enzo", LocalDate.of(2000, 3, 15), LocalDate.of(2018, 3, 1)));
+        service.create(new PersonDto(6L, "Flor", LocalDate.of(1991, 3, 23), LocalDate.of(2018, 3, 1)));
+
+        List<AnniversaryDto> birthdays = service.findAnniversaries(AnniversaryEnum.BIRTHDAY, 7);
+
+        assertThat(birthdays).extracting(anniversary -> anniversary.person().name())
+                .containsExactly("Enzo", "Dora");
+        assertThat(birthdays).extracting(AnniversaryDto::date)
+                .containsExactly(LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 20));
+        assertThat(birthdays).extracting(AnniversaryDto::years)
+                .containsExactly(26L, 36L);
+    }
+
+    @Test
+    void shouldListWorkAnniversariesAcrossNewYear() {
+        clock.advance(Duration.ofDays(290));
+
+        List<AnniversaryDto> anniversaries = service.findAnniversaries(AnniversaryEnum.ADMISSION, 30);
+
+        assertThat(anniversaries).extracting(AnniversaryDto::date)
+                .containsOnly(LocalDate.of(2027, 1, 1))
+                .hasSize(3);
+        assertThat(anniversaries).extracting(AnniversaryDto::years)
+                .containsOnly(7L);
+    }
+
+    @Test
+    void shouldCelebrateLeapDayOnFebruaryTwentyEighthInCommonYears() {
+        service.create(new PersonDto(4L, "Dora", LocalDate.of(2000, 2, 29), LocalDate.of(2018, 3, 1)));
+        clock.advance(Duration.ofDays(349));
+
+        assertThat(service.findAnniversaries(AnniversaryEnum.BIRTHDAY, 0)).isEmpty();
+        assertThat(service.findAnniversaries(AnniversaryEnum.BIRTHDAY, 1))
+                .singleElement()
+                .satisfies(birthday -> {
+                    assertThat(birthday.date()).isEqualTo(LocalDate.of(2027, 2, 28));
+                    assertThat(birthday.years()).isEqualTo(27);
+                });
+    }
+
+    // ==================== LOCATION ====================
+
+    @Test
+    void shouldStampUpdateTimeFromClock() {
+        PersonDto created = service.create(person(null, "Dora"));
+
+        clock.advance(Duration.ofMinutes(5));
+        PersonDto patched = service.patch(created.id(), new PersonPatchDto("Dora Rocha", null, null));
+
+        assertThat(created.updatedAt()).isEqualTo(clock.instant().minus(Duration.ofMinutes(5)));
+        assertThat(patched.updatedAt()).isEqualTo(clock.instant());
+    }
+
+    @Test
+    void shouldFindPersonsByLocationAndFollowMoves() {
+        service.create(located(4L, "Sé", -23.5505, -46.6333));
+        service.create(located(5L, "Paulista", -23.5614, -46.6559));
+        service.create(located(6L, "Copacabana", -22.9711, -43.1822));
+
+        assertThat(names(service.findWithin(-23.7, -46.8, -23.4, -46.3, null)))
+                .containsExactlyInAnyOrder("Sé", "Paulista");
+
+        List<PersonDistanceDto> nearby = service.findNearby(-23.5505, -46.6333, 10_000, null);
+
+        assertThat(nearby).extracting(hit -> hit.person().name()).containsExactly("Sé", "Paulista");
+        assertThat(nearby.get(0).distance()).isZero();
+        assertThat(nearby.get(1).distance()).isBetween(2_500.0, 2_700.0);
+
+        service.patch(5L, new PersonPatchDto(null, null, null, -22.9519, -43.2105));
+        service.delete(4L);
+
+        assertThat(service.findWithin(-23.7, -46.8, -23.4, -46.3, null)).isEmpty();
+        assertThat(service.findNearby(-22.96, -43.19, 5_000, null))
+                .extracting(hit -> hit.person().name())
+                .containsExactlyInAnyOrder("Copacabana", "Paulista");
+    }
+
+    @Test
+    void shouldFindNearestPersonsFilteredByAgeAndTenure() {
+        service.create(located(4L, "Sé", -23.5505, -46.6333));
+        service.create(located(5L, "Copacabana", -22.9711, -43.1822));
+        service.create(new PersonDto(6L, "Paulista", LocalDate.of(2000, 3, 16), LocalDate.of(2025, 3, 15), -23.5614, -46.6559, null));
+
+        assertThat(service.findNearest(-23.55, -46.63, 2, null, null, null, null))
+                .extracting(hit -> hit.person().name())
+                .containsExactly("Sé", "Paulista");
+
+        // Paulista turns 26 tomorrow and completed one year of tenure today
+        assertThat(service.findNearest(-23.55, -46.63, 2, null, 25, 1, 1))
+                .extracting(hit -> hit.person().name())
+                .containsExactly("Paulista");
+        assertThat(service.findNearest(-23.55, -46.63, 2, 30, null, 5, null))
+                .extracting(hit -> hit.person().name())
+                .containsExactly("Sé", "Copacabana");
+    }
+
+    @Test
+    void shouldRejectInvalidNearestQueries() {
+        assertThatThrownBy(() -> service.findNearest(0, 181, null, null, null, null, null))
+                .isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> service.findNearest(0, 0, 0, null, null, null, null))
+                .isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> service.findNearest(0, 0, null, 40, 30, null, null))
+                .isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> service.findNearest(0, 0, null, null, null, -1, null))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void shouldKeepLocationWhenPatchOmitsIt() {
+        service.create(located(4L, "Sé", -23.5505, -46.6333));
+
+        PersonDto patched = service.patch(4L, new PersonPatchDto("Praça da Sé", null, null));
+
+        assertThat(patched.latitude()).isEqualTo(-23.5505);
+        assertThat(patched.longitude()).isEqualTo(-46.6333);
+    }
+
+    @Test
+    void shouldRejectInvalidSpatialQueries() {
+        assertThatThrownBy(() -> service.findWithin(-91, 0, 0, 0, null))
+                .isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> service.findWithin(10, 0, 0, 10, null))
+                .isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> service.findNearby(0, 0, 0, null))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    // ==================== SEARCH ====================
+
+    @Test
+    void shouldSearchByPrefixIgnoringCaseAndAccents() {
+        service.create(person(4L, "Cícero Araújo"));
+
+        List<PersonSearchHitDto> hits = service.search("CI", null);
+
+        assertThat(hits).extracting(hit -> hit.person().name())
+                .containsExactly("Cícero Araújo", "Ciclano de Tal");
+        assertThat(hits).extracting(PersonSearchHitDto::match)
+                .containsOnly(SearchMatchEnum.PREFIX);
+    }
+
+    @Test
+    void shouldFindNamesWithTyposAfterPrefixHits() {
+        List<PersonSearchHitDto> hits = service.search("fulano de tl", null);
+
+        assertThat(hits).first().satisfies(hit -> {
+            assertThat(hit.person().id()).isEqualTo(2L);
+            assertThat(hit.match()).isEqualTo(SearchMatchEnum.FUZZY);
+        });
+        assertThat(hits).extracting(hit -> hit.person().id()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldFollowRenamesAndDeletesInSearch() {
+        service.patch(1L, new PersonPatchDto("Zeca Rocha", null, null));
+        service.delete(3L);
+
+        assertThat(service.search("bruno", null)).isEmpty();
+        assertThat(service.search("ciclano", null)).isEmpty();
+        assertThat(service.search("zeca", null))
+                .extracting(hit -> hit.person().id())
+                .containsExactly(1L);
+    }
+
+    @Test
+    void shouldRejectBlankQueryAndInvalidSearchLimit() {
+        assertThatThrownBy(() -> service.search(" ", null))
+                .isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> service.search("bruno", PersonService.MAX_SEARCH_SIZE + 1))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private static PersonDto person(Long id, String name) {
+        return new PersonDto(
+                id,
+                name,
+                LocalDate.of(1985, 12, 9),
+                LocalDate.of(2020, 1, 1)
+        );
+    }
+
+    private static PersonDto located(Long id, String name, double latitude, double longitude) {
+        return new PersonDto(
+                id,
+                name,
+                LocalDate.of(1985, 12, 9),
+                LocalDate.of(2020, 1, 1),
+                latitude,
+                longitude,
+                null
+        );
+    }
+
+    private static List<String> names(Collection<PersonDto> persons) {
+        return persons.stream().map(PersonDto::name).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.sccon.geospatial.service;
+
+import br.com.sccon.geospatial.util.SalaryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalaryCalculatorTest {
+
+    private SalaryProperties properties;
+
+    private SalaryCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SalaryProperties();
+        properties.setMinimumWage(new BigDecimal("1558.00"));
+        properties.setAnnualIncreaseRate(new BigDecimal("0.18"));
+        properties.setAnnualFixedIncrease(new BigDecimal("500.00"));
+
+        calculator = new SalaryCalculator(properties);
+    }
+
+    @Test
+    void shouldMatchPerYearLoopForEveryTenure() {
+        for (int years = 0; years <= 300; years++) {
+            BigDecimal expected = loop(years);
+
+            assertThat(calculator.salary(years)).isEqualTo(expected);
+            assertThat(calculator.minimumWages(years)).isEqualTo(
+                    expected.divide(properties.getMinimumWage(), 2, RoundingMode.CEILING)
+            );
+        }
+    }
+
+    @Test
+    void shouldTreatNegativeTenureAsZero() {
+        assertThat(calculator.salary(-3)).isEqualTo(new BigDecimal("1558.00"));
+        assertThat(calculator.minimumWages(-3)).isEqualTo(new BigDecimal("1.00"));
+    }
+
+    @Test
+    void shouldRebuildWhenPropertiesChange() {
+        assertThat(calculator.salary(1)).isEqualTo(new BigDecimal("2338.44"));
+
+        properties.setMinimumWage(new BigDecimal("1302.00"));
+
+        assertThat(calculator.salary(1)).isEqualTo(loop(1));
+        assertThat(calculator.salary(1)).isEqualTo(new BigDecimal("2036.36"));
+    }
+
+    private BigDecimal loop(int years) {
+        BigDecimal salary = properties.getMinimumWage();
+
+        for (int i = 0; i < years; i++) {
+            salary = salary
+                    .add(salary.multiply(properties.getAnnualIncreaseRate()))
+                    .add(properties.getAnnualFixedIncrease());
+        }
+
+        return salary.setScale(2, RoundingMode.CEILING);
+    }
+}
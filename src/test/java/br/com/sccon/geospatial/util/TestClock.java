@@ -0,0 +1,47 @@
+package br.com.sccon.geospatial.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Clock that stands still until a test moves it.
+ */
+public class TestClock extends Clock {
+
+    private final ZoneId zone;
+
+    private volatile Instant instant;
+
+    public TestClock(Instant instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    public static TestClock at(LocalDate date, LocalTime time) {
+        return new TestClock(date.atTime(time).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    }
+
+    public void advance(Duration duration) {
+        instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new TestClock(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.sccon.geospatial.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodayTest {
+
+    private final TestClock clock = TestClock.at(LocalDate.of(2026, 12, 31), LocalTime.of(23, 59, 59));
+
+    private final Today today = new Today(clock);
+
+    @Test
+    void shouldRollOverAtMidnight() {
+        assertThat(today.get()).isEqualTo(LocalDate.of(2026, 12, 31));
+
+        clock.advance(Duration.ofMillis(999));
+        assertThat(today.get()).isEqualTo(LocalDate.of(2026, 12, 31));
+
+        clock.advance(Duration.ofMillis(1));
+        assertThat(today.get()).isEqualTo(LocalDate.of(2027, 1, 1));
+    }
+
+    @Test
+    void shouldFollowClockMovedBackwards() {
+        today.get();
+
+        clock.advance(Duration.ofDays(-3));
+
+        assertThat(today.get()).isEqualTo(LocalDate.of(2026, 12, 28));
+    }
+}